@@ -4,9 +4,18 @@ import main.domain.entities.*;
 import main.domain.enums.*;
 import main.domain.event.*;
 import main.domain.exception.IceException;
+import main.domain.util.AiScheduler;
+import main.domain.util.BehaviorBudget;
+import main.domain.util.CooperativePlanner;
+import main.domain.util.DangerMap;
+import main.domain.util.MonsterOccupancy;
+import main.domain.util.MonteCarloPlanner;
 import main.domain.util.PathFinder;
+import main.domain.util.PathFinderStats;
+import main.domain.util.TargetSelector;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -39,12 +48,51 @@ public class DopoIceCream {
     
     /** Lista de monstruos */
     private final List<Monster> monsters;
+
+    /**
+     * Monstruos separados por tipo: cada tipo se actualiza en su propio bucle
+     * para que cada llamada a update() vea una sola clase y la JVM pueda
+     * enlazarla directamente.
+     */
+    private final List<Troll> trolls;
+    private final List<Pot> pots;
+    private final List<OrangeSquid> squids;
+    private final List<BehaviorMonster> behaviorMonsters;
+    private final List<Monster> otherMonsters;
+
+    /** Tipos de monstruo para agrupar los turnos */
+    private static final int KIND_TROLL = 0;
+    private static final int KIND_POT = 1;
+    private static final int KIND_SQUID = 2;
+    private static final int KIND_BEHAVIOR = 3;
+    private static final int KIND_OTHER = 4;
+
+    /**
+     * Tramos de monstruos consecutivos del mismo tipo en orden de llegada:
+     * tipo y longitud de cada tramo. Se recalculan tras añadir o quitar.
+     */
+    private int[] runKinds;
+    private int[] runLengths;
+    private int runCount;
+    private boolean runsDirty;
+
+    /** Presupuesto de tiempo por tick de los árboles de comportamiento */
+    private final BehaviorBudget behaviorBudget;
     
     /** Lista de frutas */
     private final List<Fruit> fruits;
     
     /** Lista de muros */
     private final List<Wall> walls;
+
+    /** Primer muro de cada celda (índice en walls, o -1), por x * height + y */
+    private final int[] wallHead;
+
+    /** Siguiente muro de la misma celda por índice en walls, o -1 */
+    private int[] wallNext;
+
+    /** Ticks de juego transcurridos desde el inicio o el último reset */
+    private long tick;
     
     /** Listeners de eventos */
     private final List<GameEventListener> eventListeners;
@@ -52,6 +100,30 @@ public class DopoIceCream {
     /** PathFinder para monstruos */
     private PathFinder pathFinder;
 
+    /** Selección del jugador más cercano en modos con varios jugadores */
+    private TargetSelector targetSelector;
+
+    /** Planificador cooperativo de los Pots, o null si cada uno planifica solo */
+    private CooperativePlanner cooperativePlanner;
+
+    /** Contadores de búsqueda de toda la partida, o null si están desactivados */
+    private PathFinderStats aiStats;
+
+    /** Primer tick de llegada de los monstruos a cada celda, o null si está desactivado */
+    private DangerMap dangerMap;
+
+    /** Planificador de los jugadores automáticos, o null si no juegan */
+    private MonteCarloPlanner aiPlanner;
+
+    /** Planificador de nivel de detalle de los monstruos (null = todos cada tick) */
+    private AiScheduler aiScheduler;
+
+    /** Indica si los Pots reparan su plan con D* Lite en lugar de usar A* */
+    private boolean incrementalPlanning;
+
+    /** Ocupación de las celdas por monstruos, o null si pueden solaparse */
+    private MonsterOccupancy monsterOccupancy;
+
     /**
      * Constructor de DopoIceCream.
      * 
@@ -70,8 +142,19 @@ public class DopoIceCream {
         this.gameMode = GameMode.SINGLE_PLAYER;
         this.players = new ArrayList<>();
         this.monsters = new ArrayList<>();
+        this.trolls = new ArrayList<>();
+        this.pots = new ArrayList<>();
+        this.squids = new ArrayList<>();
+        this.behaviorMonsters = new ArrayList<>();
+        this.otherMonsters = new ArrayList<>();
+        this.runKinds = new int[8];
+        this.runLengths = new int[8];
+        this.behaviorBudget = new BehaviorBudget();
         this.fruits = new ArrayList<>();
         this.walls = new ArrayList<>();
+        this.wallHead = new int[width * height];
+        Arrays.fill(wallHead, -1);
+        this.wallNext = new int[16];
         this.eventListeners = new CopyOnWriteArrayList<>();
         
         initializeMap();
@@ -95,6 +178,7 @@ public class DopoIceCream {
      */
     private void initializePathFinder() {
         pathFinder = new PathFinder(map);
+        targetSelector = new TargetSelector(pathFinder);
     }
 
     // ==================== Getters ====================
@@ -216,6 +300,28 @@ public class DopoIceCream {
         return new ArrayList<>(monsters);
     }
 
+    /**
+     * Obtiene el número de monstruos sin copiar la lista.
+     * 
+     * @return el número de monstruos
+     */
+    public int getMonsterCount() {
+        return monsters.size();
+    }
+
+    /**
+     * Obtiene un monstruo por índice sin copiar la lista.
+     * 
+     * @param index el índice
+     * @return el monstruo, o null si el índice no existe
+     */
+    public Monster getMonster(int index) {
+        if (index >= 0 && index < monsters.size()) {
+            return monsters.get(index);
+        }
+        return null;
+    }
+
     /**
      * Obtiene la lista de frutas.
      * 
@@ -225,27 +331,103 @@ public class DopoIceCream {
         return new ArrayList<>(fruits);
     }
 
+    /**
+     * Obtiene el número de frutas sin copiar la lista.
+     * 
+     * @return el número de frutas
+     */
+    public int getFruitCount() {
+        return fruits.size();
+    }
+
+    /**
+     * Obtiene una fruta por índice sin copiar la lista.
+     * 
+     * @param index el índice
+     * @return la fruta, o null si el índice no existe
+     */
+    public Fruit getFruit(int index) {
+        if (index >= 0 && index < fruits.size()) {
+            return fruits.get(index);
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene la lista de muros.
+     * 
+     * @return lista de muros
+     */
+    public List<Wall> getWalls() {
+        return new ArrayList<>(walls);
+    }
+
+    /**
+     * Obtiene el número de muros sin copiar la lista.
+     * 
+     * @return el número de muros
+     */
+    public int getWallCount() {
+        return walls.size();
+    }
+
+    /**
+     * Obtiene un muro por índice sin copiar la lista.
+     * 
+     * @param index el índice
+     * @return el muro, o null si el índice no existe
+     */
+    public Wall getWall(int index) {
+        if (index >= 0 && index < walls.size()) {
+            return walls.get(index);
+        }
+        return null;
+    }
+
     /**
      * Cuenta las frutas no colectadas.
      * 
      * @return cantidad de frutas restantes
      */
     public int getRemainingFruitsCount() {
-        return (int) fruits.stream().filter(f -> !f.isCollected()).count();
+        int remaining = 0;
+        for (int i = 0; i < fruits.size(); i++) {
+            if (!fruits.get(i).isCollected()) {
+                remaining++;
+            }
+        }
+        return remaining;
     }
 
     /**
-     * Obtiene el muro en una posición.
+     * Obtiene el muro en una posición: el primero colocado en la celda que
+     * no esté destruido. Recorre solo los muros de esa celda.
      * 
      * @param x coordenada X
      * @param y coordenada Y
      * @return el muro o null
      */
     public Wall getWallAt(int x, int y) {
-        return walls.stream()
-                .filter(w -> w.getX() == x && w.getY() == y && !isWallDestroyed(w))
-                .findFirst()
-                .orElse(null);
+        if (!isValidPosition(x, y)) {
+            return null;
+        }
+        for (int i = wallHead[x * height + y]; i >= 0; i = wallNext[i]) {
+            Wall wall = walls.get(i);
+            if (!isWallDestroyed(wall)) {
+                return wall;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene los ticks de juego transcurridos desde el inicio o el último
+     * reset. Es el reloj de los cooldowns de los monstruos.
+     * 
+     * @return el tick actual
+     */
+    public long getTick() {
+        return tick;
     }
 
     // ==================== Gestión de Entidades ====================
@@ -262,6 +444,9 @@ public class DopoIceCream {
         }
         players.add(player);
         updateCellWithPlayer(player);
+        if (player instanceof IceCream && player.getPlayerType() == PlayerType.AI) {
+            ((IceCream) player).setPlanner(aiPlanner);
+        }
     }
 
     /**
@@ -286,8 +471,24 @@ public class DopoIceCream {
             // Configurar PathFinder para monstruos que lo necesiten
             if (monster instanceof Pot) {
                 ((Pot) monster).setPathFinder(pathFinder);
+                ((Pot) monster).setIncrementalPlanning(incrementalPlanning);
+                ((Pot) monster).setCooperativePlanner(cooperativePlanner);
+                pots.add((Pot) monster);
             } else if (monster instanceof OrangeSquid) {
                 ((OrangeSquid) monster).setPathFinder(pathFinder);
+                squids.add((OrangeSquid) monster);
+            } else if (monster instanceof Troll) {
+                ((Troll) monster).setPathFinder(pathFinder);
+                trolls.add((Troll) monster);
+            } else if (monster instanceof BehaviorMonster) {
+                ((BehaviorMonster) monster).setPathFinder(pathFinder);
+                behaviorMonsters.add((BehaviorMonster) monster);
+            } else {
+                otherMonsters.add(monster);
+            }
+            runsDirty = true;
+            if (monsterOccupancy != null) {
+                monsterOccupancy.add(monster.getX(), monster.getY());
             }
         }
     }
@@ -298,7 +499,24 @@ public class DopoIceCream {
      * @param monster el monstruo a remover
      */
     public void removeMonster(Monster monster) {
-        monsters.remove(monster);
+        if (monsters.remove(monster)) {
+            if (monster instanceof Pot) {
+                pots.remove(monster);
+            } else if (monster instanceof OrangeSquid) {
+                squids.remove(monster);
+            } else if (monster instanceof Troll) {
+                trolls.remove(monster);
+            } else if (monster instanceof BehaviorMonster) {
+                behaviorMonsters.remove(monster);
+            } else {
+                otherMonsters.remove(monster);
+            }
+            runsDirty = true;
+            if (monsterOccupancy != null) {
+                monsterOccupancy.remove(monster.getX(), monster.getY());
+            }
+            targetSelector.forget(monster);
+        }
     }
 
     /**
@@ -328,14 +546,43 @@ public class DopoIceCream {
      */
     public void placeWall(Wall wall) {
         if (wall != null) {
+            indexWall(wall, walls.size());
             walls.add(wall);
             Cell cell = getCell(wall.getX(), wall.getY());
             if (cell != null) {
                 cell.setStaticObject(wall);
+                pathFinder.onCellChanged(wall.getX(), wall.getY());
             }
         }
     }
 
+    /**
+     * Añade un muro al final de la lista de su celda, para que getWallAt
+     * conserve el orden de colocación.
+     * 
+     * @param wall el muro
+     * @param index su índice en walls
+     */
+    private void indexWall(Wall wall, int index) {
+        if (index == wallNext.length) {
+            wallNext = Arrays.copyOf(wallNext, index * 2);
+        }
+        wallNext[index] = -1;
+        if (!isValidPosition(wall.getX(), wall.getY())) {
+            return;
+        }
+        int cell = wall.getX() * height + wall.getY();
+        if (wallHead[cell] < 0) {
+            wallHead[cell] = index;
+            return;
+        }
+        int last = wallHead[cell];
+        while (wallNext[last] >= 0) {
+            last = wallNext[last];
+        }
+        wallNext[last] = index;
+    }
+
     // ==================== Control del Juego ====================
 
     /**
@@ -355,6 +602,19 @@ public class DopoIceCream {
         for (Monster monster : monsters) {
             monster.setTarget(mainTarget);
         }
+        if (usesNearestTargeting()) {
+            targetSelector.reset();
+            targetSelector.update(players);
+            for (Monster monster : monsters) {
+                Player nearest = targetSelector.getNearestPlayer(monster.getX(), monster.getY());
+                if (nearest != null) {
+                    monster.setTarget(nearest);
+                }
+            }
+        }
+        if (monsterOccupancy != null) {
+            monsterOccupancy.rebuild(monsters);
+        }
         
         fireEvent(EventType.GAME_STARTED, null);
     }
@@ -404,6 +664,11 @@ public class DopoIceCream {
         for (Wall wall : walls) {
             wall.reset();
         }
+        tick = 0;
+        targetSelector.reset();
+        if (monsterOccupancy != null) {
+            monsterOccupancy.rebuild(monsters);
+        }
         
         fireEvent(EventType.GAME_RESET, null);
     }
@@ -415,13 +680,39 @@ public class DopoIceCream {
         if (gameState != GameState.PLAYING) {
             return;
         }
+        tick++;
         
         // Verificar colisiones al inicio (para colisiones ya existentes)
         checkCollisions();
         
-        // Actualizar monstruos
-        for (Monster monster : monsters) {
-            monster.update();
+        // Reasignar objetivos hacia el jugador más cercano
+        if (usesNearestTargeting()) {
+            targetSelector.update(players);
+            targetSelector.assignTargets(monsters);
+        }
+        
+        // Jugada de los jugadores automáticos
+        if (aiPlanner != null) {
+            for (Player player : players) {
+                if (player.getPlayerType() == PlayerType.AI) {
+                    player.update(this);
+                }
+            }
+        }
+        
+        // Actualizar monstruos con el presupuesto de búsqueda del tick, en
+        // orden de llegada: cada tramo de monstruos consecutivos del mismo
+        // tipo se actualiza en el bucle de ese tipo
+        pathFinder.beginTick();
+        if (cooperativePlanner != null) {
+            cooperativePlanner.beginTick();
+        }
+        if (aiScheduler != null) {
+            aiScheduler.beginTick();
+        }
+        updateMonsters();
+        if (dangerMap != null) {
+            dangerMap.update(monsters);
         }
         
         // Verificar colisiones después del movimiento
@@ -432,6 +723,224 @@ public class DopoIceCream {
         checkDefeatCondition();
     }
 
+    /**
+     * Actualiza a todos los monstruos en orden de llegada, tramo a tramo.
+     * Con presupuesto de tiempo, los monstruos con árbol de comportamiento
+     * rotan entre los turnos de su tipo para que ninguno se quede atrás.
+     */
+    private void updateMonsters() {
+        if (runsDirty) {
+            rebuildRuns();
+        }
+        int behaviorStart = behaviorBudget.beginTick(behaviorMonsters.size());
+        int trollNext = 0;
+        int potNext = 0;
+        int squidNext = 0;
+        int behaviorNext = 0;
+        int otherNext = 0;
+        int order = 0;
+        for (int r = 0; r < runCount; r++) {
+            int length = runLengths[r];
+            switch (runKinds[r]) {
+                case KIND_TROLL:
+                    updateTrolls(trollNext, length, order);
+                    trollNext += length;
+                    break;
+                case KIND_POT:
+                    updatePots(potNext, length, order);
+                    potNext += length;
+                    break;
+                case KIND_SQUID:
+                    updateSquids(squidNext, length, order);
+                    squidNext += length;
+                    break;
+                case KIND_BEHAVIOR:
+                    updateBehaviorMonsters(behaviorNext, length, order, behaviorStart);
+                    behaviorNext += length;
+                    break;
+                default:
+                    updateOtherMonsters(otherNext, length, order);
+                    otherNext += length;
+                    break;
+            }
+            order += length;
+        }
+    }
+
+    /**
+     * Recalcula los tramos de monstruos consecutivos del mismo tipo.
+     */
+    private void rebuildRuns() {
+        runCount = 0;
+        int previous = -1;
+        for (int i = 0; i < monsters.size(); i++) {
+            int kind = kindOf(monsters.get(i));
+            if (kind != previous) {
+                if (runCount == runKinds.length) {
+                    runKinds = Arrays.copyOf(runKinds, runCount * 2);
+                    runLengths = Arrays.copyOf(runLengths, runCount * 2);
+                }
+                runKinds[runCount] = kind;
+                runLengths[runCount] = 0;
+                runCount++;
+                previous = kind;
+            }
+            runLengths[runCount - 1]++;
+        }
+        runsDirty = false;
+    }
+
+    /**
+     * Obtiene el tipo de un monstruo, con los mismos criterios que addMonster.
+     */
+    private static int kindOf(Monster monster) {
+        if (monster instanceof Pot) {
+            return KIND_POT;
+        } else if (monster instanceof OrangeSquid) {
+            return KIND_SQUID;
+        } else if (monster instanceof Troll) {
+            return KIND_TROLL;
+        } else if (monster instanceof BehaviorMonster) {
+            return KIND_BEHAVIOR;
+        }
+        return KIND_OTHER;
+    }
+
+    /**
+     * Actualiza un tramo de Trolls.
+     * 
+     * @param first primer Troll del tramo
+     * @param length Trolls del tramo
+     * @param order turno del primero para el planificador de nivel de detalle
+     */
+    private void updateTrolls(int first, int length, int order) {
+        for (int i = first; i < first + length; i++, order++) {
+            Troll troll = trolls.get(i);
+            int fromX = troll.getX();
+            int fromY = troll.getY();
+            if (aiScheduler == null || aiScheduler.schedule(troll, order)) {
+                troll.update();
+            } else {
+                troll.repeatLastMove();
+            }
+            resolveMonsterMove(troll, fromX, fromY);
+        }
+    }
+
+    /**
+     * Actualiza un tramo de Pots.
+     * 
+     * @param first primer Pot del tramo
+     * @param length Pots del tramo
+     * @param order turno del primero para el planificador de nivel de detalle
+     */
+    private void updatePots(int first, int length, int order) {
+        for (int i = first; i < first + length; i++, order++) {
+            Pot pot = pots.get(i);
+            int fromX = pot.getX();
+            int fromY = pot.getY();
+            if (aiScheduler == null || aiScheduler.schedule(pot, order)) {
+                pot.update();
+            } else {
+                pot.repeatLastMove();
+            }
+            resolveMonsterMove(pot, fromX, fromY);
+        }
+    }
+
+    /**
+     * Actualiza un tramo de OrangeSquids y rompe el hielo que tengan delante.
+     * 
+     * @param first primer OrangeSquid del tramo
+     * @param length OrangeSquids del tramo
+     * @param order turno del primero para el planificador de nivel de detalle
+     */
+    private void updateSquids(int first, int length, int order) {
+        for (int i = first; i < first + length; i++, order++) {
+            OrangeSquid squid = squids.get(i);
+            int fromX = squid.getX();
+            int fromY = squid.getY();
+            if (aiScheduler == null || aiScheduler.schedule(squid, order)) {
+                squid.update();
+            } else {
+                squid.repeatLastMove();
+            }
+            resolveMonsterMove(squid, fromX, fromY);
+            breakIceAhead(squid);
+        }
+    }
+
+    /**
+     * Actualiza un tramo de turnos de monstruos con árbol de comportamiento
+     * dentro del presupuesto de tiempo: los que no caben repiten su último
+     * movimiento y el tick siguiente empieza por ellos. Después rompe el
+     * hielo que pidan.
+     * 
+     * @param first primer turno del tramo entre los de este tipo
+     * @param length turnos del tramo
+     * @param order turno del primero para el planificador de nivel de detalle
+     * @param start monstruo que ocupa el primer turno de este tipo
+     */
+    private void updateBehaviorMonsters(int first, int length, int order, int start) {
+        int count = behaviorMonsters.size();
+        for (int i = first; i < first + length; i++, order++) {
+            int index = (start + i) % count;
+            BehaviorMonster monster = behaviorMonsters.get(index);
+            int fromX = monster.getX();
+            int fromY = monster.getY();
+            monster.setGameTick(tick);
+            if ((aiScheduler == null || aiScheduler.schedule(monster, order))
+                    && behaviorBudget.tryAcquire(index)) {
+                monster.update();
+            } else {
+                monster.repeatLastMove();
+            }
+            resolveMonsterMove(monster, fromX, fromY);
+            if (monster.pollIceBreak()) {
+                Direction direction = monster.getCurrentDirection();
+                Wall wall = getWallAt(monster.getX() + direction.getDeltaX(), monster.getY() + direction.getDeltaY());
+                if (wall instanceof IceWall) {
+                    destroyIceWall((IceWall) wall);
+                }
+            }
+        }
+    }
+
+    /**
+     * Actualiza un tramo de monstruos de otras clases.
+     * 
+     * @param first primer monstruo del tramo
+     * @param length monstruos del tramo
+     * @param order turno del primero para el planificador de nivel de detalle
+     */
+    private void updateOtherMonsters(int first, int length, int order) {
+        for (int i = first; i < first + length; i++, order++) {
+            Monster monster = otherMonsters.get(i);
+            int fromX = monster.getX();
+            int fromY = monster.getY();
+            if (aiScheduler == null || aiScheduler.schedule(monster, order)) {
+                monster.update();
+            } else {
+                monster.repeatLastMove();
+            }
+            resolveMonsterMove(monster, fromX, fromY);
+        }
+    }
+
+    /**
+     * Resuelve el movimiento de un monstruo contra la ocupación de las
+     * celdas, si las colisiones entre monstruos están activas.
+     * 
+     * @param monster el monstruo, ya movido
+     * @param fromX coordenada X antes de moverse
+     * @param fromY coordenada Y antes de moverse
+     */
+    private void resolveMonsterMove(Monster monster, int fromX, int fromY) {
+        if (monsterOccupancy != null) {
+            monsterOccupancy.resolve(monster, fromX, fromY);
+        }
+    }
+
     // ==================== Movimiento ====================
 
     /**
@@ -463,8 +972,7 @@ public class DopoIceCream {
         if (wall != null) {
             if (wall instanceof IceWall) {
                 // Romper muro de hielo
-                ((IceWall) wall).destroy();
-                fireEvent(EventType.ICE_DESTROYED, wall);
+                destroyIceWall((IceWall) wall);
             } else {
                 // No puede pasar
                 return;
@@ -485,6 +993,36 @@ public class DopoIceCream {
         fireEvent(EventType.PLAYER_MOVED, player);
     }
 
+    /**
+     * Rompe el hielo frente a un OrangeSquid si está orientado hacia él
+     * y su cooldown lo permite. El cooldown se mide en ticks de juego, así
+     * que la partida se repite igual sea cual sea la duración real del tick.
+     * 
+     * @param squid el monstruo
+     */
+    private void breakIceAhead(OrangeSquid squid) {
+        Direction direction = squid.getCurrentDirection();
+        if (direction == null || !squid.canBreakAt(tick)) {
+            return;
+        }
+        Wall wall = getWallAt(squid.getX() + direction.getDeltaX(), squid.getY() + direction.getDeltaY());
+        if (wall instanceof IceWall) {
+            squid.recordBreak(tick);
+            destroyIceWall((IceWall) wall);
+        }
+    }
+
+    /**
+     * Destruye un muro de hielo y notifica el cambio.
+     * 
+     * @param wall el muro de hielo
+     */
+    private void destroyIceWall(IceWall wall) {
+        wall.destroy();
+        pathFinder.onCellChanged(wall.getX(), wall.getY());
+        fireEvent(EventType.ICE_DESTROYED, wall);
+    }
+
     // ==================== Colisiones ====================
 
     /**
@@ -562,7 +1100,10 @@ public class DopoIceCream {
             return;
         }
         
-        boolean allPlayersDead = players.stream().allMatch(p -> p.getLives() <= 0);
+        boolean allPlayersDead = true;
+        for (int i = 0; i < players.size() && allPlayersDead; i++) {
+            allPlayersDead = players.get(i).getLives() <= 0;
+        }
         
         if (allPlayersDead) {
             gameState = GameState.DEFEAT;
@@ -599,6 +1140,275 @@ public class DopoIceCream {
         return wall != null && !isWallDestroyed(wall);
     }
 
+    /**
+     * Indica si los monstruos persiguen al jugador más cercano en lugar del primero.
+     * 
+     * @return true en los modos cooperativo y multijugador
+     */
+    private boolean usesNearestTargeting() {
+        return gameMode == GameMode.COOPERATIVE || gameMode == GameMode.MULTIPLAYER;
+    }
+
+    /**
+     * Obtiene el servicio de selección de objetivos.
+     * 
+     * @return el selector de objetivos
+     */
+    public TargetSelector getTargetSelector() {
+        return targetSelector;
+    }
+
+    /**
+     * Activa o desactiva la persecución cooperativa: los Pots reservan sus
+     * recorridos en una tabla espacio-tiempo compartida y se reparten
+     * alrededor del jugador en lugar de seguirse en fila.
+     * 
+     * @param enabled true para planificar de forma cooperativa
+     */
+    public void setCooperativePursuit(boolean enabled) {
+        if (enabled == (cooperativePlanner != null)) {
+            return;
+        }
+        cooperativePlanner = enabled ? new CooperativePlanner(pathFinder) : null;
+        for (Monster monster : monsters) {
+            if (monster instanceof Pot) {
+                ((Pot) monster).setCooperativePlanner(cooperativePlanner);
+            }
+        }
+    }
+
+    /**
+     * Activa o desactiva la planificación incremental (D* Lite) de los
+     * Pots. Por defecto está desactivada: el objetivo se mueve casi cada
+     * tick y cada movimiento obliga a reparar el plan desde el objetivo
+     * anterior, lo que expande más nodos que un A* desde cero. Conviene en
+     * niveles con objetivos casi quietos y mapas que cambian poco.
+     * 
+     * @param enabled true para que los Pots reparen su plan entre ticks
+     */
+    public void setIncrementalPlanningEnabled(boolean enabled) {
+        incrementalPlanning = enabled;
+        for (int i = 0; i < pots.size(); i++) {
+            pots.get(i).setIncrementalPlanning(enabled);
+        }
+    }
+
+    /**
+     * Indica si los Pots usan planificación incremental.
+     * 
+     * @return true si reparan su plan con D* Lite
+     */
+    public boolean isIncrementalPlanningEnabled() {
+        return incrementalPlanning;
+    }
+
+    /**
+     * Indica si la persecución cooperativa está activa.
+     * 
+     * @return true si los Pots planifican de forma cooperativa
+     */
+    public boolean isCooperativePursuit() {
+        return cooperativePlanner != null;
+    }
+
+    /**
+     * Limita las expansiones de búsqueda que pueden hacer los monstruos en
+     * cada tick, en conjunto. Las búsquedas sin terminar continúan en el tick
+     * siguiente y, mientras tanto, los monstruos avanzan de forma voraz.
+     * 
+     * @param nodesPerTick nodos por tick, o 0 para no limitar
+     */
+    public void setAiNodeBudget(int nodesPerTick) {
+        pathFinder.setNodeBudget(nodesPerTick);
+    }
+
+    /**
+     * Obtiene el límite de expansiones de búsqueda por tick.
+     * 
+     * @return nodos por tick, o 0 si no hay límite
+     */
+    public int getAiNodeBudget() {
+        return pathFinder.getNodeBudget();
+    }
+
+    /**
+     * Activa en niveles pequeños la tabla precalculada de siguiente paso:
+     * los monstruos consultan su dirección sin buscar. Se recalcula en
+     * segundo plano cuando el hielo cambia el mapa.
+     * 
+     * @param maxCells celdas máximas del nivel, o 0 para desactivarla
+     */
+    public void setAiNextHopMaxCells(int maxCells) {
+        pathFinder.setNextHopMaxCells(maxCells);
+    }
+
+    /**
+     * Activa la heurística ALT en las búsquedas de los monstruos. Conviene
+     * en laberintos grandes con poco hielo: al romperse o derretirse un
+     * bloque se recalculan todos los landmarks.
+     * 
+     * @param landmarkCount landmarks a usar, o 0 para solo Manhattan
+     */
+    public void setAiLandmarkCount(int landmarkCount) {
+        pathFinder.setLandmarkCount(landmarkCount);
+    }
+
+    /**
+     * Obtiene el número de landmarks de la heurística ALT.
+     * 
+     * @return los landmarks, o 0 si está desactivada
+     */
+    public int getAiLandmarkCount() {
+        return pathFinder.getLandmarkCount();
+    }
+
+    /**
+     * Obtiene el tamaño máximo de nivel para la tabla de siguiente paso.
+     * 
+     * @return celdas máximas, o 0 si está desactivada
+     */
+    public int getAiNextHopMaxCells() {
+        return pathFinder.getNextHopMaxCells();
+    }
+
+    /**
+     * Activa o desactiva los contadores de búsqueda de caminos. El PathFinder
+     * registra en sus propios contadores y, a la vez, en el agregado de la partida.
+     * 
+     * @param enabled true para medir las búsquedas
+     */
+    public void setAiStatsEnabled(boolean enabled) {
+        aiStats = enabled ? new PathFinderStats() : null;
+        pathFinder.setStats(enabled ? new PathFinderStats(aiStats) : null);
+    }
+
+    /**
+     * Obtiene los contadores de búsqueda agregados de la partida.
+     * 
+     * @return los contadores, o null si están desactivados
+     */
+    public PathFinderStats getAiStats() {
+        return aiStats;
+    }
+
+    /**
+     * Activa o desactiva el mapa de peligro que usan los jugadores
+     * automáticos. Se actualiza al final de cada tick, tras mover a los
+     * monstruos.
+     * 
+     * @param enabled true para mantener el mapa de peligro
+     */
+    public void setDangerMapEnabled(boolean enabled) {
+        if (enabled == (dangerMap != null)) {
+            return;
+        }
+        dangerMap = enabled ? new DangerMap(pathFinder) : null;
+        if (dangerMap != null) {
+            dangerMap.update(monsters);
+        }
+    }
+
+    /**
+     * Activa o desactiva las colisiones entre monstruos. Con ellas activas,
+     * un monstruo que se mueve a una celda ocupada por otro entra, espera o
+     * se aparta según su CollisionPolicy, en el orden fijo de actualización.
+     * 
+     * @param enabled true para que los monstruos no se solapen
+     */
+    public void setMonsterCollisionsEnabled(boolean enabled) {
+        if (enabled == (monsterOccupancy != null)) {
+            return;
+        }
+        monsterOccupancy = enabled ? new MonsterOccupancy(pathFinder) : null;
+        if (monsterOccupancy != null) {
+            monsterOccupancy.rebuild(monsters);
+        }
+    }
+
+    /**
+     * Obtiene la ocupación de las celdas por monstruos.
+     * 
+     * @return la ocupación, o null si las colisiones están desactivadas
+     */
+    public MonsterOccupancy getMonsterOccupancy() {
+        return monsterOccupancy;
+    }
+
+    /**
+     * Obtiene el mapa de peligro.
+     * 
+     * @return el mapa, o null si está desactivado
+     */
+    public DangerMap getDangerMap() {
+        return dangerMap;
+    }
+
+    /**
+     * Establece el planificador de los jugadores automáticos (PlayerType.AI):
+     * en cada tick, antes de mover a los monstruos, cada uno elige su jugada
+     * con una búsqueda Monte Carlo sobre una copia ligera de la partida.
+     * 
+     * @param planner el planificador, o null para que no jueguen
+     */
+    public void setAiPlanner(MonteCarloPlanner planner) {
+        this.aiPlanner = planner;
+        for (Player player : players) {
+            if (player instanceof IceCream && player.getPlayerType() == PlayerType.AI) {
+                ((IceCream) player).setPlanner(planner);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el planificador de los jugadores automáticos.
+     * 
+     * @return el planificador, o null
+     */
+    public MonteCarloPlanner getAiPlanner() {
+        return aiPlanner;
+    }
+
+    /**
+     * Limita el tiempo que se dedica en cada tick a evaluar los árboles de
+     * comportamiento. Los monstruos que no caben repiten su último
+     * movimiento y se evalúan primero en el tick siguiente.
+     * 
+     * @param nanosPerTick nanosegundos por tick, o 0 para no limitar
+     */
+    public void setBehaviorBudgetNanos(long nanosPerTick) {
+        behaviorBudget.setNanosPerTick(nanosPerTick);
+    }
+
+    /**
+     * Obtiene el presupuesto de los árboles de comportamiento, con los
+     * monstruos evaluados y aplazados en el último tick.
+     * 
+     * @return el presupuesto
+     */
+    public BehaviorBudget getBehaviorBudget() {
+        return behaviorBudget;
+    }
+
+    /**
+     * Establece el planificador de nivel de detalle: los monstruos lejanos a
+     * su objetivo recalculan su dirección cada pocos ticks, escalonados, y
+     * entre tanto repiten la última.
+     * 
+     * @param scheduler el planificador, o null para recalcular todos cada tick
+     */
+    public void setAiScheduler(AiScheduler scheduler) {
+        this.aiScheduler = scheduler;
+    }
+
+    /**
+     * Obtiene el planificador de nivel de detalle.
+     * 
+     * @return el planificador, o null
+     */
+    public AiScheduler getAiScheduler() {
+        return aiScheduler;
+    }
+
     /**
      * Verifica si un muro está destruido.
      * 
@@ -665,6 +1475,9 @@ public class DopoIceCream {
      * @param data datos del evento
      */
     public void fireEvent(EventType type, Object data) {
+        if (eventListeners.isEmpty()) {
+            return;
+        }
         GameEvent event = new GameEvent(type, data);
         for (GameEventListener listener : eventListeners) {
             listener.onEvent(event);
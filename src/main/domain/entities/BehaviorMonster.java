@@ -0,0 +1,142 @@
+package main.domain.entities;
+
+import main.domain.enums.Direction;
+import main.domain.enums.MonsterType;
+import main.domain.util.BehaviorTree;
+import main.domain.util.PathFinder;
+
+/**
+ * Representa un monstruo cuyo comportamiento viene de los datos del nivel:
+ * un BehaviorTree compartido más su propia pizarra. Un tipo nuevo de
+ * monstruo es un árbol nuevo, no una subclase. El tipo base fija el símbolo
+ * y si puede romper hielo.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class BehaviorMonster extends Monster {
+
+    /** Árbol de comportamiento compartido */
+    private final BehaviorTree tree;
+
+    /** Estado propio del monstruo para su árbol */
+    private final int[] blackboard;
+
+    /** PathFinder para consultar el mapa */
+    private PathFinder pathFinder;
+
+    /** Tick de juego de la próxima evaluación, o -1 si no lo fija el juego */
+    private long gameTick;
+
+    /**
+     * Constructor de BehaviorMonster.
+     *
+     * @param x coordenada X inicial
+     * @param y coordenada Y inicial
+     * @param monsterType tipo base del monstruo
+     * @param tree árbol de comportamiento
+     */
+    public BehaviorMonster(int x, int y, MonsterType monsterType, BehaviorTree tree) {
+        super(x, y, monsterType);
+        this.tree = tree;
+        this.blackboard = tree.newBlackboard(seed(x, y));
+        this.gameTick = -1;
+    }
+
+    /**
+     * Obtiene el árbol de comportamiento.
+     *
+     * @return el árbol
+     */
+    public BehaviorTree getTree() {
+        return tree;
+    }
+
+    /**
+     * Obtiene el PathFinder.
+     *
+     * @return el PathFinder, o null
+     */
+    public PathFinder getPathFinder() {
+        return pathFinder;
+    }
+
+    /**
+     * Establece el PathFinder.
+     *
+     * @param pathFinder el PathFinder
+     */
+    public void setPathFinder(PathFinder pathFinder) {
+        this.pathFinder = pathFinder;
+    }
+
+    /**
+     * Establece el tick de juego con el que se evaluará el árbol, para que
+     * los enfriamientos cuenten ticks y no evaluaciones.
+     *
+     * @param gameTick el tick de juego actual
+     */
+    public void setGameTick(long gameTick) {
+        this.gameTick = gameTick;
+    }
+
+    @Override
+    public void executeAI() {
+        if (gameTick >= 0) {
+            tree.evaluate(this, blackboard, pathFinder, gameTick);
+        } else {
+            tree.evaluate(this, blackboard, pathFinder);
+        }
+    }
+
+    /**
+     * Repite la dirección actual si la celda siguiente es transitable.
+     */
+    @Override
+    public void repeatLastMove() {
+        Direction direction = currentDirection;
+        if (direction != null && pathFinder != null
+                && pathFinder.isWalkable(x + direction.getDeltaX(), y + direction.getDeltaY())) {
+            move(direction);
+        }
+    }
+
+    /**
+     * Indica si el árbol pidió romper el hielo al que mira el monstruo y
+     * borra la petición.
+     *
+     * @return true si hay que romper el hielo de delante
+     */
+    public boolean pollIceBreak() {
+        if (blackboard[BehaviorTree.SLOT_BREAK_REQUEST] == 0) {
+            return false;
+        }
+        blackboard[BehaviorTree.SLOT_BREAK_REQUEST] = 0;
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        gameTick = -1;
+        System.arraycopy(tree.newBlackboard(seed(initialX, initialY)), 0, blackboard, 0, blackboard.length);
+    }
+
+    /**
+     * Semilla de las decisiones aleatorias: depende de la posición inicial,
+     * así que una partida se repite igual.
+     */
+    private static int seed(int x, int y) {
+        return x * 73856093 ^ y * 19349663;
+    }
+
+    @Override
+    public String toString() {
+        return "BehaviorMonster{" +
+                "x=" + x +
+                ", y=" + y +
+                ", type=" + monsterType +
+                ", nodes=" + tree.getNodeCount() +
+                '}';
+    }
+}
@@ -151,6 +151,9 @@ public class Cell {
         if (staticObject == null) {
             return true;
         }
+        if (staticObject instanceof Wall && ((Wall) staticObject).isDestroyed()) {
+            return true;
+        }
         if (staticObject instanceof StaticObject) {
             return !((StaticObject) staticObject).isSolid();
         }
@@ -1,7 +1,11 @@
 package main.domain.entities;
 
+import main.domain.DopoIceCream;
+import main.domain.enums.Direction;
 import main.domain.enums.IceCreamFlavor;
 import main.domain.enums.PlayerType;
+import main.domain.util.GameSimulation;
+import main.domain.util.MonteCarloPlanner;
 
 /**
  * Representa al jugador principal del juego - un helado.
@@ -16,6 +20,9 @@ public class IceCream extends Player {
     /** Número de frutas recolectadas */
     private int fruitsCollected;
 
+    /** Planificador de jugadas si el jugador es automático */
+    private MonteCarloPlanner planner;
+
     /**
      * Constructor de IceCream.
      * 
@@ -98,9 +105,35 @@ public class IceCream extends Player {
         this.fruitsCollected = 0;
     }
 
+    /**
+     * Obtiene el planificador de jugadas.
+     * 
+     * @return el planificador, o null
+     */
+    public MonteCarloPlanner getPlanner() {
+        return planner;
+    }
+
+    /**
+     * Establece el planificador con el que juega un jugador automático.
+     * 
+     * @param planner el planificador, o null
+     */
+    public void setPlanner(MonteCarloPlanner planner) {
+        this.planner = planner;
+    }
+
     @Override
     public void update(Object game) {
-        // El IceCream es controlado por input, no necesita lógica de actualización automática
+        // Los jugadores humanos se mueven por input; los automáticos planifican su jugada
+        if (playerType != PlayerType.AI || planner == null || !isAlive || !(game instanceof DopoIceCream)) {
+            return;
+        }
+        DopoIceCream dopo = (DopoIceCream) game;
+        Direction move = planner.plan(new GameSimulation(dopo, this));
+        if (move != null) {
+            dopo.movePlayer(dopo.getPlayers().indexOf(this), move);
+        }
     }
 
     @Override
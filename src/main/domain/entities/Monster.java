@@ -1,5 +1,6 @@
 package main.domain.entities;
 
+import main.domain.enums.CollisionPolicy;
 import main.domain.enums.Direction;
 import main.domain.enums.MonsterType;
 import main.domain.interfaces.AIControlled;
@@ -20,6 +21,9 @@ public abstract class Monster extends GameObject implements Movable, AIControlle
     
     /** Indica si puede romper bloques de hielo */
     protected boolean canBreakIce;
+
+    /** Qué hace al entrar en una celda ocupada por otro monstruo */
+    protected CollisionPolicy collisionPolicy;
     
     /** Patrón de movimiento (opcional) */
     protected MovementPattern pattern;
@@ -45,6 +49,7 @@ public abstract class Monster extends GameObject implements Movable, AIControlle
         super(x, y, monsterType.getSymbol(), false);
         this.monsterType = monsterType;
         this.canBreakIce = monsterType.canBreakIce();
+        this.collisionPolicy = monsterType.getCollisionPolicy();
         this.currentDirection = Direction.RIGHT;
         this.initialX = x;
         this.initialY = y;
@@ -68,6 +73,24 @@ public abstract class Monster extends GameObject implements Movable, AIControlle
         return canBreakIce;
     }
 
+    /**
+     * Obtiene lo que hace al chocar con otro monstruo.
+     * 
+     * @return la política de colisión; por defecto la de su tipo
+     */
+    public CollisionPolicy getCollisionPolicy() {
+        return collisionPolicy;
+    }
+
+    /**
+     * Establece lo que hace al chocar con otro monstruo.
+     * 
+     * @param collisionPolicy la nueva política
+     */
+    public void setCollisionPolicy(CollisionPolicy collisionPolicy) {
+        this.collisionPolicy = collisionPolicy;
+    }
+
     /**
      * Obtiene el patrón de movimiento.
      * 
@@ -154,6 +177,37 @@ public abstract class Monster extends GameObject implements Movable, AIControlle
         executeAI();
     }
 
+    /**
+     * Avanza sin recalcular la dirección, para los ticks en que el
+     * planificador de nivel de detalle no le toca a este monstruo.
+     * Por defecto hace la actualización completa; los monstruos que buscan
+     * caminos la sustituyen por repetir su última dirección.
+     */
+    public void repeatLastMove() {
+        update();
+    }
+
+    /**
+     * Deshace el último movimiento porque la celda de llegada estaba
+     * ocupada por otro monstruo.
+     * 
+     * @param fromX coordenada X antes de moverse
+     * @param fromY coordenada Y antes de moverse
+     */
+    public void cancelMove(int fromX, int fromY) {
+        setPosition(fromX, fromY);
+    }
+
+    /**
+     * Indica si el monstruo puede apartarse a una celda lateral cuando la
+     * de llegada está ocupada.
+     * 
+     * @return true por defecto
+     */
+    public boolean canSidestep() {
+        return true;
+    }
+
     /**
      * Verifica si el monstruo ha colisionado con un jugador.
      * 
@@ -3,6 +3,7 @@ package main.domain.entities;
 import main.domain.enums.Direction;
 import main.domain.enums.MonsterType;
 import main.domain.util.PathFinder;
+import main.domain.util.PathRequest;
 
 /**
  * Representa un OrangeSquid - monstruo que puede romper bloques de hielo.
@@ -19,12 +20,24 @@ public class OrangeSquid extends Monster {
     /** Último tiempo que rompió un bloque */
     private long lastBreakTime;
     
+    /** Tick de juego en que rompió un bloque por última vez, o -1 */
+    private long lastBreakTick;
+    
     /** Cooldown para romper bloques en milisegundos */
     private long breakCooldown;
     
     /** Cooldown por defecto (1 segundo) */
     public static final long DEFAULT_BREAK_COOLDOWN = 1000;
 
+    /** Duración estimada de un tick de juego en milisegundos */
+    public static final long DEFAULT_TICK_MILLIS = 100;
+
+    /** Búsqueda reanudable usada cuando el PathFinder limita las expansiones por tick */
+    private PathRequest search;
+
+    /** Penalización por atravesar hielo, o -1 para derivarla del cooldown */
+    private int icePenalty;
+
     /**
      * Constructor de OrangeSquid.
      * 
@@ -35,7 +48,9 @@ public class OrangeSquid extends Monster {
         super(x, y, MonsterType.ORANGE_SQUID);
         this.pathFinder = null;
         this.lastBreakTime = 0;
+        this.lastBreakTick = -1;
         this.breakCooldown = DEFAULT_BREAK_COOLDOWN;
+        this.icePenalty = -1;
     }
 
     /**
@@ -66,6 +81,7 @@ public class OrangeSquid extends Monster {
      */
     public void setPathFinder(PathFinder pathFinder) {
         this.pathFinder = pathFinder;
+        this.search = null;
     }
 
     /**
@@ -95,6 +111,67 @@ public class OrangeSquid extends Monster {
         this.breakCooldown = cooldown;
     }
 
+    /**
+     * Obtiene la penalización que el pathfinding asigna a un bloque de hielo.
+     * Por defecto equivale a los ticks de espera del cooldown más el golpe.
+     * 
+     * @return la penalización en pasos
+     */
+    public int getIcePenalty() {
+        if (icePenalty >= 0) {
+            return icePenalty;
+        }
+        return 1 + getBreakCooldownTicks();
+    }
+
+    /**
+     * Obtiene el cooldown de ruptura en ticks de juego.
+     * 
+     * @return los ticks que deben pasar entre dos rupturas
+     */
+    public int getBreakCooldownTicks() {
+        return (int) (breakCooldown / DEFAULT_TICK_MILLIS);
+    }
+
+    /**
+     * Obtiene el tick de juego de la última ruptura.
+     * 
+     * @return el tick, o -1 si aún no ha roto ninguno
+     */
+    public long getLastBreakTick() {
+        return lastBreakTick;
+    }
+
+    /**
+     * Verifica el cooldown con el reloj del juego.
+     * 
+     * @param tick el tick de juego actual
+     * @return true si puede romper en ese tick
+     */
+    public boolean canBreakAt(long tick) {
+        return lastBreakTick < 0 || tick - lastBreakTick >= getBreakCooldownTicks();
+    }
+
+    /**
+     * Registra una ruptura hecha por el juego en un tick. También anota la
+     * hora, para que getLastBreakTime y canBreakNow sigan reflejándola.
+     * 
+     * @param tick el tick de juego actual
+     */
+    public void recordBreak(long tick) {
+        lastBreakTick = tick;
+        lastBreakTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Establece la penalización del hielo.
+     * 
+     * @param penalty la penalización en pasos, o un valor negativo para derivarla del cooldown
+     */
+    public void setIcePenalty(int penalty) {
+        this.icePenalty = penalty < 0 ? -1 : penalty;
+    }
+
     /**
      * Verifica si puede romper un bloque (cooldown).
      * 
@@ -106,6 +183,8 @@ public class OrangeSquid extends Monster {
 
     /**
      * Persigue al jugador y rompe hielo si es necesario.
+     * El camino se calcula atravesando hielo con penalización; si el siguiente
+     * paso es un bloque de hielo, el monstruo se detiene orientado hacia él.
      * 
      * @return la dirección del movimiento
      */
@@ -114,8 +193,29 @@ public class OrangeSquid extends Monster {
             return null;
         }
         
-        Direction nextDir = pathFinder.getNextDirection(x, y, target.getX(), target.getY());
-        if (nextDir != null) {
+        Direction nextDir;
+        if (pathFinder.getNodeBudget() > 0) {
+            if (search == null) {
+                search = new PathRequest(pathFinder);
+            }
+            nextDir = search.getNextDirection(x, y, target.getX(), target.getY(), getIcePenalty());
+            if (search.isPending()) {
+                // Búsqueda sin terminar: ir de forma voraz mientras tanto
+                nextDir = getTargetDirection();
+            }
+        } else {
+            nextDir = pathFinder.getNextWeightedDirection(
+                    x, y, target.getX(), target.getY(), getIcePenalty());
+        }
+        if (nextDir == null) {
+            return null;
+        }
+        int nextX = x + nextDir.getDeltaX();
+        int nextY = y + nextDir.getDeltaY();
+        if (pathFinder.isIce(nextX, nextY)) {
+            // Se queda mirando al hielo para que el juego lo rompa
+            currentDirection = nextDir;
+        } else if (pathFinder.isWalkable(nextX, nextY)) {
             move(nextDir);
         }
         return nextDir;
@@ -174,10 +274,44 @@ public class OrangeSquid extends Monster {
         chaseAndBreak();
     }
 
+    /**
+     * Repite la dirección actual si la celda siguiente es transitable o de
+     * hielo y, si no, toma la dirección hacia el objetivo. Frente al hielo
+     * se queda orientado hacia él para que el juego lo rompa.
+     */
+    @Override
+    public void repeatLastMove() {
+        if (target == null || pathFinder == null) {
+            return;
+        }
+        Direction nextDir = currentDirection;
+        if (nextDir == null || !canEnter(nextDir)) {
+            nextDir = getTargetDirection();
+            if (!canEnter(nextDir)) {
+                return;
+            }
+        }
+        if (pathFinder.isIce(x + nextDir.getDeltaX(), y + nextDir.getDeltaY())) {
+            currentDirection = nextDir;
+        } else {
+            move(nextDir);
+        }
+    }
+
+    /**
+     * Indica si la celda siguiente en una dirección es transitable o de hielo.
+     */
+    private boolean canEnter(Direction direction) {
+        int nextX = x + direction.getDeltaX();
+        int nextY = y + direction.getDeltaY();
+        return pathFinder.isWalkable(nextX, nextY) || pathFinder.isIce(nextX, nextY);
+    }
+
     @Override
     public void reset() {
         super.reset();
         this.lastBreakTime = 0;
+        this.lastBreakTick = -1;
     }
 
     @Override
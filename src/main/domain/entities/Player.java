@@ -136,6 +136,24 @@ public abstract class Player implements Movable {
         return lives;
     }
 
+    /**
+     * Obtiene la coordenada X de reaparición.
+     * 
+     * @return la coordenada X inicial
+     */
+    public int getInitialX() {
+        return initialX;
+    }
+
+    /**
+     * Obtiene la coordenada Y de reaparición.
+     * 
+     * @return la coordenada Y inicial
+     */
+    public int getInitialY() {
+        return initialY;
+    }
+
     /**
      * Obtiene el tipo de jugador.
      * 
@@ -2,7 +2,10 @@ package main.domain.entities;
 
 import main.domain.enums.Direction;
 import main.domain.enums.MonsterType;
+import main.domain.util.CooperativePlanner;
+import main.domain.util.IncrementalPlanner;
 import main.domain.util.PathFinder;
+import main.domain.util.PathRequest;
 
 /**
  * Representa un Pot - monstruo que usa pathfinding para perseguir.
@@ -18,6 +21,18 @@ public class Pot extends Monster {
     
     /** Última dirección calculada */
     private Direction lastCalculatedDirection;
+    
+    /** Planificador incremental (D* Lite), o null si se replanifica desde cero */
+    private IncrementalPlanner planner;
+
+    /** Búsqueda reanudable usada cuando el PathFinder limita las expansiones por tick */
+    private PathRequest search;
+
+    /** Planificador cooperativo compartido con otros monstruos, o null */
+    private CooperativePlanner cooperativePlanner;
+
+    /** Identificador de este Pot en el planificador cooperativo */
+    private int agentId;
 
     /**
      * Constructor de Pot.
@@ -60,6 +75,57 @@ public class Pot extends Monster {
      */
     public void setPathFinder(PathFinder pathFinder) {
         this.pathFinder = pathFinder;
+        this.search = null;
+        if (planner != null) {
+            planner = pathFinder != null ? new IncrementalPlanner(pathFinder) : null;
+        }
+    }
+
+    /**
+     * Indica si el Pot repara su plan previo en lugar de replanificar cada tick.
+     * 
+     * @return true si usa planificación incremental
+     */
+    public boolean isIncrementalPlanning() {
+        return planner != null;
+    }
+
+    /**
+     * Activa o desactiva la planificación incremental (D* Lite).
+     * Requiere un PathFinder para activarse.
+     * 
+     * @param enabled true para reparar el plan entre ticks
+     */
+    public void setIncrementalPlanning(boolean enabled) {
+        if (enabled && pathFinder != null) {
+            if (planner == null) {
+                planner = new IncrementalPlanner(pathFinder);
+            }
+        } else {
+            planner = null;
+        }
+    }
+
+    /**
+     * Obtiene el planificador cooperativo.
+     * 
+     * @return el planificador, o null si planifica solo
+     */
+    public CooperativePlanner getCooperativePlanner() {
+        return cooperativePlanner;
+    }
+
+    /**
+     * Establece un planificador cooperativo compartido: el Pot reserva su
+     * recorrido y evita el de los monstruos que planificaron antes que él.
+     * 
+     * @param cooperativePlanner el planificador, o null para planificar solo
+     */
+    public void setCooperativePlanner(CooperativePlanner cooperativePlanner) {
+        if (cooperativePlanner != null && cooperativePlanner != this.cooperativePlanner) {
+            this.agentId = cooperativePlanner.registerAgent();
+        }
+        this.cooperativePlanner = cooperativePlanner;
     }
 
     /**
@@ -77,7 +143,28 @@ public class Pot extends Monster {
             return null;
         }
         
-        Direction nextDir = pathFinder.getNextDirection(x, y, target.getX(), target.getY());
+        Direction nextDir;
+        boolean pending;
+        if (cooperativePlanner != null) {
+            nextDir = cooperativePlanner.getNextDirection(agentId, x, y, target.getX(), target.getY());
+            pending = cooperativePlanner.isPending();
+        } else if (planner != null) {
+            nextDir = planner.getNextDirection(x, y, target.getX(), target.getY());
+            pending = planner.isPending();
+        } else if (pathFinder.getNodeBudget() > 0) {
+            if (search == null) {
+                search = new PathRequest(pathFinder);
+            }
+            nextDir = search.getNextDirection(x, y, target.getX(), target.getY(), PathFinder.ICE_BLOCKS);
+            pending = search.isPending();
+        } else {
+            nextDir = pathFinder.getNextDirection(x, y, target.getX(), target.getY());
+            pending = false;
+        }
+        if (pending) {
+            // Búsqueda sin terminar: avanzar de forma voraz mientras tanto
+            nextDir = pathFinder.getGreedyDirection(x, y, target.getX(), target.getY());
+        }
         if (nextDir != null) {
             lastCalculatedDirection = nextDir;
             move(nextDir);
@@ -99,8 +186,34 @@ public class Pot extends Monster {
         chasePlayer();
     }
 
+    /**
+     * Repite la última dirección calculada si la celda siguiente es
+     * transitable y, si no, da un paso voraz hacia el objetivo. Con la
+     * persecución cooperativa siempre recalcula, para no dejar reservas
+     * desfasadas en la tabla compartida.
+     */
+    @Override
+    public void repeatLastMove() {
+        if (cooperativePlanner != null || lastCalculatedDirection == null) {
+            chasePlayer();
+            return;
+        }
+        if (target == null || pathFinder == null || (x == target.getX() && y == target.getY())) {
+            return;
+        }
+        Direction nextDir = lastCalculatedDirection;
+        if (!pathFinder.isWalkable(x + nextDir.getDeltaX(), y + nextDir.getDeltaY())) {
+            nextDir = pathFinder.getGreedyDirection(x, y, target.getX(), target.getY());
+        }
+        if (nextDir != null) {
+            lastCalculatedDirection = nextDir;
+            move(nextDir);
+        }
+    }
+
     /**
      * Verifica si hay un camino disponible hacia el objetivo.
+     * Usa el índice de conectividad, sin ejecutar A*.
      * 
      * @return true si hay camino
      */
@@ -108,7 +221,10 @@ public class Pot extends Monster {
         if (target == null || pathFinder == null) {
             return false;
         }
-        return pathFinder.getNextDirection(x, y, target.getX(), target.getY()) != null;
+        if (x == target.getX() && y == target.getY()) {
+            return false;
+        }
+        return pathFinder.isReachable(x, y, target.getX(), target.getY());
     }
 
     @Override
@@ -3,10 +3,16 @@ package main.domain.entities;
 import main.domain.enums.Direction;
 import main.domain.enums.MonsterType;
 import main.domain.util.MovementPattern;
+import main.domain.util.PathFinder;
+import main.domain.util.PatternScript;
 
 /**
  * Representa un Troll - monstruo que sigue un patrón predefinido.
  * Los Trolls no pueden romper bloques de hielo.
+ * Como avanzan un paso del patrón en cada tick, su posición futura se
+ * predice sin simularlos (para jugadores automáticos y mapas de peligro).
+ * También pueden seguir un guion compilado (PatternScript); sus giros
+ * condicionales consultan el mapa a través del PathFinder.
  * 
  * @author Bad Dopo-Cream Team
  * @version 1.0
@@ -19,6 +25,9 @@ public class Troll extends Monster {
     /** Direcciones del patrón */
     private Direction[] patternDirections;
 
+    /** Mapa para las condiciones de los guiones, o null si todo está libre */
+    private PathFinder pathFinder;
+
     /**
      * Constructor de Troll.
      * 
@@ -52,6 +61,46 @@ public class Troll extends Monster {
         this.pattern = new MovementPattern(this.patternDirections);
     }
 
+    /**
+     * Hace que el Troll siga un guion compilado desde su inicio. El guion
+     * puede compartirse entre varios Trolls.
+     * 
+     * @param script el guion
+     */
+    public void setScript(PatternScript script) {
+        this.pattern = MovementPattern.forScript(script);
+        this.patternDirections = pattern.getDirections();
+    }
+
+    /**
+     * Obtiene el PathFinder que usan los guiones.
+     * 
+     * @return el PathFinder, o null
+     */
+    public PathFinder getPathFinder() {
+        return pathFinder;
+    }
+
+    /**
+     * Establece el PathFinder que usan los guiones para saber qué celdas
+     * están bloqueadas.
+     * 
+     * @param pathFinder el PathFinder, o null si todo está libre
+     */
+    public void setPathFinder(PathFinder pathFinder) {
+        this.pathFinder = pathFinder;
+    }
+
+    /**
+     * Indica si la posición futura se puede predecir con getXAt, getYAt y
+     * getNextTickAt: falso para los guiones que dependen del mapa.
+     * 
+     * @return true si es predecible
+     */
+    public boolean isPredictable() {
+        return pattern == null || pattern.isPredictable();
+    }
+
     /**
      * Obtiene el índice actual del patrón.
      * 
@@ -79,13 +128,37 @@ public class Troll extends Monster {
         if (pattern == null || pattern.isEmpty()) {
             return null;
         }
-        Direction nextDir = pattern.getNextDirection();
+        pattern.mark();
+        Direction nextDir = pattern.getNextDirection(x, y, pathFinder);
         if (nextDir != null) {
             move(nextDir);
         }
         return nextDir;
     }
 
+    /**
+     * Deshace el movimiento y también el paso del patrón, que se repite en
+     * el siguiente tick; así la posición sigue siendo la que predicen
+     * getXAt y getYAt.
+     */
+    @Override
+    public void cancelMove(int fromX, int fromY) {
+        super.cancelMove(fromX, fromY);
+        if (pattern != null) {
+            pattern.rollback();
+        }
+    }
+
+    /**
+     * Un Troll con patrón no se aparta, porque saldría de su ruta.
+     * 
+     * @return true solo si no tiene patrón
+     */
+    @Override
+    public boolean canSidestep() {
+        return pattern == null || pattern.isEmpty();
+    }
+
     @Override
     public void executeAI() {
         followPattern();
@@ -114,6 +187,53 @@ public class Troll extends Monster {
         return pattern.getCurrentDirection();
     }
 
+    /**
+     * Predice la coordenada X tras un número de ticks, sin mover al Troll.
+     * 
+     * @param ticks ticks futuros (0 = posición actual)
+     * @return la coordenada X prevista
+     */
+    public int getXAt(int ticks) {
+        return pattern != null ? x + pattern.getDeltaXAfter(ticks) : x;
+    }
+
+    /**
+     * Predice la coordenada Y tras un número de ticks, sin mover al Troll.
+     * 
+     * @param ticks ticks futuros (0 = posición actual)
+     * @return la coordenada Y prevista
+     */
+    public int getYAt(int ticks) {
+        return pattern != null ? y + pattern.getDeltaYAfter(ticks) : y;
+    }
+
+    /**
+     * Indica si el Troll ocupará una celda tras un número de ticks.
+     * 
+     * @param cellX coordenada X de la celda
+     * @param cellY coordenada Y de la celda
+     * @param ticks ticks futuros
+     * @return true si estará en la celda
+     */
+    public boolean occupiesAt(int cellX, int cellY, int ticks) {
+        return getXAt(ticks) == cellX && getYAt(ticks) == cellY;
+    }
+
+    /**
+     * Obtiene el primer tick, desde fromTick, en que el Troll ocupará una celda.
+     * 
+     * @param cellX coordenada X de la celda
+     * @param cellY coordenada Y de la celda
+     * @param fromTick primer tick a considerar
+     * @return el tick, o -1 si nunca pasará por la celda
+     */
+    public int getNextTickAt(int cellX, int cellY, int fromTick) {
+        if (pattern == null) {
+            return cellX == x && cellY == y ? Math.max(0, fromTick) : -1;
+        }
+        return pattern.getFirstStepsReaching(cellX - x, cellY - y, fromTick);
+    }
+
     @Override
     public void reset() {
         super.reset();
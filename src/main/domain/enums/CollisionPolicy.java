@@ -0,0 +1,19 @@
+package main.domain.enums;
+
+/**
+ * Representa lo que hace un monstruo cuando su movimiento lo lleva a una
+ * celda que ya ocupa otro monstruo. Los monstruos se mueven en el orden en
+ * que se añadieron al nivel, sea cual sea su tipo, así que entre dos que
+ * van a la misma celda se la queda el que se añadió antes.
+ * 
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public enum CollisionPolicy {
+    /** Entra de todos modos y comparte la celda */
+    ALLOW,
+    /** Se queda en su celda este tick; un Troll repite el paso de su patrón */
+    WAIT,
+    /** Prueba a apartarse a una celda lateral libre y, si no hay o es un Troll con patrón, espera */
+    SIDESTEP
+}
@@ -8,24 +8,27 @@ package main.domain.enums;
  */
 public enum MonsterType {
     /** Troll - sigue un patrón predefinido */
-    TROLL('T', false),
+    TROLL('T', false, CollisionPolicy.WAIT),
     /** Pot - usa pathfinding para perseguir */
-    POT('O', false),
+    POT('O', false, CollisionPolicy.SIDESTEP),
     /** OrangeSquid - puede romper bloques de hielo */
-    ORANGE_SQUID('Q', true);
+    ORANGE_SQUID('Q', true, CollisionPolicy.ALLOW);
 
     private final char symbol;
     private final boolean canBreakIce;
+    private final CollisionPolicy collisionPolicy;
 
     /**
      * Constructor de MonsterType.
      * 
      * @param symbol símbolo que representa este monstruo
      * @param canBreakIce si puede romper bloques de hielo
+     * @param collisionPolicy qué hace al chocar con otro monstruo
      */
-    MonsterType(char symbol, boolean canBreakIce) {
+    MonsterType(char symbol, boolean canBreakIce, CollisionPolicy collisionPolicy) {
         this.symbol = symbol;
         this.canBreakIce = canBreakIce;
+        this.collisionPolicy = collisionPolicy;
     }
 
     /**
@@ -45,4 +48,13 @@ public enum MonsterType {
     public boolean canBreakIce() {
         return canBreakIce;
     }
+
+    /**
+     * Obtiene lo que hace este tipo al chocar con otro monstruo.
+     * 
+     * @return la política de colisión
+     */
+    public CollisionPolicy getCollisionPolicy() {
+        return collisionPolicy;
+    }
 }
@@ -0,0 +1,19 @@
+package main.domain.enums;
+
+/**
+ * Representa las estrategias de búsqueda de caminos disponibles.
+ * A_STAR, JUMP_POINT y CORRIDOR devuelven caminos óptimos en una cuadrícula de costo uniforme.
+ * 
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public enum SearchStrategy {
+    /** A* clásico sobre celdas */
+    A_STAR,
+    /** Jump Point Search adaptado a 4 vecinos, para mapas abiertos */
+    JUMP_POINT,
+    /** HPA* jerárquico por clusters, para mapas muy grandes (casi óptimo) */
+    HIERARCHICAL,
+    /** A* sobre el grafo de pasillos contraído, para laberintos de pasillos de una celda */
+    CORRIDOR
+}
@@ -0,0 +1,186 @@
+package main.domain.util;
+
+import main.domain.entities.Monster;
+import main.domain.entities.Player;
+
+/**
+ * Planificador de nivel de detalle para la IA de los monstruos.
+ * Cada monstruo recalcula su dirección con una frecuencia que depende de la
+ * distancia Manhattan a su objetivo: cada tick si está a nearDistance o
+ * menos, y cada 2, 4... ticks (hasta maxInterval) a medida que la distancia
+ * se duplica. Entre recálculos el monstruo repite su última dirección, que
+ * es O(1). Para repartir la carga, el monstruo i recalcula cuando
+ * (tick + i) es múltiplo de su intervalo, de modo que los monstruos lejanos
+ * no coinciden todos en el mismo tick.
+ * Un monstruo que no tiene objetivo se trata como lejano.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class AiScheduler {
+
+    /** Distancia hasta la que se recalcula cada tick por defecto */
+    public static final int DEFAULT_NEAR_DISTANCE = 8;
+
+    /** Ticks máximos entre recálculos por defecto */
+    public static final int DEFAULT_MAX_INTERVAL = 4;
+
+    /** Distancia hasta la que se recalcula cada tick */
+    private int nearDistance;
+
+    /** Ticks máximos entre recálculos */
+    private int maxInterval;
+
+    /** Tick actual */
+    private long tick;
+
+    /** Monstruos que recalcularon y que repitieron dirección en el tick */
+    private int lastPlanned;
+    private int lastRepeated;
+
+    /**
+     * Constructor de AiScheduler con los valores por defecto.
+     */
+    public AiScheduler() {
+        this(DEFAULT_NEAR_DISTANCE, DEFAULT_MAX_INTERVAL);
+    }
+
+    /**
+     * Constructor de AiScheduler.
+     *
+     * @param nearDistance distancia hasta la que se recalcula cada tick
+     * @param maxInterval ticks máximos entre recálculos
+     */
+    public AiScheduler(int nearDistance, int maxInterval) {
+        this.nearDistance = Math.max(1, nearDistance);
+        this.maxInterval = Math.max(1, maxInterval);
+    }
+
+    /**
+     * Obtiene la distancia hasta la que se recalcula cada tick.
+     *
+     * @return la distancia
+     */
+    public int getNearDistance() {
+        return nearDistance;
+    }
+
+    /**
+     * Establece la distancia hasta la que se recalcula cada tick.
+     *
+     * @param nearDistance la distancia (mínimo 1)
+     */
+    public void setNearDistance(int nearDistance) {
+        this.nearDistance = Math.max(1, nearDistance);
+    }
+
+    /**
+     * Obtiene los ticks máximos entre recálculos.
+     *
+     * @return los ticks
+     */
+    public int getMaxInterval() {
+        return maxInterval;
+    }
+
+    /**
+     * Establece los ticks máximos entre recálculos.
+     *
+     * @param maxInterval los ticks (1 para recalcular siempre)
+     */
+    public void setMaxInterval(int maxInterval) {
+        this.maxInterval = Math.max(1, maxInterval);
+    }
+
+    /**
+     * Empieza un tick nuevo.
+     */
+    public void beginTick() {
+        tick++;
+        lastPlanned = 0;
+        lastRepeated = 0;
+    }
+
+    /**
+     * Obtiene los ticks entre recálculos para una distancia.
+     *
+     * @param distance la distancia al objetivo
+     * @return 1 si está cerca; si no, la menor potencia de 2 que cubre
+     *         distance / nearDistance, sin pasar de maxInterval
+     */
+    public int getInterval(int distance) {
+        int interval = 1;
+        int reach = nearDistance;
+        while (distance > reach && interval < maxInterval) {
+            interval <<= 1;
+            reach <<= 1;
+        }
+        return Math.min(interval, maxInterval);
+    }
+
+    /**
+     * Actualiza un monstruo: recalcula si le toca en este tick y, si no,
+     * repite su última dirección.
+     *
+     * @param monster el monstruo
+     * @param index su posición en la lista de monstruos, que fija su turno
+     * @return true si recalculó
+     */
+    public boolean update(Monster monster, int index) {
+        if (schedule(monster, index)) {
+            monster.update();
+            return true;
+        }
+        monster.repeatLastMove();
+        return false;
+    }
+
+    /**
+     * Decide si un monstruo recalcula en este tick y lo cuenta, sin
+     * actualizarlo; el llamador hace la actualización que corresponda.
+     *
+     * @param monster el monstruo
+     * @param index su turno en el tick
+     * @return true si debe recalcular; false si debe repetir su dirección
+     */
+    public boolean schedule(Monster monster, int index) {
+        if (isPlanningTick(monster, index)) {
+            lastPlanned++;
+            return true;
+        }
+        lastRepeated++;
+        return false;
+    }
+
+    /**
+     * Indica si a un monstruo le toca recalcular en este tick.
+     *
+     * @param monster el monstruo
+     * @param index su posición en la lista de monstruos
+     * @return true si debe recalcular
+     */
+    public boolean isPlanningTick(Monster monster, int index) {
+        Player target = monster.getTarget();
+        int interval = target == null ? maxInterval : getInterval(
+                Math.abs(target.getX() - monster.getX()) + Math.abs(target.getY() - monster.getY()));
+        return (tick + index) % interval == 0;
+    }
+
+    /**
+     * Obtiene los monstruos que recalcularon en el tick actual.
+     *
+     * @return el número de monstruos
+     */
+    public int getLastPlanned() {
+        return lastPlanned;
+    }
+
+    /**
+     * Obtiene los monstruos que repitieron su dirección en el tick actual.
+     *
+     * @return el número de monstruos
+     */
+    public int getLastRepeated() {
+        return lastRepeated;
+    }
+}
@@ -0,0 +1,116 @@
+package main.domain.util;
+
+/**
+ * Presupuesto de tiempo por tick para evaluar árboles de comportamiento.
+ * Antes de evaluar a cada monstruo se consulta si queda tiempo; los que no
+ * caben repiten su último movimiento y el tick siguiente empieza por el
+ * primero que se quedó sin evaluar, de modo que ninguno se queda atrás de
+ * forma permanente.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class BehaviorBudget {
+
+    /** Nanosegundos por tick (0 = sin límite) */
+    private long nanosPerTick;
+
+    /** Instante en que se agota el tick actual */
+    private long deadline;
+
+    /** Primer monstruo a evaluar en el tick siguiente */
+    private int nextStart;
+
+    /** Monstruos evaluados y aplazados en el tick actual */
+    private int lastEvaluated;
+    private int lastDeferred;
+
+    /**
+     * Constructor de BehaviorBudget sin límite.
+     */
+    public BehaviorBudget() {
+        this(0);
+    }
+
+    /**
+     * Constructor de BehaviorBudget.
+     *
+     * @param nanosPerTick nanosegundos por tick, o 0 para no limitar
+     */
+    public BehaviorBudget(long nanosPerTick) {
+        this.nanosPerTick = Math.max(0, nanosPerTick);
+    }
+
+    /**
+     * Obtiene el presupuesto por tick.
+     *
+     * @return nanosegundos, o 0 si no hay límite
+     */
+    public long getNanosPerTick() {
+        return nanosPerTick;
+    }
+
+    /**
+     * Establece el presupuesto por tick.
+     *
+     * @param nanosPerTick nanosegundos, o 0 para no limitar
+     */
+    public void setNanosPerTick(long nanosPerTick) {
+        this.nanosPerTick = Math.max(0, nanosPerTick);
+    }
+
+    /**
+     * Empieza un tick nuevo.
+     *
+     * @param count monstruos que se evaluarán en el tick
+     * @return el índice del primero que se debe evaluar
+     */
+    public int beginTick(int count) {
+        lastEvaluated = 0;
+        lastDeferred = 0;
+        if (nanosPerTick > 0) {
+            deadline = System.nanoTime() + nanosPerTick;
+        }
+        int start = count > 0 ? nextStart % count : 0;
+        nextStart = start;
+        return start;
+    }
+
+    /**
+     * Pide tiempo para evaluar a un monstruo. El primero del tick siempre
+     * se evalúa, para que el tick avance aunque el presupuesto sea mínimo.
+     *
+     * @param index índice del monstruo
+     * @return true si se debe evaluar; false si se aplaza
+     */
+    public boolean tryAcquire(int index) {
+        if (nanosPerTick == 0 || lastEvaluated == 0 && lastDeferred == 0
+                || lastDeferred == 0 && System.nanoTime() < deadline) {
+            lastEvaluated++;
+            return true;
+        }
+        if (lastDeferred == 0) {
+            nextStart = index;
+        }
+        lastDeferred++;
+        return false;
+    }
+
+    /**
+     * Obtiene los monstruos evaluados en el tick actual.
+     *
+     * @return el número de monstruos
+     */
+    public int getLastEvaluated() {
+        return lastEvaluated;
+    }
+
+    /**
+     * Obtiene los monstruos aplazados en el tick actual.
+     *
+     * @return el número de monstruos
+     */
+    public int getLastDeferred() {
+        return lastDeferred;
+    }
+}
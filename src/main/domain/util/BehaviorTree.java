@@ -0,0 +1,552 @@
+package main.domain.util;
+
+import main.domain.entities.Monster;
+import main.domain.entities.Player;
+import main.domain.enums.Direction;
+import main.domain.enums.ErrorCode;
+import main.domain.exception.IceException;
+
+import java.util.Arrays;
+
+/**
+ * Árbol de comportamiento para monstruos definidos por datos.
+ * La definición es inmutable y se comparte entre todos los monstruos que la
+ * usan: los nodos se guardan en arrays planos (tipo, parámetro, primer hijo
+ * y siguiente hermano) y el estado de cada monstruo vive en su pizarra, un
+ * int[] de getBlackboardSize() enteros. Cada tick el árbol se evalúa desde
+ * la raíz (árbol reactivo): los compuestos y condiciones devuelven éxito o
+ * fracaso, y las acciones tienen éxito si actúan. En una evaluación solo
+ * se da un paso; las acciones de movimiento posteriores fracasan.
+ *
+ * El árbol se escribe como texto, p. ej.:
+ * <pre>
+ * selector(
+ *   sequence(within(6), reachable, chase),
+ *   sequence(iceahead, breakice(20)),
+ *   patrol("R3 D3 L3 U3"))
+ * </pre>
+ * Nodos:
+ * <ul>
+ *   <li>sequence(...), selector(...): compuestos; invert(n) niega a su hijo.</li>
+ *   <li>within(d): el objetivo está a distancia Manhattan d o menos.</li>
+ *   <li>reachable: hay camino hasta el objetivo.</li>
+ *   <li>iceahead: hay hielo en la celda a la que mira el monstruo.</li>
+ *   <li>chance(p): éxito con probabilidad p%.</li>
+ *   <li>chase: un paso del camino más corto hacia el objetivo.</li>
+ *   <li>chaseice(k): camino que atraviesa hielo con coste k; si el paso es
+ *       hielo, se orienta hacia él sin moverse.</li>
+ *   <li>flee: el paso que más se aleja del objetivo.</li>
+ *   <li>wander: sigue recto con probabilidad 3/4 y si no, o si está
+ *       bloqueado, gira al azar.</li>
+ *   <li>patrol("guion"): un tick de un PatternScript.</li>
+ *   <li>breakice(t): rompe el hielo al que mira si puede romper hielo y
+ *       han pasado t ticks de juego desde la última vez (t evaluaciones si
+ *       el árbol se evalúa sin tick de juego).</li>
+ *   <li>wait: no hace nada y tiene éxito.</li>
+ * </ul>
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public final class BehaviorTree {
+
+    /** Tipos de nodo */
+    static final int SEQUENCE = 0;
+    static final int SELECTOR = 1;
+    static final int INVERT = 2;
+    static final int WITHIN = 3;
+    static final int REACHABLE = 4;
+    static final int ICE_AHEAD = 5;
+    static final int CHANCE = 6;
+    static final int CHASE = 7;
+    static final int CHASE_ICE = 8;
+    static final int FLEE = 9;
+    static final int WANDER = 10;
+    static final int PATROL = 11;
+    static final int BREAK_ICE = 12;
+    static final int WAIT = 13;
+
+    /** Nombres en el texto, indexados por tipo */
+    private static final String[] NAMES = {
+        "sequence", "selector", "invert", "within", "reachable", "iceahead", "chance",
+        "chase", "chaseice", "flee", "wander", "patrol", "breakice", "wait"
+    };
+
+    /** Casillas fijas de la pizarra */
+    public static final int SLOT_RANDOM = 0;
+    public static final int SLOT_TICK = 1;
+    public static final int SLOT_LAST_BREAK = 2;
+    public static final int SLOT_BREAK_REQUEST = 3;
+    public static final int SLOT_MOVED = 4;
+    private static final int HEADER = 5;
+
+    /** Sin hijo o sin hermano */
+    private static final int NONE = -1;
+
+    /** Direcciones indexadas por su ordinal */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /** Texto original */
+    private final String source;
+
+    /** Nodos: tipo, parámetro, primer hijo, siguiente hermano y casilla propia */
+    private final int[] kind;
+    private final int[] param;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] slot;
+
+    /** Guiones de los nodos patrol */
+    private final PatternScript[] scripts;
+
+    /** Enteros de la pizarra de cada monstruo */
+    private final int blackboardSize;
+
+    /**
+     * Constructor privado: usar parse.
+     */
+    private BehaviorTree(String source, Parser parser) {
+        this.source = source;
+        int count = parser.count;
+        this.kind = Arrays.copyOf(parser.kind, count);
+        this.param = Arrays.copyOf(parser.param, count);
+        this.firstChild = Arrays.copyOf(parser.firstChild, count);
+        this.nextSibling = Arrays.copyOf(parser.nextSibling, count);
+        this.scripts = Arrays.copyOf(parser.scripts, count);
+        this.slot = new int[count];
+        int size = HEADER;
+        for (int node = 0; node < count; node++) {
+            if (kind[node] == PATROL) {
+                slot[node] = size;
+                size += 2 + scripts[node].getLoopSlots();
+            }
+        }
+        this.blackboardSize = size;
+    }
+
+    /**
+     * Analiza un árbol escrito como texto.
+     *
+     * @param source el texto
+     * @return el árbol
+     * @throws IceException con LEVEL_LOAD_ERROR si el texto no es válido
+     */
+    public static BehaviorTree parse(String source) throws IceException {
+        if (source == null) {
+            throw new IceException(ErrorCode.LEVEL_LOAD_ERROR, "árbol de comportamiento nulo");
+        }
+        Parser parser = new Parser(source);
+        parser.parseNode();
+        parser.skipSpaces();
+        if (parser.position != source.length()) {
+            throw parser.error("texto sobrante");
+        }
+        return new BehaviorTree(source, parser);
+    }
+
+    /**
+     * Obtiene el texto original del árbol.
+     *
+     * @return el texto
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Obtiene el número de nodos.
+     *
+     * @return los nodos
+     */
+    public int getNodeCount() {
+        return kind.length;
+    }
+
+    /**
+     * Obtiene el tamaño de la pizarra que necesita cada monstruo.
+     *
+     * @return los enteros de la pizarra
+     */
+    public int getBlackboardSize() {
+        return blackboardSize;
+    }
+
+    /**
+     * Crea una pizarra nueva para un monstruo.
+     *
+     * @param seed semilla de sus decisiones aleatorias
+     * @return la pizarra
+     */
+    public int[] newBlackboard(int seed) {
+        int[] blackboard = new int[blackboardSize];
+        blackboard[SLOT_RANDOM] = seed != 0 ? seed : 0x9E3779B9;
+        blackboard[SLOT_LAST_BREAK] = Integer.MIN_VALUE / 2;
+        return blackboard;
+    }
+
+    /**
+     * Evalúa el árbol una vez para un monstruo.
+     *
+     * @param monster el monstruo
+     * @param blackboard su pizarra
+     * @param pathFinder el mapa, o null si no hay mapa
+     * @return true si la raíz tuvo éxito
+     */
+    public boolean evaluate(Monster monster, int[] blackboard, PathFinder pathFinder) {
+        return evaluate(monster, blackboard, pathFinder, blackboard[SLOT_TICK] + 1);
+    }
+
+    /**
+     * Evalúa el árbol una vez para un monstruo en un tick de juego concreto.
+     * Los enfriamientos cuentan ticks de juego, así que las evaluaciones
+     * aplazadas por el presupuesto no los alargan.
+     *
+     * @param monster el monstruo
+     * @param blackboard su pizarra
+     * @param pathFinder el mapa, o null si no hay mapa
+     * @param tick tick de juego actual
+     * @return true si la raíz tuvo éxito
+     */
+    public boolean evaluate(Monster monster, int[] blackboard, PathFinder pathFinder, long tick) {
+        blackboard[SLOT_TICK] = (int) tick;
+        blackboard[SLOT_MOVED] = 0;
+        return evaluate(0, monster, blackboard, pathFinder);
+    }
+
+    /**
+     * Evalúa un nodo.
+     */
+    private boolean evaluate(int node, Monster monster, int[] blackboard, PathFinder pathFinder) {
+        Player target = monster.getTarget();
+        int x = monster.getX();
+        int y = monster.getY();
+        switch (kind[node]) {
+            case SEQUENCE:
+                for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                    if (!evaluate(child, monster, blackboard, pathFinder)) {
+                        return false;
+                    }
+                }
+                return true;
+            case SELECTOR:
+                for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                    if (evaluate(child, monster, blackboard, pathFinder)) {
+                        return true;
+                    }
+                }
+                return false;
+            case INVERT:
+                return !evaluate(firstChild[node], monster, blackboard, pathFinder);
+            case WITHIN:
+                return target != null
+                        && Math.abs(target.getX() - x) + Math.abs(target.getY() - y) <= param[node];
+            case REACHABLE:
+                return target != null && pathFinder != null
+                        && pathFinder.isReachable(x, y, target.getX(), target.getY());
+            case ICE_AHEAD:
+                return isIceAhead(monster, pathFinder);
+            case CHANCE:
+                return nextRandom(blackboard, 100) < param[node];
+            case CHASE:
+                if (target == null || pathFinder == null || blackboard[SLOT_MOVED] != 0) {
+                    return false;
+                }
+                return step(monster, blackboard,
+                        pathFinder.getNextDirection(x, y, target.getX(), target.getY()));
+            case CHASE_ICE:
+                return chaseThroughIce(node, monster, blackboard, pathFinder);
+            case FLEE:
+                return flee(monster, blackboard, pathFinder);
+            case WANDER:
+                return wander(monster, blackboard, pathFinder);
+            case PATROL:
+                if (blackboard[SLOT_MOVED] != 0) {
+                    return false;
+                }
+                Direction patrolDir = scripts[node].step(blackboard, slot[node], x, y, pathFinder);
+                return patrolDir == null || step(monster, blackboard, patrolDir);
+            case BREAK_ICE:
+                if (!monster.canBreakIce() || !isIceAhead(monster, pathFinder)
+                        || blackboard[SLOT_TICK] - blackboard[SLOT_LAST_BREAK] < param[node]) {
+                    return false;
+                }
+                blackboard[SLOT_LAST_BREAK] = blackboard[SLOT_TICK];
+                blackboard[SLOT_BREAK_REQUEST] = 1;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Persigue atravesando hielo; frente al hielo solo se orienta.
+     */
+    private boolean chaseThroughIce(int node, Monster monster, int[] blackboard, PathFinder pathFinder) {
+        Player target = monster.getTarget();
+        if (target == null || pathFinder == null || blackboard[SLOT_MOVED] != 0) {
+            return false;
+        }
+        Direction direction = pathFinder.getNextWeightedDirection(
+                monster.getX(), monster.getY(), target.getX(), target.getY(), param[node]);
+        if (direction == null) {
+            return false;
+        }
+        if (pathFinder.isIce(monster.getX() + direction.getDeltaX(), monster.getY() + direction.getDeltaY())) {
+            monster.setCurrentDirection(direction);
+            blackboard[SLOT_MOVED] = 1;
+            return true;
+        }
+        return step(monster, blackboard, direction);
+    }
+
+    /**
+     * Da el paso libre que más aumenta la distancia al objetivo.
+     */
+    private boolean flee(Monster monster, int[] blackboard, PathFinder pathFinder) {
+        Player target = monster.getTarget();
+        if (target == null || blackboard[SLOT_MOVED] != 0) {
+            return false;
+        }
+        int x = monster.getX();
+        int y = monster.getY();
+        int best = Math.abs(target.getX() - x) + Math.abs(target.getY() - y);
+        Direction bestDirection = null;
+        for (Direction direction : DIRECTIONS) {
+            int nextX = x + direction.getDeltaX();
+            int nextY = y + direction.getDeltaY();
+            int distance = Math.abs(target.getX() - nextX) + Math.abs(target.getY() - nextY);
+            if (distance > best && isFree(pathFinder, nextX, nextY)) {
+                best = distance;
+                bestDirection = direction;
+            }
+        }
+        return step(monster, blackboard, bestDirection);
+    }
+
+    /**
+     * Sigue recto casi siempre; si no, o si está bloqueado, gira al azar.
+     */
+    private boolean wander(Monster monster, int[] blackboard, PathFinder pathFinder) {
+        if (blackboard[SLOT_MOVED] != 0) {
+            return false;
+        }
+        int x = monster.getX();
+        int y = monster.getY();
+        Direction current = monster.getCurrentDirection();
+        if (current != null && nextRandom(blackboard, 4) != 0
+                && isFree(pathFinder, x + current.getDeltaX(), y + current.getDeltaY())) {
+            return step(monster, blackboard, current);
+        }
+        int first = nextRandom(blackboard, DIRECTIONS.length);
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            Direction direction = DIRECTIONS[(first + i) % DIRECTIONS.length];
+            if (isFree(pathFinder, x + direction.getDeltaX(), y + direction.getDeltaY())) {
+                return step(monster, blackboard, direction);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Mueve al monstruo si hay dirección.
+     */
+    private static boolean step(Monster monster, int[] blackboard, Direction direction) {
+        if (direction == null) {
+            return false;
+        }
+        monster.move(direction);
+        blackboard[SLOT_MOVED] = 1;
+        return true;
+    }
+
+    /**
+     * Indica si hay hielo en la celda a la que mira el monstruo.
+     */
+    private static boolean isIceAhead(Monster monster, PathFinder pathFinder) {
+        Direction direction = monster.getCurrentDirection();
+        return direction != null && pathFinder != null && pathFinder.isIce(
+                monster.getX() + direction.getDeltaX(), monster.getY() + direction.getDeltaY());
+    }
+
+    /**
+     * Indica si una celda es transitable; sin mapa todas lo son.
+     */
+    private static boolean isFree(PathFinder pathFinder, int x, int y) {
+        return pathFinder == null || pathFinder.isWalkable(x, y);
+    }
+
+    /**
+     * Número pseudoaleatorio en [0, bound) con el xorshift de la pizarra.
+     */
+    private static int nextRandom(int[] blackboard, int bound) {
+        int r = blackboard[SLOT_RANDOM];
+        r ^= r << 13;
+        r ^= r >>> 17;
+        r ^= r << 5;
+        blackboard[SLOT_RANDOM] = r;
+        return (r >>> 1) % bound;
+    }
+
+    @Override
+    public String toString() {
+        return "BehaviorTree{" +
+                "nodes=" + kind.length +
+                ", blackboard=" + blackboardSize +
+                ", source='" + source + '\'' +
+                '}';
+    }
+
+    /**
+     * Analizador descendente recursivo que construye los arrays de nodos
+     * en preorden (la raíz es el nodo 0).
+     */
+    private static final class Parser {
+        private final String text;
+        private int position;
+        private int count;
+        private int[] kind = new int[8];
+        private int[] param = new int[8];
+        private int[] firstChild = new int[8];
+        private int[] nextSibling = new int[8];
+        private PatternScript[] scripts = new PatternScript[8];
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Lee un nodo y sus hijos.
+         *
+         * @return el índice del nodo
+         */
+        int parseNode() throws IceException {
+            skipSpaces();
+            int start = position;
+            while (position < text.length() && Character.isLetter(text.charAt(position))) {
+                position++;
+            }
+            String name = text.substring(start, position).toLowerCase();
+            int type = Arrays.asList(NAMES).indexOf(name);
+            if (type < 0) {
+                position = start;
+                throw error(name.isEmpty() ? "se esperaba un nodo" : "nodo desconocido '" + name + "'");
+            }
+            int node = add(type);
+            skipSpaces();
+            boolean open = position < text.length() && text.charAt(position) == '(';
+            switch (type) {
+                case SEQUENCE:
+                case SELECTOR:
+                case INVERT:
+                    expect(open, "se esperaba '('");
+                    position++;
+                    parseChildren(node, type == INVERT);
+                    break;
+                case WITHIN:
+                case CHANCE:
+                case CHASE_ICE:
+                case BREAK_ICE:
+                    expect(open, "se esperaba '('");
+                    position++;
+                    param[node] = readNumber();
+                    close();
+                    break;
+                case PATROL:
+                    expect(open, "se esperaba '('");
+                    position++;
+                    scripts[node] = PatternScript.compile(readString());
+                    close();
+                    break;
+                default:
+                    expect(!open, "el nodo '" + name + "' no lleva argumentos");
+                    break;
+            }
+            return node;
+        }
+
+        /**
+         * Lee los hijos de un compuesto hasta ')'.
+         */
+        private void parseChildren(int parent, boolean single) throws IceException {
+            int last = NONE;
+            int children = 0;
+            while (true) {
+                int child = parseNode();
+                children++;
+                if (last == NONE) {
+                    firstChild[parent] = child;
+                } else {
+                    nextSibling[last] = child;
+                }
+                last = child;
+                skipSpaces();
+                if (position < text.length() && text.charAt(position) == ',') {
+                    position++;
+                    continue;
+                }
+                close();
+                break;
+            }
+            expect(!single || children == 1, "invert lleva un solo hijo");
+        }
+
+        private int add(int type) {
+            if (count == kind.length) {
+                int size = count * 2;
+                kind = Arrays.copyOf(kind, size);
+                param = Arrays.copyOf(param, size);
+                firstChild = Arrays.copyOf(firstChild, size);
+                nextSibling = Arrays.copyOf(nextSibling, size);
+                scripts = Arrays.copyOf(scripts, size);
+            }
+            kind[count] = type;
+            firstChild[count] = NONE;
+            nextSibling[count] = NONE;
+            return count++;
+        }
+
+        private int readNumber() throws IceException {
+            skipSpaces();
+            int start = position;
+            // Solo dígitos ASCII: Character.isDigit acepta otros alfabetos
+            while (position < text.length() && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+                position++;
+            }
+            expect(position > start && position - start < 10, "se esperaba un número");
+            return Integer.parseInt(text.substring(start, position));
+        }
+
+        private String readString() throws IceException {
+            skipSpaces();
+            expect(position < text.length() && text.charAt(position) == '"', "se esperaba un guion entre comillas");
+            int end = text.indexOf('"', position + 1);
+            expect(end > 0, "falta cerrar las comillas");
+            String value = text.substring(position + 1, end);
+            position = end + 1;
+            return value;
+        }
+
+        private void close() throws IceException {
+            skipSpaces();
+            expect(position < text.length() && text.charAt(position) == ')', "se esperaba ')'");
+            position++;
+        }
+
+        void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private void expect(boolean condition, String message) throws IceException {
+            if (!condition) {
+                throw error(message);
+            }
+        }
+
+        IceException error(String message) {
+            return new IceException(ErrorCode.LEVEL_LOAD_ERROR,
+                    message + " en la posición " + position + " del árbol");
+        }
+    }
+}
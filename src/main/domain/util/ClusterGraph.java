@@ -0,0 +1,695 @@
+package main.domain.util;
+
+import main.domain.enums.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Abstracción jerárquica del mapa para búsquedas HPA*.
+ * El mapa se divide en clusters cuadrados; en cada borde entre clusters se
+ * crean transiciones (pares de nodos abstractos) y dentro de cada cluster se
+ * precalculan las distancias entre sus nodos. Una búsqueda recorre primero el
+ * grafo abstracto y solo después refina los tramos necesarios sobre el mapa.
+ * Cuando una celda cambia, solo se recalculan los clusters afectados.
+ * Los caminos resultantes son casi óptimos, no necesariamente óptimos.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class ClusterGraph {
+
+    /** Tamaño de cluster por defecto */
+    public static final int DEFAULT_CLUSTER_SIZE = 10;
+
+    /** Longitud a partir de la cual una entrada genera dos transiciones */
+    private static final int LONG_ENTRANCE = 6;
+
+    /** PathFinder que define qué celdas son transitables */
+    private final PathFinder pathFinder;
+
+    /** Dimensiones del mapa y de la partición */
+    private final int width;
+    private final int height;
+    private final int clusterSize;
+    private final int clustersX;
+    private final int clustersY;
+    private final int verticalBorders;
+
+    /** Datos de los nodos abstractos (índice de nodo) */
+    private int[] nodeCell;
+    private int[] nodeCluster;
+    private int[] nodePeer;
+    private int[][] edgeTarget;
+    private int[][] edgeCost;
+    private int[] edgeCount;
+    private int nodeLimit;
+    private int[] freeNodes;
+    private int freeCount;
+
+    /** Nodos de transición de cada borde */
+    private final int[][] borderNodes;
+    private final int[] borderNodeCount;
+
+    /** Buffers de los recorridos locales (índice de celda) */
+    private final int[] distance;
+    private final int[] distanceStamp;
+    private final byte[] arrivalDir;
+    private final int[] queue;
+    private int bfsStamp;
+
+    /** Buffers de la búsqueda abstracta (índice de nodo) */
+    private IndexedMinHeap openSet;
+    private int[] gScore;
+    private int[] parentNode;
+    private int[] seenStamp;
+    private int[] closedStamp;
+    private int[] startCost;
+    private int[] goalCost;
+    private int[] abstractPath;
+    private int searchId;
+
+    /** Nodos de un cluster, reutilizado al recalcular */
+    private int[] clusterScratch;
+
+    /** Indica si el grafo ya fue construido */
+    private boolean built;
+
+    /** Nodos abstractos expandidos en la última búsqueda */
+    private int lastExpandedNodes;
+
+    /** Direcciones en orden de expansión */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Constructor de ClusterGraph.
+     *
+     * @param pathFinder el PathFinder cuyo mapa se abstrae
+     * @param width ancho del mapa
+     * @param height alto del mapa
+     * @param clusterSize lado de cada cluster en celdas
+     */
+    public ClusterGraph(PathFinder pathFinder, int width, int height, int clusterSize) {
+        this.pathFinder = pathFinder;
+        this.width = width;
+        this.height = height;
+        this.clusterSize = Math.max(2, clusterSize);
+        this.clustersX = Math.max(1, (width + this.clusterSize - 1) / this.clusterSize);
+        this.clustersY = Math.max(1, (height + this.clusterSize - 1) / this.clusterSize);
+        this.verticalBorders = (clustersX - 1) * clustersY;
+        int borders = verticalBorders + clustersX * (clustersY - 1);
+        this.borderNodes = new int[borders][];
+        this.borderNodeCount = new int[borders];
+        int size = width * height;
+        this.distance = new int[size];
+        this.distanceStamp = new int[size];
+        this.arrivalDir = new byte[size];
+        this.queue = new int[size];
+        this.clusterScratch = new int[64];
+        this.built = false;
+    }
+
+    /**
+     * Obtiene el tamaño de cluster.
+     *
+     * @return el lado de cada cluster
+     */
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    /**
+     * Obtiene el número de nodos abstractos activos.
+     *
+     * @return la cantidad de nodos
+     */
+    public int getNodeCount() {
+        ensureBuilt();
+        return nodeLimit - freeCount;
+    }
+
+    /**
+     * Obtiene los nodos abstractos expandidos en la última búsqueda.
+     *
+     * @return nodos expandidos
+     */
+    public int getLastExpandedNodes() {
+        return lastExpandedNodes;
+    }
+
+    /**
+     * Indica si una consulta es local (mismo cluster o adyacente), en cuyo
+     * caso conviene una búsqueda directa sobre el mapa.
+     *
+     * @param startX coordenada X de inicio
+     * @param startY coordenada Y de inicio
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @return true si la consulta es local
+     */
+    public boolean isLocalQuery(int startX, int startY, int endX, int endY) {
+        return Math.abs(startX / clusterSize - endX / clusterSize) <= 1
+                && Math.abs(startY / clusterSize - endY / clusterSize) <= 1;
+    }
+
+    /**
+     * Construye todas las transiciones y distancias internas.
+     */
+    public void rebuild() {
+        int initial = Math.max(16, clustersX * clustersY * 8);
+        nodeCell = new int[initial];
+        nodeCluster = new int[initial];
+        nodePeer = new int[initial];
+        edgeTarget = new int[initial][];
+        edgeCost = new int[initial][];
+        edgeCount = new int[initial];
+        freeNodes = new int[initial];
+        nodeLimit = 0;
+        freeCount = 0;
+        Arrays.fill(borderNodeCount, 0);
+        for (int border = 0; border < borderNodes.length; border++) {
+            scanBorder(border);
+        }
+        for (int cluster = 0; cluster < clustersX * clustersY; cluster++) {
+            recomputeCluster(cluster);
+        }
+        built = true;
+    }
+
+    /**
+     * Notifica que una celda cambió: recalcula solo los clusters afectados.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     */
+    public void onCellChanged(int x, int y) {
+        if (!built || x < 0 || x >= width || y < 0 || y >= height) {
+            return;
+        }
+        int cx = x / clusterSize;
+        int cy = y / clusterSize;
+        if (x == cx * clusterSize && cx > 0) {
+            rebuildBorder(verticalBorder(cx - 1, cy), clusterId(cx - 1, cy));
+        }
+        if (x == Math.min(width, (cx + 1) * clusterSize) - 1 && cx < clustersX - 1) {
+            rebuildBorder(verticalBorder(cx, cy), clusterId(cx + 1, cy));
+        }
+        if (y == cy * clusterSize && cy > 0) {
+            rebuildBorder(horizontalBorder(cx, cy - 1), clusterId(cx, cy - 1));
+        }
+        if (y == Math.min(height, (cy + 1) * clusterSize) - 1 && cy < clustersY - 1) {
+            rebuildBorder(horizontalBorder(cx, cy), clusterId(cx, cy + 1));
+        }
+        recomputeCluster(clusterId(cx, cy));
+    }
+
+    /**
+     * Encuentra un camino usando el grafo abstracto y refinando cada tramo.
+     *
+     * @param startX coordenada X de inicio
+     * @param startY coordenada Y de inicio
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @return lista de direcciones, o lista vacía si no hay camino
+     */
+    public List<Direction> findPath(int startX, int startY, int endX, int endY) {
+        Direction exit = findExitDirection(startX, startY, endX, endY);
+        if (exit != null) {
+            List<Direction> rest = findPath(startX + exit.getDeltaX(), startY + exit.getDeltaY(), endX, endY);
+            List<Direction> path = new ArrayList<>(rest.size() + 1);
+            path.add(exit);
+            path.addAll(rest);
+            return path;
+        }
+        int length = searchAbstract(startX, startY, endX, endY);
+        if (length < 0) {
+            return Collections.emptyList();
+        }
+        List<Direction> path = new ArrayList<>();
+        for (int i = 0; i + 1 < length; i++) {
+            if (!refineSegment(i, startX * height + startY, endX * height + endY, path, false)) {
+                return Collections.emptyList();
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Obtiene la primera dirección refinando solo el primer tramo no vacío.
+     *
+     * @param startX coordenada X de inicio
+     * @param startY coordenada Y de inicio
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @return la primera dirección, o null si no hay camino
+     */
+    public Direction getNextDirection(int startX, int startY, int endX, int endY) {
+        Direction exit = findExitDirection(startX, startY, endX, endY);
+        if (exit != null) {
+            return exit;
+        }
+        int length = searchAbstract(startX, startY, endX, endY);
+        if (length < 0) {
+            return null;
+        }
+        List<Direction> segment = new ArrayList<>();
+        for (int i = 0; i + 1 < length && segment.isEmpty(); i++) {
+            if (!refineSegment(i, startX * height + startY, endX * height + endY, segment, true)) {
+                return null;
+            }
+        }
+        return segment.isEmpty() ? null : segment.get(0);
+    }
+
+    /**
+     * Si el origen no es transitable (p. ej. un monstruo sobre hielo recién
+     * creado), elige el vecino transitable conectado más cercano al destino,
+     * ya que ese vecino puede pertenecer a otro cluster.
+     *
+     * @return la dirección de salida, o null si el origen es transitable
+     */
+    private Direction findExitDirection(int startX, int startY, int endX, int endY) {
+        if (pathFinder.isWalkable(startX, startY)) {
+            return null;
+        }
+        Direction best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Direction dir : DIRECTIONS) {
+            int nx = startX + dir.getDeltaX();
+            int ny = startY + dir.getDeltaY();
+            if (pathFinder.isWalkable(nx, ny) && pathFinder.isReachable(nx, ny, endX, endY)) {
+                int d = Math.abs(nx - endX) + Math.abs(ny - endY);
+                if (d < bestDistance) {
+                    bestDistance = d;
+                    best = dir;
+                }
+            }
+        }
+        return best;
+    }
+
+    // ==================== Búsqueda abstracta ====================
+
+    /**
+     * Ejecuta A* sobre el grafo abstracto, con inicio y destino conectados
+     * temporalmente a los nodos de sus clusters.
+     *
+     * @return número de nodos del camino abstracto (inicio y destino incluidos), o -1
+     */
+    private int searchAbstract(int startX, int startY, int endX, int endY) {
+        ensureBuilt();
+        lastExpandedNodes = 0;
+        int startCluster = clusterId(startX / clusterSize, startY / clusterSize);
+        int goalCluster = clusterId(endX / clusterSize, endY / clusterSize);
+        beginAbstractSearch();
+        int source = nodeLimit;
+        int target = nodeLimit + 1;
+        connect(startX * height + startY, startCluster, startCost);
+        connect(endX * height + endY, goalCluster, goalCost);
+
+        open(source, -1, 0, endX, endY);
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            if (current == target) {
+                return collectAbstractPath(source, target);
+            }
+            closedStamp[current] = searchId;
+            lastExpandedNodes++;
+            int g = gScore[current];
+            if (current == source) {
+                int count = collectClusterNodes(startCluster);
+                for (int i = 0; i < count; i++) {
+                    int node = clusterScratch[i];
+                    if (startCost[node] >= 0) {
+                        relax(node, current, startCost[node], endX, endY);
+                    }
+                }
+                continue;
+            }
+            for (int i = 0; i < edgeCount[current]; i++) {
+                relax(edgeTarget[current][i], current, g + edgeCost[current][i], endX, endY);
+            }
+            if (nodePeer[current] >= 0) {
+                relax(nodePeer[current], current, g + 1, endX, endY);
+            }
+            if (nodeCluster[current] == goalCluster && goalCost[current] >= 0) {
+                relax(target, current, g + goalCost[current], endX, endY);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Calcula las distancias desde una celda a los nodos de su cluster.
+     */
+    private void connect(int cell, int cluster, int[] costs) {
+        int count = collectClusterNodes(cluster);
+        boundedBfs(cell, cluster, -1);
+        for (int i = 0; i < count; i++) {
+            int node = clusterScratch[i];
+            int nodeCellIndex = nodeCell[node];
+            costs[node] = distanceStamp[nodeCellIndex] == bfsStamp ? distance[nodeCellIndex] : -1;
+        }
+    }
+
+    private void beginAbstractSearch() {
+        int capacity = nodeLimit + 2;
+        if (openSet == null || openSet.capacity() < capacity) {
+            int size = Math.max(capacity, nodeCell.length + 2);
+            openSet = new IndexedMinHeap(size);
+            gScore = new int[size];
+            parentNode = new int[size];
+            seenStamp = new int[size];
+            closedStamp = new int[size];
+            startCost = new int[size];
+            goalCost = new int[size];
+            abstractPath = new int[size];
+            searchId = 0;
+        }
+        openSet.clear();
+        Arrays.fill(startCost, -1);
+        Arrays.fill(goalCost, -1);
+        if (++searchId == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            searchId = 1;
+        }
+    }
+
+    private void relax(int node, int parent, int g, int goalX, int goalY) {
+        if (closedStamp[node] == searchId) {
+            return;
+        }
+        if (seenStamp[node] != searchId || g < gScore[node]) {
+            open(node, parent, g, goalX, goalY);
+        }
+    }
+
+    private void open(int node, int parent, int g, int goalX, int goalY) {
+        seenStamp[node] = searchId;
+        gScore[node] = g;
+        parentNode[node] = parent;
+        int h = 0;
+        if (node < nodeLimit) {
+            h = Math.abs(nodeCell[node] / height - goalX) + Math.abs(nodeCell[node] % height - goalY);
+        }
+        openSet.insertOrUpdate(node, ((long) (g + h) << 32) | (Integer.MAX_VALUE - g));
+    }
+
+    private int collectAbstractPath(int source, int target) {
+        int count = 0;
+        for (int node = target; node != -1; node = parentNode[node]) {
+            abstractPath[count++] = node;
+        }
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int tmp = abstractPath[i];
+            abstractPath[i] = abstractPath[j];
+            abstractPath[j] = tmp;
+        }
+        return count;
+    }
+
+    /**
+     * Refina el tramo i del camino abstracto añadiendo sus direcciones.
+     *
+     * @return false si el recorrido dentro del cluster no une los extremos
+     *         del tramo, en cuyo caso el camino tendría un hueco
+     */
+    private boolean refineSegment(int i, int startCell, int goalCell, List<Direction> out, boolean firstOnly) {
+        int from = abstractPath[i];
+        int to = abstractPath[i + 1];
+        int fromCell = from >= nodeLimit ? startCell : nodeCell[from];
+        int toCell = to >= nodeLimit ? goalCell : nodeCell[to];
+        if (fromCell == toCell) {
+            return true;
+        }
+        if (from < nodeLimit && nodePeer[from] == to) {
+            out.add(directionBetween(fromCell, toCell));
+            return true;
+        }
+        int cluster = to >= nodeLimit ? nodeCluster[from] : nodeCluster[to];
+        boundedBfs(toCell, cluster, fromCell);
+        if (distanceStamp[fromCell] != bfsStamp) {
+            return false;
+        }
+        // El recorrido se hizo desde el destino: se sigue hacia él desde el origen
+        int cell = fromCell;
+        while (cell != toCell) {
+            Direction dir = DIRECTIONS[arrivalDir[cell]].getOpposite();
+            out.add(dir);
+            if (firstOnly) {
+                return true;
+            }
+            cell = (cell / height + dir.getDeltaX()) * height + cell % height + dir.getDeltaY();
+        }
+        return true;
+    }
+
+    // ==================== Mantenimiento de la abstracción ====================
+
+    /**
+     * Recorre en anchura dentro de un cluster desde una celda.
+     * Guarda la distancia y la dirección de llegada a cada celda alcanzada.
+     *
+     * @param from celda inicial
+     * @param cluster cluster que limita el recorrido
+     * @param stopAt celda en la que detenerse (aunque no sea transitable), o -1
+     */
+    private void boundedBfs(int from, int cluster, int stopAt) {
+        if (++bfsStamp == Integer.MAX_VALUE) {
+            Arrays.fill(distanceStamp, 0);
+            bfsStamp = 1;
+        }
+        int cx = cluster / clustersY;
+        int cy = cluster % clustersY;
+        int minX = cx * clusterSize;
+        int minY = cy * clusterSize;
+        int maxX = Math.min(width, minX + clusterSize) - 1;
+        int maxY = Math.min(height, minY + clusterSize) - 1;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        distance[from] = 0;
+        distanceStamp[from] = bfsStamp;
+        while (head < tail) {
+            int current = queue[head++];
+            if (current == stopAt) {
+                return;
+            }
+            int x = current / height;
+            int y = current % height;
+            for (int i = 0; i < DIRECTIONS.length; i++) {
+                int nx = x + DIRECTIONS[i].getDeltaX();
+                int ny = y + DIRECTIONS[i].getDeltaY();
+                if (nx < minX || nx > maxX || ny < minY || ny > maxY) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (distanceStamp[neighbor] == bfsStamp
+                        || (neighbor != stopAt && !pathFinder.isWalkable(nx, ny))) {
+                    continue;
+                }
+                distanceStamp[neighbor] = bfsStamp;
+                distance[neighbor] = distance[current] + 1;
+                arrivalDir[neighbor] = (byte) i;
+                queue[tail++] = neighbor;
+            }
+        }
+    }
+
+    /**
+     * Recalcula las aristas internas de todos los nodos de un cluster.
+     * Ni el BFS ni addEdge tocan clusterScratch, así que se recorre sin copiarlo.
+     */
+    private void recomputeCluster(int cluster) {
+        int count = collectClusterNodes(cluster);
+        for (int i = 0; i < count; i++) {
+            int node = clusterScratch[i];
+            edgeCount[node] = 0;
+            boundedBfs(nodeCell[node], cluster, -1);
+            for (int j = 0; j < count; j++) {
+                int other = clusterScratch[j];
+                int otherCell = nodeCell[other];
+                if (other != node && distanceStamp[otherCell] == bfsStamp) {
+                    addEdge(node, other, distance[otherCell]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Vuelve a detectar las transiciones de un borde y recalcula el cluster vecino.
+     */
+    private void rebuildBorder(int border, int neighborCluster) {
+        for (int i = 0; i < borderNodeCount[border]; i++) {
+            freeNode(borderNodes[border][i]);
+        }
+        borderNodeCount[border] = 0;
+        scanBorder(border);
+        recomputeCluster(neighborCluster);
+    }
+
+    /**
+     * Detecta las entradas de un borde y crea sus transiciones.
+     */
+    private void scanBorder(int border) {
+        boolean vertical = border < verticalBorders;
+        int cx;
+        int cy;
+        if (vertical) {
+            cx = border / clustersY;
+            cy = border % clustersY;
+        } else {
+            int offset = border - verticalBorders;
+            cx = offset / (clustersY - 1);
+            cy = offset % (clustersY - 1);
+        }
+        int fixed = vertical ? (cx + 1) * clusterSize - 1 : (cy + 1) * clusterSize - 1;
+        int from = vertical ? cy * clusterSize : cx * clusterSize;
+        int to = vertical ? Math.min(height, from + clusterSize) : Math.min(width, from + clusterSize);
+        int first = clusterId(cx, cy);
+        int second = vertical ? clusterId(cx + 1, cy) : clusterId(cx, cy + 1);
+        int runStart = -1;
+        for (int t = from; t <= to; t++) {
+            boolean open = t < to && (vertical
+                    ? pathFinder.isWalkable(fixed, t) && pathFinder.isWalkable(fixed + 1, t)
+                    : pathFinder.isWalkable(t, fixed) && pathFinder.isWalkable(t, fixed + 1));
+            if (open && runStart < 0) {
+                runStart = t;
+            } else if (!open && runStart >= 0) {
+                int runEnd = t - 1;
+                if (runEnd - runStart + 1 >= LONG_ENTRANCE) {
+                    addTransition(border, vertical, fixed, runStart, first, second);
+                    addTransition(border, vertical, fixed, runEnd, first, second);
+                } else {
+                    addTransition(border, vertical, fixed, (runStart + runEnd) / 2, first, second);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private void addTransition(int border, boolean vertical, int fixed, int t, int first, int second) {
+        int a = allocateNode(vertical ? fixed * height + t : t * height + fixed, first);
+        int b = allocateNode(vertical ? (fixed + 1) * height + t : t * height + fixed + 1, second);
+        nodePeer[a] = b;
+        nodePeer[b] = a;
+        if (borderNodes[border] == null || borderNodes[border].length < borderNodeCount[border] + 2) {
+            borderNodes[border] = borderNodes[border] == null
+                    ? new int[4]
+                    : Arrays.copyOf(borderNodes[border], borderNodes[border].length * 2);
+        }
+        borderNodes[border][borderNodeCount[border]++] = a;
+        borderNodes[border][borderNodeCount[border]++] = b;
+    }
+
+    private int allocateNode(int cell, int cluster) {
+        int node;
+        if (freeCount > 0) {
+            node = freeNodes[--freeCount];
+        } else {
+            if (nodeLimit == nodeCell.length) {
+                growNodes();
+            }
+            node = nodeLimit++;
+        }
+        nodeCell[node] = cell;
+        nodeCluster[node] = cluster;
+        nodePeer[node] = -1;
+        edgeCount[node] = 0;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        nodeCluster[node] = -1;
+        nodePeer[node] = -1;
+        edgeCount[node] = 0;
+        freeNodes[freeCount++] = node;
+    }
+
+    private void growNodes() {
+        int capacity = nodeCell.length * 2;
+        nodeCell = Arrays.copyOf(nodeCell, capacity);
+        nodeCluster = Arrays.copyOf(nodeCluster, capacity);
+        nodePeer = Arrays.copyOf(nodePeer, capacity);
+        edgeTarget = Arrays.copyOf(edgeTarget, capacity);
+        edgeCost = Arrays.copyOf(edgeCost, capacity);
+        edgeCount = Arrays.copyOf(edgeCount, capacity);
+        freeNodes = Arrays.copyOf(freeNodes, capacity);
+    }
+
+    private void addEdge(int node, int target, int cost) {
+        int count = edgeCount[node];
+        if (edgeTarget[node] == null || edgeTarget[node].length == count) {
+            int capacity = edgeTarget[node] == null ? 8 : count * 2;
+            edgeTarget[node] = edgeTarget[node] == null ? new int[capacity] : Arrays.copyOf(edgeTarget[node], capacity);
+            edgeCost[node] = edgeCost[node] == null ? new int[capacity] : Arrays.copyOf(edgeCost[node], capacity);
+        }
+        edgeTarget[node][count] = target;
+        edgeCost[node][count] = cost;
+        edgeCount[node] = count + 1;
+    }
+
+    /**
+     * Reúne en clusterScratch los nodos activos de un cluster.
+     *
+     * @return la cantidad de nodos
+     */
+    private int collectClusterNodes(int cluster) {
+        int cx = cluster / clustersY;
+        int cy = cluster % clustersY;
+        int count = 0;
+        if (cx > 0) {
+            count = collectBorder(verticalBorder(cx - 1, cy), cluster, count);
+        }
+        if (cx < clustersX - 1) {
+            count = collectBorder(verticalBorder(cx, cy), cluster, count);
+        }
+        if (cy > 0) {
+            count = collectBorder(horizontalBorder(cx, cy - 1), cluster, count);
+        }
+        if (cy < clustersY - 1) {
+            count = collectBorder(horizontalBorder(cx, cy), cluster, count);
+        }
+        return count;
+    }
+
+    private int collectBorder(int border, int cluster, int count) {
+        for (int i = 0; i < borderNodeCount[border]; i++) {
+            int node = borderNodes[border][i];
+            if (nodeCluster[node] == cluster) {
+                if (clusterScratch.length == count) {
+                    clusterScratch = Arrays.copyOf(clusterScratch, clusterScratch.length * 2);
+                }
+                clusterScratch[count++] = node;
+            }
+        }
+        return count;
+    }
+
+    private Direction directionBetween(int fromCell, int toCell) {
+        int dx = toCell / height - fromCell / height;
+        int dy = toCell % height - fromCell % height;
+        return dx > 0 ? Direction.RIGHT : dx < 0 ? Direction.LEFT : dy > 0 ? Direction.DOWN : Direction.UP;
+    }
+
+    private int clusterId(int cx, int cy) {
+        return cx * clustersY + cy;
+    }
+
+    private int verticalBorder(int cx, int cy) {
+        return cx * clustersY + cy;
+    }
+
+    private int horizontalBorder(int cx, int cy) {
+        return verticalBorders + cx * (clustersY - 1) + cy;
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            rebuild();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package main.domain.util;
+
+import main.domain.enums.Direction;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Camino compacto e inmutable: cada dirección ocupa 2 bits de un long[]
+ * (32 pasos por palabra). Se recorre por índice sin crear objetos y ofrece
+ * una vista List perezosa para el código que espera List&lt;Direction&gt;.
+ * Un camino de 60 pasos ocupa 16 bytes de datos frente a los más de 240 de
+ * un ArrayList de referencias.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public final class CompactPath {
+
+    /** Camino vacío compartido */
+    public static final CompactPath EMPTY = new CompactPath(new long[0], 0);
+
+    /** Pasos que caben en cada palabra */
+    private static final int STEPS_PER_WORD = 32;
+
+    /** Direcciones indexadas por su código de 2 bits (su ordinal) */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /** Códigos de 2 bits empaquetados */
+    private final long[] words;
+
+    /** Número de pasos */
+    private final int length;
+
+    /** Vista List creada al primer uso */
+    private List<Direction> view;
+
+    /**
+     * Constructor de CompactPath a partir de palabras ya codificadas.
+     *
+     * @param words códigos empaquetados (no se copian)
+     * @param length número de pasos
+     */
+    CompactPath(long[] words, int length) {
+        this.words = words;
+        this.length = length;
+    }
+
+    /**
+     * Codifica una lista de direcciones.
+     *
+     * @param directions las direcciones (sin elementos null)
+     * @return el camino compacto
+     */
+    public static CompactPath of(List<Direction> directions) {
+        if (directions == null || directions.isEmpty()) {
+            return EMPTY;
+        }
+        long[] words = allocate(directions.size());
+        for (int i = 0; i < directions.size(); i++) {
+            set(words, i, directions.get(i));
+        }
+        return new CompactPath(words, directions.size());
+    }
+
+    /**
+     * Reserva las palabras necesarias para un número de pasos.
+     */
+    static long[] allocate(int length) {
+        return new long[(length + STEPS_PER_WORD - 1) / STEPS_PER_WORD];
+    }
+
+    /**
+     * Escribe el paso index en unas palabras recién reservadas.
+     */
+    static void set(long[] words, int index, Direction direction) {
+        words[index >>> 5] |= (long) direction.ordinal() << ((index & 31) << 1);
+    }
+
+    /**
+     * Obtiene el número de pasos.
+     *
+     * @return los pasos
+     */
+    public int size() {
+        return length;
+    }
+
+    /**
+     * Indica si el camino no tiene pasos.
+     *
+     * @return true si está vacío
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Obtiene la dirección de un paso.
+     *
+     * @param index número de paso
+     * @return la dirección
+     * @throws IndexOutOfBoundsException si el paso no existe
+     */
+    public Direction get(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Paso " + index + " de " + length);
+        }
+        return DIRECTIONS[(int) (words[index >>> 5] >>> ((index & 31) << 1)) & 3];
+    }
+
+    /**
+     * Obtiene el primer paso.
+     *
+     * @return la primera dirección, o null si está vacío
+     */
+    public Direction first() {
+        return length == 0 ? null : get(0);
+    }
+
+    /**
+     * Obtiene los bytes que ocupan los pasos codificados.
+     *
+     * @return bytes de datos
+     */
+    public int getEncodedBytes() {
+        return words.length * Long.BYTES;
+    }
+
+    /**
+     * Obtiene una vista List de solo lectura del camino.
+     *
+     * @return la vista, creada una sola vez
+     */
+    public List<Direction> asList() {
+        if (view == null) {
+            view = new AbstractList<Direction>() {
+                @Override
+                public Direction get(int index) {
+                    return CompactPath.this.get(index);
+                }
+
+                @Override
+                public int size() {
+                    return length;
+                }
+            };
+        }
+        return view;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        CompactPath that = (CompactPath) obj;
+        return length == that.length && Arrays.equals(words, that.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * length + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactPath" + asList();
+    }
+}
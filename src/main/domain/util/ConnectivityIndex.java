@@ -0,0 +1,281 @@
+package main.domain.util;
+
+import java.util.Arrays;
+
+/**
+ * Índice de componentes conexas sobre las celdas transitables del mapa.
+ * Permite responder en O(1) si dos celdas están conectadas, evitando
+ * búsquedas A* completas cuando el destino es inalcanzable.
+ * Se actualiza de forma incremental cuando una celda se bloquea o se libera.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class ConnectivityIndex {
+
+    /** Etiqueta de una celda no transitable */
+    public static final int BLOCKED = -1;
+
+    /** PathFinder que define qué celdas son transitables */
+    private final PathFinder pathFinder;
+
+    /** Dimensiones del mapa */
+    private final int width;
+    private final int height;
+
+    /** Etiqueta de componente por celda (índice x * height + y) */
+    private final int[] labels;
+
+    /** Union-find sobre las etiquetas de componente */
+    private final int[] parent;
+
+    /** Siguiente etiqueta libre */
+    private int nextLabel;
+
+    /** Cola reutilizable para los recorridos en anchura */
+    private final int[] queue;
+
+    /** Indica si el índice ya fue construido */
+    private boolean built;
+
+    /**
+     * Constructor de ConnectivityIndex.
+     *
+     * @param pathFinder el PathFinder cuyo mapa se indexa
+     * @param width ancho del mapa
+     * @param height alto del mapa
+     */
+    public ConnectivityIndex(PathFinder pathFinder, int width, int height) {
+        this.pathFinder = pathFinder;
+        this.width = width;
+        this.height = height;
+        int size = width * height;
+        this.labels = new int[size];
+        this.parent = new int[Math.max(16, size * 2)];
+        this.queue = new int[size];
+        this.built = false;
+    }
+
+    /**
+     * Reconstruye todas las componentes desde cero.
+     */
+    public void rebuild() {
+        Arrays.fill(labels, BLOCKED);
+        nextLabel = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int index = x * height + y;
+                if (labels[index] == BLOCKED && pathFinder.isWalkable(x, y)) {
+                    int label = newLabel();
+                    labels[index] = label;
+                    flood(index, label, BLOCKED, true);
+                }
+            }
+        }
+        built = true;
+    }
+
+    /**
+     * Invalida el índice; se reconstruirá en la siguiente consulta.
+     */
+    public void invalidate() {
+        built = false;
+    }
+
+    /**
+     * Indica si el índice está construido.
+     *
+     * @return true si está construido
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Verifica si dos celdas pertenecen a la misma componente.
+     * Si el origen no es transitable (p. ej. un monstruo encerrado en hielo),
+     * se consideran sus vecinos transitables.
+     *
+     * @param startX coordenada X de origen
+     * @param startY coordenada Y de origen
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @return true si existe un camino entre ambas celdas
+     */
+    public boolean isConnected(int startX, int startY, int endX, int endY) {
+        ensureBuilt();
+        int end = getComponent(endX, endY);
+        if (end == BLOCKED) {
+            return false;
+        }
+        int start = getComponent(startX, startY);
+        if (start != BLOCKED) {
+            return start == end;
+        }
+        for (int i = 0; i < 4; i++) {
+            if (getComponent(startX + DX[i], startY + DY[i]) == end) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene la componente de una celda.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     * @return el identificador de componente, o BLOCKED
+     */
+    public int getComponent(int x, int y) {
+        ensureBuilt();
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return BLOCKED;
+        }
+        int label = labels[x * height + y];
+        return label == BLOCKED ? BLOCKED : find(label);
+    }
+
+    /**
+     * Notifica que una celda ha cambiado de transitabilidad.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     */
+    public void onCellChanged(int x, int y) {
+        if (!built || x < 0 || x >= width || y < 0 || y >= height) {
+            return;
+        }
+        if (nextLabel + 4 >= parent.length) {
+            // Demasiadas etiquetas obsoletas: reconstruir es más barato
+            rebuild();
+            return;
+        }
+        if (pathFinder.isWalkable(x, y)) {
+            open(x * height + y, x, y);
+        } else {
+            block(x * height + y, x, y);
+        }
+    }
+
+    /**
+     * Une una celda recién liberada con sus vecinos: O(α) por vecino.
+     */
+    private void open(int index, int x, int y) {
+        if (labels[index] != BLOCKED) {
+            return;
+        }
+        int root = newLabel();
+        labels[index] = root;
+        for (int i = 0; i < 4; i++) {
+            int nx = x + DX[i];
+            int ny = y + DY[i];
+            if (nx < 0 || nx >= width || ny < 0 || ny >= height) {
+                continue;
+            }
+            int label = labels[nx * height + ny];
+            if (label != BLOCKED) {
+                int other = find(label);
+                if (other != root) {
+                    parent[other] = root;
+                }
+            }
+        }
+    }
+
+    /**
+     * Bloquea una celda y separa su componente si queda dividida.
+     * El coste es proporcional al tamaño de la componente afectada.
+     */
+    private void block(int index, int x, int y) {
+        int label = labels[index];
+        if (label == BLOCKED) {
+            return;
+        }
+        int root = find(label);
+        labels[index] = BLOCKED;
+        for (int i = 0; i < 4; i++) {
+            int nx = x + DX[i];
+            int ny = y + DY[i];
+            if (nx < 0 || nx >= width || ny < 0 || ny >= height) {
+                continue;
+            }
+            int neighbor = nx * height + ny;
+            int neighborLabel = labels[neighbor];
+            if (neighborLabel != BLOCKED && find(neighborLabel) == root) {
+                int fresh = newLabel();
+                labels[neighbor] = fresh;
+                flood(neighbor, fresh, root, false);
+            }
+        }
+    }
+
+    /**
+     * Recorre en anchura asignando una etiqueta a las celdas alcanzables.
+     *
+     * @param from celda inicial, ya etiquetada
+     * @param label etiqueta a asignar
+     * @param sourceRoot raíz de las celdas a reetiquetar
+     * @param unlabeled true si se recorren celdas aún sin etiqueta
+     */
+    private void flood(int from, int label, int sourceRoot, boolean unlabeled) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        while (head < tail) {
+            int current = queue[head++];
+            int cx = current / height;
+            int cy = current % height;
+            for (int i = 0; i < 4; i++) {
+                int nx = cx + DX[i];
+                int ny = cy + DY[i];
+                if (nx < 0 || nx >= width || ny < 0 || ny >= height) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                int neighborLabel = labels[neighbor];
+                boolean matches = unlabeled
+                        ? neighborLabel == BLOCKED && pathFinder.isWalkable(nx, ny)
+                        : neighborLabel != BLOCKED && find(neighborLabel) == sourceRoot;
+                if (matches) {
+                    labels[neighbor] = label;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserva una nueva etiqueta.
+     */
+    private int newLabel() {
+        parent[nextLabel] = nextLabel;
+        return nextLabel++;
+    }
+
+    /**
+     * Busca la raíz de una etiqueta con compresión de caminos.
+     */
+    private int find(int label) {
+        int root = label;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[label] != root) {
+            int next = parent[label];
+            parent[label] = root;
+            label = next;
+        }
+        return root;
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            rebuild();
+        }
+    }
+
+    /** Desplazamientos de los cuatro vecinos */
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+}
@@ -0,0 +1,347 @@
+package main.domain.util;
+
+import main.domain.enums.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Planificador cooperativo de ventana (WHCA*) para varios monstruos que
+ * persiguen a la vez. Cada monstruo busca en el espacio (celda, tick) durante
+ * una ventana corta, evitando las celdas que otros ya reservaron y los
+ * intercambios de posición, y después reserva su propio recorrido. Así los
+ * monstruos que planifican después rodean a los anteriores en lugar de
+ * seguirlos en fila. Más allá de la ventana se estima el resto con la
+ * distancia real al objetivo, calculada por un BFS compartido por todos.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class CooperativePlanner {
+
+    /** Ticks de la ventana por defecto */
+    public static final int DEFAULT_WINDOW = 8;
+
+    /** Distancia de una celda desde la que no se alcanza el objetivo */
+    private static final int INFINITY = Integer.MAX_VALUE / 4;
+
+    /** Campos de distancia al objetivo que se mantienen en caché */
+    private static final int FIELD_SLOTS = 4;
+
+    /** PathFinder que define el mapa y el presupuesto */
+    private final PathFinder pathFinder;
+
+    /** Reservas de la ventana actual */
+    private final ReservationTable reservations;
+
+    /** Ticks de la ventana y lado de la caja local que cubre */
+    private final int window;
+    private final int side;
+
+    /** Estado de la búsqueda espacio-tiempo, indexado en la caja local */
+    private final int[] gScore;
+    private final int[] parentState;
+    private final int[] seenStamp;
+    private final IndexedMinHeap openSet;
+    private int searchId;
+
+    /** Recorrido elegido, reutilizado para reservar */
+    private final int[] pathCells;
+
+    /** Caché de campos de distancia al objetivo */
+    private final int[][] fields;
+    private final int[] fieldGoal;
+    private final long[] fieldChangeCount;
+    private final int[] fieldMapVersion;
+    private int nextSlot;
+    private int[] queue;
+
+    /** Siguiente identificador de agente */
+    private int nextAgent;
+
+    /** Indica si la última consulta se quedó sin presupuesto */
+    private boolean pending;
+
+    /** Estados expandidos y encolados en la última consulta */
+    private int lastExpandedNodes;
+    private int lastPushedNodes;
+
+    /** Movimientos posibles: las cuatro direcciones y esperar */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Constructor de CooperativePlanner con la ventana por defecto.
+     *
+     * @param pathFinder el PathFinder del mapa
+     */
+    public CooperativePlanner(PathFinder pathFinder) {
+        this(pathFinder, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Constructor de CooperativePlanner.
+     *
+     * @param pathFinder el PathFinder del mapa
+     * @param window ticks que abarca cada plan
+     */
+    public CooperativePlanner(PathFinder pathFinder, int window) {
+        this.pathFinder = pathFinder;
+        this.window = Math.max(1, window);
+        this.side = 2 * this.window + 1;
+        this.reservations = new ReservationTable();
+        int states = side * side * (this.window + 1);
+        this.gScore = new int[states];
+        this.parentState = new int[states];
+        this.seenStamp = new int[states];
+        this.openSet = new IndexedMinHeap(states);
+        this.pathCells = new int[this.window + 1];
+        this.fields = new int[FIELD_SLOTS][];
+        this.fieldGoal = new int[FIELD_SLOTS];
+        this.fieldChangeCount = new long[FIELD_SLOTS];
+        this.fieldMapVersion = new int[FIELD_SLOTS];
+        Arrays.fill(fieldGoal, -1);
+    }
+
+    /**
+     * Obtiene los ticks de la ventana.
+     *
+     * @return la ventana
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * Obtiene la tabla de reservas.
+     *
+     * @return las reservas de la ventana actual
+     */
+    public ReservationTable getReservations() {
+        return reservations;
+    }
+
+    /**
+     * Indica si la última consulta no terminó por falta de presupuesto.
+     *
+     * @return true si quedó pendiente
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    /**
+     * Registra un nuevo agente.
+     *
+     * @return su identificador
+     */
+    public int registerAgent() {
+        return nextAgent++;
+    }
+
+    /**
+     * Empieza una nueva ventana: todos los agentes vuelven a planificar.
+     */
+    public void beginTick() {
+        reservations.clear();
+    }
+
+    /**
+     * Planifica la ventana de un agente, reserva su recorrido y devuelve el
+     * primer paso. Los agentes que ya planificaron en este tick tienen prioridad.
+     *
+     * @param agent identificador del agente
+     * @param startX coordenada X del agente
+     * @param startY coordenada Y del agente
+     * @param targetX coordenada X del objetivo
+     * @param targetY coordenada Y del objetivo
+     * @return la dirección del primer paso, o null si debe esperar o no hay camino
+     */
+    public Direction getNextDirection(int agent, int startX, int startY, int targetX, int targetY) {
+        long started = pathFinder.startPlannerQuery();
+        Direction next = plan(agent, startX, startY, targetX, targetY);
+        pathFinder.recordPlannerQuery(started, lastExpandedNodes, lastPushedNodes,
+                next == null && !pending && (startX != targetX || startY != targetY)
+                        && !pathFinder.isReachable(startX, startY, targetX, targetY));
+        return next;
+    }
+
+    /**
+     * Cuerpo de getNextDirection sin instrumentación.
+     */
+    private Direction plan(int agent, int startX, int startY, int targetX, int targetY) {
+        pending = false;
+        lastExpandedNodes = 0;
+        lastPushedNodes = 0;
+        if (!pathFinder.isValidPosition(startX, startY) || !pathFinder.isValidPosition(targetX, targetY)
+                || (startX == targetX && startY == targetY)
+                || !pathFinder.isReachable(startX, startY, targetX, targetY)) {
+            return null;
+        }
+        int height = pathFinder.getHeight();
+        int start = startX * height + startY;
+        int goal = targetX * height + targetY;
+        int[] distance = getField(goal);
+
+        int end = search(agent, start, startX, startY, goal, distance);
+        if (end < 0) {
+            // Sin plan (o sin presupuesto): solo se reserva la celda actual
+            reservations.reserve(start, 0, agent);
+            return null;
+        }
+
+        int length = 0;
+        for (int state = end; state >= 0; state = parentState[state]) {
+            pathCells[length++] = cellOf(state, startX, startY, height);
+        }
+        for (int t = 0; t < length; t++) {
+            reservations.reserve(pathCells[length - 1 - t], t, agent);
+        }
+        if (length < 2) {
+            return null;
+        }
+        int next = pathCells[length - 2];
+        int dx = next / height - startX;
+        int dy = next % height - startY;
+        if (dx == 0 && dy == 0) {
+            return null;
+        }
+        return dx > 0 ? Direction.RIGHT : dx < 0 ? Direction.LEFT
+                : dy > 0 ? Direction.DOWN : Direction.UP;
+    }
+
+    /**
+     * A* en espacio-tiempo dentro de la ventana.
+     *
+     * @return el estado final, o -1 si no hay plan
+     */
+    private int search(int agent, int start, int startX, int startY, int goal, int[] distance) {
+        openSet.clear();
+        if (++searchId == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamp, 0);
+            searchId = 1;
+        }
+        int height = pathFinder.getHeight();
+        int first = stateOf(startX, startY, 0, startX, startY);
+        open(first, -1, 0, distance[start]);
+
+        while (!openSet.isEmpty()) {
+            if (!pathFinder.tryExpand()) {
+                pending = true;
+                return -1;
+            }
+            int state = openSet.poll();
+            lastExpandedNodes++;
+            int t = state % (window + 1);
+            int cell = cellOf(state, startX, startY, height);
+            if (cell == goal || t == window) {
+                return state;
+            }
+            int cx = cell / height;
+            int cy = cell % height;
+            for (int i = 0; i <= DIRECTIONS.length; i++) {
+                int nx = i < DIRECTIONS.length ? cx + DIRECTIONS[i].getDeltaX() : cx;
+                int ny = i < DIRECTIONS.length ? cy + DIRECTIONS[i].getDeltaY() : cy;
+                if (i < DIRECTIONS.length && !pathFinder.isWalkable(nx, ny)) {
+                    continue;
+                }
+                int next = nx * height + ny;
+                if (distance[next] >= INFINITY && next != start) {
+                    continue;
+                }
+                if (next != goal && reservations.isReservedByOther(next, t + 1, agent)) {
+                    continue;
+                }
+                if (isSwap(agent, cell, next, t)) {
+                    continue;
+                }
+                int successor = stateOf(nx, ny, t + 1, startX, startY);
+                int g = gScore[state] + 1;
+                if (seenStamp[successor] != searchId || g < gScore[successor]) {
+                    open(successor, state, g, Math.min(distance[next], INFINITY));
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Verifica si moverse de cell a next choca de frente con otro agente
+     * que hace el movimiento contrario en el mismo tick.
+     */
+    private boolean isSwap(int agent, int cell, int next, int t) {
+        if (cell == next) {
+            return false;
+        }
+        int holder = reservations.getHolder(next, t);
+        return holder != ReservationTable.FREE && holder != agent
+                && reservations.getHolder(cell, t + 1) == holder;
+    }
+
+    private void open(int state, int parent, int g, int h) {
+        seenStamp[state] = searchId;
+        gScore[state] = g;
+        parentState[state] = parent;
+        openSet.insertOrUpdate(state, ((long) (g + h) << 32) | (Integer.MAX_VALUE - g));
+        lastPushedNodes++;
+    }
+
+    /**
+     * Estado de la caja local centrada en el inicio: ((lx * lado) + ly) * (ventana + 1) + t.
+     */
+    private int stateOf(int x, int y, int t, int startX, int startY) {
+        int lx = x - startX + window;
+        int ly = y - startY + window;
+        return ((lx * side) + ly) * (window + 1) + t;
+    }
+
+    private int cellOf(int state, int startX, int startY, int height) {
+        int local = state / (window + 1);
+        int x = local / side - window + startX;
+        int y = local % side - window + startY;
+        return x * height + y;
+    }
+
+    /**
+     * Obtiene (o calcula con BFS) la distancia de cada celda al objetivo.
+     */
+    private int[] getField(int goal) {
+        for (int i = 0; i < FIELD_SLOTS; i++) {
+            if (fieldGoal[i] == goal && fieldChangeCount[i] == pathFinder.getChangeCount()
+                    && fieldMapVersion[i] == pathFinder.getMapVersion()) {
+                return fields[i];
+            }
+        }
+        int size = pathFinder.getWidth() * pathFinder.getHeight();
+        int slot = nextSlot;
+        nextSlot = (nextSlot + 1) % FIELD_SLOTS;
+        if (fields[slot] == null || fields[slot].length != size) {
+            fields[slot] = new int[size];
+        }
+        if (queue == null || queue.length != size) {
+            queue = new int[size];
+        }
+        int[] field = fields[slot];
+        Arrays.fill(field, INFINITY);
+        int height = pathFinder.getHeight();
+        int head = 0;
+        int tail = 0;
+        field[goal] = 0;
+        queue[tail++] = goal;
+        while (head < tail) {
+            int current = queue[head++];
+            int cx = current / height;
+            int cy = current % height;
+            for (Direction dir : DIRECTIONS) {
+                int nx = cx + dir.getDeltaX();
+                int ny = cy + dir.getDeltaY();
+                if (pathFinder.isWalkable(nx, ny) && field[nx * height + ny] == INFINITY) {
+                    field[nx * height + ny] = field[current] + 1;
+                    queue[tail++] = nx * height + ny;
+                }
+            }
+        }
+        fieldGoal[slot] = goal;
+        fieldChangeCount[slot] = pathFinder.getChangeCount();
+        fieldMapVersion[slot] = pathFinder.getMapVersion();
+        return field;
+    }
+}
@@ -0,0 +1,555 @@
+package main.domain.util;
+
+import main.domain.enums.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Grafo de pasillos contraído para buscar caminos en laberintos.
+ * Las celdas con exactamente dos vecinos transitables son celdas de pasillo;
+ * el resto (cruces, esquinas de salas, callejones sin salida) son nodos.
+ * Cada pasillo se reduce a una arista entre dos nodos con su longitud, de
+ * modo que A* expande nodos en lugar de celdas. El camino encontrado se
+ * vuelve a expandir en direcciones recorriendo los pasillos.
+ * Al cambiar una celda solo se reconstruyen las aristas de su vecindario.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class CorridorGraph {
+
+    /** Valor de enlace o arista inexistente */
+    private static final int NONE = -1;
+
+    /** PathFinder que define qué celdas son transitables */
+    private final PathFinder pathFinder;
+
+    /** Dimensiones del mapa */
+    private final int width;
+    private final int height;
+    private final int size;
+
+    /** Indica si cada celda es un nodo (índice x * height + y) */
+    private final boolean[] node;
+
+    /** Arista que sale de cada nodo en cada dirección (índice celda * 4 + dirección) */
+    private final int[] links;
+
+    /** Arista y distancia al extremo A de cada celda de pasillo */
+    private final int[] cellEdge;
+    private final int[] cellOffset;
+
+    /** Aristas: extremos, dirección de salida en cada extremo y longitud */
+    private int[] edgeA;
+    private int[] edgeDirA;
+    private int[] edgeB;
+    private int[] edgeDirB;
+    private int[] edgeLength;
+    private int edgeTop;
+    private int[] freeEdges;
+    private int freeCount;
+
+    /** Número de nodos y aristas vigentes */
+    private int nodeCount;
+    private int edgeCount;
+
+    /** Indica si el grafo está construido */
+    private boolean built;
+
+    /** Estado de la búsqueda; los índices size y size + 1 son el inicio y el destino virtuales */
+    private final int[] gScore;
+    private final int[] parentNode;
+    private final int[] parentEdge;
+    private final int[] parentFrom;
+    private final int[] parentTo;
+    private final int[] seenStamp;
+    private final int[] closedStamp;
+    private final IndexedMinHeap openSet;
+    private int searchId;
+    private int lastExpandedNodes;
+
+    /** Buffers reutilizables para reconstruir y actualizar */
+    private final int[] trail;
+    private final int[] stepDirs;
+    private final int[] endpoints;
+    private final int[] neighborhood = new int[5];
+
+    /** Direcciones; el índice opuesto de d es d ^ 1 */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Constructor de CorridorGraph.
+     *
+     * @param pathFinder el PathFinder cuyo mapa se contrae
+     * @param width ancho del mapa
+     * @param height alto del mapa
+     */
+    public CorridorGraph(PathFinder pathFinder, int width, int height) {
+        this.pathFinder = pathFinder;
+        this.width = width;
+        this.height = height;
+        this.size = width * height;
+        this.node = new boolean[size];
+        this.links = new int[size * 4];
+        this.cellEdge = new int[size];
+        this.cellOffset = new int[size];
+        allocateEdges(16);
+        this.gScore = new int[size + 2];
+        this.parentNode = new int[size + 2];
+        this.parentEdge = new int[size + 2];
+        this.parentFrom = new int[size + 2];
+        this.parentTo = new int[size + 2];
+        this.seenStamp = new int[size + 2];
+        this.closedStamp = new int[size + 2];
+        this.openSet = new IndexedMinHeap(size + 2);
+        this.trail = new int[size + 2];
+        this.stepDirs = new int[size + 1];
+        this.endpoints = new int[40];
+        this.built = false;
+    }
+
+    /**
+     * Reconstruye el grafo completo.
+     */
+    public void rebuild() {
+        Arrays.fill(links, NONE);
+        Arrays.fill(cellEdge, NONE);
+        edgeTop = 0;
+        freeCount = 0;
+        edgeCount = 0;
+        nodeCount = 0;
+        for (int cell = 0; cell < size; cell++) {
+            node[cell] = isNodeCell(cell);
+            if (node[cell]) {
+                nodeCount++;
+            }
+        }
+        for (int cell = 0; cell < size; cell++) {
+            if (node[cell]) {
+                walkAll(cell);
+            }
+        }
+        for (int cell = 0; cell < size; cell++) {
+            promoteIfCycle(cell);
+        }
+        built = true;
+    }
+
+    /**
+     * Notifica que una celda cambió de transitabilidad: se eliminan las
+     * aristas de la celda y sus vecinas y se vuelven a trazar desde sus extremos.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     */
+    public void onCellChanged(int x, int y) {
+        if (!built || !pathFinder.isValidPosition(x, y)) {
+            return;
+        }
+        int count = 0;
+        neighborhood[count++] = x * height + y;
+        for (int d = 0; d < 4; d++) {
+            int nx = x + DIRECTIONS[d].getDeltaX();
+            int ny = y + DIRECTIONS[d].getDeltaY();
+            if (pathFinder.isValidPosition(nx, ny)) {
+                neighborhood[count++] = nx * height + ny;
+            }
+        }
+
+        // 1. Quitar las aristas que tocan el vecindario
+        int endpointCount = 0;
+        for (int i = 0; i < count; i++) {
+            int cell = neighborhood[i];
+            if (node[cell]) {
+                for (int d = 0; d < 4; d++) {
+                    if (links[cell * 4 + d] != NONE) {
+                        endpointCount = removeEdge(links[cell * 4 + d], endpointCount);
+                    }
+                }
+            } else if (cellEdge[cell] != NONE) {
+                endpointCount = removeEdge(cellEdge[cell], endpointCount);
+            }
+        }
+
+        // 2. Recalcular qué celdas del vecindario son nodos
+        for (int i = 0; i < count; i++) {
+            int cell = neighborhood[i];
+            boolean isNode = isNodeCell(cell);
+            if (isNode != node[cell]) {
+                nodeCount += isNode ? 1 : -1;
+                node[cell] = isNode;
+            }
+        }
+
+        // 3. Volver a trazar desde los extremos y los nodos del vecindario
+        for (int i = 0; i < endpointCount; i++) {
+            if (node[endpoints[i]]) {
+                walkAll(endpoints[i]);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (node[neighborhood[i]]) {
+                walkAll(neighborhood[i]);
+            }
+        }
+
+        // 4. Pasillos cerrados sin ningún nodo
+        for (int i = 0; i < count; i++) {
+            promoteIfCycle(neighborhood[i]);
+        }
+    }
+
+    /**
+     * Obtiene el número de nodos del grafo.
+     *
+     * @return los nodos
+     */
+    public int getNodeCount() {
+        ensureBuilt();
+        return nodeCount;
+    }
+
+    /**
+     * Obtiene el número de aristas (pasillos) del grafo.
+     *
+     * @return las aristas
+     */
+    public int getEdgeCount() {
+        ensureBuilt();
+        return edgeCount;
+    }
+
+    /**
+     * Obtiene los nodos expandidos en la última búsqueda.
+     *
+     * @return nodos expandidos
+     */
+    public int getLastExpandedNodes() {
+        return lastExpandedNodes;
+    }
+
+    /**
+     * Encuentra el camino más corto entre dos celdas transitables.
+     *
+     * @param startX coordenada X de inicio
+     * @param startY coordenada Y de inicio
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @return lista de direcciones, o lista vacía si no hay camino
+     */
+    public List<Direction> findPath(int startX, int startY, int endX, int endY) {
+        int segments = search(startX * height + startY, endX * height + endY);
+        if (segments < 0) {
+            return Collections.emptyList();
+        }
+        List<Direction> path = new ArrayList<>(gScore[trail[0]]);
+        for (int i = segments - 1; i >= 0; i--) {
+            int node = trail[i];
+            appendSegment(parentEdge[node], parentFrom[node], parentTo[node], path, Integer.MAX_VALUE);
+        }
+        return path;
+    }
+
+    /**
+     * Obtiene la primera dirección del camino más corto sin expandirlo entero.
+     *
+     * @param startX coordenada X de inicio
+     * @param startY coordenada Y de inicio
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @return la primera dirección, o null si no hay camino
+     */
+    public Direction getNextDirection(int startX, int startY, int endX, int endY) {
+        int segments = search(startX * height + startY, endX * height + endY);
+        if (segments < 0) {
+            return null;
+        }
+        List<Direction> first = new ArrayList<>(1);
+        int node = trail[segments - 1];
+        appendSegment(parentEdge[node], parentFrom[node], parentTo[node], first, 1);
+        return first.isEmpty() ? null : first.get(0);
+    }
+
+    /**
+     * A* sobre los nodos del grafo. Si el inicio o el destino están en
+     * mitad de un pasillo se conectan con los dos extremos de su arista.
+     *
+     * @return número de tramos del camino (guardados en trail, del último al
+     *         primero), o -1 si no hay camino
+     */
+    private int search(int start, int goal) {
+        ensureBuilt();
+        lastExpandedNodes = 0;
+        if (start == goal) {
+            return -1;
+        }
+        openSet.clear();
+        if (++searchId == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            searchId = 1;
+        }
+        int startNode = size;
+        int goalNode = size + 1;
+        int goalEdge = node[goal] ? NONE : cellEdge[goal];
+        int goalOffset = cellOffset[goal];
+        int target = node[goal] ? goal : goalNode;
+
+        if (node[start]) {
+            startNode = start;
+            relax(start, NONE, NONE, 0, 0, 0, goal);
+        } else {
+            int e = cellEdge[start];
+            int offset = cellOffset[start];
+            seenStamp[startNode] = searchId;
+            gScore[startNode] = 0;
+            relax(edgeA[e], startNode, e, offset, 0, offset, goal);
+            relax(edgeB[e], startNode, e, offset, edgeLength[e], edgeLength[e] - offset, goal);
+            if (e == goalEdge) {
+                relax(goalNode, startNode, e, offset, goalOffset, Math.abs(offset - goalOffset), goal);
+            }
+        }
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            if (current == target) {
+                int count = 0;
+                for (int n = target; n != startNode; n = parentNode[n]) {
+                    trail[count++] = n;
+                }
+                return count;
+            }
+            closedStamp[current] = searchId;
+            lastExpandedNodes++;
+            int g = gScore[current];
+
+            if (goalEdge != NONE) {
+                if (current == edgeA[goalEdge]) {
+                    relax(goalNode, current, goalEdge, 0, goalOffset, g + goalOffset, goal);
+                }
+                if (current == edgeB[goalEdge]) {
+                    int length = edgeLength[goalEdge];
+                    relax(goalNode, current, goalEdge, length, goalOffset, g + length - goalOffset, goal);
+                }
+            }
+            for (int d = 0; d < 4; d++) {
+                int e = links[current * 4 + d];
+                if (e == NONE) {
+                    continue;
+                }
+                int length = edgeLength[e];
+                boolean fromA = edgeA[e] == current && edgeDirA[e] == d;
+                int other = fromA ? edgeB[e] : edgeA[e];
+                if (closedStamp[other] != searchId) {
+                    relax(other, current, e, fromA ? 0 : length, fromA ? length : 0, g + length, goal);
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void relax(int n, int parent, int edge, int from, int to, int g, int goal) {
+        if (seenStamp[n] == searchId && g >= gScore[n]) {
+            return;
+        }
+        seenStamp[n] = searchId;
+        gScore[n] = g;
+        parentNode[n] = parent;
+        parentEdge[n] = edge;
+        parentFrom[n] = from;
+        parentTo[n] = to;
+        int h = n >= size ? 0
+                : Math.abs(n / height - goal / height) + Math.abs(n % height - goal % height);
+        openSet.insertOrUpdate(n, ((long) (g + h) << 32) | (Integer.MAX_VALUE - g));
+    }
+
+    /**
+     * Añade las direcciones para recorrer una arista entre dos posiciones.
+     */
+    private void appendSegment(int e, int from, int to, List<Direction> path, int limit) {
+        if (e == NONE || from == to) {
+            return;
+        }
+        // Direcciones de cada paso desde el extremo A: stepDirs[k] lleva de k - 1 a k
+        int furthest = Math.max(from, to);
+        int dir = edgeDirA[e];
+        int x = edgeA[e] / height;
+        int y = edgeA[e] % height;
+        for (int k = 1; k <= furthest; k++) {
+            stepDirs[k] = dir;
+            x += DIRECTIONS[dir].getDeltaX();
+            y += DIRECTIONS[dir].getDeltaY();
+            if (k < furthest) {
+                dir = nextCorridorDirection(x, y, dir);
+            }
+        }
+        if (from < to) {
+            for (int k = from + 1; k <= to && path.size() < limit; k++) {
+                path.add(DIRECTIONS[stepDirs[k]]);
+            }
+        } else {
+            for (int k = from; k > to && path.size() < limit; k--) {
+                path.add(DIRECTIONS[stepDirs[k] ^ 1]);
+            }
+        }
+    }
+
+    /**
+     * Dirección de salida de una celda de pasillo a la que se entró con dir.
+     */
+    private int nextCorridorDirection(int x, int y, int dir) {
+        int back = dir ^ 1;
+        for (int d = 0; d < 4; d++) {
+            if (d != back && pathFinder.isWalkable(x + DIRECTIONS[d].getDeltaX(), y + DIRECTIONS[d].getDeltaY())) {
+                return d;
+            }
+        }
+        return back;
+    }
+
+    /**
+     * Traza las aristas que faltan desde un nodo.
+     */
+    private void walkAll(int cell) {
+        for (int d = 0; d < 4; d++) {
+            walk(cell, d);
+        }
+    }
+
+    /**
+     * Recorre el pasillo que sale de un nodo en una dirección hasta el
+     * siguiente nodo y registra la arista.
+     */
+    private void walk(int a, int d) {
+        if (links[a * 4 + d] != NONE) {
+            return;
+        }
+        int x = a / height + DIRECTIONS[d].getDeltaX();
+        int y = a % height + DIRECTIONS[d].getDeltaY();
+        if (!pathFinder.isWalkable(x, y)) {
+            return;
+        }
+        int e = newEdge();
+        int cell = x * height + y;
+        int dir = d;
+        int length = 1;
+        while (!node[cell]) {
+            cellEdge[cell] = e;
+            cellOffset[cell] = length;
+            dir = nextCorridorDirection(x, y, dir);
+            x += DIRECTIONS[dir].getDeltaX();
+            y += DIRECTIONS[dir].getDeltaY();
+            cell = x * height + y;
+            length++;
+        }
+        edgeA[e] = a;
+        edgeDirA[e] = d;
+        edgeB[e] = cell;
+        edgeDirB[e] = dir ^ 1;
+        edgeLength[e] = length;
+        links[a * 4 + d] = e;
+        links[cell * 4 + (dir ^ 1)] = e;
+    }
+
+    /**
+     * Elimina una arista, libera sus celdas de pasillo y guarda sus extremos.
+     *
+     * @return el nuevo número de extremos guardados
+     */
+    private int removeEdge(int e, int endpointCount) {
+        int a = edgeA[e];
+        int b = edgeB[e];
+        links[a * 4 + edgeDirA[e]] = NONE;
+        links[b * 4 + edgeDirB[e]] = NONE;
+        endpoints[endpointCount++] = a;
+        endpoints[endpointCount++] = b;
+
+        // Las celdas del pasillo son contiguas: se siguen por su etiqueta
+        int x = a / height + DIRECTIONS[edgeDirA[e]].getDeltaX();
+        int y = a % height + DIRECTIONS[edgeDirA[e]].getDeltaY();
+        while (pathFinder.isValidPosition(x, y) && cellEdge[x * height + y] == e) {
+            cellEdge[x * height + y] = NONE;
+            int nextX = -1;
+            int nextY = -1;
+            for (int d = 0; d < 4; d++) {
+                int nx = x + DIRECTIONS[d].getDeltaX();
+                int ny = y + DIRECTIONS[d].getDeltaY();
+                if (pathFinder.isValidPosition(nx, ny) && cellEdge[nx * height + ny] == e) {
+                    nextX = nx;
+                    nextY = ny;
+                    break;
+                }
+            }
+            x = nextX;
+            y = nextY;
+        }
+        freeEdges[freeCount++] = e;
+        edgeCount--;
+        return endpointCount;
+    }
+
+    /**
+     * Convierte en nodo una celda de un pasillo cerrado sin nodos. Si más
+     * tarde el anillo se abre, el nodo sobrante solo parte una arista en dos.
+     */
+    private void promoteIfCycle(int cell) {
+        if (!node[cell] && cellEdge[cell] == NONE && pathFinder.isWalkable(cell / height, cell % height)) {
+            node[cell] = true;
+            nodeCount++;
+            walkAll(cell);
+        }
+    }
+
+    /**
+     * Una celda transitable es nodo si no tiene exactamente dos vecinos transitables.
+     */
+    private boolean isNodeCell(int cell) {
+        int x = cell / height;
+        int y = cell % height;
+        if (!pathFinder.isWalkable(x, y)) {
+            return false;
+        }
+        int degree = 0;
+        for (Direction dir : DIRECTIONS) {
+            if (pathFinder.isWalkable(x + dir.getDeltaX(), y + dir.getDeltaY())) {
+                degree++;
+            }
+        }
+        return degree != 2;
+    }
+
+    private int newEdge() {
+        edgeCount++;
+        if (freeCount > 0) {
+            return freeEdges[--freeCount];
+        }
+        if (edgeTop == edgeA.length) {
+            int capacity = edgeA.length * 2;
+            edgeA = Arrays.copyOf(edgeA, capacity);
+            edgeDirA = Arrays.copyOf(edgeDirA, capacity);
+            edgeB = Arrays.copyOf(edgeB, capacity);
+            edgeDirB = Arrays.copyOf(edgeDirB, capacity);
+            edgeLength = Arrays.copyOf(edgeLength, capacity);
+            freeEdges = Arrays.copyOf(freeEdges, capacity);
+        }
+        return edgeTop++;
+    }
+
+    private void allocateEdges(int capacity) {
+        edgeA = new int[capacity];
+        edgeDirA = new int[capacity];
+        edgeB = new int[capacity];
+        edgeDirB = new int[capacity];
+        edgeLength = new int[capacity];
+        freeEdges = new int[capacity];
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            rebuild();
+        }
+    }
+}
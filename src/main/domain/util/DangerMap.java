@@ -0,0 +1,446 @@
+package main.domain.util;
+
+import main.domain.entities.Monster;
+import main.domain.entities.Troll;
+import main.domain.enums.Direction;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mapa de peligro para los jugadores automáticos: para cada celda guarda el
+ * primer tick en que algún monstruo puede llegar a ella, en un short[] con
+ * índice x * height + y.
+ * Los monstruos perseguidores se tratan con un BFS multi-origen (los que
+ * rompen hielo lo atraviesan a coste 1, una cota optimista). Los Trolls
+ * siguen su patrón pase lo que pase, así que sus celdas se predicen de forma
+ * exacta hasta un horizonte.
+ * El campo de cada tipo de perseguidor se actualiza de forma incremental:
+ * si solo se mueven unos pocos monstruos, se invalidan las celdas cuyo
+ * origen más cercano era uno de ellos y se repara solo esa región desde su
+ * borde. Si el mapa cambia, se recalcula entero.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class DangerMap {
+
+    /** Valor de una celda que ningún monstruo alcanza */
+    public static final short UNREACHABLE = Short.MAX_VALUE;
+
+    /** Ticks que se predicen por defecto para los Trolls */
+    public static final int DEFAULT_TROLL_HORIZON = 64;
+
+    /** Mayor distancia que se guarda; las mayores se saturan a este valor */
+    private static final short MAX_DISTANCE = Short.MAX_VALUE - 1;
+
+    /** Direcciones en orden de expansión */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /** PathFinder que define qué celdas son transitables */
+    private final PathFinder pathFinder;
+
+    /** Dimensiones del mapa del último cálculo */
+    private int width;
+    private int height;
+
+    /** Campos de los perseguidores que no rompen hielo y de los que sí */
+    private Field walkers;
+    private Field breakers;
+
+    /** Mínimo de los dos campos y resultado con los Trolls encima */
+    private short[] base;
+    private short[] arrival;
+
+    /** Celdas de arrival que los Trolls bajaron respecto a base */
+    private int[] trollCells;
+    private int trollCellCount;
+
+    /** Colas y marcas compartidas por los dos campos */
+    private int[] queue;
+    private int[] region;
+    private long[] seeds;
+
+    /** Estado del mapa del último cálculo */
+    private long changeCount;
+    private int mapVersion;
+    private boolean built;
+
+    /** Ticks predichos para los Trolls */
+    private int trollHorizon;
+
+    /** Celdas recorridas en la última actualización */
+    private int lastTouchedCells;
+
+    /**
+     * Campo de distancias desde un conjunto de orígenes, con el origen más
+     * cercano de cada celda para poder invalidar su región.
+     */
+    private final class Field {
+        private final boolean iceAllowed;
+        private final short[] distance;
+        private final int[] owner;
+        private int[] sources = new int[8];
+        private int sourceCount;
+        private int[] next = new int[8];
+        private int nextCount;
+
+        private Field(boolean iceAllowed, int size) {
+            this.iceAllowed = iceAllowed;
+            this.distance = new short[size];
+            this.owner = new int[size];
+            Arrays.fill(distance, UNREACHABLE);
+            Arrays.fill(owner, -1);
+        }
+
+        private void add(int cell) {
+            if (nextCount == next.length) {
+                next = Arrays.copyOf(next, nextCount * 2);
+            }
+            next[nextCount++] = cell;
+        }
+
+        /**
+         * Aplica los orígenes añadidos desde la última vez.
+         *
+         * @return true si alguna distancia cambió
+         */
+        private boolean commit(boolean rebuild) {
+            Arrays.sort(next, 0, nextCount);
+            int unique = 0;
+            for (int i = 0; i < nextCount; i++) {
+                if (unique == 0 || next[unique - 1] != next[i]) {
+                    next[unique++] = next[i];
+                }
+            }
+            nextCount = unique;
+            boolean same = !rebuild && nextCount == sourceCount
+                    && Arrays.equals(next, 0, nextCount, sources, 0, sourceCount);
+            if (same) {
+                nextCount = 0;
+                return false;
+            }
+
+            int seedCount = 0;
+            if (rebuild) {
+                Arrays.fill(distance, UNREACHABLE);
+                Arrays.fill(owner, -1);
+                for (int i = 0; i < nextCount; i++) {
+                    seedCount = claim(next[i], seedCount);
+                }
+            } else {
+                // Las regiones de los orígenes que desaparecen quedan sin valor
+                int regionCount = 0;
+                int i = 0;
+                int j = 0;
+                while (i < sourceCount || j < nextCount) {
+                    if (j == nextCount || (i < sourceCount && sources[i] < next[j])) {
+                        regionCount = invalidate(sources[i++], regionCount);
+                    } else if (i == sourceCount || next[j] < sources[i]) {
+                        j++;
+                    } else {
+                        i++;
+                        j++;
+                    }
+                }
+                // Los orígenes nuevos parten de 0; el borde válido rellena el resto
+                i = 0;
+                j = 0;
+                while (j < nextCount) {
+                    if (i < sourceCount && sources[i] < next[j]) {
+                        i++;
+                    } else if (i < sourceCount && sources[i] == next[j]) {
+                        i++;
+                        j++;
+                    } else {
+                        seedCount = claim(next[j++], seedCount);
+                    }
+                }
+                for (int r = 0; r < regionCount; r++) {
+                    seedCount = seedBorder(region[r], seedCount);
+                }
+            }
+
+            int[] previous = sources;
+            sources = next;
+            sourceCount = nextCount;
+            next = previous;
+            nextCount = 0;
+            propagate(seedCount);
+            return true;
+        }
+
+        /**
+         * Convierte una celda en origen con distancia 0.
+         */
+        private int claim(int cell, int seedCount) {
+            distance[cell] = 0;
+            owner[cell] = cell;
+            return addSeed(0, cell, seedCount);
+        }
+
+        /**
+         * Borra las celdas cuyo origen más cercano era source. Forman una
+         * región conexa porque cada celda hereda el origen de su vecina.
+         */
+        private int invalidate(int source, int regionCount) {
+            if (owner[source] != source) {
+                return regionCount;
+            }
+            int start = regionCount;
+            owner[source] = -1;
+            distance[source] = UNREACHABLE;
+            region[regionCount++] = source;
+            for (int r = start; r < regionCount; r++) {
+                int cell = region[r];
+                int cx = cell / height;
+                int cy = cell % height;
+                for (int d = 0; d < DIRECTIONS.length; d++) {
+                    int nx = cx + DIRECTIONS[d].getDeltaX();
+                    int ny = cy + DIRECTIONS[d].getDeltaY();
+                    if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                        continue;
+                    }
+                    int neighbor = nx * height + ny;
+                    if (owner[neighbor] == source) {
+                        owner[neighbor] = -1;
+                        distance[neighbor] = UNREACHABLE;
+                        region[regionCount++] = neighbor;
+                    }
+                }
+            }
+            lastTouchedCells += regionCount - start;
+            return regionCount;
+        }
+
+        /**
+         * Añade como semillas las vecinas con valor de una celda invalidada.
+         */
+        private int seedBorder(int cell, int seedCount) {
+            int cx = cell / height;
+            int cy = cell % height;
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                int nx = cx + DIRECTIONS[d].getDeltaX();
+                int ny = cy + DIRECTIONS[d].getDeltaY();
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (owner[neighbor] >= 0) {
+                    seedCount = addSeed(distance[neighbor], neighbor, seedCount);
+                }
+            }
+            return seedCount;
+        }
+
+        /**
+         * BFS que solo baja distancias. Las semillas se ordenan por distancia
+         * y se mezclan con la cola, cuyas entradas ya salen en orden, de modo
+         * que cada celda se expande con su valor definitivo.
+         */
+        private void propagate(int seedCount) {
+            Arrays.sort(seeds, 0, seedCount);
+            int nextSeed = 0;
+            int head = 0;
+            int tail = 0;
+            while (nextSeed < seedCount || head < tail) {
+                int cell;
+                if (head == tail || (nextSeed < seedCount
+                        && (int) (seeds[nextSeed] >>> 32) <= distance[queue[head]])) {
+                    long seed = seeds[nextSeed++];
+                    cell = (int) seed;
+                    if ((int) (seed >>> 32) != distance[cell]) {
+                        // Semilla superada por un origen nuevo; ya está en la cola
+                        continue;
+                    }
+                } else {
+                    cell = queue[head++];
+                }
+                lastTouchedCells++;
+                short reached = (short) Math.min(distance[cell] + 1, MAX_DISTANCE);
+                int cx = cell / height;
+                int cy = cell % height;
+                for (int d = 0; d < DIRECTIONS.length; d++) {
+                    int nx = cx + DIRECTIONS[d].getDeltaX();
+                    int ny = cy + DIRECTIONS[d].getDeltaY();
+                    if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                        continue;
+                    }
+                    int neighbor = nx * height + ny;
+                    if (reached >= distance[neighbor]) {
+                        continue;
+                    }
+                    if (!pathFinder.isWalkable(nx, ny) && !(iceAllowed && pathFinder.isIce(nx, ny))) {
+                        continue;
+                    }
+                    distance[neighbor] = reached;
+                    owner[neighbor] = owner[cell];
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    /**
+     * Constructor de DangerMap.
+     *
+     * @param pathFinder el PathFinder del mapa
+     */
+    public DangerMap(PathFinder pathFinder) {
+        this.pathFinder = pathFinder;
+        this.trollHorizon = DEFAULT_TROLL_HORIZON;
+        this.trollCells = new int[16];
+        this.seeds = new long[16];
+    }
+
+    /**
+     * Obtiene cuántos ticks se predicen para los Trolls.
+     *
+     * @return el horizonte en ticks
+     */
+    public int getTrollHorizon() {
+        return trollHorizon;
+    }
+
+    /**
+     * Establece cuántos ticks se predicen para los Trolls.
+     *
+     * @param horizon el horizonte en ticks
+     */
+    public void setTrollHorizon(int horizon) {
+        this.trollHorizon = Math.max(0, Math.min(horizon, MAX_DISTANCE));
+    }
+
+    /**
+     * Actualiza el mapa con las posiciones actuales de los monstruos.
+     *
+     * @param monsters los monstruos de la partida
+     */
+    public void update(List<? extends Monster> monsters) {
+        lastTouchedCells = 0;
+        int size = pathFinder.getWidth() * pathFinder.getHeight();
+        boolean rebuild = !built || changeCount != pathFinder.getChangeCount()
+                || mapVersion != pathFinder.getMapVersion();
+        if (arrival == null || arrival.length != size) {
+            width = pathFinder.getWidth();
+            height = pathFinder.getHeight();
+            walkers = new Field(false, size);
+            breakers = new Field(true, size);
+            base = new short[size];
+            arrival = new short[size];
+            queue = new int[size];
+            region = new int[size];
+            trollCellCount = 0;
+            rebuild = true;
+        }
+        changeCount = pathFinder.getChangeCount();
+        mapVersion = pathFinder.getMapVersion();
+        built = true;
+
+        for (Monster monster : monsters) {
+            int x = monster.getX();
+            int y = monster.getY();
+            if (isPredictableTroll(monster) || x < 0 || y < 0 || x >= width || y >= height) {
+                continue;
+            }
+            (monster.canBreakIce() ? breakers : walkers).add(x * height + y);
+        }
+        boolean walkersChanged = walkers.commit(rebuild);
+        boolean breakersChanged = breakers.commit(rebuild);
+
+        if (walkersChanged || breakersChanged) {
+            for (int cell = 0; cell < size; cell++) {
+                base[cell] = (short) Math.min(walkers.distance[cell], breakers.distance[cell]);
+            }
+            System.arraycopy(base, 0, arrival, 0, size);
+        } else {
+            for (int i = 0; i < trollCellCount; i++) {
+                arrival[trollCells[i]] = base[trollCells[i]];
+            }
+        }
+        trollCellCount = 0;
+        for (Monster monster : monsters) {
+            if (isPredictableTroll(monster)) {
+                markTroll((Troll) monster);
+            }
+        }
+    }
+
+    /**
+     * Indica si un monstruo es un Troll cuya posición futura se conoce; los
+     * que siguen guiones dependientes del mapa se tratan como perseguidores,
+     * que es una cota inferior de su llegada.
+     */
+    private static boolean isPredictableTroll(Monster monster) {
+        return monster instanceof Troll && ((Troll) monster).isPredictable();
+    }
+
+    /**
+     * Baja la llegada de las celdas por las que pasará un Troll.
+     */
+    private void markTroll(Troll troll) {
+        for (int tick = 0; tick <= trollHorizon; tick++) {
+            int x = troll.getXAt(tick);
+            int y = troll.getYAt(tick);
+            if (x < 0 || y < 0 || x >= width || y >= height) {
+                continue;
+            }
+            int cell = x * height + y;
+            if (tick < arrival[cell]) {
+                if (arrival[cell] == base[cell]) {
+                    if (trollCellCount == trollCells.length) {
+                        trollCells = Arrays.copyOf(trollCells, trollCellCount * 2);
+                    }
+                    trollCells[trollCellCount++] = cell;
+                }
+                arrival[cell] = (short) tick;
+            }
+        }
+    }
+
+    /**
+     * Añade una semilla (distancia, celda) a la lista compartida.
+     */
+    private int addSeed(int distance, int cell, int seedCount) {
+        if (seedCount == seeds.length) {
+            seeds = Arrays.copyOf(seeds, seedCount * 2);
+        }
+        seeds[seedCount] = ((long) distance << 32) | cell;
+        return seedCount + 1;
+    }
+
+    /**
+     * Obtiene el primer tick en que algún monstruo puede llegar a una celda.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     * @return el tick, o UNREACHABLE si ninguno llega
+     */
+    public int getArrivalTick(int x, int y) {
+        if (arrival == null || x < 0 || y < 0 || x >= width || y >= height) {
+            return UNREACHABLE;
+        }
+        return arrival[x * height + y];
+    }
+
+    /**
+     * Indica si ningún monstruo puede estar en una celda dentro de unos ticks.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     * @param ticks ticks desde ahora
+     * @return true si la celda es segura hasta entonces
+     */
+    public boolean isSafe(int x, int y, int ticks) {
+        return getArrivalTick(x, y) > ticks;
+    }
+
+    /**
+     * Obtiene las celdas recorridas en la última actualización.
+     *
+     * @return celdas invalidadas más celdas expandidas
+     */
+    public int getLastTouchedCells() {
+        return lastTouchedCells;
+    }
+}
@@ -0,0 +1,631 @@
+package main.domain.util;
+
+import main.domain.DopoIceCream;
+import main.domain.entities.Fruit;
+import main.domain.entities.IceCream;
+import main.domain.entities.IceWall;
+import main.domain.entities.Monster;
+import main.domain.entities.Player;
+import main.domain.entities.Troll;
+import main.domain.entities.Wall;
+import main.domain.enums.Direction;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Copia ligera de una partida para simular jugadas de un jugador, pensada
+ * para bifurcarse miles de veces por movimiento. El estado se guarda en
+ * arrays de primitivos: lo que no cambia (frutas, patrones de los Trolls)
+ * se comparte entre copias y las celdas se copian solo cuando una copia
+ * rompe hielo, en un búfer propio que se reutiliza.
+ * Reproduce las reglas de DopoIceCream para el jugador controlado (moverse,
+ * romper hielo al entrar, recoger frutas, perder vidas) y simplifica a los
+ * monstruos: los Trolls siguen su patrón y los demás avanzan de forma voraz
+ * hacia el jugador; los que rompen hielo lo rompen en vez de avanzar.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class GameSimulation {
+
+    /** Contenido de las celdas */
+    private static final byte FREE = 0;
+    private static final byte BLOCKED = 1;
+    private static final byte ICE = 2;
+
+    /** Clases de monstruo */
+    private static final byte TROLL = 0;
+    private static final byte WALKER = 1;
+    private static final byte BREAKER = 2;
+
+    /** Direcciones indexadas por su ordinal */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /** Paso de patrón en que el Troll espera */
+    private static final byte STAY_STEP = -1;
+
+    /** Dimensiones del mapa */
+    private final int width;
+    private final int height;
+
+    /** Celdas actuales; solo se escriben si son el búfer propio */
+    private byte[] cells;
+    private byte[] cellBuffer;
+
+    /** Frutas (compartidas) y cuáles se han recogido */
+    private final int[] fruitCells;
+    private final int[] fruitDistance;
+    private final int[] fruitPoints;
+    private final boolean[] collected;
+    private int remainingFruits;
+
+    /** Monstruos: clase y patrón compartidos, posición e índice de patrón propios */
+    private final byte[] monsterKinds;
+    private final byte[] patterns;
+    private final int[] patternStart;
+    private final int[] patternLength;
+    private final int[] monsterX;
+    private final int[] monsterY;
+    private final int[] patternIndex;
+
+    /** Jugador controlado */
+    private final int startX;
+    private final int startY;
+    private int playerX;
+    private int playerY;
+    private int lives;
+    private int score;
+    private int fruitsCollected;
+
+    /** Ticks simulados y resultado */
+    private int tick;
+    private boolean won;
+    private boolean lost;
+
+    /**
+     * Constructor de GameSimulation a partir del estado actual de una partida.
+     *
+     * @param game la partida
+     * @param player el jugador controlado
+     */
+    public GameSimulation(DopoIceCream game, Player player) {
+        this.width = game.getWidth();
+        this.height = game.getHeight();
+        this.cells = new byte[width * height];
+        for (Wall wall : game.getWalls()) {
+            int x = wall.getX();
+            int y = wall.getY();
+            // Como en getWallAt, cuenta el primer muro en pie de cada celda
+            if (x < 0 || y < 0 || x >= width || y >= height || wall.isDestroyed()
+                    || cells[x * height + y] != FREE) {
+                continue;
+            }
+            cells[x * height + y] = wall instanceof IceWall ? ICE : BLOCKED;
+        }
+
+        List<Fruit> fruits = game.getFruits();
+        this.fruitCells = new int[fruits.size()];
+        this.fruitPoints = new int[fruits.size()];
+        this.collected = new boolean[fruits.size()];
+        for (int i = 0; i < fruits.size(); i++) {
+            Fruit fruit = fruits.get(i);
+            fruitCells[i] = fruit.getX() * height + fruit.getY();
+            fruitPoints[i] = fruit.getPoints();
+            collected[i] = fruit.isCollected();
+            if (!collected[i]) {
+                remainingFruits++;
+            }
+        }
+
+        this.fruitDistance = computeFruitDistance();
+
+        List<Monster> monsters = game.getMonsters();
+        int count = monsters.size();
+        this.monsterKinds = new byte[count];
+        this.patternStart = new int[count];
+        this.patternLength = new int[count];
+        this.monsterX = new int[count];
+        this.monsterY = new int[count];
+        this.patternIndex = new int[count];
+        int patternCells = 0;
+        for (Monster monster : monsters) {
+            if (monster instanceof Troll && ((Troll) monster).isPredictable() && monster.getPattern() != null) {
+                patternCells += monster.getPattern().getSize();
+            }
+        }
+        this.patterns = new byte[patternCells];
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            Monster monster = monsters.get(i);
+            monsterX[i] = monster.getX();
+            monsterY[i] = monster.getY();
+            if (monster instanceof Troll && ((Troll) monster).isPredictable()) {
+                monsterKinds[i] = TROLL;
+                MovementPattern pattern = monster.getPattern();
+                if (pattern != null && !pattern.isEmpty()) {
+                    Direction[] directions = pattern.getDirections();
+                    patternStart[i] = offset;
+                    patternLength[i] = directions.length;
+                    patternIndex[i] = pattern.getCurrentIndex();
+                    for (Direction direction : directions) {
+                        patterns[offset++] = direction != null ? (byte) direction.ordinal() : STAY_STEP;
+                    }
+                }
+            } else {
+                monsterKinds[i] = monster.canBreakIce() ? BREAKER : WALKER;
+            }
+        }
+
+        this.startX = player.getInitialX();
+        this.startY = player.getInitialY();
+        this.playerX = player.getX();
+        this.playerY = player.getY();
+        this.lives = player.getLives();
+        if (player instanceof IceCream) {
+            this.score = ((IceCream) player).getScore();
+            this.fruitsCollected = ((IceCream) player).getFruitsCollected();
+        }
+        this.lost = lives <= 0;
+    }
+
+    /**
+     * Constructor de copia.
+     */
+    private GameSimulation(GameSimulation other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.fruitCells = other.fruitCells;
+        this.fruitDistance = other.fruitDistance;
+        this.fruitPoints = other.fruitPoints;
+        this.collected = new boolean[other.collected.length];
+        this.monsterKinds = other.monsterKinds;
+        this.patterns = other.patterns;
+        this.patternStart = other.patternStart;
+        this.patternLength = other.patternLength;
+        this.monsterX = new int[other.monsterX.length];
+        this.monsterY = new int[other.monsterY.length];
+        this.patternIndex = new int[other.patternIndex.length];
+        this.startX = other.startX;
+        this.startY = other.startY;
+        copyFrom(other);
+    }
+
+    /**
+     * BFS desde las frutas pendientes de la captura; el hielo cuenta como
+     * transitable porque el jugador lo rompe al entrar.
+     */
+    private int[] computeFruitDistance() {
+        int[] distance = new int[cells.length];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        int[] queue = new int[cells.length];
+        int tail = 0;
+        for (int i = 0; i < fruitCells.length; i++) {
+            int cell = fruitCells[i];
+            if (!collected[i] && cell >= 0 && cell < cells.length && distance[cell] != 0) {
+                distance[cell] = 0;
+                queue[tail++] = cell;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int cell = queue[head];
+            int cx = cell / height;
+            int cy = cell % height;
+            for (Direction direction : DIRECTIONS) {
+                int nx = cx + direction.getDeltaX();
+                int ny = cy + direction.getDeltaY();
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (cells[neighbor] != BLOCKED && distance[neighbor] == Integer.MAX_VALUE) {
+                    distance[neighbor] = distance[cell] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Crea una copia independiente de la simulación.
+     *
+     * @return la copia
+     */
+    public GameSimulation copy() {
+        return new GameSimulation(this);
+    }
+
+    /**
+     * Indica si dos simulaciones provienen de la misma captura de la partida
+     * (una es copia de la otra), requisito de copyFrom.
+     *
+     * @param other la otra simulación
+     * @return true si comparten frutas, monstruos y patrones
+     */
+    public boolean isForkOf(GameSimulation other) {
+        return other != null && fruitCells == other.fruitCells && monsterKinds == other.monsterKinds;
+    }
+
+    /**
+     * Sobrescribe esta simulación con el estado de otra de la misma captura,
+     * sin reservar memoria: las celdas se comparten mientras ninguna de las
+     * dos rompa hielo.
+     *
+     * @param other la simulación de origen
+     * @throws IllegalArgumentException si no es de la misma captura
+     */
+    public void copyFrom(GameSimulation other) {
+        if (!isForkOf(other)) {
+            throw new IllegalArgumentException("La simulación no es copia de la misma partida");
+        }
+        if (other.cells != other.cellBuffer) {
+            cells = other.cells;
+        } else {
+            if (cellBuffer == null) {
+                cellBuffer = new byte[other.cells.length];
+            }
+            System.arraycopy(other.cells, 0, cellBuffer, 0, cellBuffer.length);
+            cells = cellBuffer;
+        }
+        System.arraycopy(other.collected, 0, collected, 0, collected.length);
+        System.arraycopy(other.monsterX, 0, monsterX, 0, monsterX.length);
+        System.arraycopy(other.monsterY, 0, monsterY, 0, monsterY.length);
+        System.arraycopy(other.patternIndex, 0, patternIndex, 0, patternIndex.length);
+        remainingFruits = other.remainingFruits;
+        playerX = other.playerX;
+        playerY = other.playerY;
+        lives = other.lives;
+        score = other.score;
+        fruitsCollected = other.fruitsCollected;
+        tick = other.tick;
+        won = other.won;
+        lost = other.lost;
+    }
+
+    /**
+     * Simula un tick: el jugador intenta moverse y después actúan los
+     * monstruos, en el mismo orden que DopoIceCream.
+     *
+     * @param direction movimiento del jugador, o null para quedarse quieto
+     */
+    public void step(Direction direction) {
+        if (isOver()) {
+            return;
+        }
+        if (direction != null && canMove(direction)) {
+            int nx = playerX + direction.getDeltaX();
+            int ny = playerY + direction.getDeltaY();
+            if (cells[nx * height + ny] == ICE) {
+                setCell(nx * height + ny, FREE);
+            }
+            playerX = nx;
+            playerY = ny;
+            collectFruits();
+            if (won) {
+                // Como en DopoIceCream, la partida termina antes de mover a los monstruos
+                tick++;
+                return;
+            }
+        }
+        checkCollisions();
+        for (int i = 0; i < monsterKinds.length; i++) {
+            moveMonster(i);
+        }
+        checkCollisions();
+        tick++;
+        if (lives <= 0 && !won) {
+            lost = true;
+        }
+    }
+
+    /**
+     * Indica si el jugador puede moverse en una dirección (el hielo se rompe
+     * al entrar, así que solo bloquean los bordes y los muros indestructibles).
+     *
+     * @param direction la dirección
+     * @return true si el movimiento cambia la posición
+     */
+    public boolean canMove(Direction direction) {
+        int nx = playerX + direction.getDeltaX();
+        int ny = playerY + direction.getDeltaY();
+        return nx >= 0 && ny >= 0 && nx < width && ny < height && cells[nx * height + ny] != BLOCKED;
+    }
+
+    /**
+     * Recoge las frutas de la celda del jugador.
+     */
+    private void collectFruits() {
+        int cell = playerX * height + playerY;
+        for (int i = 0; i < fruitCells.length; i++) {
+            if (!collected[i] && fruitCells[i] == cell) {
+                collected[i] = true;
+                score += fruitPoints[i];
+                fruitsCollected++;
+                remainingFruits--;
+            }
+        }
+        if (remainingFruits == 0 && fruitCells.length > 0) {
+            won = true;
+        }
+    }
+
+    /**
+     * Mueve un monstruo un paso.
+     */
+    private void moveMonster(int i) {
+        if (monsterKinds[i] == TROLL) {
+            int length = patternLength[i];
+            if (length > 0) {
+                byte step = patterns[patternStart[i] + patternIndex[i]];
+                patternIndex[i] = (patternIndex[i] + 1) % length;
+                if (step != STAY_STEP) {
+                    monsterX[i] += DIRECTIONS[step].getDeltaX();
+                    monsterY[i] += DIRECTIONS[step].getDeltaY();
+                }
+            }
+            return;
+        }
+        int dx = playerX - monsterX[i];
+        int dy = playerY - monsterY[i];
+        if (dx == 0 && dy == 0) {
+            return;
+        }
+        // Primero el eje con más distancia, después el otro
+        boolean horizontalFirst = Math.abs(dx) >= Math.abs(dy);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            boolean horizontal = horizontalFirst == (attempt == 0);
+            int sx = horizontal ? Integer.signum(dx) : 0;
+            int sy = horizontal ? 0 : Integer.signum(dy);
+            if (sx == 0 && sy == 0) {
+                continue;
+            }
+            int nx = monsterX[i] + sx;
+            int ny = monsterY[i] + sy;
+            if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                continue;
+            }
+            byte content = cells[nx * height + ny];
+            if (content == FREE) {
+                monsterX[i] = nx;
+                monsterY[i] = ny;
+                return;
+            }
+            if (content == ICE && monsterKinds[i] == BREAKER) {
+                setCell(nx * height + ny, FREE);
+                return;
+            }
+        }
+    }
+
+    /**
+     * El jugador pierde una vida si comparte celda con un monstruo.
+     */
+    private void checkCollisions() {
+        for (int i = 0; i < monsterKinds.length && lives > 0; i++) {
+            if (monsterX[i] == playerX && monsterY[i] == playerY) {
+                lives--;
+                if (lives > 0) {
+                    playerX = startX;
+                    playerY = startY;
+                }
+            }
+        }
+    }
+
+    /**
+     * Escribe una celda, pasando antes al búfer propio si se compartían.
+     */
+    private void setCell(int cell, byte content) {
+        if (cells != cellBuffer) {
+            if (cellBuffer == null) {
+                cellBuffer = new byte[cells.length];
+            }
+            System.arraycopy(cells, 0, cellBuffer, 0, cells.length);
+            cells = cellBuffer;
+        }
+        cells[cell] = content;
+    }
+
+    /**
+     * Obtiene la distancia del jugador a la fruta más cercana.
+     *
+     * @return la distancia en pasos (ver getFruitDistance)
+     */
+    public int getNearestFruitDistance() {
+        return getFruitDistance(playerX, playerY);
+    }
+
+    /**
+     * Obtiene la distancia en pasos de una celda a la fruta más cercana de
+     * entre las que estaban pendientes al capturar la partida. Las frutas
+     * recogidas después en la simulación no se descuentan.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     * @return la distancia, o Integer.MAX_VALUE si no se alcanza ninguna
+     */
+    public int getFruitDistance(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return Integer.MAX_VALUE;
+        }
+        return fruitDistance[x * height + y];
+    }
+
+    /**
+     * Indica si algún monstruo está en una celda o junto a ella, es decir,
+     * si podría alcanzarla en su próximo paso.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     * @return true si la celda está amenazada
+     */
+    public boolean isThreatened(int x, int y) {
+        for (int i = 0; i < monsterX.length; i++) {
+            if (Math.abs(monsterX[i] - x) + Math.abs(monsterY[i] - y) <= 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si hay hielo en una celda.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     * @return true si hay hielo en pie
+     */
+    public boolean isIce(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && cells[x * height + y] == ICE;
+    }
+
+    /**
+     * Obtiene el ancho del mapa.
+     *
+     * @return el ancho
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Obtiene el alto del mapa.
+     *
+     * @return el alto
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Obtiene la coordenada X del jugador.
+     *
+     * @return la coordenada X
+     */
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * Obtiene la coordenada Y del jugador.
+     *
+     * @return la coordenada Y
+     */
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * Obtiene las vidas del jugador.
+     *
+     * @return las vidas
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Obtiene la puntuación del jugador.
+     *
+     * @return la puntuación
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Obtiene las frutas recogidas por el jugador.
+     *
+     * @return el número de frutas
+     */
+    public int getFruitsCollected() {
+        return fruitsCollected;
+    }
+
+    /**
+     * Obtiene las frutas pendientes.
+     *
+     * @return el número de frutas
+     */
+    public int getRemainingFruits() {
+        return remainingFruits;
+    }
+
+    /**
+     * Obtiene el número total de frutas.
+     *
+     * @return el número de frutas
+     */
+    public int getFruitCount() {
+        return fruitCells.length;
+    }
+
+    /**
+     * Obtiene los ticks simulados.
+     *
+     * @return los ticks
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Indica si el jugador recogió todas las frutas.
+     *
+     * @return true si se ganó
+     */
+    public boolean isWon() {
+        return won;
+    }
+
+    /**
+     * Indica si el jugador se quedó sin vidas.
+     *
+     * @return true si se perdió
+     */
+    public boolean isLost() {
+        return lost;
+    }
+
+    /**
+     * Indica si la partida simulada ha terminado.
+     *
+     * @return true si se ganó o se perdió
+     */
+    public boolean isOver() {
+        return won || lost;
+    }
+
+    /**
+     * Obtiene la posición X de un monstruo.
+     *
+     * @param index índice del monstruo en la partida
+     * @return la coordenada X
+     */
+    public int getMonsterX(int index) {
+        return monsterX[index];
+    }
+
+    /**
+     * Obtiene la posición Y de un monstruo.
+     *
+     * @param index índice del monstruo en la partida
+     * @return la coordenada Y
+     */
+    public int getMonsterY(int index) {
+        return monsterY[index];
+    }
+
+    @Override
+    public String toString() {
+        return "GameSimulation{" +
+                "tick=" + tick +
+                ", player=(" + playerX + "," + playerY + ")" +
+                ", lives=" + lives +
+                ", score=" + score +
+                ", remainingFruits=" + remainingFruits +
+                ", monsters=" + Arrays.toString(monsterX) + Arrays.toString(monsterY) +
+                '}';
+    }
+}
@@ -0,0 +1,321 @@
+package main.domain.util;
+
+import main.domain.enums.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Planificador incremental D* Lite para un monstruo que persigue a un objetivo.
+ * La búsqueda se hace hacia atrás desde el objetivo, de modo que cuando el
+ * monstruo avanza solo se ajusta el modificador de claves km. El objetivo se
+ * modela como un nodo virtual unido a la celda del jugador: cuando este se
+ * mueve o cambian muros, solo se reparan los vértices afectados en lugar de
+ * repetir la búsqueda completa.
+ * Cada monstruo que persigue debe tener su propia instancia.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class IncrementalPlanner {
+
+    /** Costo infinito (deja margen para sumar heurística y km sin desbordar) */
+    private static final int INFINITY = 1 << 28;
+
+    /** PathFinder que define el mapa y notifica los cambios */
+    private final PathFinder pathFinder;
+
+    /** Dimensiones del mapa planificado */
+    private int width;
+    private int height;
+
+    /** Distancias estimadas al objetivo (índice x * height + y) */
+    private int[] g;
+    private int[] rhs;
+
+    /** Cola de prioridad de D* Lite */
+    private IndexedMinHeap openSet;
+
+    /** Estado de la planificación */
+    private int start;
+    private int lastStart;
+    private int goal;
+    private int km;
+    private long appliedChanges;
+    private int mapVersion;
+    private boolean initialized;
+
+    /** Nodos expandidos y encolados en la última consulta */
+    private int lastExpandedNodes;
+    private int lastPushedNodes;
+
+    /** Indica si la última consulta se quedó sin presupuesto */
+    private boolean pending;
+
+    /** Direcciones en orden de expansión */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Constructor de IncrementalPlanner.
+     *
+     * @param pathFinder el PathFinder del mapa
+     */
+    public IncrementalPlanner(PathFinder pathFinder) {
+        this.pathFinder = pathFinder;
+        this.initialized = false;
+    }
+
+    /**
+     * Descarta el estado de planificación; la siguiente consulta empieza de cero.
+     */
+    public void reset() {
+        initialized = false;
+    }
+
+    /**
+     * Indica si la última consulta no terminó por falta de presupuesto
+     * (ver PathFinder.setNodeBudget); la reparación continúa en la siguiente.
+     *
+     * @return true si el plan sigue pendiente
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    /**
+     * Obtiene los nodos expandidos en la última consulta.
+     *
+     * @return nodos expandidos
+     */
+    public int getLastExpandedNodes() {
+        return lastExpandedNodes;
+    }
+
+    /**
+     * Obtiene la siguiente dirección hacia el objetivo reparando el plan previo.
+     *
+     * @param startX coordenada X del monstruo
+     * @param startY coordenada Y del monstruo
+     * @param targetX coordenada X del objetivo
+     * @param targetY coordenada Y del objetivo
+     * @return la dirección del siguiente paso, o null si no hay camino o el plan está pendiente
+     */
+    public Direction getNextDirection(int startX, int startY, int targetX, int targetY) {
+        long started = pathFinder.startPlannerQuery();
+        Direction next = plan(startX, startY, targetX, targetY);
+        pathFinder.recordPlannerQuery(started, lastExpandedNodes, lastPushedNodes,
+                next == null && !pending && (startX != targetX || startY != targetY));
+        return next;
+    }
+
+    /**
+     * Cuerpo de getNextDirection sin instrumentación.
+     */
+    private Direction plan(int startX, int startY, int targetX, int targetY) {
+        lastExpandedNodes = 0;
+        lastPushedNodes = 0;
+        pending = false;
+        if (!pathFinder.isValidPosition(startX, startY) || !pathFinder.isValidPosition(targetX, targetY)) {
+            return null;
+        }
+        if ((startX == targetX && startY == targetY)
+                || !pathFinder.isReachable(startX, startY, targetX, targetY)) {
+            return null;
+        }
+
+        int newStart = startX * pathFinder.getHeight() + startY;
+        int newGoal = targetX * pathFinder.getHeight() + targetY;
+        if (!initialized || mapVersion != pathFinder.getMapVersion() || !applyChanges()) {
+            initialize(newStart, newGoal);
+        }
+        if (newStart != start) {
+            start = newStart;
+            km += heuristic(lastStart, start);
+            lastStart = start;
+            updateVertex(start);
+        }
+        if (newGoal != goal) {
+            moveGoal(newGoal);
+        }
+        if (!computeShortestPath()) {
+            return null;
+        }
+
+        int x = start / height;
+        int y = start % height;
+        Direction best = null;
+        int bestCost = INFINITY;
+        for (Direction dir : DIRECTIONS) {
+            int nx = x + dir.getDeltaX();
+            int ny = y + dir.getDeltaY();
+            if (pathFinder.isWalkable(nx, ny)) {
+                int cost = g[nx * height + ny] + 1;
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = dir;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Inicializa D* Lite desde cero.
+     */
+    private void initialize(int newStart, int newGoal) {
+        width = pathFinder.getWidth();
+        height = pathFinder.getHeight();
+        int size = width * height;
+        if (g == null || g.length != size) {
+            g = new int[size];
+            rhs = new int[size];
+            openSet = new IndexedMinHeap(size);
+        }
+        openSet.clear();
+        Arrays.fill(g, INFINITY);
+        Arrays.fill(rhs, INFINITY);
+        start = newStart;
+        lastStart = newStart;
+        goal = newGoal;
+        km = 0;
+        rhs[goal] = 0;
+        openSet.insertOrUpdate(goal, key(goal));
+        lastPushedNodes++;
+        appliedChanges = pathFinder.getChangeCount();
+        mapVersion = pathFinder.getMapVersion();
+        initialized = true;
+    }
+
+    /**
+     * Aplica los cambios de celdas notificados desde la última consulta.
+     *
+     * @return false si se perdieron cambios y hay que reinicializar
+     */
+    private boolean applyChanges() {
+        long total = pathFinder.getChangeCount();
+        for (long seq = appliedChanges; seq < total; seq++) {
+            int cell = pathFinder.getChangedCell(seq);
+            if (cell < 0) {
+                return false;
+            }
+            // Cambia el costo de todas las aristas que entran en la celda
+            updateVertex(cell);
+            int x = cell / height;
+            int y = cell % height;
+            for (Direction dir : DIRECTIONS) {
+                int nx = x + dir.getDeltaX();
+                int ny = y + dir.getDeltaY();
+                if (pathFinder.isValidPosition(nx, ny)) {
+                    updateVertex(nx * height + ny);
+                }
+            }
+        }
+        appliedChanges = total;
+        return true;
+    }
+
+    /**
+     * Mueve el nodo objetivo: la arista virtual deja la celda anterior y
+     * pasa a la nueva, lo que solo afecta a ambas celdas.
+     */
+    private void moveGoal(int newGoal) {
+        int oldGoal = goal;
+        goal = newGoal;
+        updateVertex(oldGoal);
+        updateVertex(newGoal);
+    }
+
+    /**
+     * Recalcula rhs de un vértice y lo reinserta en la cola si es inconsistente.
+     */
+    private void updateVertex(int u) {
+        if (u != goal) {
+            int best = INFINITY;
+            int x = u / height;
+            int y = u % height;
+            for (Direction dir : DIRECTIONS) {
+                int nx = x + dir.getDeltaX();
+                int ny = y + dir.getDeltaY();
+                if (pathFinder.isWalkable(nx, ny)) {
+                    int cost = g[nx * height + ny] + 1;
+                    if (cost < best) {
+                        best = cost;
+                    }
+                }
+            }
+            rhs[u] = best;
+        } else {
+            rhs[u] = 0;
+        }
+        if (g[u] != rhs[u]) {
+            openSet.insertOrUpdate(u, key(u));
+            lastPushedNodes++;
+        } else {
+            openSet.remove(u);
+        }
+    }
+
+    /**
+     * Bucle principal de D* Lite: procesa vértices hasta que el inicio es
+     * consistente y ninguna clave pendiente es menor que la suya.
+     * La cola conserva el trabajo pendiente si se agota el presupuesto.
+     *
+     * @return false si se agotó el presupuesto del tick
+     */
+    private boolean computeShortestPath() {
+        while (!openSet.isEmpty()
+                && (openSet.peekKey() < key(start) || rhs[start] != g[start])) {
+            if (!pathFinder.tryExpand()) {
+                pending = true;
+                return false;
+            }
+            int u = openSet.peek();
+            long oldKey = openSet.peekKey();
+            long newKey = key(u);
+            lastExpandedNodes++;
+            if (oldKey < newKey) {
+                openSet.insertOrUpdate(u, newKey);
+            } else if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                openSet.remove(u);
+                updatePredecessors(u);
+            } else {
+                g[u] = INFINITY;
+                updateVertex(u);
+                updatePredecessors(u);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Actualiza los vecinos que pueden moverse a u.
+     * Las celdas no transitables solo se consideran si son el inicio.
+     */
+    private void updatePredecessors(int u) {
+        int x = u / height;
+        int y = u % height;
+        for (Direction dir : DIRECTIONS) {
+            int nx = x + dir.getDeltaX();
+            int ny = y + dir.getDeltaY();
+            if (!pathFinder.isValidPosition(nx, ny)) {
+                continue;
+            }
+            int neighbor = nx * height + ny;
+            if (neighbor == start || pathFinder.isWalkable(nx, ny)) {
+                updateVertex(neighbor);
+            }
+        }
+    }
+
+    /**
+     * Clave de D* Lite [min(g, rhs) + h + km; min(g, rhs)] codificada en un long.
+     */
+    private long key(int u) {
+        int m = Math.min(g[u], rhs[u]);
+        return ((long) (m + heuristic(start, u) + km) << 32) | m;
+    }
+
+    private int heuristic(int a, int b) {
+        return Math.abs(a / height - b / height) + Math.abs(a % height - b % height);
+    }
+}
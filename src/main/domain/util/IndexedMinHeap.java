@@ -0,0 +1,216 @@
+package main.domain.util;
+
+import java.util.Arrays;
+
+/**
+ * Montículo binario de mínimos indexado por nodo (índice de celda).
+ * Permite insertar, actualizar la prioridad y eliminar nodos en O(log n)
+ * sin crear objetos, para reutilizarlo entre búsquedas.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class IndexedMinHeap {
+
+    /** Nodos ordenados como montículo */
+    private final int[] heap;
+
+    /** Prioridad de cada nodo */
+    private final long[] keys;
+
+    /** Posición de cada nodo en el montículo, o -1 si no está */
+    private final int[] positions;
+
+    /** Número de elementos */
+    private int size;
+
+    /**
+     * Constructor de IndexedMinHeap.
+     *
+     * @param capacity número máximo de nodos distintos
+     */
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.keys = new long[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+        this.size = 0;
+    }
+
+    /**
+     * Obtiene la capacidad del montículo.
+     *
+     * @return el número máximo de nodos
+     */
+    public int capacity() {
+        return heap.length;
+    }
+
+    /**
+     * Vacía el montículo en O(tamaño).
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Indica si el montículo está vacío.
+     *
+     * @return true si está vacío
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Obtiene el número de elementos.
+     *
+     * @return el tamaño
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Verifica si un nodo está en el montículo.
+     *
+     * @param node el nodo
+     * @return true si está
+     */
+    public boolean contains(int node) {
+        return positions[node] >= 0;
+    }
+
+    /**
+     * Obtiene la prioridad de un nodo presente.
+     *
+     * @param node el nodo
+     * @return su prioridad
+     */
+    public long getKey(int node) {
+        return keys[node];
+    }
+
+    /**
+     * Inserta un nodo o actualiza su prioridad si ya está presente.
+     *
+     * @param node el nodo
+     * @param key la prioridad
+     */
+    public void insertOrUpdate(int node, long key) {
+        int pos = positions[node];
+        if (pos < 0) {
+            keys[node] = key;
+            heap[size] = node;
+            positions[node] = size;
+            siftUp(size++);
+        } else {
+            long old = keys[node];
+            keys[node] = key;
+            if (key < old) {
+                siftUp(pos);
+            } else if (key > old) {
+                siftDown(pos);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el nodo de menor prioridad sin extraerlo.
+     *
+     * @return el nodo, o -1 si está vacío
+     */
+    public int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * Obtiene la menor prioridad.
+     *
+     * @return la prioridad, o Long.MAX_VALUE si está vacío
+     */
+    public long peekKey() {
+        return size == 0 ? Long.MAX_VALUE : keys[heap[0]];
+    }
+
+    /**
+     * Extrae el nodo de menor prioridad.
+     *
+     * @return el nodo, o -1 si está vacío
+     */
+    public int poll() {
+        if (size == 0) {
+            return -1;
+        }
+        int top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    /**
+     * Elimina un nodo si está presente.
+     *
+     * @param node el nodo
+     */
+    public void remove(int node) {
+        int pos = positions[node];
+        if (pos >= 0) {
+            removeAt(pos);
+        }
+    }
+
+    private void removeAt(int pos) {
+        int removed = heap[pos];
+        positions[removed] = -1;
+        size--;
+        if (pos == size) {
+            return;
+        }
+        int last = heap[size];
+        heap[pos] = last;
+        positions[last] = pos;
+        siftDown(pos);
+        siftUp(positions[last]);
+    }
+
+    private void siftUp(int pos) {
+        int node = heap[pos];
+        long key = keys[node];
+        while (pos > 0) {
+            int parentPos = (pos - 1) >>> 1;
+            int parent = heap[parentPos];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[pos] = parent;
+            positions[parent] = pos;
+            pos = parentPos;
+        }
+        heap[pos] = node;
+        positions[node] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int node = heap[pos];
+        long key = keys[node];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            if (key <= keys[heap[child]]) {
+                break;
+            }
+            heap[pos] = heap[child];
+            positions[heap[pos]] = pos;
+            pos = child;
+        }
+        heap[pos] = node;
+        positions[node] = pos;
+    }
+}
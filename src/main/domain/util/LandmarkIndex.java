@@ -0,0 +1,248 @@
+package main.domain.util;
+
+import java.util.Arrays;
+
+/**
+ * Heurística ALT (A*, landmarks y desigualdad triangular) para A*.
+ * Se precalculan con BFS las distancias desde unas pocas celdas de
+ * referencia (landmarks) elegidas lo más alejadas posible entre sí, y se usa
+ * |d(L, n) - d(L, objetivo)| como cota inferior de la distancia real.
+ * En laberintos esta cota es mucho más informada que la distancia Manhattan.
+ * Las distancias se guardan en arreglos short (una por landmark y celda).
+ * Bloquear una celda solo alarga caminos, así que las distancias anteriores
+ * siguen siendo una cota válida; liberar una celda obliga a recalcularlas,
+ * lo que se hace de forma perezosa en la siguiente consulta. Cada
+ * reconstrucción cuesta un BFS completo por landmark, por eso PathFinder
+ * la deja desactivada salvo que se pida con setLandmarkCount.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class LandmarkIndex {
+
+    /** Número de landmarks recomendado al activar la heurística */
+    public static final int DEFAULT_LANDMARK_COUNT = 8;
+
+    /** Distancia de una celda no alcanzable desde el landmark */
+    private static final short UNREACHED = -1;
+
+    /** Distancia máxima representable; las mayores se saturan (sigue siendo cota inferior) */
+    private static final int MAX_DISTANCE = Short.MAX_VALUE;
+
+    /** PathFinder que define qué celdas son transitables */
+    private final PathFinder pathFinder;
+
+    /** Dimensiones del mapa */
+    private final int width;
+    private final int height;
+
+    /** Distancias desde cada landmark (índice x * height + y) */
+    private final short[][] distances;
+
+    /** Celda de cada landmark */
+    private final int[] landmarkCells;
+
+    /** Landmarks realmente colocados (puede haber menos celdas libres que landmarks) */
+    private int landmarkCount;
+
+    /** Buffers reutilizables para los BFS y la elección de landmarks */
+    private final int[] queue;
+    private final int[] nearest;
+
+    /** Indica si las distancias están al día */
+    private boolean built;
+
+    /** Número de reconstrucciones realizadas */
+    private int rebuildCount;
+
+    /**
+     * Constructor de LandmarkIndex.
+     *
+     * @param pathFinder el PathFinder cuyo mapa se indexa
+     * @param width ancho del mapa
+     * @param height alto del mapa
+     * @param count número de landmarks
+     */
+    public LandmarkIndex(PathFinder pathFinder, int width, int height, int count) {
+        this.pathFinder = pathFinder;
+        this.width = width;
+        this.height = height;
+        int size = width * height;
+        int landmarks = Math.max(1, count);
+        this.distances = new short[landmarks][size];
+        this.landmarkCells = new int[landmarks];
+        this.queue = new int[size];
+        this.nearest = new int[size];
+        this.built = false;
+    }
+
+    /**
+     * Elige los landmarks y recalcula todas las distancias.
+     * Cada nuevo landmark es la celda más alejada de los ya elegidos; las
+     * celdas de otras componentes cuentan como infinitamente lejanas, de modo
+     * que cada zona aislada recibe también su landmark.
+     */
+    public void rebuild() {
+        int size = width * height;
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+        landmarkCount = 0;
+        int candidate = firstWalkableCell();
+        while (candidate >= 0 && landmarkCount < distances.length) {
+            short[] field = distances[landmarkCount];
+            landmarkCells[landmarkCount++] = candidate;
+            bfs(candidate, field);
+
+            candidate = -1;
+            int farthest = 0;
+            for (int cell = 0; cell < size; cell++) {
+                if (nearest[cell] == 0 || !pathFinder.isWalkable(cell / height, cell % height)) {
+                    continue;
+                }
+                int d = field[cell] == UNREACHED ? Integer.MAX_VALUE : field[cell];
+                if (d < nearest[cell]) {
+                    nearest[cell] = d;
+                }
+                if (nearest[cell] > farthest) {
+                    farthest = nearest[cell];
+                    candidate = cell;
+                }
+            }
+        }
+        built = true;
+        rebuildCount++;
+    }
+
+    /**
+     * Invalida las distancias; se recalcularán en la siguiente consulta.
+     */
+    public void invalidate() {
+        built = false;
+    }
+
+    /**
+     * Indica si las distancias están al día.
+     *
+     * @return true si están construidas
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Obtiene cuántas veces se han recalculado las distancias.
+     *
+     * @return el número de reconstrucciones
+     */
+    public int getRebuildCount() {
+        return rebuildCount;
+    }
+
+    /**
+     * Obtiene el número de landmarks colocados.
+     *
+     * @return los landmarks
+     */
+    public int getLandmarkCount() {
+        ensureBuilt();
+        return landmarkCount;
+    }
+
+    /**
+     * Obtiene la celda de un landmark.
+     *
+     * @param index número de landmark
+     * @return índice de la celda (x * alto + y)
+     */
+    public int getLandmarkCell(int index) {
+        ensureBuilt();
+        return landmarkCells[index];
+    }
+
+    /**
+     * Notifica que una celda cambió. Solo liberar una celda invalida las
+     * distancias: al bloquear, las anteriores siguen siendo cotas inferiores.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     */
+    public void onCellChanged(int x, int y) {
+        if (built && pathFinder.isWalkable(x, y)) {
+            built = false;
+        }
+    }
+
+    /**
+     * Cota inferior de la distancia entre dos celdas por desigualdad triangular.
+     *
+     * @param from celda de origen (x * alto + y)
+     * @param to celda de destino (x * alto + y)
+     * @return la cota, o 0 si ningún landmark alcanza ambas celdas
+     */
+    public int estimate(int from, int to) {
+        ensureBuilt();
+        int best = 0;
+        for (int i = 0; i < landmarkCount; i++) {
+            short[] field = distances[i];
+            int a = field[from];
+            int b = field[to];
+            if (a == UNREACHED || b == UNREACHED) {
+                continue;
+            }
+            int bound = a > b ? a - b : b - a;
+            if (bound > best) {
+                best = bound;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * BFS desde un landmark sobre las celdas transitables.
+     */
+    private void bfs(int source, short[] field) {
+        Arrays.fill(field, UNREACHED);
+        field[source] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            int cx = current / height;
+            int cy = current % height;
+            short next = (short) Math.min(field[current] + 1, MAX_DISTANCE);
+            for (int i = 0; i < 4; i++) {
+                int nx = cx + DX[i];
+                int ny = cy + DY[i];
+                if (!pathFinder.isWalkable(nx, ny)) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (field[neighbor] == UNREACHED) {
+                    field[neighbor] = next;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    private int firstWalkableCell() {
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (pathFinder.isWalkable(x, y)) {
+                    return x * height + y;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            rebuild();
+        }
+    }
+
+    /** Desplazamientos de los cuatro vecinos */
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DY = {-1, 1, 0, 0};
+}
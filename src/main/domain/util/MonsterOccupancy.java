@@ -0,0 +1,198 @@
+package main.domain.util;
+
+import main.domain.entities.Monster;
+import main.domain.enums.CollisionPolicy;
+import main.domain.enums.Direction;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ocupación de las celdas por monstruos: cuántos monstruos hay en cada
+ * celda, en un int[] con índice x * height + y. Tras mover a un monstruo
+ * se resuelve su movimiento en O(1) según su CollisionPolicy: si la celda
+ * de llegada ya está ocupada, entra igualmente (ALLOW), deshace el
+ * movimiento con Monster.cancelMove (WAIT) o se aparta a una celda lateral
+ * libre y transitable (SIDESTEP, si Monster.canSidestep lo permite).
+ * Como los monstruos se mueven de uno en uno en el orden en que se añadieron
+ * al juego, el primero en moverse se queda la celda y el resultado es
+ * determinista.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class MonsterOccupancy {
+
+    /** PathFinder que define qué celdas son transitables */
+    private final PathFinder pathFinder;
+
+    /** Alto del mapa */
+    private final int height;
+
+    /** Monstruos en cada celda */
+    private final int[] counts;
+
+    /** Movimientos resueltos esperando o apartándose desde el último reinicio */
+    private int waits;
+    private int sidesteps;
+
+    /**
+     * Constructor de MonsterOccupancy.
+     *
+     * @param pathFinder el PathFinder del mapa
+     */
+    public MonsterOccupancy(PathFinder pathFinder) {
+        this.pathFinder = pathFinder;
+        this.height = pathFinder.getHeight();
+        this.counts = new int[pathFinder.getWidth() * height];
+    }
+
+    /**
+     * Vuelve a contar a todos los monstruos.
+     *
+     * @param monsters los monstruos del juego
+     */
+    public void rebuild(List<? extends Monster> monsters) {
+        Arrays.fill(counts, 0);
+        waits = 0;
+        sidesteps = 0;
+        for (int i = 0; i < monsters.size(); i++) {
+            Monster monster = monsters.get(i);
+            add(monster.getX(), monster.getY());
+        }
+    }
+
+    /**
+     * Anota un monstruo en una celda.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     */
+    public void add(int x, int y) {
+        if (pathFinder.isValidPosition(x, y)) {
+            counts[x * height + y]++;
+        }
+    }
+
+    /**
+     * Quita un monstruo de una celda.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     */
+    public void remove(int x, int y) {
+        if (pathFinder.isValidPosition(x, y) && counts[x * height + y] > 0) {
+            counts[x * height + y]--;
+        }
+    }
+
+    /**
+     * Obtiene cuántos monstruos hay en una celda.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     * @return el número de monstruos (0 fuera del mapa)
+     */
+    public int getCount(int x, int y) {
+        return pathFinder.isValidPosition(x, y) ? counts[x * height + y] : 0;
+    }
+
+    /**
+     * Indica si hay algún monstruo en una celda.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     * @return true si está ocupada
+     */
+    public boolean isOccupied(int x, int y) {
+        return getCount(x, y) > 0;
+    }
+
+    /**
+     * Resuelve el movimiento que acaba de hacer un monstruo desde una celda
+     * que la ocupación aún le atribuye, y lo anota en su celda final.
+     *
+     * @param monster el monstruo, ya movido
+     * @param fromX coordenada X antes de moverse
+     * @param fromY coordenada Y antes de moverse
+     * @return true si el monstruo terminó en la celda a la que se movió
+     */
+    public boolean resolve(Monster monster, int fromX, int fromY) {
+        int x = monster.getX();
+        int y = monster.getY();
+        if (x == fromX && y == fromY) {
+            return true;
+        }
+        remove(fromX, fromY);
+        CollisionPolicy policy = monster.getCollisionPolicy();
+        if (!isOccupied(x, y) || policy == CollisionPolicy.ALLOW) {
+            add(x, y);
+            return true;
+        }
+        if (policy == CollisionPolicy.SIDESTEP && monster.canSidestep()) {
+            Direction side = findSidestep(monster.getCurrentDirection(), fromX, fromY);
+            if (side != null) {
+                monster.setPosition(fromX + side.getDeltaX(), fromY + side.getDeltaY());
+                monster.setCurrentDirection(side);
+                add(monster.getX(), monster.getY());
+                sidesteps++;
+                return false;
+            }
+        }
+        monster.cancelMove(fromX, fromY);
+        add(fromX, fromY);
+        waits++;
+        return false;
+    }
+
+    /**
+     * Busca una celda libre y transitable a un lado de la dirección del
+     * movimiento; prueba primero el lado izquierdo o de arriba.
+     */
+    private Direction findSidestep(Direction direction, int x, int y) {
+        if (direction == null) {
+            return null;
+        }
+        Direction first;
+        Direction second;
+        if (direction == Direction.UP || direction == Direction.DOWN) {
+            first = Direction.LEFT;
+            second = Direction.RIGHT;
+        } else {
+            first = Direction.UP;
+            second = Direction.DOWN;
+        }
+        if (isFree(x + first.getDeltaX(), y + first.getDeltaY())) {
+            return first;
+        }
+        if (isFree(x + second.getDeltaX(), y + second.getDeltaY())) {
+            return second;
+        }
+        return null;
+    }
+
+    /**
+     * Indica si una celda es transitable y no tiene monstruos.
+     */
+    private boolean isFree(int x, int y) {
+        return pathFinder.isWalkable(x, y) && counts[x * height + y] == 0;
+    }
+
+    /**
+     * Obtiene los movimientos que se resolvieron esperando.
+     *
+     * @return el número de movimientos
+     */
+    public int getWaits() {
+        return waits;
+    }
+
+    /**
+     * Obtiene los movimientos que se resolvieron apartándose.
+     *
+     * @return el número de movimientos
+     */
+    public int getSidesteps() {
+        return sidesteps;
+    }
+}
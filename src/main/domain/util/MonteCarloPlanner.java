@@ -0,0 +1,427 @@
+package main.domain.util;
+
+import main.domain.enums.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Planificador de jugadas para jugadores automáticos mediante búsqueda en
+ * árbol de Monte Carlo (UCT) sobre una GameSimulation.
+ * Usa paralelismo de raíz: cada hilo del pool construye su propio árbol
+ * desde la misma posición durante el tiempo asignado, sin compartir nada,
+ * y al final se suman las visitas de cada jugada de la raíz. Los árboles
+ * se guardan en arrays reservados una vez por hilo y cada simulación se
+ * bifurca con copyFrom, así que la búsqueda no reserva memoria por jugada
+ * simulada.
+ * Las simulaciones aleatorias evitan las celdas junto a un monstruo y a
+ * menudo se acercan a la fruta más próxima. La recompensa está entre 0 y 1:
+ * perder una vida deja poco más que lo sobrevivido y, si no, crece con las
+ * frutas recogidas y con la cercanía a la siguiente.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class MonteCarloPlanner {
+
+    /** Tiempo por jugada por defecto en milisegundos */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 20;
+
+    /** Profundidad de las simulaciones aleatorias por defecto */
+    public static final int DEFAULT_ROLLOUT_DEPTH = 20;
+
+    /** Nodos máximos de cada árbol por defecto */
+    public static final int DEFAULT_MAX_NODES = 1 << 15;
+
+    /** Constante de exploración de UCT */
+    public static final double DEFAULT_EXPLORATION = 1.0;
+
+    /** Jugadas posibles: las cuatro direcciones y quedarse quieto */
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int ACTIONS = DIRECTIONS.length + 1;
+    private static final int STAY = DIRECTIONS.length;
+
+    /** Numeración de los hilos de todos los planificadores */
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    /** Hilos de búsqueda */
+    private final ExecutorService pool;
+    private final Worker[] workers;
+    private final List<Callable<Void>> tasks;
+
+    /** Parámetros de la búsqueda */
+    private long timeBudgetMillis;
+    private int maxRollouts;
+    private int rolloutDepth;
+    private double exploration;
+
+    /** Estado compartido con los hilos durante una búsqueda */
+    private volatile GameSimulation root;
+    private volatile long deadline;
+
+    /** Resultado de la última búsqueda */
+    private final int[] lastVisits = new int[ACTIONS];
+    private int lastRollouts;
+
+    /**
+     * Árbol de búsqueda de un hilo. Los hijos de un nodo ocupan ACTIONS
+     * posiciones consecutivas a partir de firstChild.
+     */
+    private final class Worker implements Callable<Void> {
+        private final int[] visits;
+        private final float[] reward;
+        private final int[] firstChild;
+        private final int[] path;
+        private final SplittableRandom random;
+        private GameSimulation sim;
+        private int nodeCount;
+        private int rollouts;
+
+        private Worker(int maxNodes, long seed) {
+            this.visits = new int[maxNodes];
+            this.reward = new float[maxNodes];
+            this.firstChild = new int[maxNodes];
+            this.path = new int[maxNodes];
+            this.random = new SplittableRandom(seed);
+        }
+
+        @Override
+        public Void call() {
+            GameSimulation start = root;
+            if (sim == null || !sim.isForkOf(start)) {
+                sim = start.copy();
+            }
+            int lives = start.getLives();
+            int remaining = Math.max(1, start.getRemainingFruits());
+            int span = start.getWidth() + start.getHeight();
+            nodeCount = 1;
+            visits[0] = 0;
+            reward[0] = 0;
+            firstChild[0] = -1;
+            rollouts = 0;
+            while ((maxRollouts == 0 || rollouts < maxRollouts)
+                    && (maxRollouts > 0 || System.nanoTime() < deadline)) {
+                sim.copyFrom(start);
+                int node = 0;
+                int depth = 0;
+                path[depth++] = 0;
+                // Selección
+                while (firstChild[node] >= 0 && !sim.isOver()) {
+                    node = select(node);
+                    sim.step(actionOf(node));
+                    path[depth++] = node;
+                }
+                // Expansión
+                if (!sim.isOver() && visits[node] > 0 && nodeCount + ACTIONS <= visits.length) {
+                    firstChild[node] = nodeCount;
+                    for (int a = 0; a < ACTIONS; a++) {
+                        visits[nodeCount + a] = 0;
+                        reward[nodeCount + a] = 0;
+                        firstChild[nodeCount + a] = -1;
+                    }
+                    nodeCount += ACTIONS;
+                    node = firstChild[node] + random.nextInt(ACTIONS);
+                    sim.step(actionOf(node));
+                    path[depth++] = node;
+                }
+                // Simulación
+                int steps = 0;
+                while (steps < rolloutDepth && !sim.isOver() && sim.getLives() == lives) {
+                    sim.step(rolloutMove());
+                    steps++;
+                }
+                float value = evaluate(sim, lives, remaining, span, steps, rolloutDepth);
+                // Retropropagación
+                for (int i = 0; i < depth; i++) {
+                    visits[path[i]]++;
+                    reward[path[i]] += value;
+                }
+                rollouts++;
+            }
+            return null;
+        }
+
+        /**
+         * Hijo con mayor cota UCB1; los no visitados primero.
+         */
+        private int select(int node) {
+            int first = firstChild[node];
+            double logParent = Math.log(Math.max(1, visits[node]));
+            int best = first;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int child = first; child < first + ACTIONS; child++) {
+                if (visits[child] == 0) {
+                    return child;
+                }
+                double score = reward[child] / visits[child]
+                        + exploration * Math.sqrt(logParent / visits[child]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Jugada de la simulación: la mitad de las veces la que más acerca a
+         * una fruta y, si no, una al azar; siempre entre las que no quedan
+         * junto a un monstruo, si las hay.
+         */
+        private Direction rolloutMove() {
+            boolean greedy = random.nextBoolean();
+            int offset = random.nextInt(DIRECTIONS.length);
+            Direction chosen = null;
+            Direction fallback = null;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int i = 0; i < DIRECTIONS.length; i++) {
+                Direction direction = DIRECTIONS[(offset + i) % DIRECTIONS.length];
+                if (!sim.canMove(direction)) {
+                    continue;
+                }
+                int nx = sim.getPlayerX() + direction.getDeltaX();
+                int ny = sim.getPlayerY() + direction.getDeltaY();
+                if (sim.isThreatened(nx, ny)) {
+                    fallback = direction;
+                    continue;
+                }
+                if (!greedy) {
+                    return direction;
+                }
+                int distance = sim.getFruitDistance(nx, ny);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    chosen = direction;
+                }
+            }
+            if (chosen == null && sim.isThreatened(sim.getPlayerX(), sim.getPlayerY())) {
+                return fallback;
+            }
+            return chosen;
+        }
+    }
+
+    /**
+     * Constructor de MonteCarloPlanner.
+     *
+     * @param threads hilos de búsqueda (al menos 1)
+     * @param seed semilla de los generadores aleatorios
+     */
+    public MonteCarloPlanner(int threads, long seed) {
+        int count = Math.max(1, threads);
+        this.pool = Executors.newFixedThreadPool(count, task -> {
+            Thread thread = new Thread(task, "mcts-worker-" + THREAD_IDS.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.workers = new Worker[count];
+        this.tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            workers[i] = new Worker(DEFAULT_MAX_NODES, seed + i * 0x9E3779B97F4A7C15L);
+            tasks.add(workers[i]);
+        }
+        this.timeBudgetMillis = DEFAULT_TIME_BUDGET_MILLIS;
+        this.rolloutDepth = DEFAULT_ROLLOUT_DEPTH;
+        this.exploration = DEFAULT_EXPLORATION;
+    }
+
+    /**
+     * Constructor de MonteCarloPlanner con un hilo por procesador.
+     */
+    public MonteCarloPlanner() {
+        this(Runtime.getRuntime().availableProcessors(), System.nanoTime());
+    }
+
+    /**
+     * Obtiene el número de hilos de búsqueda.
+     *
+     * @return los hilos
+     */
+    public int getThreads() {
+        return workers.length;
+    }
+
+    /**
+     * Obtiene el tiempo asignado a cada jugada.
+     *
+     * @return el tiempo en milisegundos
+     */
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    /**
+     * Establece el tiempo asignado a cada jugada.
+     *
+     * @param millis el tiempo en milisegundos
+     */
+    public void setTimeBudgetMillis(long millis) {
+        this.timeBudgetMillis = Math.max(1, millis);
+    }
+
+    /**
+     * Obtiene el límite de simulaciones por hilo.
+     *
+     * @return simulaciones por hilo, o 0 si solo limita el tiempo
+     */
+    public int getMaxRollouts() {
+        return maxRollouts;
+    }
+
+    /**
+     * Fija el número de simulaciones por hilo en lugar del tiempo, lo que
+     * hace la búsqueda reproducible con una semilla y un hilo.
+     *
+     * @param rollouts simulaciones por hilo, o 0 para limitar por tiempo
+     */
+    public void setMaxRollouts(int rollouts) {
+        this.maxRollouts = Math.max(0, rollouts);
+    }
+
+    /**
+     * Obtiene la profundidad de las simulaciones aleatorias.
+     *
+     * @return la profundidad en ticks
+     */
+    public int getRolloutDepth() {
+        return rolloutDepth;
+    }
+
+    /**
+     * Establece la profundidad de las simulaciones aleatorias.
+     *
+     * @param depth la profundidad en ticks
+     */
+    public void setRolloutDepth(int depth) {
+        this.rolloutDepth = Math.max(0, depth);
+    }
+
+    /**
+     * Obtiene la constante de exploración.
+     *
+     * @return la constante
+     */
+    public double getExploration() {
+        return exploration;
+    }
+
+    /**
+     * Establece la constante de exploración de UCT.
+     *
+     * @param exploration la constante
+     */
+    public void setExploration(double exploration) {
+        this.exploration = Math.max(0, exploration);
+    }
+
+    /**
+     * Busca la mejor jugada desde una posición. La simulación de entrada no
+     * se modifica y no debe cambiar mientras dura la búsqueda.
+     *
+     * @param start la posición actual
+     * @return la dirección elegida, o null para quedarse quieto
+     */
+    public Direction plan(GameSimulation start) {
+        Arrays.fill(lastVisits, 0);
+        lastRollouts = 0;
+        if (start.isOver()) {
+            return null;
+        }
+        root = start;
+        deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Fallo en la búsqueda Monte Carlo", e.getCause());
+        } finally {
+            root = null;
+        }
+
+        int best = STAY;
+        double bestMean = -1;
+        float[] sums = new float[ACTIONS];
+        for (Worker worker : workers) {
+            lastRollouts += worker.rollouts;
+            int first = worker.firstChild[0];
+            if (first < 0) {
+                continue;
+            }
+            for (int a = 0; a < ACTIONS; a++) {
+                lastVisits[a] += worker.visits[first + a];
+                sums[a] += worker.reward[first + a];
+            }
+        }
+        for (int a = 0; a < ACTIONS; a++) {
+            double mean = lastVisits[a] == 0 ? 0 : sums[a] / lastVisits[a];
+            if (lastVisits[a] > lastVisits[best] || (lastVisits[a] == lastVisits[best] && mean > bestMean)) {
+                best = a;
+                bestMean = mean;
+            }
+        }
+        return best == STAY ? null : DIRECTIONS[best];
+    }
+
+    /**
+     * Obtiene las simulaciones hechas en la última búsqueda, entre todos los hilos.
+     *
+     * @return las simulaciones
+     */
+    public int getLastRollouts() {
+        return lastRollouts;
+    }
+
+    /**
+     * Obtiene las visitas de una jugada de la raíz en la última búsqueda.
+     *
+     * @param direction la dirección, o null para quedarse quieto
+     * @return las visitas sumadas de todos los hilos
+     */
+    public int getLastVisits(Direction direction) {
+        return lastVisits[direction == null ? STAY : direction.ordinal()];
+    }
+
+    /**
+     * Detiene los hilos de búsqueda.
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Jugada que lleva a un nodo hijo.
+     */
+    private static Direction actionOf(int node) {
+        // Los hijos se reservan en bloques de ACTIONS a partir del nodo 1
+        int action = (node - 1) % ACTIONS;
+        return action == STAY ? null : DIRECTIONS[action];
+    }
+
+    /**
+     * Recompensa entre 0 y 1 del final de una simulación.
+     */
+    private static float evaluate(GameSimulation sim, int lives, int remaining, int span,
+                                  int steps, int depth) {
+        if (sim.getLives() < lives) {
+            // Caer tarde es menos malo que caer pronto
+            return 0.2f * steps / Math.max(1, depth);
+        }
+        if (sim.isWon()) {
+            return 1f;
+        }
+        float gathered = (float) (remaining - sim.getRemainingFruits()) / remaining;
+        float closeness = 1f - (float) Math.min(sim.getNearestFruitDistance(), span) / span;
+        return 0.4f + 0.5f * gathered + 0.1f * closeness;
+    }
+}
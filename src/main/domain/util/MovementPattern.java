@@ -2,9 +2,18 @@ package main.domain.util;
 
 import main.domain.enums.Direction;
 
+import java.util.Arrays;
+
 /**
  * Representa un patrón de movimiento para monstruos.
  * Los patrones son secuencias de direcciones que se repiten cíclicamente.
+ * Guarda el desplazamiento acumulado de cada prefijo del patrón, de modo que
+ * el desplazamiento tras cualquier número de pasos se calcula en O(1) sin
+ * avanzar el patrón.
+ * Un patrón también puede ejecutar un PatternScript compartido: entonces
+ * solo guarda el estado de ejecución de este monstruo, y el índice y las
+ * predicciones se refieren a los ticks del ciclo del guion (solo si el
+ * guion es predecible).
  * 
  * @author Bad Dopo-Cream Team
  * @version 1.0
@@ -17,6 +26,24 @@ public class MovementPattern {
     /** Índice actual en el patrón */
     private int currentIndex;
 
+    /** Desplazamiento acumulado de los primeros i pasos (i = 0..longitud) */
+    private final int[] prefixX;
+    private final int[] prefixY;
+
+    /** Pasos de un ciclo sobre los que se predice */
+    private final int cycleLength;
+
+    /** Guion que se ejecuta, o null si el patrón es de direcciones */
+    private final PatternScript script;
+
+    /** Estado de ejecución del guion y copia para consultar sin avanzar */
+    private final int[] state;
+    private final int[] peek;
+
+    /** Índice y estado guardados por mark para deshacer un paso */
+    private int savedIndex;
+    private final int[] saved;
+
     /**
      * Constructor de MovementPattern.
      * 
@@ -29,6 +56,84 @@ public class MovementPattern {
             this.directions = directions.clone();
         }
         this.currentIndex = 0;
+        this.prefixX = new int[this.directions.length + 1];
+        this.prefixY = new int[this.directions.length + 1];
+        for (int i = 0; i < this.directions.length; i++) {
+            prefixX[i + 1] = prefixX[i] + this.directions[i].getDeltaX();
+            prefixY[i + 1] = prefixY[i] + this.directions[i].getDeltaY();
+        }
+        this.cycleLength = this.directions.length;
+        this.script = null;
+        this.state = null;
+        this.peek = null;
+        this.saved = null;
+    }
+
+    /**
+     * Crea un patrón que ejecuta un guion compilado. El guion se comparte;
+     * el patrón solo reserva su estado de ejecución.
+     * 
+     * @param script el guion
+     * @return el patrón
+     */
+    public static MovementPattern forScript(PatternScript script) {
+        return new MovementPattern(script);
+    }
+
+    /**
+     * Constructor de MovementPattern que ejecuta un guion compilado.
+     * 
+     * @param script el guion
+     */
+    private MovementPattern(PatternScript script) {
+        this.script = script;
+        this.directions = script.getCycle();
+        this.prefixX = script.prefixX();
+        this.prefixY = script.prefixY();
+        this.cycleLength = script.getCycleLength();
+        this.state = new int[2 + script.getLoopSlots()];
+        this.peek = new int[state.length];
+        this.saved = new int[state.length];
+        this.currentIndex = 0;
+    }
+
+    /**
+     * Obtiene el guion que ejecuta el patrón.
+     * 
+     * @return el guion, o null si es un patrón de direcciones
+     */
+    public PatternScript getScript() {
+        return script;
+    }
+
+    /**
+     * Indica si la posición futura se puede predecir con getDeltaXAfter,
+     * getDeltaYAfter y getFirstStepsReaching.
+     * 
+     * @return true para los patrones de direcciones y los guiones predecibles
+     */
+    public boolean isPredictable() {
+        return script == null || script.isPredictable();
+    }
+
+    /**
+     * Obtiene la siguiente dirección teniendo en cuenta el mapa, para los
+     * giros condicionales y los avances hasta bloqueo de un guion. Los
+     * patrones de direcciones no miran el mapa.
+     * 
+     * @param x coordenada X del monstruo
+     * @param y coordenada Y del monstruo
+     * @param pathFinder mapa para las condiciones, o null si todo está libre
+     * @return la dirección del paso, o null si espera o el patrón está vacío
+     */
+    public Direction getNextDirection(int x, int y, PathFinder pathFinder) {
+        if (script == null) {
+            return getNextDirection();
+        }
+        if (cycleLength > 0) {
+            currentIndex = (currentIndex + 1) % cycleLength;
+        }
+        return script.step(state, x, y, pathFinder);
     }
 
     /**
@@ -37,6 +142,9 @@ public class MovementPattern {
      * @return la siguiente dirección, o null si el patrón está vacío
      */
     public Direction getNextDirection() {
+        if (script != null) {
+            return getNextDirection(0, 0, null);
+        }
         if (directions.length == 0) {
             return null;
         }
@@ -52,17 +160,46 @@ public class MovementPattern {
      * @return la dirección actual, o null si el patrón está vacío
      */
     public Direction getCurrentDirection() {
+        if (script != null) {
+            System.arraycopy(state, 0, peek, 0, state.length);
+            return script.step(peek, 0, 0, null);
+        }
         if (directions.length == 0) {
             return null;
         }
         return directions[currentIndex];
     }
 
+    /**
+     * Guarda la posición en el patrón antes de dar un paso, para poder
+     * deshacerlo con rollback.
+     */
+    public void mark() {
+        savedIndex = currentIndex;
+        if (state != null) {
+            System.arraycopy(state, 0, saved, 0, state.length);
+        }
+    }
+
+    /**
+     * Vuelve a la posición guardada por mark, de modo que el paso se
+     * repite en el siguiente tick.
+     */
+    public void rollback() {
+        currentIndex = savedIndex;
+        if (state != null) {
+            System.arraycopy(saved, 0, state, 0, state.length);
+        }
+    }
+
     /**
      * Reinicia el patrón al inicio.
      */
     public void reset() {
         this.currentIndex = 0;
+        if (state != null) {
+            Arrays.fill(state, 0);
+        }
     }
 
     /**
@@ -80,6 +217,16 @@ public class MovementPattern {
      * @param index el nuevo índice
      */
     public void setCurrentIndex(int index) {
+        if (script != null) {
+            // El estado del guion en un tick se obtiene ejecutándolo sin mapa
+            if (cycleLength > 0 && index >= 0) {
+                reset();
+                for (int i = index % cycleLength; i > 0; i--) {
+                    getNextDirection(0, 0, null);
+                }
+            }
+            return;
+        }
         if (directions.length > 0 && index >= 0) {
             this.currentIndex = index % directions.length;
         }
@@ -88,10 +235,11 @@ public class MovementPattern {
     /**
      * Obtiene el tamaño del patrón.
      * 
-     * @return el número de direcciones
+     * @return el número de direcciones, o de ticks del ciclo de un guion
+     *         predecible (0 si no lo es)
      */
     public int getSize() {
-        return directions.length;
+        return cycleLength;
     }
 
     /**
@@ -100,13 +248,110 @@ public class MovementPattern {
      * @return true si está vacío
      */
     public boolean isEmpty() {
-        return directions.length == 0;
+        return script != null ? script.getInstructionCount() == 0 : directions.length == 0;
+    }
+
+    /**
+     * Obtiene el desplazamiento horizontal de un ciclo completo del patrón.
+     * 
+     * @return el desplazamiento en X por ciclo
+     */
+    public int getCycleDeltaX() {
+        return prefixX[cycleLength];
+    }
+
+    /**
+     * Obtiene el desplazamiento vertical de un ciclo completo del patrón.
+     * 
+     * @return el desplazamiento en Y por ciclo
+     */
+    public int getCycleDeltaY() {
+        return prefixY[cycleLength];
+    }
+
+    /**
+     * Calcula en O(1) el desplazamiento horizontal tras varios pasos desde el
+     * índice actual, sin avanzar el patrón.
+     * 
+     * @param steps número de pasos
+     * @return el desplazamiento en X
+     */
+    public int getDeltaXAfter(int steps) {
+        return deltaAfter(prefixX, steps);
+    }
+
+    /**
+     * Calcula en O(1) el desplazamiento vertical tras varios pasos desde el
+     * índice actual, sin avanzar el patrón.
+     * 
+     * @param steps número de pasos
+     * @return el desplazamiento en Y
+     */
+    public int getDeltaYAfter(int steps) {
+        return deltaAfter(prefixY, steps);
+    }
+
+    /**
+     * Busca el primer número de pasos, desde minSteps, tras el cual el
+     * desplazamiento acumulado es (dx, dy). Recorre una vez cada fase del
+     * patrón: en cada una, el número de ciclos queda fijado por el
+     * desplazamiento por ciclo. Coste O(longitud del patrón).
+     * 
+     * @param dx desplazamiento buscado en X
+     * @param dy desplazamiento buscado en Y
+     * @param minSteps número mínimo de pasos
+     * @return el número de pasos, o -1 si nunca se alcanza
+     */
+    public int getFirstStepsReaching(int dx, int dy, int minSteps) {
+        int n = cycleLength;
+        minSteps = Math.max(0, minSteps);
+        if (n == 0) {
+            return dx == 0 && dy == 0 ? minSteps : -1;
+        }
+        int cycleX = getCycleDeltaX();
+        int cycleY = getCycleDeltaY();
+        long best = Long.MAX_VALUE;
+        for (int phase = 0; phase < n; phase++) {
+            int restX = dx - deltaAfter(prefixX, phase);
+            int restY = dy - deltaAfter(prefixY, phase);
+            long cycles;
+            if (cycleX == 0 && cycleY == 0) {
+                if (restX != 0 || restY != 0) {
+                    continue;
+                }
+                cycles = phase >= minSteps ? 0 : (minSteps - phase + n - 1) / n;
+            } else {
+                cycles = cycleX != 0 ? restX / cycleX : restY / cycleY;
+                if (cycles < 0 || restX != cycles * cycleX || restY != cycles * cycleY
+                        || phase + cycles * n < minSteps) {
+                    continue;
+                }
+            }
+            best = Math.min(best, phase + cycles * n);
+        }
+        return best > Integer.MAX_VALUE ? -1 : (int) best;
+    }
+
+    /**
+     * Desplazamiento acumulado de steps pasos empezando en el índice actual.
+     */
+    private int deltaAfter(int[] prefix, int steps) {
+        int n = cycleLength;
+        if (n == 0 || steps <= 0) {
+            return 0;
+        }
+        int end = currentIndex + steps % n;
+        int partial = end <= n
+                ? prefix[end] - prefix[currentIndex]
+                : prefix[n] - prefix[currentIndex] + prefix[end - n];
+        return (steps / n) * prefix[n] + partial;
     }
 
     /**
      * Obtiene una copia de las direcciones.
      * 
-     * @return array de direcciones
+     * @return array de direcciones; en un guion, la de cada tick del ciclo
+     *         (null en las esperas), o vacío si no es predecible
      */
     public Direction[] getDirections() {
         return directions.clone();
@@ -0,0 +1,210 @@
+package main.domain.util;
+
+import main.domain.enums.Direction;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tabla precalculada de siguiente paso entre todo par de celdas, para
+ * niveles pequeños. Para cada destino se hace un BFS y se guarda, por cada
+ * origen, la dirección hacia su padre en el árbol: 2 bits por par (12 KB en
+ * un nivel de 15x15). Con la tabla al día, el siguiente paso de un monstruo es
+ * una consulta O(1) sin búsqueda.
+ * Cuando el mapa cambia, la tabla deja de usarse y se recalcula en un hilo
+ * de fondo a partir de una copia de las celdas transitables; mientras tanto
+ * PathFinder vuelve a buscar normalmente.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class NextHopTable {
+
+    /** Celdas máximas del mapa por defecto para usar la tabla */
+    public static final int DEFAULT_MAX_CELLS = 1024;
+
+    /**
+     * Celdas máximas admitidas: la tabla ocupa celdas² / 4 bytes, así que
+     * 8192 celdas son 16 MB.
+     */
+    public static final int MAX_CELLS = 8192;
+
+    /** Hilo de fondo compartido para los recálculos */
+    private static final ExecutorService BUILDER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "next-hop-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Direcciones indexadas por su código de 2 bits (su ordinal) */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /** PathFinder que define el mapa */
+    private final PathFinder pathFinder;
+
+    /** Dimensiones del mapa */
+    private final int width;
+    private final int height;
+    private final int size;
+
+    /** Última tabla calculada, publicada por el hilo de fondo */
+    private volatile Table table;
+
+    /** Cambio de mapa para el que hay un recálculo en curso, o -1 */
+    private volatile long building = -1;
+
+    /** Número de tablas calculadas, desde este hilo o el de fondo */
+    private final AtomicInteger rebuildCount = new AtomicInteger();
+
+    /**
+     * Tabla inmutable calculada para un estado concreto del mapa.
+     */
+    private static final class Table {
+        private final long changeCount;
+        private final int mapVersion;
+        private final long[] hops;
+
+        private Table(long changeCount, int mapVersion, long[] hops) {
+            this.changeCount = changeCount;
+            this.mapVersion = mapVersion;
+            this.hops = hops;
+        }
+    }
+
+    /**
+     * Constructor de NextHopTable.
+     *
+     * @param pathFinder el PathFinder del mapa
+     * @param width ancho del mapa
+     * @param height alto del mapa
+     * @throws IllegalArgumentException si el mapa tiene más de MAX_CELLS celdas
+     */
+    public NextHopTable(PathFinder pathFinder, int width, int height) {
+        if ((long) width * height > MAX_CELLS) {
+            throw new IllegalArgumentException("Mapa demasiado grande para la tabla de siguiente paso");
+        }
+        this.pathFinder = pathFinder;
+        this.width = width;
+        this.height = height;
+        this.size = width * height;
+    }
+
+    /**
+     * Indica si la tabla corresponde al estado actual del mapa.
+     *
+     * @return true si se puede consultar
+     */
+    public boolean isCurrent() {
+        Table current = table;
+        return current != null && current.changeCount == pathFinder.getChangeCount()
+                && current.mapVersion == pathFinder.getMapVersion();
+    }
+
+    /**
+     * Obtiene cuántas veces se ha calculado la tabla.
+     *
+     * @return el número de cálculos
+     */
+    public int getRebuildCount() {
+        return rebuildCount.get();
+    }
+
+    /**
+     * Calcula la tabla de inmediato en el hilo actual.
+     */
+    public void rebuild() {
+        table = build(snapshot(), pathFinder.getChangeCount(), pathFinder.getMapVersion());
+    }
+
+    /**
+     * Encarga el recálculo al hilo de fondo si la tabla está desactualizada
+     * y no hay ya uno en curso para el estado actual. La copia del mapa se
+     * toma en el hilo que llama, así que el hilo de fondo nunca lee el mapa.
+     */
+    public void requestRebuild() {
+        long changeCount = pathFinder.getChangeCount();
+        if (isCurrent() || building == changeCount) {
+            return;
+        }
+        building = changeCount;
+        boolean[] walkable = snapshot();
+        int mapVersion = pathFinder.getMapVersion();
+        BUILDER.execute(() -> {
+            table = build(walkable, changeCount, mapVersion);
+            if (building == changeCount) {
+                building = -1;
+            }
+        });
+    }
+
+    /**
+     * Obtiene el siguiente paso de un camino más corto. Solo es válido si la
+     * tabla está al día y ambas celdas son transitables y están conectadas.
+     *
+     * @param startX coordenada X de inicio
+     * @param startY coordenada Y de inicio
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @return la dirección del siguiente paso
+     */
+    public Direction getNextDirection(int startX, int startY, int endX, int endY) {
+        long index = (long) (endX * height + endY) * size + (startX * height + startY);
+        long word = table.hops[(int) (index >>> 5)];
+        return DIRECTIONS[(int) (word >>> ((index & 31) << 1)) & 3];
+    }
+
+    /**
+     * Copia qué celdas son transitables.
+     */
+    private boolean[] snapshot() {
+        boolean[] walkable = new boolean[size];
+        for (int cell = 0; cell < size; cell++) {
+            walkable[cell] = pathFinder.isWalkable(cell / height, cell % height);
+        }
+        return walkable;
+    }
+
+    /**
+     * Un BFS por destino; cada origen guarda la dirección hacia su padre.
+     */
+    private Table build(boolean[] walkable, long changeCount, int mapVersion) {
+        long[] hops = new long[(int) (((long) size * size + 31) / 32)];
+        int[] queue = new int[size];
+        int[] seen = new int[size];
+        for (int goal = 0; goal < size; goal++) {
+            if (!walkable[goal]) {
+                continue;
+            }
+            int stamp = goal + 1;
+            long base = (long) goal * size;
+            int head = 0;
+            int tail = 0;
+            seen[goal] = stamp;
+            queue[tail++] = goal;
+            while (head < tail) {
+                int current = queue[head++];
+                int cx = current / height;
+                int cy = current % height;
+                for (int d = 0; d < 4; d++) {
+                    int nx = cx + DIRECTIONS[d].getDeltaX();
+                    int ny = cy + DIRECTIONS[d].getDeltaY();
+                    if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                        continue;
+                    }
+                    int neighbor = nx * height + ny;
+                    if (!walkable[neighbor] || seen[neighbor] == stamp) {
+                        continue;
+                    }
+                    seen[neighbor] = stamp;
+                    queue[tail++] = neighbor;
+                    // Desde neighbor se vuelve a current con la dirección opuesta
+                    long index = base + neighbor;
+                    hops[(int) (index >>> 5)] |= (long) (d ^ 1) << ((index & 31) << 1);
+                }
+            }
+        }
+        rebuildCount.incrementAndGet();
+        return new Table(changeCount, mapVersion, hops);
+    }
+}
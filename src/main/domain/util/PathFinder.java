@@ -1,13 +1,17 @@
 package main.domain.util;
 
 import main.domain.entities.Cell;
+import main.domain.entities.GameObject;
+import main.domain.entities.IceWall;
 import main.domain.enums.Direction;
+import main.domain.enums.SearchStrategy;
 
 import java.util.*;
 
 /**
- * Implementa el algoritmo de búsqueda de caminos (A*).
+ * Implementa la búsqueda de caminos (A*, Jump Point Search o HPA* jerárquico).
  * Utilizado por los monstruos para encontrar rutas hacia el jugador.
+ * Las búsquedas reutilizan buffers planos y no crean objetos por nodo.
  * 
  * @author Bad Dopo-Cream Team
  * @version 1.0
@@ -21,109 +25,1174 @@ public class PathFinder {
     private int width;
     private int height;
 
+    /** Copia compacta de la transitabilidad del mapa (índice x * height + y) */
+    private byte[] walkability;
+
+    /** Índice de componentes conexas para descartar destinos inalcanzables */
+    private ConnectivityIndex connectivity;
+
+    /** Estrategia de búsqueda de esta instancia */
+    private SearchStrategy searchStrategy;
+
+    /** Abstracción por clusters para HIERARCHICAL (se construye al primer uso) */
+    private ClusterGraph clusterGraph;
+
+    /** Lado de los clusters de la abstracción jerárquica */
+    private int clusterSize = ClusterGraph.DEFAULT_CLUSTER_SIZE;
+
+    /** Grafo de pasillos para CORRIDOR (se construye al primer uso) */
+    private CorridorGraph corridorGraph;
+
+    /** Tabla de siguiente paso para mapas pequeños (perezosa) */
+    private NextHopTable nextHops;
+
+    /** Celdas máximas del mapa para usar la tabla de siguiente paso (0 = nunca) */
+    private int nextHopMaxCells;
+
+    /** Heurística ALT (perezosa), o null si aún no se creó */
+    private LandmarkIndex landmarks;
+
+    /** Número de landmarks de la heurística ALT (0 = solo Manhattan, por defecto) */
+    private int landmarkCount;
+
+    /** Landmarks usados por la búsqueda en curso, o null para Manhattan */
+    private LandmarkIndex activeLandmarks;
+
+    /** Buffers reutilizables entre búsquedas (índice x * height + y) */
+    private int[] gScore;
+    private int[] parentIndex;
+    private int[] seenStamp;
+    private int[] closedStamp;
+    private int[] trail;
+    private IndexedMinHeap openSet;
+
+    /** Identificador de la búsqueda actual para invalidar buffers en O(1) */
+    private int searchId;
+
+    /** Nodos expandidos en la última búsqueda */
+    private int lastExpandedNodes;
+
+    /** Nodos encolados en la última búsqueda */
+    private int lastPushedNodes;
+
+    /** Indica si la última consulta se respondió con la tabla precalculada */
+    private boolean lastCacheHit;
+
+    /** Contadores de uso, o null si la instrumentación está desactivada */
+    private PathFinderStats stats;
+
+    /** Camino hacia el objetivo elegido por la última llamada a findNearest */
+    private CompactPath lastNearestPath = CompactPath.EMPTY;
+
+    /** Registro circular de las últimas celdas cambiadas, para planificadores incrementales */
+    private final int[] changeLog = new int[CHANGE_LOG_SIZE];
+
+    /** Número total de cambios registrados */
+    private long changeCount;
+
+    /** Versión del mapa; cambia con cada setMap */
+    private int mapVersion;
+
+    /** Expansiones permitidas por tick a las búsquedas reanudables (0 = sin límite) */
+    private int nodeBudget;
+
+    /** Expansiones que quedan en el tick actual */
+    private int remainingBudget;
+
+    /** Capacidad del registro de cambios */
+    static final int CHANGE_LOG_SIZE = 256;
+
+    /**
+     * Penalización de hielo que indica que el hielo bloquea. Cualquier valor
+     * negativo significa lo mismo; 0 o más es el costo extra de atravesarlo.
+     */
+    public static final int ICE_BLOCKS = -1;
+
+    /** Direcciones en orden de expansión */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /** Valores de la copia de transitabilidad */
+    private static final byte BLOCKED = 0;
+    private static final byte WALKABLE = 1;
+    private static final byte ICE = 2;
+
+    /**
+     * Constructor de PathFinder.
+     * 
+     * @param map el mapa del juego
+     */
+    public PathFinder(Cell[][] map) {
+        this(map, SearchStrategy.A_STAR);
+    }
+
+    /**
+     * Constructor de PathFinder con estrategia de búsqueda.
+     * 
+     * @param map el mapa del juego
+     * @param searchStrategy la estrategia de búsqueda
+     */
+    public PathFinder(Cell[][] map, SearchStrategy searchStrategy) {
+        if (map == null || map.length == 0) {
+            this.map = new Cell[0][0];
+            this.width = 0;
+            this.height = 0;
+        } else {
+            this.map = map;
+            this.width = map.length;
+            this.height = map[0].length;
+        }
+        this.walkability = snapshotWalkability();
+        this.connectivity = new ConnectivityIndex(this, width, height);
+        this.clusterGraph = null;
+        setSearchStrategy(searchStrategy);
+    }
+
+    /**
+     * Actualiza la referencia al mapa.
+     * 
+     * @param map el nuevo mapa
+     */
+    public void setMap(Cell[][] map) {
+        if (map == null || map.length == 0) {
+            this.map = new Cell[0][0];
+            this.width = 0;
+            this.height = 0;
+        } else {
+            this.map = map;
+            this.width = map.length;
+            this.height = map[0].length;
+        }
+        this.walkability = snapshotWalkability();
+        this.connectivity = new ConnectivityIndex(this, width, height);
+        this.clusterGraph = null;
+        this.corridorGraph = null;
+        this.nextHops = null;
+        this.landmarks = null;
+        this.mapVersion++;
+    }
+
+    /**
+     * Notifica que una celda del mapa ha cambiado de transitabilidad
+     * (muro colocado o destruido), para mantener los índices al día.
+     * Las búsquedas leen una copia de la transitabilidad que solo se
+     * actualiza aquí: quien modifique el mapa sin llamar a este método
+     * debe usar setMap.
+     * 
+     * @param x coordenada X
+     * @param y coordenada Y
+     */
+    public void onCellChanged(int x, int y) {
+        if (isValidPosition(x, y)) {
+            walkability[x * height + y] = classify(map[x][y]);
+        }
+        connectivity.onCellChanged(x, y);
+        if (clusterGraph != null) {
+            clusterGraph.onCellChanged(x, y);
+        }
+        if (corridorGraph != null) {
+            corridorGraph.onCellChanged(x, y);
+        }
+        if (landmarks != null) {
+            landmarks.onCellChanged(x, y);
+        }
+        if (isValidPosition(x, y)) {
+            changeLog[(int) (changeCount++ % CHANGE_LOG_SIZE)] = x * height + y;
+        }
+    }
+
+    /**
+     * Obtiene el número total de cambios de celda notificados.
+     * 
+     * @return el contador de cambios
+     */
+    public long getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Obtiene la celda del cambio número seq, si sigue en el registro.
+     * 
+     * @param seq número de secuencia del cambio
+     * @return índice de la celda (x * alto + y), o -1 si ya se descartó
+     */
+    int getChangedCell(long seq) {
+        if (seq < 0 || seq >= changeCount || changeCount - seq > CHANGE_LOG_SIZE) {
+            return -1;
+        }
+        return changeLog[(int) (seq % CHANGE_LOG_SIZE)];
+    }
+
+    /**
+     * Establece el presupuesto de expansiones por tick que comparten todas las
+     * búsquedas reanudables (PathRequest e IncrementalPlanner) de este mapa.
+     * Las búsquedas que lo agotan continúan en el siguiente tick.
+     * 
+     * @param budget nodos por tick, o 0 para no limitar
+     */
+    public void setNodeBudget(int budget) {
+        this.nodeBudget = Math.max(0, budget);
+        this.remainingBudget = this.nodeBudget;
+    }
+
+    /**
+     * Obtiene el presupuesto de expansiones por tick.
+     * 
+     * @return nodos por tick, o 0 si no hay límite
+     */
+    public int getNodeBudget() {
+        return nodeBudget;
+    }
+
+    /**
+     * Obtiene las expansiones que quedan en el tick actual.
+     * 
+     * @return expansiones restantes, o Integer.MAX_VALUE si no hay límite
+     */
+    public int getRemainingBudget() {
+        return nodeBudget == 0 ? Integer.MAX_VALUE : remainingBudget;
+    }
+
+    /**
+     * Empieza un nuevo tick y repone el presupuesto de expansiones.
+     */
+    public void beginTick() {
+        remainingBudget = nodeBudget;
+    }
+
+    /**
+     * Consume una expansión del presupuesto del tick.
+     * 
+     * @return false si el presupuesto está agotado
+     */
+    boolean tryExpand() {
+        if (nodeBudget == 0) {
+            return true;
+        }
+        if (remainingBudget == 0) {
+            return false;
+        }
+        remainingBudget--;
+        return true;
+    }
+
+    /**
+     * Obtiene la versión del mapa, que cambia con cada setMap.
+     * 
+     * @return la versión
+     */
+    public int getMapVersion() {
+        return mapVersion;
+    }
+
+    /**
+     * Obtiene el ancho del mapa.
+     * 
+     * @return el ancho
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Obtiene el alto del mapa.
+     * 
+     * @return el alto
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Verifica en O(1) si el destino es alcanzable desde el origen.
+     * 
+     * @param startX coordenada X de inicio
+     * @param startY coordenada Y de inicio
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @return true si existe algún camino
+     */
+    public boolean isReachable(int startX, int startY, int endX, int endY) {
+        if (!isValidPosition(startX, startY) || !isValidPosition(endX, endY)) {
+            return false;
+        }
+        return connectivity.isConnected(startX, startY, endX, endY);
+    }
+
+    /**
+     * Obtiene el índice de componentes conexas.
+     * 
+     * @return el índice
+     */
+    public ConnectivityIndex getConnectivityIndex() {
+        return connectivity;
+    }
+
+    /**
+     * Obtiene la estrategia de búsqueda.
+     * 
+     * @return la estrategia
+     */
+    public SearchStrategy getSearchStrategy() {
+        return searchStrategy;
+    }
+
+    /**
+     * Establece la estrategia de búsqueda de esta instancia.
+     * 
+     * @param searchStrategy la nueva estrategia (null equivale a A_STAR)
+     */
+    public void setSearchStrategy(SearchStrategy searchStrategy) {
+        this.searchStrategy = searchStrategy != null ? searchStrategy : SearchStrategy.A_STAR;
+    }
+
+    /**
+     * Obtiene el lado de los clusters de la estrategia HIERARCHICAL.
+     * 
+     * @return el tamaño de cluster
+     */
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    /**
+     * Establece el lado de los clusters; descarta la abstracción actual.
+     * 
+     * @param clusterSize el nuevo tamaño de cluster
+     */
+    public void setClusterSize(int clusterSize) {
+        if (clusterSize >= 2 && clusterSize != this.clusterSize) {
+            this.clusterSize = clusterSize;
+            this.clusterGraph = null;
+        }
+    }
+
+    /**
+     * Obtiene la abstracción jerárquica, creándola si es necesario.
+     * 
+     * @return el grafo de clusters
+     */
+    public ClusterGraph getClusterGraph() {
+        if (clusterGraph == null) {
+            clusterGraph = new ClusterGraph(this, width, height, clusterSize);
+        }
+        return clusterGraph;
+    }
+
+    /**
+     * Obtiene el grafo de pasillos, creándolo si es necesario.
+     * 
+     * @return el grafo de pasillos
+     */
+    public CorridorGraph getCorridorGraph() {
+        if (corridorGraph == null) {
+            corridorGraph = new CorridorGraph(this, width, height);
+        }
+        return corridorGraph;
+    }
+
+    /**
+     * Obtiene el tamaño máximo de mapa para el que se usa la tabla de siguiente paso.
+     * 
+     * @return celdas máximas, o 0 si está desactivada
+     */
+    public int getNextHopMaxCells() {
+        return nextHopMaxCells;
+    }
+
+    /**
+     * Activa la tabla de siguiente paso precalculada en mapas de como mucho
+     * maxCells celdas; getNextDirection pasa a ser una consulta O(1).
+     * 
+     * @param maxCells celdas máximas, o 0 para desactivarla; se limita a
+     *        NextHopTable.MAX_CELLS
+     */
+    public void setNextHopMaxCells(int maxCells) {
+        this.nextHopMaxCells = Math.max(0, Math.min(maxCells, NextHopTable.MAX_CELLS));
+        this.nextHops = null;
+    }
+
+    /**
+     * Obtiene la tabla de siguiente paso, creándola si es necesario.
+     * 
+     * @return la tabla, o null si está desactivada o el mapa es demasiado grande
+     */
+    public NextHopTable getNextHopTable() {
+        if (nextHops == null && width > 0 && width * height <= nextHopMaxCells) {
+            nextHops = new NextHopTable(this, width, height);
+        }
+        return nextHops;
+    }
+
+    /**
+     * Obtiene el número de landmarks de la heurística ALT.
+     * 
+     * @return los landmarks, o 0 si se usa solo Manhattan
+     */
+    public int getLandmarkCount() {
+        return landmarkCount;
+    }
+
+    /**
+     * Establece el número de landmarks de la heurística ALT; descarta los actuales.
+     * 
+     * @param landmarkCount los landmarks, o 0 para usar solo Manhattan
+     */
+    public void setLandmarkCount(int landmarkCount) {
+        int count = Math.max(0, landmarkCount);
+        if (count != this.landmarkCount) {
+            this.landmarkCount = count;
+            this.landmarks = null;
+        }
+    }
+
+    /**
+     * Obtiene la heurística ALT, creándola si es necesario.
+     * 
+     * @return el índice de landmarks, o null si está desactivada
+     */
+    public LandmarkIndex getLandmarkIndex() {
+        if (landmarks == null && landmarkCount > 0 && width > 0) {
+            landmarks = new LandmarkIndex(this, width, height, landmarkCount);
+        }
+        return landmarks;
+    }
+
+    /**
+     * Obtiene el número de nodos expandidos en la última búsqueda.
+     * 
+     * @return nodos expandidos
+     */
+    public int getLastExpandedNodes() {
+        return lastExpandedNodes;
+    }
+
+    /**
+     * Obtiene el número de nodos encolados en la última búsqueda.
+     * 
+     * @return nodos encolados
+     */
+    public int getLastPushedNodes() {
+        return lastPushedNodes;
+    }
+
+    /**
+     * Obtiene los contadores de uso.
+     * 
+     * @return los contadores, o null si la instrumentación está desactivada
+     */
+    public PathFinderStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Activa o desactiva la instrumentación. Desactivada no mide nada.
+     * 
+     * @param stats contadores donde registrar las consultas, o null para desactivarla
+     */
+    public void setStats(PathFinderStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Encuentra el camino más corto entre dos puntos.
+     * 
+     * @param startX coordenada X de inicio
+     * @param startY coordenada Y de inicio
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @return lista de direcciones para llegar al destino, o lista vacía si no hay camino
+     */
+    public List<Direction> findPath(int startX, int startY, int endX, int endY) {
+        long started = beginQuery();
+        List<Direction> path = computePath(startX, startY, endX, endY);
+        endQuery(started, path.isEmpty() && (startX != endX || startY != endY) ? 1 : 0);
+        return path;
+    }
+
+    /**
+     * Cuerpo de findPath sin instrumentación.
+     */
+    private List<Direction> computePath(int startX, int startY, int endX, int endY) {
+        lastExpandedNodes = 0;
+        if (!isSearchNeeded(startX, startY, endX, endY)) {
+            return Collections.emptyList();
+        }
+
+        if (isHierarchicalQuery(startX, startY, endX, endY)) {
+            List<Direction> path = clusterGraph.findPath(startX, startY, endX, endY);
+            lastExpandedNodes = clusterGraph.getLastExpandedNodes();
+            return path;
+        }
+        if (isCorridorQuery(startX, startY, endX, endY)) {
+            List<Direction> path = corridorGraph.findPath(startX, startY, endX, endY);
+            lastExpandedNodes = corridorGraph.getLastExpandedNodes();
+            return path;
+        }
+
+        int start = startX * height + startY;
+        int goal = endX * height + endY;
+        if (!searchGrid(start, goal)) {
+            return Collections.emptyList();
+        }
+        return reconstructPath(start, goal);
+    }
+
+    /**
+     * Encuentra el camino más corto codificado a 2 bits por paso, sin
+     * crear una lista de direcciones. Pensado para guardar caminos.
+     * 
+     * @param startX coordenada X de inicio
+     * @param startY coordenada Y de inicio
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @return el camino compacto, o CompactPath.EMPTY si no hay camino
+     */
+    public CompactPath findCompactPath(int startX, int startY, int endX, int endY) {
+        long started = beginQuery();
+        CompactPath path = computeCompactPath(startX, startY, endX, endY);
+        endQuery(started, path.isEmpty() && (startX != endX || startY != endY) ? 1 : 0);
+        return path;
+    }
+
+    /**
+     * Cuerpo de findCompactPath sin instrumentación.
+     */
+    private CompactPath computeCompactPath(int startX, int startY, int endX, int endY) {
+        if (searchStrategy == SearchStrategy.HIERARCHICAL || searchStrategy == SearchStrategy.CORRIDOR) {
+            return CompactPath.of(computePath(startX, startY, endX, endY));
+        }
+        lastExpandedNodes = 0;
+        if (!isSearchNeeded(startX, startY, endX, endY)) {
+            return CompactPath.EMPTY;
+        }
+        int start = startX * height + startY;
+        int goal = endX * height + endY;
+        if (!searchGrid(start, goal)) {
+            return CompactPath.EMPTY;
+        }
+        return encodePath(start, goal);
+    }
+
+    /**
+     * Encuentra los caminos de varios orígenes hacia un mismo destino con un
+     * único BFS inverso desde el destino, que se detiene en cuanto alcanza
+     * todos los orígenes alcanzables. Sustituye a una búsqueda por monstruo
+     * cuando varios persiguen al mismo objetivo en el mismo tick.
+     * 
+     * @param sources objetos que buscan camino (p. ej. monstruos)
+     * @param goalX coordenada X del destino
+     * @param goalY coordenada Y del destino
+     * @return un camino por origen y en el mismo orden (CompactPath.EMPTY si no hay)
+     */
+    public List<CompactPath> findPaths(List<? extends GameObject> sources, int goalX, int goalY) {
+        long started = beginQuery();
+        List<CompactPath> paths = computePaths(sources, goalX, goalY);
+        if (stats != null) {
+            int unanswered = 0;
+            for (int i = 0; i < sources.size(); i++) {
+                GameObject source = sources.get(i);
+                if (paths.get(i).isEmpty() && (source.getX() != goalX || source.getY() != goalY)) {
+                    unanswered++;
+                }
+            }
+            endQuery(started, unanswered);
+        }
+        return paths;
+    }
+
+    /**
+     * Cuerpo de findPaths sin instrumentación.
+     */
+    private List<CompactPath> computePaths(List<? extends GameObject> sources, int goalX, int goalY) {
+        lastExpandedNodes = 0;
+        List<CompactPath> paths = new ArrayList<>(sources.size());
+        if (!isWalkable(goalX, goalY)) {
+            for (int i = 0; i < sources.size(); i++) {
+                paths.add(CompactPath.EMPTY);
+            }
+            return paths;
+        }
+        beginSearch();
+        int goal = goalX * height + goalY;
+
+        // Los orígenes pendientes se marcan en closedStamp, que el BFS no usa
+        int pending = 0;
+        for (GameObject source : sources) {
+            int sx = source.getX();
+            int sy = source.getY();
+            if (isSearchNeeded(sx, sy, goalX, goalY) && closedStamp[sx * height + sy] != searchId) {
+                closedStamp[sx * height + sy] = searchId;
+                pending++;
+            }
+        }
+
+        int head = 0;
+        int tail = 0;
+        seenStamp[goal] = searchId;
+        gScore[goal] = 0;
+        trail[tail++] = goal;
+        lastPushedNodes++;
+        while (pending > 0 && head < tail) {
+            int current = trail[head++];
+            lastExpandedNodes++;
+            int cx = current / height;
+            int cy = current % height;
+            for (int i = 0; i < DIRECTIONS.length; i++) {
+                int nx = cx + DIRECTIONS[i].getDeltaX();
+                int ny = cy + DIRECTIONS[i].getDeltaY();
+                if (!isValidPosition(nx, ny)) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (seenStamp[neighbor] == searchId) {
+                    continue;
+                }
+                boolean isSource = closedStamp[neighbor] == searchId;
+                boolean walkable = isWalkable(nx, ny);
+                if (!walkable && !isSource) {
+                    continue;
+                }
+                // Un origen no transitable se alcanza pero no se expande, como el inicio de A*
+                seenStamp[neighbor] = searchId;
+                gScore[neighbor] = gScore[current] + 1;
+                parentIndex[neighbor] = current;
+                if (walkable) {
+                    trail[tail++] = neighbor;
+                    lastPushedNodes++;
+                }
+                if (isSource) {
+                    pending--;
+                }
+            }
+        }
+
+        for (GameObject source : sources) {
+            int cell = source.getX() * height + source.getY();
+            boolean reached = isValidPosition(source.getX(), source.getY())
+                    && cell != goal && seenStamp[cell] == searchId;
+            paths.add(reached ? encodeTowardRoot(cell, goal) : CompactPath.EMPTY);
+        }
+        return paths;
+    }
+
+    /**
+     * Encuentra el objetivo más cercano (en pasos reales) de entre varios con
+     * un único BFS desde el origen, p. ej. la fruta más cercana para un
+     * jugador automático. El camino hacia él queda en getLastNearestPath.
+     * 
+     * @param sourceX coordenada X del origen
+     * @param sourceY coordenada Y del origen
+     * @param goals objetivos candidatos
+     * @param <T> tipo de los objetivos
+     * @return el objetivo más cercano, o null si ninguno es alcanzable
+     */
+    public <T extends GameObject> T findNearest(int sourceX, int sourceY, List<T> goals) {
+        long started = beginQuery();
+        T nearest = computeNearest(sourceX, sourceY, goals);
+        endQuery(started, nearest == null && !goals.isEmpty() ? 1 : 0);
+        return nearest;
+    }
+
     /**
-     * Constructor de PathFinder.
+     * Cuerpo de findNearest sin instrumentación.
+     */
+    private <T extends GameObject> T computeNearest(int sourceX, int sourceY, List<T> goals) {
+        lastExpandedNodes = 0;
+        lastNearestPath = CompactPath.EMPTY;
+        if (!isValidPosition(sourceX, sourceY)) {
+            return null;
+        }
+        beginSearch();
+        int source = sourceX * height + sourceY;
+
+        // Los objetivos alcanzables se marcan en closedStamp
+        boolean any = false;
+        for (T goal : goals) {
+            if (goal.getX() == sourceX && goal.getY() == sourceY) {
+                return goal;
+            }
+            if (isSearchNeeded(sourceX, sourceY, goal.getX(), goal.getY())) {
+                closedStamp[goal.getX() * height + goal.getY()] = searchId;
+                any = true;
+            }
+        }
+        if (!any) {
+            return null;
+        }
+
+        int head = 0;
+        int tail = 0;
+        int found = -1;
+        seenStamp[source] = searchId;
+        gScore[source] = 0;
+        trail[tail++] = source;
+        lastPushedNodes++;
+        while (found < 0 && head < tail) {
+            int current = trail[head++];
+            lastExpandedNodes++;
+            int cx = current / height;
+            int cy = current % height;
+            for (int i = 0; i < DIRECTIONS.length && found < 0; i++) {
+                int nx = cx + DIRECTIONS[i].getDeltaX();
+                int ny = cy + DIRECTIONS[i].getDeltaY();
+                if (!isWalkable(nx, ny)) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (seenStamp[neighbor] != searchId) {
+                    seenStamp[neighbor] = searchId;
+                    gScore[neighbor] = gScore[current] + 1;
+                    parentIndex[neighbor] = current;
+                    trail[tail++] = neighbor;
+                    lastPushedNodes++;
+                    if (closedStamp[neighbor] == searchId) {
+                        found = neighbor;
+                    }
+                }
+            }
+        }
+        if (found < 0) {
+            return null;
+        }
+        lastNearestPath = encodePath(source, found);
+        for (T goal : goals) {
+            if (goal.getX() * height + goal.getY() == found) {
+                return goal;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene el camino hacia el objetivo elegido por la última llamada a findNearest.
      * 
-     * @param map el mapa del juego
+     * @return el camino, o CompactPath.EMPTY si no se eligió ninguno
      */
-    public PathFinder(Cell[][] map) {
-        if (map == null || map.length == 0) {
-            this.map = new Cell[0][0];
-            this.width = 0;
-            this.height = 0;
-        } else {
-            this.map = map;
-            this.width = map.length;
-            this.height = map[0].length;
+    public CompactPath getLastNearestPath() {
+        return lastNearestPath;
+    }
+
+    /**
+     * Encuentra el camino de menor costo tratando el hielo como transitable
+     * con penalización (para monstruos que rompen hielo). Entrar en una celda
+     * libre cuesta 1 y en una de hielo 1 + icePenalty. Usa los mismos buffers
+     * que A*, sin crear objetos por nodo.
+     * 
+     * @param startX coordenada X de inicio
+     * @param startY coordenada Y de inicio
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @param icePenalty costo extra de atravesar un bloque de hielo, o
+     *        ICE_BLOCKS (negativo) si el hielo bloquea
+     * @return lista de direcciones, o lista vacía si no hay camino
+     */
+    public List<Direction> findWeightedPath(int startX, int startY, int endX, int endY, int icePenalty) {
+        long started = beginQuery();
+        if (!runWeighted(startX, startY, endX, endY, icePenalty)) {
+            endQuery(started, startX != endX || startY != endY ? 1 : 0);
+            return Collections.emptyList();
         }
+        List<Direction> path = reconstructPath(startX * height + startY, endX * height + endY);
+        endQuery(started, 0);
+        return path;
     }
 
     /**
-     * Actualiza la referencia al mapa.
+     * Obtiene la primera dirección del camino ponderado por hielo.
      * 
-     * @param map el nuevo mapa
+     * @param startX coordenada X de inicio
+     * @param startY coordenada Y de inicio
+     * @param endX coordenada X de destino
+     * @param endY coordenada Y de destino
+     * @param icePenalty costo extra de atravesar un bloque de hielo, o
+     *        ICE_BLOCKS (negativo) si el hielo bloquea
+     * @return la primera dirección, o null si no hay camino
      */
-    public void setMap(Cell[][] map) {
-        if (map == null || map.length == 0) {
-            this.map = new Cell[0][0];
-            this.width = 0;
-            this.height = 0;
-        } else {
-            this.map = map;
-            this.width = map.length;
-            this.height = map[0].length;
+    public Direction getNextWeightedDirection(int startX, int startY, int endX, int endY, int icePenalty) {
+        long started = beginQuery();
+        if (!runWeighted(startX, startY, endX, endY, icePenalty)) {
+            endQuery(started, startX != endX || startY != endY ? 1 : 0);
+            return null;
         }
+        Direction next = firstDirection(startX * height + startY, endX * height + endY);
+        endQuery(started, 0);
+        return next;
     }
 
     /**
-     * Encuentra el camino más corto entre dos puntos.
+     * Valida la consulta ponderada y ejecuta la búsqueda.
+     */
+    private boolean runWeighted(int startX, int startY, int endX, int endY, int icePenalty) {
+        lastExpandedNodes = 0;
+        if (!isValidPosition(startX, startY) || !isValidPosition(endX, endY)
+                || (startX == endX && startY == endY) || !isPassable(endX, endY, icePenalty >= 0)) {
+            return false;
+        }
+        return searchWeighted(startX * height + startY, endX * height + endY, icePenalty);
+    }
+
+    /**
+     * A* con costos no uniformes: el hielo se atraviesa con penalización, o
+     * bloquea si es negativa.
+     * La heurística Manhattan sigue siendo admisible porque todo paso cuesta al menos 1.
+     */
+    private boolean searchWeighted(int start, int goal, int icePenalty) {
+        beginSearch();
+        // El hielo acorta caminos que los landmarks no conocen: solo Manhattan
+        activeLandmarks = null;
+        int goalX = goal / height;
+        int goalY = goal % height;
+        open(start, -1, 0, goalX, goalY);
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            if (current == goal) {
+                return true;
+            }
+            closedStamp[current] = searchId;
+            lastExpandedNodes++;
+
+            int cx = current / height;
+            int cy = current % height;
+            for (int i = 0; i < DIRECTIONS.length; i++) {
+                int nx = cx + DIRECTIONS[i].getDeltaX();
+                int ny = cy + DIRECTIONS[i].getDeltaY();
+                int cost;
+                if (isWalkable(nx, ny)) {
+                    cost = 1;
+                } else if (icePenalty >= 0 && isIce(nx, ny)) {
+                    cost = 1 + icePenalty;
+                } else {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (closedStamp[neighbor] != searchId) {
+                    relax(neighbor, current, gScore[current] + cost, goalX, goalY);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Dirección voraz hacia el destino, sin búsqueda: avanza por el eje de
+     * mayor distancia y, si está bloqueado, por el otro. Es la respuesta
+     * provisional mientras una búsqueda reanudable no ha terminado.
      * 
      * @param startX coordenada X de inicio
      * @param startY coordenada Y de inicio
      * @param endX coordenada X de destino
      * @param endY coordenada Y de destino
-     * @return lista de direcciones para llegar al destino, o lista vacía si no hay camino
+     * @return la dirección, o null si ambas están bloqueadas
      */
-    public List<Direction> findPath(int startX, int startY, int endX, int endY) {
-        if (!isValidPosition(startX, startY) || !isValidPosition(endX, endY)) {
-            return Collections.emptyList();
+    public Direction getGreedyDirection(int startX, int startY, int endX, int endY) {
+        int dx = endX - startX;
+        int dy = endY - startY;
+        Direction horizontal = dx > 0 ? Direction.RIGHT : dx < 0 ? Direction.LEFT : null;
+        Direction vertical = dy > 0 ? Direction.DOWN : dy < 0 ? Direction.UP : null;
+        Direction first = Math.abs(dx) >= Math.abs(dy) ? horizontal : vertical;
+        Direction second = first == horizontal ? vertical : horizontal;
+        if (first != null && isWalkable(startX + first.getDeltaX(), startY + first.getDeltaY())) {
+            return first;
+        }
+        if (second != null && isWalkable(startX + second.getDeltaX(), startY + second.getDeltaY())) {
+            return second;
         }
+        return null;
+    }
 
-        // Si el inicio es igual al destino
+    /**
+     * Verifica si hace falta buscar: posiciones válidas, distintas y
+     * en la misma componente conexa (descarte en O(1) de destinos
+     * inalcanzables, p. ej. un jugador encerrado en hielo).
+     */
+    private boolean isSearchNeeded(int startX, int startY, int endX, int endY) {
+        if (!isValidPosition(startX, startY) || !isValidPosition(endX, endY)) {
+            return false;
+        }
         if (startX == endX && startY == endY) {
-            return Collections.emptyList();
+            return false;
+        }
+        return connectivity.isConnected(startX, startY, endX, endY);
+    }
+
+    /**
+     * Empieza a medir una consulta pública.
+     * 
+     * @return el instante de inicio, o -1 si no se mide la latencia
+     */
+    private long beginQuery() {
+        lastPushedNodes = 0;
+        lastCacheHit = false;
+        return stats != null ? stats.startTimer() : -1L;
+    }
+
+    /**
+     * Registra la consulta que empezó en started, si hay instrumentación.
+     */
+    private void endQuery(long started, int unanswered) {
+        if (stats != null) {
+            stats.record(started, lastExpandedNodes, lastPushedNodes, lastCacheHit, unanswered);
+        }
+    }
+
+    /**
+     * Empieza a medir una consulta de un planificador que usa este mapa.
+     * 
+     * @return el instante de inicio, o -1 si no se mide la latencia
+     */
+    long startPlannerQuery() {
+        return stats != null ? stats.startTimer() : -1L;
+    }
+
+    /**
+     * Registra la consulta de un planificador, si hay instrumentación.
+     */
+    void recordPlannerQuery(long started, int expanded, int pushed, boolean unreachable) {
+        if (stats != null) {
+            stats.record(started, expanded, pushed, false, unreachable ? 1 : 0);
+        }
+    }
+
+    /**
+     * Búsqueda sobre la cuadrícula con la estrategia configurada.
+     */
+    private boolean searchGrid(int start, int goal) {
+        return searchStrategy == SearchStrategy.JUMP_POINT
+                ? searchJumpPoint(start, goal)
+                : searchAStar(start, goal);
+    }
+
+    /**
+     * Indica si la consulta puede resolverse con la tabla de siguiente paso.
+     * Si la tabla está desactualizada se encarga su recálculo y se busca.
+     */
+    private boolean isNextHopQuery(int startX, int startY, int endX, int endY) {
+        NextHopTable table = getNextHopTable();
+        if (table == null) {
+            return false;
+        }
+        if (!table.isCurrent()) {
+            table.requestRebuild();
+            return false;
         }
+        return isWalkable(startX, startY) && isWalkable(endX, endY);
+    }
+
+    /**
+     * Indica si la consulta debe resolverse con la abstracción jerárquica.
+     * Las consultas entre clusters vecinos usan A* directo, que ya es barato.
+     */
+    private boolean isHierarchicalQuery(int startX, int startY, int endX, int endY) {
+        return searchStrategy == SearchStrategy.HIERARCHICAL
+                && !getClusterGraph().isLocalQuery(startX, startY, endX, endY);
+    }
 
-        // A* implementation
-        PriorityQueue<Node> openSet = new PriorityQueue<>();
-        Set<String> closedSet = new HashSet<>();
-        Map<String, Node> allNodes = new HashMap<>();
+    /**
+     * Indica si la consulta debe resolverse con el grafo de pasillos, que
+     * solo conoce celdas transitables en ambos extremos.
+     */
+    private boolean isCorridorQuery(int startX, int startY, int endX, int endY) {
+        if (searchStrategy != SearchStrategy.CORRIDOR
+                || !isWalkable(startX, startY) || !isWalkable(endX, endY)) {
+            return false;
+        }
+        getCorridorGraph();
+        return true;
+    }
 
-        Node startNode = new Node(startX, startY, null, null, 0, calculateHeuristic(startX, startY, endX, endY));
-        openSet.add(startNode);
-        allNodes.put(startNode.getKey(), startNode);
+    /**
+     * A* sobre los buffers reutilizables: sin objetos por nodo.
+     * 
+     * @param start índice de la celda inicial
+     * @param goal índice de la celda destino
+     * @return true si se alcanzó el destino
+     */
+    private boolean searchAStar(int start, int goal) {
+        beginSearch();
+        activeLandmarks = getLandmarkIndex();
+        int goalX = goal / height;
+        int goalY = goal % height;
+        open(start, -1, 0, goalX, goalY);
 
         while (!openSet.isEmpty()) {
-            Node current = openSet.poll();
+            int current = openSet.poll();
+            if (current == goal) {
+                return true;
+            }
+            closedStamp[current] = searchId;
+            lastExpandedNodes++;
 
-            if (current.x == endX && current.y == endY) {
-                return reconstructPath(current);
+            int cx = current / height;
+            int cy = current % height;
+            int newG = gScore[current] + 1;
+            for (int i = 0; i < DIRECTIONS.length; i++) {
+                int nx = cx + DIRECTIONS[i].getDeltaX();
+                int ny = cy + DIRECTIONS[i].getDeltaY();
+                if (!isWalkable(nx, ny)) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (closedStamp[neighbor] != searchId) {
+                    relax(neighbor, current, newG, goalX, goalY);
+                }
             }
+        }
+        return false;
+    }
 
-            closedSet.add(current.getKey());
+    /**
+     * Jump Point Search para 4 vecinos: avanza en línea recta y solo
+     * inserta en la cola los puntos de salto (vecinos forzados, destino o
+     * celdas desde las que un salto horizontal encuentra uno de ellos).
+     * 
+     * @param start índice de la celda inicial
+     * @param goal índice de la celda destino
+     * @return true si se alcanzó el destino
+     */
+    private boolean searchJumpPoint(int start, int goal) {
+        beginSearch();
+        activeLandmarks = getLandmarkIndex();
+        int goalX = goal / height;
+        int goalY = goal % height;
+        open(start, -1, 0, goalX, goalY);
 
-            for (Direction dir : Direction.values()) {
-                int newX = current.x + dir.getDeltaX();
-                int newY = current.y + dir.getDeltaY();
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            if (current == goal) {
+                return true;
+            }
+            closedStamp[current] = searchId;
+            lastExpandedNodes++;
 
-                if (!isValidPosition(newX, newY) || !isWalkable(newX, newY)) {
+            int cx = current / height;
+            int cy = current % height;
+            int parent = parentIndex[current];
+            for (int i = 0; i < DIRECTIONS.length; i++) {
+                Direction dir = DIRECTIONS[i];
+                if (parent >= 0 && isPruned(cx, cy, parent, dir)) {
                     continue;
                 }
-
-                String key = newX + "," + newY;
-                if (closedSet.contains(key)) {
+                int jumpPoint = dir.getDeltaX() != 0
+                        ? jumpHorizontal(cx + dir.getDeltaX(), cy, dir.getDeltaX(), goal)
+                        : jumpVertical(cx, cy + dir.getDeltaY(), dir.getDeltaY(), goal);
+                if (jumpPoint < 0 || closedStamp[jumpPoint] == searchId) {
                     continue;
                 }
+                int distance = Math.abs(jumpPoint / height - cx) + Math.abs(jumpPoint % height - cy);
+                relax(jumpPoint, current, gScore[current] + distance, goalX, goalY);
+            }
+        }
+        return false;
+    }
 
-                int newG = current.g + 1;
-                int newH = calculateHeuristic(newX, newY, endX, endY);
-
-                Node neighbor = allNodes.get(key);
-                if (neighbor == null) {
-                    neighbor = new Node(newX, newY, current, dir, newG, newH);
-                    allNodes.put(key, neighbor);
-                    openSet.add(neighbor);
-                } else if (newG < neighbor.g) {
-                    openSet.remove(neighbor);
-                    neighbor.g = newG;
-                    neighbor.parent = current;
-                    neighbor.direction = dir;
-                    openSet.add(neighbor);
-                }
+    /**
+     * Poda de vecinos de JPS: no se retrocede hacia el padre y, al llegar
+     * en vertical, no se sigue en la dirección contraria.
+     */
+    private boolean isPruned(int x, int y, int parent, Direction dir) {
+        int px = parent / height;
+        int py = parent % height;
+        int dx = Integer.signum(x - px);
+        int dy = Integer.signum(y - py);
+        return dir.getDeltaX() == -dx && dir.getDeltaY() == -dy;
+    }
+
+    /**
+     * Salta en vertical hasta encontrar un punto de salto.
+     * 
+     * @return índice del punto de salto, o -1 si se topa con un obstáculo
+     */
+    private int jumpVertical(int x, int y, int dy, int goal) {
+        while (isWalkable(x, y)) {
+            int index = x * height + y;
+            if (index == goal) {
+                return index;
+            }
+            if ((isWalkable(x - 1, y) && !isWalkable(x - 1, y - dy))
+                    || (isWalkable(x + 1, y) && !isWalkable(x + 1, y - dy))) {
+                return index;
+            }
+            // En 4 vecinos, los giros horizontales hacen las veces de diagonales
+            if (jumpHorizontal(x + 1, y, 1, goal) >= 0 || jumpHorizontal(x - 1, y, -1, goal) >= 0) {
+                return index;
+            }
+            y += dy;
+        }
+        return -1;
+    }
+
+    /**
+     * Salta en horizontal hasta encontrar un punto de salto.
+     * 
+     * @return índice del punto de salto, o -1 si se topa con un obstáculo
+     */
+    private int jumpHorizontal(int x, int y, int dx, int goal) {
+        while (isWalkable(x, y)) {
+            int index = x * height + y;
+            if (index == goal) {
+                return index;
+            }
+            if ((isWalkable(x, y - 1) && !isWalkable(x - dx, y - 1))
+                    || (isWalkable(x, y + 1) && !isWalkable(x - dx, y + 1))) {
+                return index;
             }
+            x += dx;
+        }
+        return -1;
+    }
+
+    /**
+     * Inicia una búsqueda invalidando los buffers en O(1).
+     */
+    private void beginSearch() {
+        int size = width * height;
+        if (gScore == null || gScore.length != size) {
+            gScore = new int[size];
+            parentIndex = new int[size];
+            seenStamp = new int[size];
+            closedStamp = new int[size];
+            trail = new int[size];
+            openSet = new IndexedMinHeap(size);
+            searchId = 0;
+        }
+        openSet.clear();
+        if (++searchId == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            searchId = 1;
+        }
+    }
+
+    /**
+     * Registra un nodo nuevo en la lista abierta.
+     */
+    private void open(int node, int parent, int g, int goalX, int goalY) {
+        seenStamp[node] = searchId;
+        gScore[node] = g;
+        parentIndex[node] = parent;
+        int h = calculateHeuristic(node / height, node % height, goalX, goalY);
+        if (activeLandmarks != null) {
+            h = Math.max(h, activeLandmarks.estimate(node, goalX * height + goalY));
+        }
+        openSet.insertOrUpdate(node, priority(g, h));
+        lastPushedNodes++;
+    }
+
+    /**
+     * Abre un nodo o mejora su costo si el nuevo camino es más corto.
+     */
+    private void relax(int node, int parent, int g, int goalX, int goalY) {
+        if (seenStamp[node] != searchId || g < gScore[node]) {
+            open(node, parent, g, goalX, goalY);
         }
+    }
 
-        return Collections.emptyList();
+    /**
+     * Prioridad por f = g + h; en empate se prefiere el nodo con mayor g.
+     */
+    private static long priority(int g, int h) {
+        return ((long) (g + h) << 32) | (Integer.MAX_VALUE - g);
     }
 
     /**
@@ -145,14 +1214,55 @@ public class PathFinder {
      * @return true si se puede caminar
      */
     public boolean isWalkable(int x, int y) {
+        return isValidPosition(x, y) && walkability[x * height + y] == WALKABLE;
+    }
+
+    /**
+     * Verifica si una posición contiene un bloque de hielo en pie.
+     * 
+     * @param x coordenada X
+     * @param y coordenada Y
+     * @return true si hay hielo sin destruir
+     */
+    public boolean isIce(int x, int y) {
+        return isValidPosition(x, y) && walkability[x * height + y] == ICE;
+    }
+
+    /**
+     * Verifica si una celda es transitable, opcionalmente contando el hielo.
+     */
+    private boolean isPassable(int x, int y, boolean iceAllowed) {
         if (!isValidPosition(x, y)) {
             return false;
         }
-        Cell cell = map[x][y];
-        if (cell == null) {
-            return true;
+        byte state = walkability[x * height + y];
+        return state == WALKABLE || (iceAllowed && state == ICE);
+    }
+
+    /**
+     * Copia la transitabilidad de todo el mapa.
+     */
+    private byte[] snapshotWalkability() {
+        byte[] snapshot = new byte[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                snapshot[x * height + y] = classify(map[x][y]);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Clasifica una celda: transitable, hielo en pie o bloqueada.
+     */
+    private static byte classify(Cell cell) {
+        if (cell == null || cell.isWalkable()) {
+            return WALKABLE;
+        }
+        if (cell.getStaticObject() instanceof IceWall && !((IceWall) cell.getStaticObject()).isDestroyed()) {
+            return ICE;
         }
-        return cell.isWalkable();
+        return BLOCKED;
     }
 
     /**
@@ -169,23 +1279,100 @@ public class PathFinder {
     }
 
     /**
-     * Reconstruye el camino desde el nodo final.
+     * Reconstruye el camino desde el nodo final, expandiendo cada tramo
+     * recto entre nodos consecutivos (celdas vecinas o puntos de salto).
      * 
-     * @param endNode el nodo final
+     * @param start índice del nodo inicial
+     * @param goal índice del nodo final
      * @return lista de direcciones
      */
-    private List<Direction> reconstructPath(Node endNode) {
-        List<Direction> path = new ArrayList<>();
-        Node current = endNode;
-        
-        while (current.parent != null) {
-            path.add(0, current.direction);
-            current = current.parent;
+    private List<Direction> reconstructPath(int start, int goal) {
+        int count = collectTrail(start, goal);
+        List<Direction> path = new ArrayList<>(gScore[goal]);
+        int previous = start;
+        for (int i = count - 1; i >= 0; i--) {
+            int node = trail[i];
+            Direction dir = directionBetween(previous, node);
+            for (int step = distanceBetween(previous, node); step > 0; step--) {
+                path.add(dir);
+            }
+            previous = node;
         }
-        
         return path;
     }
 
+    /**
+     * Codifica el camino de start a goal siguiendo los padres desde goal.
+     */
+    private CompactPath encodePath(int start, int goal) {
+        int count = collectTrail(start, goal);
+        long[] words = CompactPath.allocate(gScore[goal]);
+        int index = 0;
+        int previous = start;
+        for (int i = count - 1; i >= 0; i--) {
+            int node = trail[i];
+            Direction dir = directionBetween(previous, node);
+            for (int step = distanceBetween(previous, node); step > 0; step--) {
+                CompactPath.set(words, index++, dir);
+            }
+            previous = node;
+        }
+        return new CompactPath(words, index);
+    }
+
+    /**
+     * Codifica el camino de node a la raíz de un BFS inverso: los padres ya
+     * apuntan hacia el destino, así que no hace falta invertirlo.
+     */
+    private CompactPath encodeTowardRoot(int node, int root) {
+        long[] words = CompactPath.allocate(gScore[node]);
+        int index = 0;
+        while (node != root) {
+            int parent = parentIndex[node];
+            CompactPath.set(words, index++, directionBetween(node, parent));
+            node = parent;
+        }
+        return new CompactPath(words, index);
+    }
+
+    /**
+     * Guarda en trail los nodos del camino, del destino hacia el inicio.
+     * 
+     * @return el número de nodos guardados
+     */
+    private int collectTrail(int start, int goal) {
+        int count = 0;
+        for (int node = goal; node != start; node = parentIndex[node]) {
+            trail[count++] = node;
+        }
+        return count;
+    }
+
+    /**
+     * Primera dirección del camino encontrado, sin reconstruirlo.
+     */
+    private Direction firstDirection(int start, int goal) {
+        int node = goal;
+        while (parentIndex[node] != start) {
+            node = parentIndex[node];
+        }
+        return directionBetween(start, node);
+    }
+
+    /**
+     * Dirección entre dos nodos alineados (los saltos de JPS son rectos).
+     */
+    private Direction directionBetween(int from, int to) {
+        int dx = to / height - from / height;
+        int dy = to % height - from % height;
+        return dx > 0 ? Direction.RIGHT : dx < 0 ? Direction.LEFT
+                : dy > 0 ? Direction.DOWN : Direction.UP;
+    }
+
+    private int distanceBetween(int from, int to) {
+        return Math.abs(to / height - from / height) + Math.abs(to % height - from % height);
+    }
+
     /**
      * Obtiene la primera dirección del camino hacia un destino.
      * 
@@ -196,56 +1383,53 @@ public class PathFinder {
      * @return la primera dirección, o null si no hay camino
      */
     public Direction getNextDirection(int startX, int startY, int endX, int endY) {
-        List<Direction> path = findPath(startX, startY, endX, endY);
-        if (path.isEmpty()) {
+        long started = beginQuery();
+        Direction next = computeNextDirection(startX, startY, endX, endY);
+        endQuery(started, next == null && (startX != endX || startY != endY) ? 1 : 0);
+        return next;
+    }
+
+    /**
+     * Cuerpo de getNextDirection sin instrumentación.
+     */
+    private Direction computeNextDirection(int startX, int startY, int endX, int endY) {
+        if (isNextHopQuery(startX, startY, endX, endY)) {
+            lastExpandedNodes = 0;
+            if (!isSearchNeeded(startX, startY, endX, endY)) {
+                return null;
+            }
+            lastCacheHit = true;
+            return nextHops.getNextDirection(startX, startY, endX, endY);
+        }
+        if (isHierarchicalQuery(startX, startY, endX, endY)) {
+            // Solo se refina el primer tramo del camino abstracto
+            lastExpandedNodes = 0;
+            if (!isSearchNeeded(startX, startY, endX, endY)) {
+                return null;
+            }
+            Direction next = clusterGraph.getNextDirection(startX, startY, endX, endY);
+            lastExpandedNodes = clusterGraph.getLastExpandedNodes();
+            return next;
+        }
+        if (isCorridorQuery(startX, startY, endX, endY)) {
+            // Solo se expande el primer pasillo del camino
+            lastExpandedNodes = 0;
+            if (!isSearchNeeded(startX, startY, endX, endY)) {
+                return null;
+            }
+            Direction next = corridorGraph.getNextDirection(startX, startY, endX, endY);
+            lastExpandedNodes = corridorGraph.getLastExpandedNodes();
+            return next;
+        }
+        lastExpandedNodes = 0;
+        if (!isSearchNeeded(startX, startY, endX, endY)) {
             return null;
         }
-        return path.get(0);
-    }
-
-    /**
-     * Clase interna para representar nodos en A*.
-     */
-    private static class Node implements Comparable<Node> {
-        int x, y;
-        Node parent;
-        Direction direction;
-        int g; // Costo desde el inicio
-        int h; // Heurística al destino
-        
-        Node(int x, int y, Node parent, Direction direction, int g, int h) {
-            this.x = x;
-            this.y = y;
-            this.parent = parent;
-            this.direction = direction;
-            this.g = g;
-            this.h = h;
-        }
-        
-        int getF() {
-            return g + h;
-        }
-        
-        String getKey() {
-            return x + "," + y;
-        }
-        
-        @Override
-        public int compareTo(Node other) {
-            return Integer.compare(this.getF(), other.getF());
-        }
-        
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null || getClass() != obj.getClass()) return false;
-            Node node = (Node) obj;
-            return x == node.x && y == node.y;
-        }
-        
-        @Override
-        public int hashCode() {
-            return Objects.hash(x, y);
+        int start = startX * height + startY;
+        int goal = endX * height + endY;
+        if (!searchGrid(start, goal)) {
+            return null;
         }
+        return firstDirection(start, goal);
     }
 }
@@ -0,0 +1,264 @@
+package main.domain.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Contadores de uso de un PathFinder: consultas, nodos expandidos y
+ * encolados, aciertos de la tabla precalculada, resultados sin camino y un
+ * histograma de latencias con cubetas logarítmicas (la cubeta b cuenta las
+ * consultas de 2^(b-1) a 2^b - 1 nanosegundos).
+ * Cada instancia la escribe un único hilo, el de su PathFinder, con campos
+ * simples: registrar no usa bloqueos ni operaciones atómicas. Un agregado
+ * (por ejemplo, el de una partida) suma al leer los contadores de sus hijos.
+ * Leer System.nanoTime cuesta más que el resto del registro, así que la
+ * latencia se mide solo en una de cada latencySampling consultas.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class PathFinderStats {
+
+    /** Número de cubetas del histograma de latencias */
+    public static final int BUCKETS = 64;
+
+    /** Se mide la latencia de una de cada tantas consultas por defecto */
+    public static final int DEFAULT_LATENCY_SAMPLING = 16;
+
+    /** Contadores que se suman a este agregado al leerlo */
+    private final List<PathFinderStats> children = new CopyOnWriteArrayList<>();
+
+    /** Contadores propios */
+    private long queries;
+    private long expandedNodes;
+    private long pushedNodes;
+    private long cacheHits;
+    private long unreachable;
+
+    /** Consultas medidas por cubeta de latencia */
+    private final long[] latency = new long[BUCKETS];
+
+    /** Consultas entre mediciones de latencia (1 = todas) */
+    private int latencySampling = DEFAULT_LATENCY_SAMPLING;
+
+    /**
+     * Constructor de PathFinderStats sin agregado padre.
+     */
+    public PathFinderStats() {
+    }
+
+    /**
+     * Constructor de PathFinderStats que se suma a un agregado.
+     *
+     * @param parent agregado que incluye estos contadores, o null
+     */
+    public PathFinderStats(PathFinderStats parent) {
+        if (parent != null) {
+            parent.children.add(this);
+        }
+    }
+
+    /**
+     * Obtiene cada cuántas consultas se mide la latencia.
+     *
+     * @return el intervalo de muestreo
+     */
+    public int getLatencySampling() {
+        return latencySampling;
+    }
+
+    /**
+     * Establece cada cuántas consultas se mide la latencia.
+     *
+     * @param latencySampling el intervalo (1 = todas)
+     */
+    public void setLatencySampling(int latencySampling) {
+        this.latencySampling = Math.max(1, latencySampling);
+    }
+
+    /**
+     * Empieza a medir una consulta si le toca muestra de latencia.
+     *
+     * @return el instante de inicio, o -1 si no se mide
+     */
+    public long startTimer() {
+        return queries % latencySampling == 0 ? System.nanoTime() : -1L;
+    }
+
+    /**
+     * Registra una consulta.
+     *
+     * @param started valor devuelto por startTimer
+     * @param expanded nodos expandidos
+     * @param pushed nodos encolados
+     * @param cacheHit true si se respondió sin buscar
+     * @param unanswered orígenes u objetivos que quedaron sin camino
+     */
+    public void record(long started, int expanded, int pushed, boolean cacheHit, int unanswered) {
+        if (started >= 0) {
+            latency[bucketOf(System.nanoTime() - started)]++;
+        }
+        queries++;
+        expandedNodes += expanded;
+        pushedNodes += pushed;
+        if (cacheHit) {
+            cacheHits++;
+        }
+        unreachable += unanswered;
+    }
+
+    /**
+     * Obtiene la cubeta de una latencia.
+     *
+     * @param nanos latencia en nanosegundos
+     * @return la cubeta
+     */
+    public static int bucketOf(long nanos) {
+        return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * Obtiene la mayor latencia que cae en una cubeta.
+     *
+     * @param bucket la cubeta
+     * @return el límite superior en nanosegundos
+     */
+    public static long getBucketUpperBound(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    /**
+     * Obtiene el número de consultas.
+     *
+     * @return las consultas
+     */
+    public long getQueries() {
+        long total = queries;
+        for (PathFinderStats child : children) {
+            total += child.getQueries();
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene el total de nodos expandidos.
+     *
+     * @return los nodos expandidos
+     */
+    public long getExpandedNodes() {
+        long total = expandedNodes;
+        for (PathFinderStats child : children) {
+            total += child.getExpandedNodes();
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene el total de nodos encolados.
+     *
+     * @return los nodos encolados
+     */
+    public long getPushedNodes() {
+        long total = pushedNodes;
+        for (PathFinderStats child : children) {
+            total += child.getPushedNodes();
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene las consultas respondidas por la tabla precalculada.
+     *
+     * @return los aciertos
+     */
+    public long getCacheHits() {
+        long total = cacheHits;
+        for (PathFinderStats child : children) {
+            total += child.getCacheHits();
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene los resultados sin camino.
+     *
+     * @return los resultados sin camino
+     */
+    public long getUnreachable() {
+        long total = unreachable;
+        for (PathFinderStats child : children) {
+            total += child.getUnreachable();
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene las consultas medidas de una cubeta de latencia.
+     *
+     * @param bucket la cubeta
+     * @return las consultas
+     */
+    public long getLatencyCount(int bucket) {
+        long total = latency[bucket];
+        for (PathFinderStats child : children) {
+            total += child.getLatencyCount(bucket);
+        }
+        return total;
+    }
+
+    /**
+     * Estima un percentil de latencia con el límite superior de su cubeta.
+     *
+     * @param percentile percentil entre 0 y 100
+     * @return la latencia en nanosegundos, o 0 si no hay consultas
+     */
+    public long getLatencyPercentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b] = getLatencyCount(b);
+            total += counts[b];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * Math.max(0, Math.min(100, percentile)) / 100.0);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= Math.max(1, rank)) {
+                return getBucketUpperBound(b);
+            }
+        }
+        return getBucketUpperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Pone a cero los contadores propios y los de los hijos.
+     */
+    public void reset() {
+        queries = 0;
+        expandedNodes = 0;
+        pushedNodes = 0;
+        cacheHits = 0;
+        unreachable = 0;
+        Arrays.fill(latency, 0);
+        for (PathFinderStats child : children) {
+            child.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PathFinderStats{" +
+                "queries=" + getQueries() +
+                ", expanded=" + getExpandedNodes() +
+                ", pushed=" + getPushedNodes() +
+                ", cacheHits=" + getCacheHits() +
+                ", unreachable=" + getUnreachable() +
+                ", p50=" + getLatencyPercentile(50) + "ns" +
+                ", p99=" + getLatencyPercentile(99) + "ns" +
+                '}';
+    }
+}
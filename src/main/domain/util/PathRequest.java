@@ -0,0 +1,276 @@
+package main.domain.util;
+
+import main.domain.enums.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Búsqueda de camino reanudable entre ticks. La búsqueda se hace hacia atrás
+ * desde el objetivo, de modo que cada celda cerrada conoce su distancia óptima
+ * y su siguiente paso: el monstruo puede seguir avanzando mientras la búsqueda
+ * continúa y, una vez alcanzada su celda, las consultas siguientes son O(1).
+ * Las expansiones se descuentan del presupuesto por tick del PathFinder;
+ * si se agota, la consulta queda pendiente y se reanuda en el siguiente tick.
+ * Una búsqueda pendiente sigue hacia su objetivo aunque este se mueva; ya
+ * terminada, solo se reinicia cuando el objetivo se alejó una fracción del
+ * camino restante (ver GOAL_DRIFT_RATIO). Los cambios del mapa la reinician
+ * solo si tocan una celda ya explorada.
+ * Cada monstruo debe tener su propia instancia.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class PathRequest {
+
+    /** PathFinder que define el mapa y el presupuesto */
+    private final PathFinder pathFinder;
+
+    /** Alto del mapa buscado */
+    private int height;
+
+    /** Estado de la búsqueda (índice x * height + y) */
+    private int[] gScore;
+    private int[] parentIndex;
+    private int[] seenStamp;
+    private int[] closedStamp;
+    private IndexedMinHeap openSet;
+    private int searchId;
+
+    /** Objetivo, celda de referencia para la heurística y penalización del hielo */
+    private int goal;
+    private int origin;
+    private int icePenalty;
+
+    /** Versión del mapa al iniciar la búsqueda */
+    private long changeCount;
+    private int mapVersion;
+    private boolean active;
+
+    /** Indica si la última consulta se quedó sin presupuesto */
+    private boolean pending;
+
+    /** Nodos expandidos y encolados en la última consulta */
+    private int lastExpandedNodes;
+    private int lastPushedNodes;
+
+    /** Direcciones en orden de expansión */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Una búsqueda terminada se reinicia si el objetivo se desplazó al menos
+     * 1/GOAL_DRIFT_RATIO del camino que le queda al monstruo.
+     */
+    public static final int GOAL_DRIFT_RATIO = 4;
+
+    /**
+     * Constructor de PathRequest.
+     *
+     * @param pathFinder el PathFinder del mapa
+     */
+    public PathRequest(PathFinder pathFinder) {
+        this.pathFinder = pathFinder;
+        this.active = false;
+    }
+
+    /**
+     * Indica si la última consulta no terminó por falta de presupuesto.
+     *
+     * @return true si la búsqueda sigue pendiente
+     */
+    public boolean isPending() {
+        return pending;
+    }
+
+    /**
+     * Obtiene los nodos expandidos en la última consulta.
+     *
+     * @return nodos expandidos
+     */
+    public int getLastExpandedNodes() {
+        return lastExpandedNodes;
+    }
+
+    /**
+     * Descarta la búsqueda en curso.
+     */
+    public void reset() {
+        active = false;
+        pending = false;
+    }
+
+    /**
+     * Obtiene la siguiente dirección hacia el objetivo, continuando la búsqueda
+     * anterior mientras siga pendiente o el objetivo apenas se haya movido.
+     *
+     * @param startX coordenada X del monstruo
+     * @param startY coordenada Y del monstruo
+     * @param targetX coordenada X del objetivo
+     * @param targetY coordenada Y del objetivo
+     * @param icePenalty costo extra de atravesar hielo (0 = cuesta como una
+     *        celda libre), o PathFinder.ICE_BLOCKS (negativo) si el hielo bloquea
+     * @return la dirección del siguiente paso, o null si no hay camino o la búsqueda está pendiente
+     */
+    public Direction getNextDirection(int startX, int startY, int targetX, int targetY, int icePenalty) {
+        long started = pathFinder.startPlannerQuery();
+        Direction next = resume(startX, startY, targetX, targetY, icePenalty);
+        pathFinder.recordPlannerQuery(started, lastExpandedNodes, lastPushedNodes,
+                next == null && !pending && (startX != targetX || startY != targetY));
+        return next;
+    }
+
+    /**
+     * Cuerpo de getNextDirection sin instrumentación.
+     */
+    private Direction resume(int startX, int startY, int targetX, int targetY, int icePenalty) {
+        lastExpandedNodes = 0;
+        lastPushedNodes = 0;
+        boolean inProgress = pending;
+        pending = false;
+        if (!pathFinder.isValidPosition(startX, startY) || !pathFinder.isValidPosition(targetX, targetY)
+                || (startX == targetX && startY == targetY)) {
+            return null;
+        }
+        icePenalty = Math.max(PathFinder.ICE_BLOCKS, icePenalty);
+        if (icePenalty < 0 && !pathFinder.isReachable(startX, startY, targetX, targetY)) {
+            return null;
+        }
+
+        int start = startX * pathFinder.getHeight() + startY;
+        int newGoal = targetX * pathFinder.getHeight() + targetY;
+        if (!active || icePenalty != this.icePenalty || mapVersion != pathFinder.getMapVersion()
+                || start == goal || touchedExplored() || !inProgress && hasGoalDrifted(start, newGoal)) {
+            restart(start, newGoal, icePenalty);
+        }
+        changeCount = pathFinder.getChangeCount();
+        if (!search(start)) {
+            return null;
+        }
+
+        int next = parentIndex[start];
+        int dx = next / height - startX;
+        int dy = next % height - startY;
+        return dx > 0 ? Direction.RIGHT : dx < 0 ? Direction.LEFT
+                : dy > 0 ? Direction.DOWN : Direction.UP;
+    }
+
+    /**
+     * Indica si algún cambio del mapa desde la última consulta cayó en una
+     * celda ya vista por la búsqueda; las demás aún no se han evaluado.
+     */
+    private boolean touchedExplored() {
+        long current = pathFinder.getChangeCount();
+        for (long seq = changeCount; seq < current; seq++) {
+            int cell = pathFinder.getChangedCell(seq);
+            if (cell < 0 || cell >= seenStamp.length || seenStamp[cell] == searchId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si el objetivo se alejó del de la búsqueda lo bastante para
+     * reiniciarla, en proporción al camino que queda.
+     */
+    private boolean hasGoalDrifted(int start, int newGoal) {
+        if (newGoal == goal) {
+            return false;
+        }
+        int drift = Math.abs(newGoal / height - goal / height) + Math.abs(newGoal % height - goal % height);
+        int remaining = closedStamp[start] == searchId ? gScore[start]
+                : Math.abs(start / height - goal / height) + Math.abs(start % height - goal % height);
+        return drift * GOAL_DRIFT_RATIO >= remaining;
+    }
+
+    /**
+     * Empieza una búsqueda nueva desde el objetivo.
+     */
+    private void restart(int start, int newGoal, int penalty) {
+        int size = pathFinder.getWidth() * pathFinder.getHeight();
+        height = pathFinder.getHeight();
+        if (gScore == null || gScore.length != size) {
+            gScore = new int[size];
+            parentIndex = new int[size];
+            seenStamp = new int[size];
+            closedStamp = new int[size];
+            openSet = new IndexedMinHeap(size);
+            searchId = 0;
+        }
+        openSet.clear();
+        if (++searchId == Integer.MAX_VALUE) {
+            Arrays.fill(seenStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            searchId = 1;
+        }
+        goal = newGoal;
+        origin = start;
+        icePenalty = penalty;
+        changeCount = pathFinder.getChangeCount();
+        mapVersion = pathFinder.getMapVersion();
+        active = true;
+        open(goal, -1, 0);
+    }
+
+    /**
+     * Expande nodos hasta cerrar la celda del monstruo.
+     *
+     * @return true si la celda quedó cerrada
+     */
+    private boolean search(int start) {
+        while (closedStamp[start] != searchId) {
+            if (openSet.isEmpty()) {
+                return false;
+            }
+            if (!pathFinder.tryExpand()) {
+                pending = true;
+                return false;
+            }
+            int current = openSet.poll();
+            closedStamp[current] = searchId;
+            lastExpandedNodes++;
+
+            // Costo de entrar en la celda actual desde cualquier vecino
+            int cx = current / height;
+            int cy = current % height;
+            int cost = icePenalty >= 0 && pathFinder.isIce(cx, cy) ? 1 + icePenalty : 1;
+            int g = gScore[current] + cost;
+            for (Direction dir : DIRECTIONS) {
+                int nx = cx + dir.getDeltaX();
+                int ny = cy + dir.getDeltaY();
+                if (!pathFinder.isValidPosition(nx, ny)) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (closedStamp[neighbor] == searchId || !isPassable(nx, ny, neighbor, start)) {
+                    continue;
+                }
+                if (seenStamp[neighbor] != searchId || g < gScore[neighbor]) {
+                    open(neighbor, current, g);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Una celda es transitable si es libre, si es hielo y se permite romperlo,
+     * o si es la celda del monstruo (que puede haber quedado encerrado).
+     */
+    private boolean isPassable(int x, int y, int index, int start) {
+        return index == start || pathFinder.isWalkable(x, y)
+                || (icePenalty >= 0 && pathFinder.isIce(x, y));
+    }
+
+    /**
+     * Registra un nodo en la lista abierta; la heurística apunta a la celda
+     * donde estaba el monstruo al empezar, lo que la mantiene consistente.
+     */
+    private void open(int node, int parent, int g) {
+        seenStamp[node] = searchId;
+        gScore[node] = g;
+        parentIndex[node] = parent;
+        int h = Math.abs(node / height - origin / height) + Math.abs(node % height - origin % height);
+        openSet.insertOrUpdate(node, ((long) (g + h) << 32) | (Integer.MAX_VALUE - g));
+        lastPushedNodes++;
+    }
+}
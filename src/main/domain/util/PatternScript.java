@@ -0,0 +1,469 @@
+package main.domain.util;
+
+import main.domain.enums.Direction;
+import main.domain.enums.ErrorCode;
+import main.domain.exception.IceException;
+
+import java.util.Arrays;
+
+/**
+ * Guion de movimiento compilado para Trolls y monstruos con patrulla.
+ * Se escribe en un lenguaje compacto y se compila una sola vez a un array
+ * plano de enteros; todos los monstruos que usan el mismo guion comparten
+ * la instancia y cada uno solo guarda su estado de ejecución (ver
+ * MovementPattern).
+ *
+ * Sintaxis (los espacios y comas separan instrucciones):
+ * <ul>
+ *   <li>U, D, L, R: un paso en esa dirección; R3 son tres ticks seguidos.
+ *       Como en los patrones de direcciones, no mira el mapa.</li>
+ *   <li>R|D|U: giro condicional; cada tick da el paso en la primera
+ *       dirección cuya celda está libre y, si ninguna lo está, espera.
+ *       Admite repetición: (R|D)4 o R|D4.</li>
+ *   <li>R*: avanza a la derecha hasta que la celda siguiente esté bloqueada
+ *       y entonces pasa a la siguiente instrucción en el mismo tick.</li>
+ *   <li>W: espera un tick; W5 espera cinco.</li>
+ *   <li>( ... )n: repite el bloque n veces; los bloques se anidan.</li>
+ * </ul>
+ * Al terminar, el guion vuelve a empezar. Un guion sin giros condicionales
+ * ni avances hasta bloqueo no depende del mapa: es "fijo", y para él se
+ * precalcula el desplazamiento de cada tick del ciclo, con lo que la
+ * posición futura se predice en O(1) igual que con un patrón de direcciones.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public final class PatternScript {
+
+    /** Códigos de operación (4 bits bajos de la primera palabra) */
+    static final int OP_MOVE = 0;
+    static final int OP_WAIT = 1;
+    static final int OP_UNTIL = 2;
+    static final int OP_LOOP = 3;
+    static final int OP_END = 4;
+
+    /** Palabras por instrucción: operación y argumento, y operando */
+    static final int WORDS = 2;
+
+    /** Alternativas máximas de un giro condicional */
+    public static final int MAX_ALTERNATIVES = 4;
+
+    /** Ticks máximos del ciclo que se precalcula para predecir */
+    public static final int MAX_PREDICTED_CYCLE = 1 << 16;
+
+    /** Direcciones indexadas por su ordinal */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /** Texto original */
+    private final String source;
+
+    /** Instrucciones: code[pc] = operación | argumento << 4, code[pc + 1] = operando */
+    private final int[] code;
+
+    /** Contadores de bucle que necesita cada monstruo */
+    private final int loopSlots;
+
+    /** true si el guion no depende del mapa */
+    private final boolean fixed;
+
+    /** Desplazamiento del ciclo fijo: dirección de cada tick y sumas de prefijos */
+    private final Direction[] cycle;
+    private final int[] prefixX;
+    private final int[] prefixY;
+
+    /**
+     * Constructor privado: usar compile.
+     */
+    private PatternScript(String source, int[] code, int loopSlots, boolean fixed) {
+        this.source = source;
+        this.code = code;
+        this.loopSlots = loopSlots;
+        this.fixed = fixed;
+        this.cycle = fixed ? unrollCycle() : null;
+        int length = cycle != null ? cycle.length : 0;
+        this.prefixX = new int[length + 1];
+        this.prefixY = new int[length + 1];
+        for (int i = 0; i < length; i++) {
+            Direction direction = cycle[i];
+            prefixX[i + 1] = prefixX[i] + (direction != null ? direction.getDeltaX() : 0);
+            prefixY[i + 1] = prefixY[i] + (direction != null ? direction.getDeltaY() : 0);
+        }
+    }
+
+    /**
+     * Compila un guion.
+     *
+     * @param source el texto del guion
+     * @return el guion compilado
+     * @throws IceException con LEVEL_LOAD_ERROR si el texto no es válido
+     */
+    public static PatternScript compile(String source) throws IceException {
+        if (source == null) {
+            throw new IceException(ErrorCode.LEVEL_LOAD_ERROR, "guion de movimiento nulo");
+        }
+        Compiler compiler = new Compiler(source);
+        compiler.compileBlock(false);
+        return new PatternScript(source, Arrays.copyOf(compiler.code, compiler.length),
+                compiler.loopSlots, compiler.fixed);
+    }
+
+    /**
+     * Obtiene el texto original del guion.
+     *
+     * @return el texto
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Obtiene el número de instrucciones compiladas.
+     *
+     * @return las instrucciones
+     */
+    public int getInstructionCount() {
+        return code.length / WORDS;
+    }
+
+    /**
+     * Obtiene los contadores de bucle que necesita cada monstruo.
+     *
+     * @return los contadores
+     */
+    public int getLoopSlots() {
+        return loopSlots;
+    }
+
+    /**
+     * Indica si el guion no depende del mapa.
+     *
+     * @return true si no tiene giros condicionales ni avances hasta bloqueo
+     */
+    public boolean isFixed() {
+        return fixed;
+    }
+
+    /**
+     * Indica si la posición futura se puede predecir en O(1): el guion es
+     * fijo y su ciclo no supera MAX_PREDICTED_CYCLE ticks.
+     *
+     * @return true si es predecible
+     */
+    public boolean isPredictable() {
+        return cycle != null;
+    }
+
+    /**
+     * Obtiene la longitud en ticks del ciclo de un guion predecible.
+     *
+     * @return los ticks, o 0 si no es predecible
+     */
+    public int getCycleLength() {
+        return cycle != null ? cycle.length : 0;
+    }
+
+    /**
+     * Obtiene la dirección de cada tick del ciclo (null en las esperas).
+     *
+     * @return copia del ciclo, vacía si no es predecible
+     */
+    public Direction[] getCycle() {
+        return cycle != null ? cycle.clone() : new Direction[0];
+    }
+
+    /** Instrucciones compiladas, compartidas con MovementPattern */
+    int[] code() {
+        return code;
+    }
+
+    /** Sumas de prefijos del ciclo, compartidas con MovementPattern */
+    int[] prefixX() {
+        return prefixX;
+    }
+
+    int[] prefixY() {
+        return prefixY;
+    }
+
+    /**
+     * Ejecuta un tick del guion sobre el estado de un monstruo.
+     * state[0] es el contador de programa, state[1] los ticks que quedan de
+     * la instrucción en curso (0 = sin empezar) y state[2..] los contadores
+     * de bucle. Las instrucciones que no consumen tick se encadenan, con un
+     * límite para que un guion bloqueado espere en lugar de colgarse.
+     *
+     * @param state estado del monstruo
+     * @param x coordenada X del monstruo
+     * @param y coordenada Y del monstruo
+     * @param pathFinder mapa para las condiciones, o null si todo está libre
+     * @return la dirección del paso, o null si espera
+     */
+    Direction step(int[] state, int x, int y, PathFinder pathFinder) {
+        return step(state, 0, x, y, pathFinder);
+    }
+
+    /**
+     * Ejecuta un tick con el estado guardado a partir de state[base], para
+     * guardarlo dentro de una pizarra más grande.
+     */
+    Direction step(int[] state, int base, int x, int y, PathFinder pathFinder) {
+        int length = code.length;
+        if (length == 0) {
+            return null;
+        }
+        int pc = state[base];
+        for (int guard = 0; guard <= length; guard++) {
+            if (pc >= length) {
+                pc = 0;
+            }
+            int op = code[pc] & 0xF;
+            int arg = code[pc] >>> 4;
+            int operand = code[pc + 1];
+            switch (op) {
+                case OP_MOVE:
+                case OP_WAIT: {
+                    int remaining = state[base + 1] == 0 ? operand : state[base + 1];
+                    remaining--;
+                    state[base + 1] = remaining;
+                    state[base] = remaining == 0 ? pc + WORDS : pc;
+                    return op == OP_WAIT ? null : firstOpen(arg, x, y, pathFinder);
+                }
+                case OP_UNTIL: {
+                    Direction direction = DIRECTIONS[arg];
+                    if (!isBlocked(pathFinder, x + direction.getDeltaX(), y + direction.getDeltaY())) {
+                        state[base] = pc;
+                        return direction;
+                    }
+                    pc += WORDS;
+                    break;
+                }
+                case OP_LOOP:
+                    state[base + 2 + arg] = operand;
+                    pc += WORDS;
+                    break;
+                default:
+                    pc = --state[base + 2 + arg] > 0 ? operand : pc + WORDS;
+                    break;
+            }
+        }
+        state[base] = pc;
+        return null;
+    }
+
+    /**
+     * Primera dirección libre de una lista de alternativas; con una sola
+     * alternativa no se mira el mapa.
+     */
+    private static Direction firstOpen(int alternatives, int x, int y, PathFinder pathFinder) {
+        if ((alternatives >>> 3) == 0) {
+            return DIRECTIONS[(alternatives & 7) - 1];
+        }
+        for (; alternatives != 0; alternatives >>>= 3) {
+            Direction direction = DIRECTIONS[(alternatives & 7) - 1];
+            if (!isBlocked(pathFinder, x + direction.getDeltaX(), y + direction.getDeltaY())) {
+                return direction;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Indica si una celda está bloqueada.
+     */
+    private static boolean isBlocked(PathFinder pathFinder, int x, int y) {
+        return pathFinder != null && !pathFinder.isWalkable(x, y);
+    }
+
+    /**
+     * Ejecuta un ciclo completo sin mapa y guarda la dirección de cada tick.
+     * Al terminar el programa el estado vuelve a ser el inicial (cada bucle
+     * reinicia su contador al entrar), así que el ciclo dura exactamente la
+     * suma de los ticks de cada instrucción por las repeticiones de sus bucles.
+     */
+    private Direction[] unrollCycle() {
+        long ticks = 0;
+        long[] multiplier = new long[loopSlots + 1];
+        int depth = 0;
+        multiplier[0] = 1;
+        for (int pc = 0; pc < code.length; pc += WORDS) {
+            int op = code[pc] & 0xF;
+            if (op == OP_LOOP) {
+                multiplier[depth + 1] = Math.min(multiplier[depth] * code[pc + 1], MAX_PREDICTED_CYCLE + 1L);
+                depth++;
+            } else if (op == OP_END) {
+                depth--;
+            } else {
+                ticks = Math.min(ticks + multiplier[depth] * code[pc + 1], MAX_PREDICTED_CYCLE + 1L);
+            }
+        }
+        if (ticks > MAX_PREDICTED_CYCLE) {
+            return null;
+        }
+        int[] state = new int[2 + loopSlots];
+        Direction[] result = new Direction[(int) ticks];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = step(state, 0, 0, null);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PatternScript{" +
+                "source='" + source + '\'' +
+                ", instructions=" + getInstructionCount() +
+                ", fixed=" + fixed +
+                ", cycle=" + getCycleLength() +
+                '}';
+    }
+
+    /**
+     * Analizador descendente recursivo que emite las instrucciones.
+     */
+    private static final class Compiler {
+        private final String text;
+        private int position;
+        private int[] code = new int[16];
+        private int length;
+        private int loopSlots;
+        private boolean fixed = true;
+
+        Compiler(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Compila instrucciones hasta el final o, dentro de un bloque, hasta ')'.
+         */
+        void compileBlock(boolean nested) throws IceException {
+            while (true) {
+                skipSeparators();
+                if (position == text.length()) {
+                    if (nested) {
+                        throw error("falta ')'");
+                    }
+                    return;
+                }
+                char c = Character.toUpperCase(text.charAt(position));
+                if (c == ')') {
+                    if (!nested) {
+                        throw error("')' sin '('");
+                    }
+                    return;
+                }
+                if (c == '(') {
+                    position++;
+                    compileLoop();
+                } else if (c == 'W') {
+                    position++;
+                    emit(OP_WAIT, 0, readCount());
+                } else {
+                    compileMove();
+                }
+            }
+        }
+
+        /**
+         * Compila ( ... )n tras haber leído '('.
+         */
+        private void compileLoop() throws IceException {
+            int slot = loopSlots++;
+            int begin = length;
+            emit(OP_LOOP, slot, 0);
+            compileBlock(true);
+            if (length == begin + WORDS) {
+                throw error("bloque vacío");
+            }
+            position++;
+            int count = readCount();
+            code[begin + 1] = count;
+            emit(OP_END, slot, begin + WORDS);
+        }
+
+        /**
+         * Compila un paso, un giro condicional o un avance hasta bloqueo.
+         */
+        private void compileMove() throws IceException {
+            int alternatives = 0;
+            int shift = 0;
+            while (true) {
+                if (shift == 3 * MAX_ALTERNATIVES) {
+                    throw error("demasiadas alternativas");
+                }
+                alternatives |= (readDirection().ordinal() + 1) << shift;
+                shift += 3;
+                if (position < text.length() && text.charAt(position) == '|') {
+                    position++;
+                    fixed = false;
+                } else {
+                    break;
+                }
+            }
+            if (position < text.length() && text.charAt(position) == '*') {
+                if (shift != 3) {
+                    throw error("'*' no admite alternativas");
+                }
+                position++;
+                fixed = false;
+                emit(OP_UNTIL, alternatives - 1, 0);
+                return;
+            }
+            emit(OP_MOVE, alternatives, readCount());
+        }
+
+        private Direction readDirection() throws IceException {
+            if (position < text.length()) {
+                switch (Character.toUpperCase(text.charAt(position))) {
+                    case 'U': position++; return Direction.UP;
+                    case 'D': position++; return Direction.DOWN;
+                    case 'L': position++; return Direction.LEFT;
+                    case 'R': position++; return Direction.RIGHT;
+                    default: break;
+                }
+            }
+            throw error("se esperaba U, D, L, R, W o '('");
+        }
+
+        /**
+         * Lee una repetición opcional (1 por defecto).
+         */
+        private int readCount() throws IceException {
+            int start = position;
+            long value = 0;
+            // Solo dígitos ASCII: Character.isDigit acepta otros alfabetos
+            while (position < text.length() && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+                value = value * 10 + (text.charAt(position++) - '0');
+                if (value > Integer.MAX_VALUE) {
+                    throw error("repetición demasiado grande");
+                }
+            }
+            if (position == start) {
+                return 1;
+            }
+            if (value == 0) {
+                throw error("la repetición debe ser mayor que 0");
+            }
+            return (int) value;
+        }
+
+        private void skipSeparators() {
+            while (position < text.length()
+                    && (Character.isWhitespace(text.charAt(position)) || text.charAt(position) == ',')) {
+                position++;
+            }
+        }
+
+        private void emit(int op, int arg, int operand) {
+            if (length + WORDS > code.length) {
+                code = Arrays.copyOf(code, code.length * 2);
+            }
+            code[length++] = op | arg << 4;
+            code[length++] = operand;
+        }
+
+        private IceException error(String message) {
+            return new IceException(ErrorCode.LEVEL_LOAD_ERROR,
+                    message + " en la posición " + position + " del guion '" + text + "'");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package main.domain.util;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de reservas espacio-tiempo para la persecución cooperativa.
+ * Cada reserva asocia un par (celda, tick) a un agente. Se guarda en una tabla
+ * hash de direccionamiento abierto sobre arreglos primitivos; vaciarla al
+ * empezar cada ventana es O(1) porque solo se incrementa la generación.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class ReservationTable {
+
+    /** Valor devuelto cuando un par (celda, tick) está libre */
+    public static final int FREE = -1;
+
+    /** Capacidad inicial por defecto (potencia de dos) */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /** Claves (celda, tick) codificadas en un long */
+    private long[] keys;
+
+    /** Agente que tiene cada reserva */
+    private int[] holders;
+
+    /** Generación en que se escribió cada posición; otra generación = libre */
+    private int[] stamps;
+
+    /** Generación actual */
+    private int generation;
+
+    /** Reservas de la generación actual */
+    private int size;
+
+    /**
+     * Constructor de ReservationTable con la capacidad por defecto.
+     */
+    public ReservationTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor de ReservationTable.
+     *
+     * @param capacity capacidad inicial (se redondea a potencia de dos)
+     */
+    public ReservationTable(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        allocate(slots);
+        this.generation = 1;
+    }
+
+    /**
+     * Libera todas las reservas en O(1).
+     */
+    public void clear() {
+        size = 0;
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Obtiene el número de reservas vigentes.
+     *
+     * @return las reservas
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reserva una celda en un tick para un agente. Si ya estaba reservada,
+     * el nuevo agente la sobrescribe.
+     *
+     * @param cell índice de la celda
+     * @param tick tick relativo a la ventana
+     * @param agent identificador del agente
+     */
+    public void reserve(int cell, int tick, int agent) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        long key = key(cell, tick);
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (stamps[slot] == generation && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (stamps[slot] != generation) {
+            stamps[slot] = generation;
+            keys[slot] = key;
+            size++;
+        }
+        holders[slot] = agent;
+    }
+
+    /**
+     * Obtiene el agente que reservó una celda en un tick.
+     *
+     * @param cell índice de la celda
+     * @param tick tick relativo a la ventana
+     * @return el agente, o FREE
+     */
+    public int getHolder(int cell, int tick) {
+        long key = key(cell, tick);
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (stamps[slot] == generation) {
+            if (keys[slot] == key) {
+                return holders[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return FREE;
+    }
+
+    /**
+     * Verifica si una celda está reservada por otro agente en un tick.
+     *
+     * @param cell índice de la celda
+     * @param tick tick relativo a la ventana
+     * @param agent el agente que pregunta
+     * @return true si la tiene otro agente
+     */
+    public boolean isReservedByOther(int cell, int tick, int agent) {
+        int holder = getHolder(cell, tick);
+        return holder != FREE && holder != agent;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldHolders = holders;
+        int[] oldStamps = stamps;
+        int oldGeneration = generation;
+        allocate(oldKeys.length * 2);
+        generation = 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStamps[i] == oldGeneration) {
+                reserve((int) (oldKeys[i] >>> 32), (int) oldKeys[i], oldHolders[i]);
+            }
+        }
+    }
+
+    private void allocate(int slots) {
+        keys = new long[slots];
+        holders = new int[slots];
+        stamps = new int[slots];
+    }
+
+    private static long key(int cell, int tick) {
+        return ((long) cell << 32) | (tick & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,349 @@
+package main.domain.util;
+
+import main.domain.entities.Monster;
+import main.domain.entities.Player;
+import main.domain.enums.Direction;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servicio de selección de objetivo para los modos con varios jugadores.
+ * Cada tick calcula un único BFS multi-origen desde todos los jugadores vivos,
+ * de modo que cada celda conoce su jugador más cercano y la distancia a él.
+ * Asignar objetivo a un monstruo es O(1), independientemente del número de
+ * jugadores y monstruos. Para evitar que un monstruo cambie de objetivo en
+ * cada tick se aplica histéresis: solo cambia si el nuevo jugador está
+ * claramente más cerca o si sigue siendo el más cercano durante varios ticks.
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class TargetSelector {
+
+    /** Distancia de una celda sin jugador alcanzable */
+    public static final int UNREACHABLE = -1;
+
+    /** Ventaja mínima (en pasos) para cambiar de objetivo de inmediato */
+    public static final int DEFAULT_SWITCH_MARGIN = 3;
+
+    /** Ticks que otro jugador debe ser el más cercano para cambiar de objetivo */
+    public static final int DEFAULT_SWITCH_DELAY = 5;
+
+    /** PathFinder que define qué celdas son transitables */
+    private final PathFinder pathFinder;
+
+    /** Campo de distancias y jugador más cercano por celda (índice x * height + y) */
+    private int[] distance;
+    private int[] owner;
+    private int[] stamp;
+    private int[] queue;
+    private int fieldId;
+    private int height;
+
+    /** Jugadores vivos usados como orígenes en el último cálculo */
+    private Player[] sources;
+    private int sourceCount;
+
+    /** Posiciones de los orígenes y versión del mapa del último cálculo */
+    private int[] sourceCells;
+    private long changeCount;
+    private int mapVersion;
+    private boolean built;
+
+    /** Parámetros de histéresis */
+    private int switchMargin;
+    private int switchDelay;
+
+    /** Candidato a nuevo objetivo de cada monstruo y ticks que lleva siéndolo */
+    private final Map<Monster, Candidate> candidates;
+
+    /** Direcciones en orden de expansión */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Constructor de TargetSelector.
+     *
+     * @param pathFinder el PathFinder del mapa
+     */
+    public TargetSelector(PathFinder pathFinder) {
+        this.pathFinder = pathFinder;
+        this.sources = new Player[0];
+        this.sourceCells = new int[0];
+        this.switchMargin = DEFAULT_SWITCH_MARGIN;
+        this.switchDelay = DEFAULT_SWITCH_DELAY;
+        this.candidates = new IdentityHashMap<>();
+    }
+
+    /**
+     * Obtiene la ventaja mínima para cambiar de objetivo de inmediato.
+     *
+     * @return la ventaja en pasos
+     */
+    public int getSwitchMargin() {
+        return switchMargin;
+    }
+
+    /**
+     * Establece la ventaja mínima para cambiar de objetivo de inmediato.
+     *
+     * @param margin la ventaja en pasos
+     */
+    public void setSwitchMargin(int margin) {
+        this.switchMargin = Math.max(0, margin);
+    }
+
+    /**
+     * Obtiene los ticks de espera antes de cambiar de objetivo.
+     *
+     * @return los ticks
+     */
+    public int getSwitchDelay() {
+        return switchDelay;
+    }
+
+    /**
+     * Establece los ticks de espera antes de cambiar de objetivo.
+     *
+     * @param delay los ticks (0 cambia siempre al más cercano)
+     */
+    public void setSwitchDelay(int delay) {
+        this.switchDelay = Math.max(0, delay);
+    }
+
+    /**
+     * Recalcula el campo de distancias desde todos los jugadores vivos.
+     * Si ningún jugador se movió y el mapa no cambió, no hace nada.
+     *
+     * @param players los jugadores de la partida
+     */
+    public void update(List<Player> players) {
+        if (sources.length < players.size()) {
+            sources = new Player[players.size()];
+            sourceCells = new int[players.size()];
+            built = false;
+        }
+        int size = pathFinder.getWidth() * pathFinder.getHeight();
+        if (distance == null || distance.length != size) {
+            distance = new int[size];
+            owner = new int[size];
+            stamp = new int[size];
+            queue = new int[size];
+            fieldId = 0;
+            built = false;
+        }
+        height = pathFinder.getHeight();
+
+        boolean changed = !built || changeCount != pathFinder.getChangeCount()
+                || mapVersion != pathFinder.getMapVersion();
+        int count = 0;
+        for (Player player : players) {
+            if (player.isAlive() && pathFinder.isValidPosition(player.getX(), player.getY())) {
+                int cell = player.getX() * height + player.getY();
+                changed |= count >= sourceCount || sources[count] != player || sourceCells[count] != cell;
+                sources[count] = player;
+                sourceCells[count++] = cell;
+            }
+        }
+        changed |= count != sourceCount;
+        for (int i = count; i < sourceCount; i++) {
+            sources[i] = null;
+        }
+        sourceCount = count;
+        if (changed) {
+            buildField();
+        }
+    }
+
+    /**
+     * BFS multi-origen: todos los jugadores entran en la cola a distancia 0.
+     */
+    private void buildField() {
+        if (++fieldId == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            fieldId = 1;
+        }
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < sourceCount; i++) {
+            int cell = sourceCells[i];
+            if (stamp[cell] != fieldId) {
+                stamp[cell] = fieldId;
+                distance[cell] = 0;
+                owner[cell] = i;
+                queue[tail++] = cell;
+            }
+        }
+        while (head < tail) {
+            int current = queue[head++];
+            int cx = current / height;
+            int cy = current % height;
+            for (Direction dir : DIRECTIONS) {
+                int nx = cx + dir.getDeltaX();
+                int ny = cy + dir.getDeltaY();
+                if (!pathFinder.isWalkable(nx, ny)) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (stamp[neighbor] != fieldId) {
+                    stamp[neighbor] = fieldId;
+                    distance[neighbor] = distance[current] + 1;
+                    owner[neighbor] = owner[current];
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        changeCount = pathFinder.getChangeCount();
+        mapVersion = pathFinder.getMapVersion();
+        built = true;
+    }
+
+    /**
+     * Obtiene la distancia al jugador vivo más cercano.
+     * Si la celda no es transitable (un monstruo encerrado) se usan sus vecinos.
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     * @return la distancia en pasos, o UNREACHABLE
+     */
+    public int getDistance(int x, int y) {
+        int cell = nearestCell(x, y);
+        if (cell < 0) {
+            return UNREACHABLE;
+        }
+        return cell == x * height + y ? distance[cell] : distance[cell] + 1;
+    }
+
+    /**
+     * Obtiene el jugador vivo más cercano a una celda en O(1).
+     *
+     * @param x coordenada X
+     * @param y coordenada Y
+     * @return el jugador, o null si ninguno es alcanzable
+     */
+    public Player getNearestPlayer(int x, int y) {
+        int cell = nearestCell(x, y);
+        return cell < 0 ? null : sources[owner[cell]];
+    }
+
+    /**
+     * Celda del campo que da la menor distancia desde (x, y).
+     */
+    private int nearestCell(int x, int y) {
+        if (!built || !pathFinder.isValidPosition(x, y)) {
+            return -1;
+        }
+        int cell = x * height + y;
+        if (stamp[cell] == fieldId) {
+            return cell;
+        }
+        int best = -1;
+        for (Direction dir : DIRECTIONS) {
+            int nx = x + dir.getDeltaX();
+            int ny = y + dir.getDeltaY();
+            if (!pathFinder.isValidPosition(nx, ny)) {
+                continue;
+            }
+            int neighbor = nx * height + ny;
+            if (stamp[neighbor] == fieldId && (best < 0 || distance[neighbor] < distance[best])) {
+                best = neighbor;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Elige el objetivo de un monstruo aplicando histéresis.
+     * Cambia de inmediato si el objetivo actual murió o quedó inalcanzable,
+     * o si el más cercano le saca al menos switchMargin pasos; en otro caso
+     * espera a que lo siga siendo durante switchDelay ticks.
+     *
+     * @param monster el monstruo
+     * @return el objetivo elegido (puede ser el actual)
+     */
+    public Player selectTarget(Monster monster) {
+        Player current = monster.getTarget();
+        int mx = monster.getX();
+        int my = monster.getY();
+        Player nearest = getNearestPlayer(mx, my);
+        if (nearest == null || nearest == current) {
+            candidates.remove(monster);
+            return nearest == null ? current : nearest;
+        }
+        if (current == null || !current.isAlive()
+                || !pathFinder.isReachable(mx, my, current.getX(), current.getY())) {
+            candidates.remove(monster);
+            return nearest;
+        }
+        // La distancia Manhattan es cota inferior de la real al objetivo actual
+        int lowerBound = Math.abs(current.getX() - mx) + Math.abs(current.getY() - my);
+        if (lowerBound >= getDistance(mx, my) + switchMargin) {
+            candidates.remove(monster);
+            return nearest;
+        }
+        Candidate candidate = candidates.get(monster);
+        if (candidate == null) {
+            candidate = new Candidate();
+            candidates.put(monster, candidate);
+        }
+        if (candidate.player != nearest) {
+            candidate.player = nearest;
+            candidate.ticks = 0;
+        }
+        if (++candidate.ticks > switchDelay) {
+            candidates.remove(monster);
+            return nearest;
+        }
+        return current;
+    }
+
+    /**
+     * Asigna a cada monstruo su objetivo con selectTarget.
+     *
+     * @param monsters los monstruos de la partida
+     */
+    public void assignTargets(List<Monster> monsters) {
+        for (Monster monster : monsters) {
+            Player target = selectTarget(monster);
+            if (target != monster.getTarget()) {
+                monster.setTarget(target);
+            }
+        }
+    }
+
+    /**
+     * Olvida el estado de histéresis de un monstruo que sale de la partida.
+     *
+     * @param monster el monstruo
+     */
+    public void forget(Monster monster) {
+        candidates.remove(monster);
+    }
+
+    /**
+     * Obtiene cuántos monstruos tienen un cambio de objetivo pendiente.
+     *
+     * @return el número de monstruos
+     */
+    public int getPendingCount() {
+        return candidates.size();
+    }
+
+    /**
+     * Olvida el estado de histéresis de todos los monstruos.
+     */
+    public void reset() {
+        candidates.clear();
+        built = false;
+    }
+
+    /**
+     * Jugador candidato a objetivo y ticks consecutivos como más cercano.
+     */
+    private static class Candidate {
+        private Player player;
+        private int ticks;
+    }
+}
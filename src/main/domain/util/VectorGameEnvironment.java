@@ -0,0 +1,442 @@
+package main.domain.util;
+
+import main.domain.DopoIceCream;
+import main.domain.entities.Fruit;
+import main.domain.entities.IceCream;
+import main.domain.entities.IceWall;
+import main.domain.entities.Monster;
+import main.domain.entities.Player;
+import main.domain.entities.Wall;
+import main.domain.enums.Direction;
+import main.domain.enums.GameState;
+import main.domain.exception.IceException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Entorno de aprendizaje por refuerzo que avanza K partidas a la vez, al
+ * estilo de los entornos vectorizados de gym.
+ * Cada paso recibe una acción por partida (el ordinal de una Direction o
+ * STAY) para su primer jugador, avanza un tick y escribe en búferes
+ * reservados de antemano la observación, la recompensa y si el episodio
+ * terminó. La observación de cada partida son CHANNELS planos de alto x
+ * ancho (muros, hielo, frutas, monstruos y jugadores) con 1 donde hay algo;
+ * el índice de la celda (x, y) del canal c de la partida k es
+ * ((k * CHANNELS + c) * alto + y) * ancho + x.
+ * Las partidas se reparten en bloques fijos entre el hilo que llama y unos
+ * hilos propios que esperan aparcados entre pasos, así que un paso no crea
+ * tareas ni objetos. Un episodio que termina se reinicia en el mismo paso
+ * con una partida nueva de la fábrica de niveles (eso sí reserva memoria).
+ *
+ * @author Bad Dopo-Cream Team
+ * @version 1.0
+ */
+public class VectorGameEnvironment {
+
+    /** Canales de la observación */
+    public static final int CHANNEL_WALL = 0;
+    public static final int CHANNEL_ICE = 1;
+    public static final int CHANNEL_FRUIT = 2;
+    public static final int CHANNEL_MONSTER = 3;
+    public static final int CHANNEL_PLAYER = 4;
+    public static final int CHANNELS = 5;
+
+    /** Acción de quedarse quieto; las demás son ordinales de Direction */
+    public static final int STAY = Direction.values().length;
+
+    /** Ticks máximos de un episodio por defecto */
+    public static final int DEFAULT_MAX_STEPS = 1000;
+
+    /** Recompensa por punto de fruta, por vida perdida y por ganar */
+    public static final float SCORE_REWARD = 0.01f;
+    public static final float LIFE_PENALTY = -1f;
+    public static final float VICTORY_REWARD = 1f;
+
+    /** Direcciones indexadas por su ordinal */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /** Fábrica de niveles: recibe el índice de la partida */
+    private final IntFunction<DopoIceCream> levels;
+
+    /** Partidas y su estado al empezar el paso */
+    private final DopoIceCream[] games;
+    private final int[] lastScore;
+    private final int[] lastLives;
+    private final int[] steps;
+
+    /** Dimensiones comunes a todos los niveles */
+    private int width;
+    private int height;
+
+    /** Búferes de salida */
+    private final FloatBuffer observations;
+    private final float[] rewards;
+    private final boolean[] dones;
+    private final boolean[] truncated;
+
+    /** Ticks máximos por episodio */
+    private int maxSteps;
+
+    /** Hilos propios; el hilo que llama hace el primer bloque */
+    private final Thread[] workers;
+    private final int[] blockStart;
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile int generation;
+    private volatile boolean closed;
+    private volatile Thread caller;
+    private volatile RuntimeException failure;
+    private int[] actions;
+
+    /**
+     * Constructor de VectorGameEnvironment.
+     *
+     * @param count número de partidas
+     * @param levels fábrica de niveles; todos deben tener el mismo tamaño
+     * @param threads hilos que avanzan partidas, contando el que llama
+     * @param direct true para escribir las observaciones en un ByteBuffer directo
+     * @throws IceException si la fábrica crea un nivel sin jugadores
+     * @throws IllegalArgumentException si los niveles no tienen el mismo tamaño
+     */
+    public VectorGameEnvironment(int count, IntFunction<DopoIceCream> levels, int threads, boolean direct)
+            throws IceException {
+        this.levels = levels;
+        this.games = new DopoIceCream[count];
+        this.lastScore = new int[count];
+        this.lastLives = new int[count];
+        this.steps = new int[count];
+        this.rewards = new float[count];
+        this.dones = new boolean[count];
+        this.truncated = new boolean[count];
+        this.maxSteps = DEFAULT_MAX_STEPS;
+        for (int i = 0; i < count; i++) {
+            games[i] = createGame(i);
+        }
+        int size = count * CHANNELS * width * height;
+        this.observations = direct
+                ? ByteBuffer.allocateDirect(size * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer()
+                : FloatBuffer.wrap(new float[size]);
+        for (int i = 0; i < count; i++) {
+            writeObservation(i);
+        }
+
+        int parallelism = Math.max(1, Math.min(threads, count));
+        this.blockStart = new int[parallelism + 1];
+        for (int b = 0; b <= parallelism; b++) {
+            blockStart[b] = (int) ((long) count * b / parallelism);
+        }
+        this.workers = new Thread[parallelism - 1];
+        for (int w = 0; w < workers.length; w++) {
+            int block = w + 1;
+            workers[w] = new Thread(() -> runWorker(block), "vector-env-" + block);
+            workers[w].setDaemon(true);
+            workers[w].start();
+        }
+    }
+
+    /**
+     * Crea y arranca la partida de un índice.
+     */
+    private DopoIceCream createGame(int index) throws IceException {
+        DopoIceCream game = levels.apply(index);
+        if (index == 0 && width == 0) {
+            width = game.getWidth();
+            height = game.getHeight();
+        } else if (game.getWidth() != width || game.getHeight() != height) {
+            throw new IllegalArgumentException("Todos los niveles deben medir " + width + "x" + height);
+        }
+        if (game.getGameState() != GameState.PLAYING) {
+            game.start();
+        }
+        lastScore[index] = scoreOf(game);
+        lastLives[index] = game.getPlayer(0).getLives();
+        steps[index] = 0;
+        return game;
+    }
+
+    /**
+     * Obtiene el número de partidas.
+     *
+     * @return las partidas
+     */
+    public int getCount() {
+        return games.length;
+    }
+
+    /**
+     * Obtiene el ancho de los niveles.
+     *
+     * @return el ancho
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Obtiene el alto de los niveles.
+     *
+     * @return el alto
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Obtiene el número de valores de la observación de una partida.
+     *
+     * @return CHANNELS * alto * ancho
+     */
+    public int getObservationSize() {
+        return CHANNELS * width * height;
+    }
+
+    /**
+     * Obtiene los ticks máximos por episodio.
+     *
+     * @return los ticks
+     */
+    public int getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * Establece los ticks máximos por episodio; al alcanzarlos el episodio
+     * termina como truncado.
+     *
+     * @param maxSteps los ticks (0 para no limitar)
+     */
+    public void setMaxSteps(int maxSteps) {
+        this.maxSteps = Math.max(0, maxSteps);
+    }
+
+    /**
+     * Obtiene las observaciones de todas las partidas, con el orden de
+     * índices descrito en la clase. El búfer se reutiliza en cada paso.
+     *
+     * @return el búfer de observaciones
+     */
+    public FloatBuffer getObservations() {
+        return observations;
+    }
+
+    /**
+     * Obtiene las recompensas del último paso.
+     *
+     * @return una recompensa por partida (el array se reutiliza)
+     */
+    public float[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * Indica qué episodios terminaron en el último paso. Su observación ya
+     * es la del primer tick del episodio siguiente.
+     *
+     * @return un valor por partida (el array se reutiliza)
+     */
+    public boolean[] getDones() {
+        return dones;
+    }
+
+    /**
+     * Indica qué episodios terminaron por alcanzar los ticks máximos.
+     *
+     * @return un valor por partida (el array se reutiliza)
+     */
+    public boolean[] getTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Obtiene la partida actual de un índice.
+     *
+     * @param index el índice
+     * @return la partida
+     */
+    public DopoIceCream getGame(int index) {
+        return games[index];
+    }
+
+    /**
+     * Reinicia todos los episodios con partidas nuevas.
+     *
+     * @throws IceException si la fábrica crea un nivel sin jugadores
+     */
+    public void reset() throws IceException {
+        for (int i = 0; i < games.length; i++) {
+            games[i] = createGame(i);
+            rewards[i] = 0;
+            dones[i] = false;
+            truncated[i] = false;
+            writeObservation(i);
+        }
+    }
+
+    /**
+     * Avanza un tick todas las partidas.
+     *
+     * @param actions una acción por partida: ordinal de Direction o STAY
+     * @throws IllegalArgumentException si no hay una acción por partida
+     * @throws IllegalStateException si el entorno está cerrado
+     */
+    public void step(int[] actions) {
+        if (actions == null || actions.length != games.length) {
+            throw new IllegalArgumentException("Se esperaba una acción por partida");
+        }
+        if (closed) {
+            throw new IllegalStateException("El entorno está cerrado");
+        }
+        this.actions = actions;
+        if (workers.length == 0) {
+            stepBlock(0);
+            return;
+        }
+        failure = null;
+        caller = Thread.currentThread();
+        pending.set(workers.length);
+        generation++;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        stepBlock(0);
+        while (pending.get() > 0) {
+            LockSupport.park(this);
+        }
+        RuntimeException error = failure;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Detiene los hilos propios.
+     */
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Bucle de un hilo propio: espera aparcado a cada nuevo paso.
+     */
+    private void runWorker(int block) {
+        int seen = 0;
+        while (!closed) {
+            int current = generation;
+            if (current == seen) {
+                LockSupport.park(this);
+                continue;
+            }
+            seen = current;
+            try {
+                stepBlock(block);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            if (pending.decrementAndGet() == 0) {
+                LockSupport.unpark(caller);
+            }
+        }
+    }
+
+    /**
+     * Avanza las partidas de un bloque.
+     */
+    private void stepBlock(int block) {
+        for (int i = blockStart[block]; i < blockStart[block + 1]; i++) {
+            stepGame(i);
+        }
+    }
+
+    /**
+     * Avanza una partida y escribe sus resultados.
+     */
+    private void stepGame(int index) {
+        DopoIceCream game = games[index];
+        int action = actions[index];
+        if (action >= 0 && action < DIRECTIONS.length) {
+            game.movePlayer(0, DIRECTIONS[action]);
+        }
+        game.update();
+        steps[index]++;
+
+        Player player = game.getPlayer(0);
+        int score = scoreOf(game);
+        float reward = (score - lastScore[index]) * SCORE_REWARD
+                + Math.max(0, lastLives[index] - player.getLives()) * LIFE_PENALTY;
+        GameState state = game.getGameState();
+        if (state == GameState.VICTORY) {
+            reward += VICTORY_REWARD;
+        }
+        lastScore[index] = score;
+        lastLives[index] = player.getLives();
+        rewards[index] = reward;
+        truncated[index] = state == GameState.PLAYING && maxSteps > 0 && steps[index] >= maxSteps;
+        dones[index] = state != GameState.PLAYING || truncated[index];
+        if (dones[index]) {
+            try {
+                games[index] = createGame(index);
+            } catch (IceException e) {
+                throw new IllegalStateException("La fábrica creó un nivel sin jugadores", e);
+            }
+        }
+        writeObservation(index);
+    }
+
+    /**
+     * Escribe los planos de una partida.
+     */
+    private void writeObservation(int index) {
+        DopoIceCream game = games[index];
+        int plane = width * height;
+        int base = index * CHANNELS * plane;
+        for (int i = base; i < base + CHANNELS * plane; i++) {
+            observations.put(i, 0f);
+        }
+        for (int i = 0; i < game.getWallCount(); i++) {
+            Wall wall = game.getWall(i);
+            if (!wall.isDestroyed()) {
+                mark(base, wall instanceof IceWall ? CHANNEL_ICE : CHANNEL_WALL, wall.getX(), wall.getY());
+            }
+        }
+        for (int i = 0; i < game.getFruitCount(); i++) {
+            Fruit fruit = game.getFruit(i);
+            if (!fruit.isCollected()) {
+                mark(base, CHANNEL_FRUIT, fruit.getX(), fruit.getY());
+            }
+        }
+        for (int i = 0; i < game.getMonsterCount(); i++) {
+            Monster monster = game.getMonster(i);
+            mark(base, CHANNEL_MONSTER, monster.getX(), monster.getY());
+        }
+        for (int i = 0; game.getPlayer(i) != null; i++) {
+            Player player = game.getPlayer(i);
+            if (player.isAlive()) {
+                mark(base, CHANNEL_PLAYER, player.getX(), player.getY());
+            }
+        }
+    }
+
+    /**
+     * Marca una celda de un canal si está dentro del mapa.
+     */
+    private void mark(int base, int channel, int x, int y) {
+        if (x >= 0 && y >= 0 && x < width && y < height) {
+            observations.put(base + (channel * height + y) * width + x, 1f);
+        }
+    }
+
+    /**
+     * Puntuación del primer jugador.
+     */
+    private static int scoreOf(DopoIceCream game) {
+        Player player = game.getPlayer(0);
+        return player instanceof IceCream ? ((IceCream) player).getScore() : 0;
+    }
+}
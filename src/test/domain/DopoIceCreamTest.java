@@ -5,6 +5,10 @@ import main.domain.entities.*;
 import main.domain.enums.*;
 import main.domain.event.*;
 import main.domain.exception.IceException;
+import main.domain.util.AiScheduler;
+import main.domain.util.BehaviorTree;
+import main.domain.util.DangerMap;
+import main.domain.util.MonteCarloPlanner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -239,6 +243,49 @@ class DopoIceCreamTest {
             // Assert
             assertEquals(player, troll.getTarget());
         }
+
+        @Test
+        @DisplayName("MO-05: Remover un monstruo descarta su histéresis de objetivo")
+        void testRemoveMonsterForgetsTargetState() throws IceException {
+            // Arrange - el Pot queda con un cambio de objetivo pendiente
+            IceCream left = new IceCream(0, 5, IceCreamFlavor.VANILLA);
+            IceCream right = new IceCream(19, 5, IceCreamFlavor.CHOCOLATE);
+            Pot pot = new Pot(10, 5);
+            game.addPlayer(left);
+            game.addPlayer(right);
+            game.addMonster(pot);
+            pot.setTarget(left);
+            game.getTargetSelector().update(game.getPlayers());
+            game.getTargetSelector().selectTarget(pot);
+            int pending = game.getTargetSelector().getPendingCount();
+
+            // Act
+            game.removeMonster(pot);
+
+            // Assert
+            assertEquals(1, pending);
+            assertEquals(0, game.getTargetSelector().getPendingCount());
+        }
+
+        @Test
+        @DisplayName("MO-06: Los Pots usan A* salvo que se active la planificación incremental")
+        void testIncrementalPlanningOptIn() {
+            // Arrange
+            Pot first = new Pot(3, 3);
+            Pot second = new Pot(6, 6);
+            game.addMonster(first);
+
+            // Act
+            boolean byDefault = first.isIncrementalPlanning();
+            game.setIncrementalPlanningEnabled(true);
+            game.addMonster(second);
+
+            // Assert
+            assertFalse(byDefault);
+            assertTrue(game.isIncrementalPlanningEnabled());
+            assertTrue(first.isIncrementalPlanning());
+            assertTrue(second.isIncrementalPlanning());
+        }
     }
 
     @Nested
@@ -718,6 +765,317 @@ class DopoIceCreamTest {
             // Assert - jugador perdió vida
             assertTrue(player.getLives() < initialLives);
         }
+
+        @Test
+        @DisplayName("UP-04: Los contadores de búsqueda registran las consultas de la partida")
+        void testAiStats() throws IceException {
+            // Arrange
+            IceCream player = new IceCream(2, 2, IceCreamFlavor.VANILLA);
+            Pot pot = new Pot(12, 10);
+            game.addPlayer(player);
+            game.addMonster(pot);
+            game.addFruit(new Grape(18, 1));
+            assertNull(game.getAiStats());
+            game.setAiStatsEnabled(true);
+            game.start();
+
+            // Act
+            for (int tick = 0; tick < 3; tick++) {
+                game.update();
+            }
+
+            // Assert
+            assertTrue(game.getAiStats().getQueries() > 0);
+            assertTrue(game.getAiStats().getExpandedNodes() > 0);
+            game.setAiStatsEnabled(false);
+            assertNull(game.getAiStats());
+        }
+
+        @Test
+        @DisplayName("UP-05: El mapa de peligro sigue a los monstruos en cada tick")
+        void testDangerMap() throws IceException {
+            // Arrange
+            IceCream player = new IceCream(2, 2, IceCreamFlavor.VANILLA);
+            Pot pot = new Pot(12, 10);
+            game.addPlayer(player);
+            game.addMonster(pot);
+            game.addFruit(new Grape(18, 1));
+            assertNull(game.getDangerMap());
+            game.setDangerMapEnabled(true);
+            game.start();
+
+            // Act
+            game.update();
+
+            // Assert
+            DangerMap danger = game.getDangerMap();
+            assertEquals(0, danger.getArrivalTick(pot.getX(), pot.getY()));
+            assertEquals(1, danger.getArrivalTick(pot.getX() + 1, pot.getY()));
+            assertFalse(danger.isSafe(pot.getX(), pot.getY(), 0));
+            assertTrue(danger.isSafe(pot.getX() + 3, pot.getY(), 2));
+        }
+
+        @Test
+        @DisplayName("UP-06: Un jugador automático planifica y juega su jugada")
+        void testAiPlayer() throws IceException {
+            // Arrange
+            IceCream bot = new IceCream(5, 5, IceCreamFlavor.VANILLA, PlayerType.AI);
+            game.addPlayer(bot);
+            game.addFruit(new Grape(6, 5));
+            game.addFruit(new Grape(18, 1));
+            MonteCarloPlanner planner = new MonteCarloPlanner(1, 3);
+            planner.setMaxRollouts(500);
+            game.setAiPlanner(planner);
+            game.start();
+
+            // Act
+            game.update();
+            planner.shutdown();
+
+            // Assert
+            assertSame(planner, bot.getPlanner());
+            assertEquals(6, bot.getX());
+            assertEquals(1, bot.getFruitsCollected());
+        }
+
+        @Test
+        @DisplayName("UP-07: Con nivel de detalle los monstruos lejanos recalculan menos")
+        void testAiScheduler() throws IceException {
+            // Arrange
+            IceCream player = new IceCream(1, 1, IceCreamFlavor.VANILLA);
+            Pot near = new Pot(7, 1);
+            Pot far = new Pot(19, 14);
+            game.addPlayer(player);
+            game.addMonster(near);
+            game.addMonster(far);
+            game.addFruit(new Grape(10, 10));
+            AiScheduler scheduler = new AiScheduler(8, 4);
+            game.setAiScheduler(scheduler);
+            game.start();
+            int farDistance = (far.getX() - 1) + (far.getY() - 1);
+
+            // Act
+            game.update();
+            int planned = scheduler.getLastPlanned();
+            int repeated = scheduler.getLastRepeated();
+            game.update();
+            game.update();
+
+            // Assert - ambos avanzan en cada tick, pero solo el cercano busca siempre
+            assertSame(scheduler, game.getAiScheduler());
+            assertEquals(1, planned);
+            assertEquals(1, repeated);
+            assertEquals(farDistance - 3, (far.getX() - 1) + (far.getY() - 1));
+            assertEquals(4, near.getX());
+        }
+
+        @Test
+        @DisplayName("UP-08: Los monstruos se actualizan en orden de llegada y los eliminados dejan de moverse")
+        void testMonstersUpdatedInInsertionOrder() throws IceException {
+            // Arrange - una fila de hielo separa al jugador; el OrangeSquid se añade antes que el Pot
+            IceCream player = new IceCream(10, 2, IceCreamFlavor.VANILLA);
+            OrangeSquid squid = new OrangeSquid(10, 8);
+            Pot pot = new Pot(10, 12);
+            Troll troll = new Troll(2, 12);
+            Troll removed = new Troll(2, 6);
+            game.addPlayer(player);
+            game.addMonster(squid);
+            game.addMonster(removed);
+            game.addMonster(pot);
+            game.addMonster(troll);
+            game.addFruit(new Grape(18, 1));
+            for (int x = 0; x < 20; x++) {
+                game.placeWall(new IceWall(x, 7));
+            }
+            game.start();
+            game.removeMonster(removed);
+
+            // Act
+            game.update();
+
+            // Assert - el OrangeSquid abre el hueco antes de que el Pot se mueva
+            assertEquals(3, game.getMonsterCount());
+            assertSame(squid, game.getMonster(0));
+            assertEquals(8, squid.getY());
+            assertNull(game.getWallAt(10, 7));
+            assertEquals(11, pot.getY());
+            assertEquals(3, troll.getX());
+            assertEquals(2, removed.getX());
+        }
+
+        @Test
+        @DisplayName("UP-09: Un monstruo definido por datos rompe hielo dentro del presupuesto")
+        void testBehaviorMonster() throws Exception {
+            // Arrange
+            IceCream player = new IceCream(10, 2, IceCreamFlavor.VANILLA);
+            BehaviorTree tree = BehaviorTree.parse("selector(sequence(iceahead, breakice(1)), chaseice(2))");
+            BehaviorMonster monster = new BehaviorMonster(10, 8, MonsterType.ORANGE_SQUID, tree);
+            game.addPlayer(player);
+            game.addMonster(monster);
+            game.addFruit(new Grape(18, 1));
+            for (int x = 0; x < 20; x++) {
+                game.placeWall(new IceWall(x, 7));
+            }
+            game.setBehaviorBudgetNanos(1_000_000_000L);
+            game.start();
+
+            // Act - un tick para orientarse y otro para romper
+            game.update();
+            game.update();
+
+            // Assert
+            assertNotNull(monster.getPathFinder());
+            assertEquals(8, monster.getY());
+            assertNull(game.getWallAt(10, 7));
+            assertEquals(1, game.getBehaviorBudget().getLastEvaluated());
+            assertEquals(0, game.getBehaviorBudget().getLastDeferred());
+        }
+
+        @Test
+        @DisplayName("UP-10: El OrangeSquid rompe hielo con el cooldown en ticks de juego")
+        void testSquidBreaksIceOnGameClock() throws IceException {
+            // Arrange - dos filas de hielo entre el squid y el jugador
+            TestEventListener listener = new TestEventListener();
+            IceCream player = new IceCream(10, 2, IceCreamFlavor.VANILLA);
+            OrangeSquid squid = new OrangeSquid(10, 8);
+            squid.setBreakCooldown(3 * OrangeSquid.DEFAULT_TICK_MILLIS);
+            game.addPlayer(player);
+            game.addMonster(squid);
+            game.addFruit(new Grape(18, 1));
+            for (int x = 0; x < 20; x++) {
+                game.placeWall(new IceWall(x, 7));
+                game.placeWall(new IceWall(x, 6));
+            }
+            game.addEventListener(listener);
+            game.start();
+
+            // Act - rompe la primera fila en el tick 1 y avanza en el 2
+            game.update();
+            game.update();
+            game.update();
+            long broken = listener.receivedEvents.stream()
+                    .filter(e -> e.getType() == EventType.ICE_DESTROYED).count();
+            game.update();
+
+            // Assert - la segunda fila espera al tick 4
+            assertEquals(4, game.getTick());
+            assertEquals(1, broken);
+            assertEquals(7, squid.getY());
+            assertNull(game.getWallAt(10, 6));
+            assertEquals(4, squid.getLastBreakTick());
+            assertEquals(2, listener.receivedEvents.stream()
+                    .filter(e -> e.getType() == EventType.ICE_DESTROYED).count());
+        }
+
+        @Test
+        @DisplayName("UP-11: Con colisiones activas los monstruos que persiguen no se solapan")
+        void testMonsterCollisions() throws IceException {
+            // Arrange - tres Pots en fila persiguen al mismo jugador
+            IceCream player = new IceCream(15, 7, IceCreamFlavor.VANILLA);
+            List<Pot> chasers = new ArrayList<>();
+            game.addPlayer(player);
+            for (int x = 2; x >= 0; x--) {
+                Pot pot = new Pot(x, 7);
+                chasers.add(pot);
+                game.addMonster(pot);
+            }
+            game.addFruit(new Grape(18, 1));
+            game.setMonsterCollisionsEnabled(true);
+            game.start();
+
+            // Act & Assert - nunca comparten celda y la ocupación cuadra
+            for (int t = 0; t < 10; t++) {
+                game.update();
+                for (int i = 0; i < chasers.size(); i++) {
+                    Pot pot = chasers.get(i);
+                    assertEquals(1, game.getMonsterOccupancy().getCount(pot.getX(), pot.getY()));
+                }
+            }
+            assertTrue(chasers.get(0).getX() > 2);
+        }
+
+        @Test
+        @DisplayName("UP-12: Un Troll bloqueado espera sin salirse de su patrón")
+        void testBlockedTrollKeepsPattern() throws IceException {
+            // Arrange - dos Trolls con patrón [RIGHT, LEFT] uno junto al otro
+            DopoIceCream small = new DopoIceCream(6, 4);
+            Direction[] route = {Direction.RIGHT, Direction.LEFT};
+            Troll first = new Troll(0, 1, route);
+            Troll second = new Troll(1, 1, route);
+            small.addPlayer(new IceCream(5, 3, IceCreamFlavor.VANILLA));
+            small.addMonster(first);
+            small.addMonster(second);
+            small.addFruit(new Grape(5, 0));
+            small.setMonsterCollisionsEnabled(true);
+            small.start();
+
+            // Act & Assert - cada Troll está donde dice su índice de patrón
+            for (int t = 0; t < 8; t++) {
+                small.update();
+                assertTrue(small.isValidPosition(first.getX(), first.getY()));
+                assertEquals(first.getPatternIndex(), first.getX());
+                assertEquals(1 + second.getPatternIndex(), second.getX());
+                assertNotEquals(first.getX(), second.getX());
+                assertEquals(1 - first.getPatternIndex(), first.getXAt(1));
+            }
+        }
+
+        @Test
+        @DisplayName("UP-13: La heurística ALT solo se usa si se activa")
+        void testAiLandmarksOptIn() throws IceException {
+            // Arrange
+            Pot pot = new Pot(12, 10);
+            game.addPlayer(new IceCream(2, 2, IceCreamFlavor.VANILLA));
+            game.addMonster(pot);
+            game.addFruit(new Grape(18, 1));
+            game.start();
+
+            // Act
+            game.update();
+            int byDefault = game.getAiLandmarkCount();
+            boolean builtByDefault = pot.getPathFinder().getLandmarkIndex() != null;
+            game.setAiLandmarkCount(4);
+
+            // Assert
+            assertEquals(0, byDefault);
+            assertFalse(builtByDefault);
+            assertEquals(4, game.getAiLandmarkCount());
+            assertNotNull(pot.getPathFinder().getLandmarkIndex());
+        }
+
+        @Test
+        @DisplayName("UP-14: Con colisiones, el monstruo añadido antes se queda la celda")
+        void testCollisionsFollowInsertionOrder() throws IceException {
+            // Arrange - un Troll va a la derecha y un Pot a la izquierda, hacia la misma celda
+            DopoIceCream potFirst = new DopoIceCream(20, 15);
+            DopoIceCream trollFirst = new DopoIceCream(20, 15);
+            Pot pot = new Pot(6, 7);
+            Troll troll = new Troll(4, 7);
+            Pot laterPot = new Pot(6, 7);
+            Troll earlierTroll = new Troll(4, 7);
+            potFirst.addPlayer(new IceCream(0, 7, IceCreamFlavor.VANILLA));
+            potFirst.addMonster(pot);
+            potFirst.addMonster(troll);
+            trollFirst.addPlayer(new IceCream(0, 7, IceCreamFlavor.VANILLA));
+            trollFirst.addMonster(earlierTroll);
+            trollFirst.addMonster(laterPot);
+            for (DopoIceCream level : new DopoIceCream[]{potFirst, trollFirst}) {
+                level.addFruit(new Grape(18, 1));
+                level.setMonsterCollisionsEnabled(true);
+                level.start();
+            }
+
+            // Act
+            potFirst.update();
+            trollFirst.update();
+
+            // Assert - el Troll espera (WAIT); el Pot se aparta (SIDESTEP)
+            assertEquals(5, pot.getX());
+            assertEquals(4, troll.getX());
+            assertEquals(5, earlierTroll.getX());
+            assertEquals(6, laterPot.getX());
+            assertNotEquals(7, laterPot.getY());
+        }
     }
 
     @Nested
@@ -766,6 +1124,24 @@ class DopoIceCreamTest {
             assertTrue(game.isBlocked(5, 5));
             assertFalse(game.isBlocked(6, 5));
         }
+
+        @Test
+        @DisplayName("MP-05: Con varios muros en una celda se obtiene el primero en pie")
+        void testStackedWalls() {
+            // Arrange
+            IceWall ice = new IceWall(5, 5);
+            IndestructibleWall stone = new IndestructibleWall(5, 5);
+            game.placeWall(ice);
+            game.placeWall(stone);
+            game.placeWall(new IceWall(5, 6));
+
+            // Act & Assert
+            assertSame(ice, game.getWallAt(5, 5));
+            ice.destroy();
+            assertSame(stone, game.getWallAt(5, 5));
+            assertNotNull(game.getWallAt(5, 6));
+            assertNull(game.getWallAt(-1, 5));
+        }
     }
 
     /**
@@ -451,6 +451,36 @@ class IntegrationTest {
             // Assert - ahora sí es derrota
             assertEquals(GameState.DEFEAT, game.getGameState());
         }
+
+        @Test
+        @DisplayName("INT-22: Cada monstruo persigue al jugador más cercano")
+        void testMonstersTargetNearestPlayer() throws IceException {
+            // Arrange
+            game.setGameMode(GameMode.COOPERATIVE);
+            IceCream player1 = new IceCream(1, 1, IceCreamFlavor.VANILLA);
+            IceCream player2 = new IceCream(13, 13, IceCreamFlavor.CHOCOLATE);
+            Pot nearFirst = new Pot(3, 1);
+            Pot nearSecond = new Pot(13, 10);
+            game.addPlayer(player1);
+            game.addPlayer(player2);
+            game.addMonster(nearFirst);
+            game.addMonster(nearSecond);
+            game.addFruit(grape);
+            
+            // Act
+            game.start();
+            
+            // Assert
+            assertSame(player1, nearFirst.getTarget());
+            assertSame(player2, nearSecond.getTarget());
+            
+            // Act - el segundo jugador muere y el otro monstruo cambia de objetivo
+            player2.kill();
+            game.update();
+            
+            // Assert
+            assertSame(player1, nearSecond.getTarget());
+        }
     }
 
     @Nested
@@ -506,5 +536,56 @@ class IntegrationTest {
             assertEquals(Direction.RIGHT, brokenDir);
             assertTrue(squid.canBreakIce());
         }
+
+        @Test
+        @DisplayName("INT-21: OrangeSquid rompe el hielo que encierra al jugador")
+        void testOrangeSquidBreaksSealingIce() throws IceException {
+            // Arrange
+            List<GameEvent> events = new ArrayList<>();
+            OrangeSquid squid = new OrangeSquid(7, 3);
+            IceWall above = new IceWall(7, 6);
+            game.addEventListener(events::add);
+            game.addPlayer(player);
+            game.addMonster(squid);
+            game.placeWall(above);
+            game.placeWall(new IceWall(7, 8));
+            game.placeWall(new IceWall(6, 7));
+            game.placeWall(new IceWall(8, 7));
+            game.addFruit(new Grape(0, 0));
+            game.start();
+
+            // Act - al llegar frente al hielo lo rompe en el mismo tick
+            game.update();
+            game.update();
+
+            // Assert
+            assertEquals(5, squid.getY());
+            assertTrue(above.isDestroyed());
+            assertTrue(events.stream().anyMatch(e -> e.getType() == EventType.ICE_DESTROYED
+                    && e.getData() == above));
+            assertFalse(squid.canBreakNow());
+        }
+
+        @Test
+        @DisplayName("INT-23: Persecución cooperativa evita que los Pots se apilen")
+        void testCooperativePursuitAvoidsStacking() throws IceException {
+            // Arrange - dos Pots en fila detrás del mismo camino
+            Pot first = new Pot(1, 7);
+            Pot second = new Pot(0, 7);
+            game.addPlayer(player);
+            game.addMonster(first);
+            game.addMonster(second);
+            game.addFruit(new Grape(0, 0));
+            game.setCooperativePursuit(true);
+            game.start();
+            
+            // Act & Assert
+            assertTrue(game.isCooperativePursuit());
+            assertSame(first.getCooperativePlanner(), second.getCooperativePlanner());
+            for (int tick = 0; tick < 5 && game.getGameState() == GameState.PLAYING; tick++) {
+                game.update();
+                assertFalse(first.getX() == second.getX() && first.getY() == second.getY());
+            }
+        }
     }
 }
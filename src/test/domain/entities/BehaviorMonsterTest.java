@@ -0,0 +1,90 @@
+package test.domain.entities;
+
+import main.domain.entities.*;
+
+import main.domain.enums.Direction;
+import main.domain.enums.IceCreamFlavor;
+import main.domain.enums.MonsterType;
+import main.domain.exception.IceException;
+import main.domain.util.BehaviorTree;
+import main.domain.util.PathFinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para BehaviorMonster.
+ */
+@DisplayName("BehaviorMonster Tests")
+class BehaviorMonsterTest {
+
+    private PathFinder pathFinder;
+    private BehaviorTree tree;
+
+    @BeforeEach
+    void setUp() throws IceException {
+        Cell[][] map = new Cell[10][10];
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        pathFinder = new PathFinder(map);
+        tree = BehaviorTree.parse("selector(sequence(within(3), chase), wander)");
+    }
+
+    @Test
+    @DisplayName("BM-01: El tipo base fija símbolo y si rompe hielo")
+    void testBaseType() {
+        BehaviorMonster monster = new BehaviorMonster(2, 3, MonsterType.ORANGE_SQUID, tree);
+        assertEquals(MonsterType.ORANGE_SQUID, monster.getMonsterType());
+        assertTrue(monster.canBreakIce());
+        assertSame(tree, monster.getTree());
+        assertFalse(monster.pollIceBreak());
+    }
+
+    @Test
+    @DisplayName("BM-02: repeatLastMove sigue recto sin evaluar el árbol")
+    void testRepeatLastMove() {
+        // Arrange
+        BehaviorMonster monster = new BehaviorMonster(8, 5, MonsterType.POT, tree);
+        monster.setPathFinder(pathFinder);
+        monster.setCurrentDirection(Direction.RIGHT);
+
+        // Act
+        monster.repeatLastMove();
+        monster.repeatLastMove();
+
+        // Assert - se detiene en el borde
+        assertEquals(9, monster.getX());
+        assertEquals(5, monster.getY());
+    }
+
+    @Test
+    @DisplayName("BM-03: reset repite las mismas decisiones aleatorias")
+    void testResetIsDeterministic() {
+        // Arrange
+        BehaviorMonster monster = new BehaviorMonster(4, 4, MonsterType.POT, tree);
+        monster.setPathFinder(pathFinder);
+        monster.setTarget(new IceCream(0, 9, IceCreamFlavor.VANILLA));
+        int[] first = new int[20];
+        for (int i = 0; i < 10; i++) {
+            monster.update();
+            first[2 * i] = monster.getX();
+            first[2 * i + 1] = monster.getY();
+        }
+
+        // Act
+        monster.reset();
+        int[] second = new int[20];
+        for (int i = 0; i < 10; i++) {
+            monster.update();
+            second[2 * i] = monster.getX();
+            second[2 * i + 1] = monster.getY();
+        }
+
+        // Assert
+        assertArrayEquals(first, second);
+    }
+}
@@ -296,4 +296,19 @@ class CellTest {
         assertTrue(result.contains("5"));
         assertTrue(result.contains("10"));
     }
+
+    @Test
+    @DisplayName("CE-12: Celda con muro de hielo destruido es transitable")
+    void testCellWithDestroyedIceWall() {
+        // Arrange
+        IceWall ice = new IceWall(5, 10);
+        cell.setStaticObject(ice);
+        assertFalse(cell.isWalkable());
+        
+        // Act
+        ice.destroy();
+        
+        // Assert
+        assertTrue(cell.isWalkable());
+    }
 }
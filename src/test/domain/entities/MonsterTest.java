@@ -2,6 +2,7 @@ package test.domain.entities;
 
 import main.domain.entities.*;
 
+import main.domain.enums.CollisionPolicy;
 import main.domain.enums.Direction;
 import main.domain.enums.IceCreamFlavor;
 import main.domain.enums.MonsterType;
@@ -212,4 +213,20 @@ class MonsterTest {
         // Assert
         assertTrue(troll.canMoveTo(10, 10));
     }
+
+    @Test
+    @DisplayName("MN-07: La política de colisión viene del tipo y se puede cambiar")
+    void testCollisionPolicy() {
+        // Arrange
+        Troll troll = new Troll(5, 5);
+        
+        // Assert
+        assertEquals(CollisionPolicy.WAIT, troll.getCollisionPolicy());
+        
+        // Act
+        troll.setCollisionPolicy(CollisionPolicy.ALLOW);
+        
+        // Assert
+        assertEquals(CollisionPolicy.ALLOW, troll.getCollisionPolicy());
+    }
 }
@@ -294,4 +294,101 @@ class OrangeSquidTest {
         // Assert - después de reset puede romper otra vez
         assertTrue(squid.canBreakNow());
     }
+
+    @Test
+    @DisplayName("OS-23: Penalización de hielo se deriva del cooldown")
+    void testIcePenaltyDerivedFromCooldown() {
+        // Assert
+        assertEquals(11, squid.getIcePenalty());
+
+        // Act
+        squid.setBreakCooldown(500);
+        assertEquals(6, squid.getIcePenalty());
+        squid.setIcePenalty(2);
+
+        // Assert
+        assertEquals(2, squid.getIcePenalty());
+        squid.setIcePenalty(-1);
+        assertEquals(6, squid.getIcePenalty());
+    }
+
+    @Test
+    @DisplayName("OS-24: OrangeSquid se detiene frente al hielo de su camino")
+    void testSquidFacesIceOnPath() {
+        // Arrange - el jugador está encerrado en hielo
+        map[9][5].setStaticObject(new IceWall(9, 5));
+        map[11][5].setStaticObject(new IceWall(11, 5));
+        map[10][4].setStaticObject(new IceWall(10, 4));
+        map[10][6].setStaticObject(new IceWall(10, 6));
+        pathFinder.setMap(map);
+        squid = new OrangeSquid(8, 5, pathFinder);
+        squid.setTarget(player);
+        squid.setCurrentDirection(Direction.UP);
+
+        // Act
+        Direction result = squid.chaseAndBreak();
+
+        // Assert - no entra en el hielo pero queda orientado hacia él
+        assertEquals(Direction.RIGHT, result);
+        assertEquals(Direction.RIGHT, squid.getCurrentDirection());
+        assertEquals(8, squid.getX());
+        assertEquals(5, squid.getY());
+    }
+
+    @Test
+    @DisplayName("OS-25: Con presupuesto agotado avanza hacia el jugador")
+    void testChaseWithNodeBudget() {
+        // Arrange
+        squid.setPathFinder(pathFinder);
+        squid.setTarget(player);
+        pathFinder.setNodeBudget(1);
+
+        // Act
+        Direction result = squid.chaseAndBreak();
+
+        // Assert
+        assertEquals(Direction.RIGHT, result);
+        assertEquals(6, squid.getX());
+    }
+
+    @Test
+    @DisplayName("OS-26: repeatLastMove avanza recto y se detiene frente al hielo")
+    void testRepeatLastMove() {
+        // Arrange
+        map[7][5].setStaticObject(new IceWall(7, 5));
+        pathFinder.setMap(map);
+        squid.setPathFinder(pathFinder);
+        squid.setTarget(player);
+        squid.setCurrentDirection(Direction.RIGHT);
+
+        // Act
+        squid.repeatLastMove();
+        squid.repeatLastMove();
+
+        // Assert
+        assertEquals(6, squid.getX());
+        assertEquals(5, squid.getY());
+        assertEquals(Direction.RIGHT, squid.getCurrentDirection());
+    }
+
+    @Test
+    @DisplayName("OS-27: El cooldown en ticks se deriva del cooldown en milisegundos")
+    void testTickCooldown() {
+        // Arrange
+        squid.setBreakCooldown(5 * OrangeSquid.DEFAULT_TICK_MILLIS);
+
+        // Act
+        boolean before = squid.canBreakAt(0);
+        squid.recordBreak(10);
+
+        // Assert
+        assertTrue(before);
+        assertEquals(5, squid.getBreakCooldownTicks());
+        assertEquals(6, squid.getIcePenalty());
+        assertFalse(squid.canBreakAt(14));
+        assertTrue(squid.canBreakAt(15));
+        squid.reset();
+        assertEquals(-1, squid.getLastBreakTick());
+        assertTrue(squid.canBreakAt(0));
+    }
 }
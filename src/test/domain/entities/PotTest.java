@@ -2,6 +2,7 @@ package test.domain.entities;
 
 import main.domain.entities.*;
 
+import main.domain.enums.Direction;
 import main.domain.enums.IceCreamFlavor;
 import main.domain.enums.MonsterType;
 import main.domain.util.PathFinder;
@@ -272,4 +273,118 @@ class PotTest {
         assertEquals(5, pot.getX());
         assertEquals(5, pot.getY());
     }
+
+    @Test
+    @DisplayName("PO-17: hasPathToTarget es falso si el jugador está encerrado")
+    void testHasPathToTargetSealedPlayer() {
+        // Arrange - encerrar al jugador en (10,5)
+        Cell[][] sealedMap = new Cell[20][20];
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 20; j++) {
+                sealedMap[i][j] = new Cell(i, j);
+            }
+        }
+        PathFinder sealedFinder = new PathFinder(sealedMap);
+        pot.setPathFinder(sealedFinder);
+        pot.setTarget(player);
+        assertTrue(pot.hasPathToTarget());
+        
+        int[][] around = {{9, 5}, {11, 5}, {10, 4}, {10, 6}};
+        for (int[] pos : around) {
+            sealedMap[pos[0]][pos[1]].setStaticObject(new IceWall(pos[0], pos[1]));
+            sealedFinder.onCellChanged(pos[0], pos[1]);
+        }
+        
+        // Assert
+        assertFalse(pot.hasPathToTarget());
+        assertNull(pot.chasePlayer());
+        assertEquals(5, pot.getX());
+        assertEquals(5, pot.getY());
+    }
+
+    @Test
+    @DisplayName("PO-18: Planificación incremental persigue igual que A*")
+    void testIncrementalPlanning() {
+        // Arrange
+        pot.setPathFinder(pathFinder);
+        pot.setTarget(player);
+        assertFalse(pot.isIncrementalPlanning());
+        
+        // Act
+        pot.setIncrementalPlanning(true);
+        for (int i = 0; i < 5; i++) {
+            pot.chasePlayer();
+        }
+        
+        // Assert
+        assertTrue(pot.isIncrementalPlanning());
+        assertEquals(10, pot.getX());
+        assertEquals(5, pot.getY());
+    }
+
+    @Test
+    @DisplayName("PO-19: Planificación incremental requiere PathFinder")
+    void testIncrementalPlanningRequiresPathFinder() {
+        // Act
+        pot.setIncrementalPlanning(true);
+        
+        // Assert
+        assertFalse(pot.isIncrementalPlanning());
+        assertNull(pot.chasePlayer());
+    }
+
+    @Test
+    @DisplayName("PO-20: Con presupuesto agotado avanza de forma voraz")
+    void testChaseWithNodeBudget() {
+        // Arrange
+        pot.setPathFinder(pathFinder);
+        pot.setTarget(player);
+        pathFinder.setNodeBudget(1);
+
+        // Act - la búsqueda no termina en un tick pero el Pot no se detiene
+        Direction dir = pot.chasePlayer();
+        for (int i = 0; i < 20 && (pot.getX() != 10 || pot.getY() != 5); i++) {
+            pathFinder.beginTick();
+            pot.chasePlayer();
+        }
+
+        // Assert
+        assertEquals(Direction.RIGHT, dir);
+        assertEquals(10, pot.getX());
+        assertEquals(5, pot.getY());
+    }
+
+    @Test
+    @DisplayName("PO-21: repeatLastMove repite la dirección sin buscar y rodea los muros")
+    void testRepeatLastMove() {
+        // Arrange
+        pot.setPathFinder(pathFinder);
+        pot.setTarget(player);
+        pot.chasePlayer();
+        player.setPosition(6, 15);
+        IndestructibleWall wall = new IndestructibleWall(8, 5);
+        pathFinder.setMap(wallAt(wall));
+
+        // Act
+        pot.repeatLastMove();
+        int afterRepeat = pot.getX();
+        pot.repeatLastMove();
+
+        // Assert - sigue a la derecha aunque el jugador cambió y luego va voraz
+        assertEquals(7, afterRepeat);
+        assertEquals(7, pot.getX());
+        assertEquals(6, pot.getY());
+        assertEquals(Direction.DOWN, pot.getLastCalculatedDirection());
+    }
+
+    private Cell[][] wallAt(IndestructibleWall wall) {
+        Cell[][] map = new Cell[20][20];
+        for (int x = 0; x < 20; x++) {
+            for (int y = 0; y < 20; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        map[wall.getX()][wall.getY()].setStaticObject(wall);
+        return map;
+    }
 }
@@ -6,6 +6,7 @@ import main.domain.enums.Direction;
 import main.domain.enums.IceCreamFlavor;
 import main.domain.enums.MonsterType;
 import main.domain.util.MovementPattern;
+import main.domain.util.PatternScript;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -233,4 +234,70 @@ class TrollTest {
         assertEquals(startX, troll.getX());
         assertEquals(startY, troll.getY());
     }
+
+    @Test
+    @DisplayName("TR-16: La posición predicha coincide con la simulada")
+    void testPredictedPosition() {
+        // Arrange
+        Direction[] pattern = {Direction.RIGHT, Direction.RIGHT, Direction.DOWN, Direction.LEFT};
+        troll.setPattern(new MovementPattern(pattern));
+        troll.followPattern();
+        int[] expectedX = new int[25];
+        int[] expectedY = new int[25];
+        int[] predictedX = new int[25];
+        int[] predictedY = new int[25];
+        for (int t = 0; t < 25; t++) {
+            predictedX[t] = troll.getXAt(t);
+            predictedY[t] = troll.getYAt(t);
+        }
+
+        // Act
+        for (int t = 0; t < 25; t++) {
+            expectedX[t] = troll.getX();
+            expectedY[t] = troll.getY();
+            troll.followPattern();
+        }
+
+        // Assert
+        assertArrayEquals(expectedX, predictedX);
+        assertArrayEquals(expectedY, predictedY);
+    }
+
+    @Test
+    @DisplayName("TR-17: Ticks en que el Troll ocupará una celda")
+    void testTicksAtCell() {
+        // Arrange - cuadrado que vuelve a (5,5) cada 4 ticks
+        Direction[] pattern = {Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.UP};
+        troll.setPattern(new MovementPattern(pattern));
+
+        // Act & Assert
+        assertTrue(troll.occupiesAt(6, 6, 2));
+        assertFalse(troll.occupiesAt(6, 6, 3));
+        assertEquals(2, troll.getNextTickAt(6, 6, 0));
+        assertEquals(6, troll.getNextTickAt(6, 6, 3));
+        assertEquals(4, troll.getNextTickAt(5, 5, 1));
+        assertEquals(-1, troll.getNextTickAt(8, 8, 0));
+    }
+
+    @Test
+    @DisplayName("TR-18: Un Troll con guion espera en las pausas y se predice")
+    void testScriptedTroll() throws Exception {
+        // Arrange
+        troll.setScript(PatternScript.compile("R W2 L"));
+
+        // Act
+        int predictedX = troll.getXAt(2);
+        Direction first = troll.followPattern();
+        Direction second = troll.followPattern();
+
+        // Assert
+        assertTrue(troll.isPredictable());
+        assertArrayEquals(new Direction[]{Direction.RIGHT, null, null, Direction.LEFT},
+                troll.getPatternDirections());
+        assertEquals(Direction.RIGHT, first);
+        assertNull(second);
+        assertEquals(6, predictedX);
+        assertEquals(6, troll.getX());
+        assertEquals(2, troll.getNextTickAt(5, 5, 0));
+    }
 }
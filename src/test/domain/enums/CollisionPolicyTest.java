@@ -0,0 +1,35 @@
+package test.domain.enums;
+
+import main.domain.enums.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la enumeración CollisionPolicy.
+ */
+@DisplayName("CollisionPolicy Enum Tests")
+class CollisionPolicyTest {
+
+    @Test
+    @DisplayName("CP-01: Debe contener todas las políticas")
+    void testCollisionPolicyValues() {
+        // Arrange & Act
+        CollisionPolicy[] policies = CollisionPolicy.values();
+        
+        // Assert
+        assertEquals(3, policies.length);
+        assertEquals(CollisionPolicy.ALLOW, CollisionPolicy.valueOf("ALLOW"));
+        assertEquals(CollisionPolicy.WAIT, CollisionPolicy.valueOf("WAIT"));
+        assertEquals(CollisionPolicy.SIDESTEP, CollisionPolicy.valueOf("SIDESTEP"));
+    }
+
+    @Test
+    @DisplayName("CP-02: Cada tipo de monstruo tiene su política")
+    void testMonsterTypePolicies() {
+        assertEquals(CollisionPolicy.WAIT, MonsterType.TROLL.getCollisionPolicy());
+        assertEquals(CollisionPolicy.SIDESTEP, MonsterType.POT.getCollisionPolicy());
+        assertEquals(CollisionPolicy.ALLOW, MonsterType.ORANGE_SQUID.getCollisionPolicy());
+    }
+}
@@ -0,0 +1,43 @@
+package test.domain.enums;
+
+import main.domain.enums.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la enumeración SearchStrategy.
+ */
+@DisplayName("SearchStrategy Enum Tests")
+class SearchStrategyTest {
+
+    @Test
+    @DisplayName("SS-01: Debe contener todas las estrategias")
+    void testSearchStrategyValues() {
+        // Arrange & Act
+        SearchStrategy[] strategies = SearchStrategy.values();
+        
+        // Assert
+        assertEquals(4, strategies.length);
+        assertNotNull(SearchStrategy.A_STAR);
+        assertNotNull(SearchStrategy.JUMP_POINT);
+        assertNotNull(SearchStrategy.HIERARCHICAL);
+        assertNotNull(SearchStrategy.CORRIDOR);
+    }
+
+    @Test
+    @DisplayName("SS-02: A_STAR debe tener ordinal 0")
+    void testAStarOrdinal() {
+        assertEquals(0, SearchStrategy.A_STAR.ordinal());
+    }
+
+    @Test
+    @DisplayName("valueOf debe retornar la estrategia correcta")
+    void testValueOf() {
+        assertEquals(SearchStrategy.A_STAR, SearchStrategy.valueOf("A_STAR"));
+        assertEquals(SearchStrategy.JUMP_POINT, SearchStrategy.valueOf("JUMP_POINT"));
+        assertEquals(SearchStrategy.HIERARCHICAL, SearchStrategy.valueOf("HIERARCHICAL"));
+        assertEquals(SearchStrategy.CORRIDOR, SearchStrategy.valueOf("CORRIDOR"));
+    }
+}
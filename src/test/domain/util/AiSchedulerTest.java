@@ -0,0 +1,109 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.IceCream;
+import main.domain.entities.Monster;
+import main.domain.enums.IceCreamFlavor;
+import main.domain.enums.MonsterType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para AiScheduler.
+ */
+@DisplayName("AiScheduler Tests")
+class AiSchedulerTest {
+
+    private AiScheduler scheduler;
+    private IceCream player;
+
+    /**
+     * Monstruo que cuenta sus recálculos y repeticiones.
+     */
+    private static class CountingMonster extends Monster {
+        int planned;
+        int repeated;
+
+        CountingMonster(int x, int y) {
+            super(x, y, MonsterType.POT);
+        }
+
+        @Override
+        public void executeAI() {
+            planned++;
+        }
+
+        @Override
+        public void repeatLastMove() {
+            repeated++;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new AiScheduler(8, 4);
+        player = new IceCream(0, 0, IceCreamFlavor.VANILLA);
+    }
+
+    @Test
+    @DisplayName("AS-01: El intervalo se duplica con la distancia hasta el máximo")
+    void testInterval() {
+        assertEquals(1, scheduler.getInterval(0));
+        assertEquals(1, scheduler.getInterval(8));
+        assertEquals(2, scheduler.getInterval(9));
+        assertEquals(2, scheduler.getInterval(16));
+        assertEquals(4, scheduler.getInterval(17));
+        assertEquals(4, scheduler.getInterval(1000));
+        scheduler.setMaxInterval(1);
+        assertEquals(1, scheduler.getInterval(1000));
+    }
+
+    @Test
+    @DisplayName("AS-02: Los monstruos cercanos recalculan en cada tick")
+    void testNearMonstersPlanEveryTick() {
+        // Arrange
+        CountingMonster near = new CountingMonster(3, 4);
+        near.setTarget(player);
+
+        // Act
+        for (int tick = 0; tick < 10; tick++) {
+            scheduler.beginTick();
+            scheduler.update(near, 5);
+        }
+
+        // Assert
+        assertEquals(10, near.planned);
+        assertEquals(0, near.repeated);
+    }
+
+    @Test
+    @DisplayName("AS-03: Los monstruos lejanos recalculan escalonados y repiten entre tanto")
+    void testFarMonstersAreStaggered() {
+        // Arrange - ocho monstruos lejanos y uno sin objetivo
+        CountingMonster[] far = new CountingMonster[8];
+        for (int i = 0; i < far.length; i++) {
+            far[i] = new CountingMonster(40, 40);
+            far[i].setTarget(player);
+        }
+        CountingMonster idle = new CountingMonster(1, 1);
+
+        // Act & Assert - en cada tick recalcula exactamente un cuarto
+        for (int tick = 0; tick < 12; tick++) {
+            scheduler.beginTick();
+            for (int i = 0; i < far.length; i++) {
+                scheduler.update(far[i], i);
+            }
+            assertEquals(2, scheduler.getLastPlanned());
+            assertEquals(6, scheduler.getLastRepeated());
+            scheduler.update(idle, far.length);
+        }
+        for (CountingMonster monster : far) {
+            assertEquals(3, monster.planned);
+            assertEquals(9, monster.repeated);
+        }
+        assertEquals(3, idle.planned);
+    }
+}
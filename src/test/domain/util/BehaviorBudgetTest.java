@@ -0,0 +1,57 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para BehaviorBudget.
+ */
+@DisplayName("BehaviorBudget Tests")
+class BehaviorBudgetTest {
+
+    @Test
+    @DisplayName("BB-01: Sin límite se evalúan todos")
+    void testUnlimited() {
+        // Arrange
+        BehaviorBudget budget = new BehaviorBudget();
+
+        // Act
+        int start = budget.beginTick(10);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(budget.tryAcquire(i));
+        }
+
+        // Assert
+        assertEquals(0, start);
+        assertEquals(10, budget.getLastEvaluated());
+        assertEquals(0, budget.getLastDeferred());
+    }
+
+    @Test
+    @DisplayName("BB-02: Al agotarse se aplaza el resto y el tick siguiente empieza por ellos")
+    void testDeferredMonstersGoFirst() throws InterruptedException {
+        // Arrange - un presupuesto de 1 ns se agota tras el primero
+        BehaviorBudget budget = new BehaviorBudget(1);
+
+        // Act
+        int start = budget.beginTick(5);
+        boolean first = budget.tryAcquire(start);
+        Thread.sleep(1);
+        boolean second = budget.tryAcquire(start + 1);
+        budget.tryAcquire(start + 2);
+        int evaluated = budget.getLastEvaluated();
+        int deferred = budget.getLastDeferred();
+        int nextStart = budget.beginTick(5);
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(1, evaluated);
+        assertEquals(2, deferred);
+        assertEquals(1, nextStart);
+        assertEquals(0, budget.beginTick(0));
+    }
+}
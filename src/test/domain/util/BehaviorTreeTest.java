@@ -0,0 +1,171 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.BehaviorMonster;
+import main.domain.entities.Cell;
+import main.domain.entities.IceCream;
+import main.domain.entities.IceWall;
+import main.domain.enums.Direction;
+import main.domain.enums.ErrorCode;
+import main.domain.enums.IceCreamFlavor;
+import main.domain.enums.MonsterType;
+import main.domain.exception.IceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para BehaviorTree.
+ */
+@DisplayName("BehaviorTree Tests")
+class BehaviorTreeTest {
+
+    private Cell[][] map;
+    private PathFinder pathFinder;
+    private IceCream player;
+
+    @BeforeEach
+    void setUp() {
+        // Mapa 12x12 abierto
+        map = new Cell[12][12];
+        for (int x = 0; x < 12; x++) {
+            for (int y = 0; y < 12; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        pathFinder = new PathFinder(map);
+        player = new IceCream(10, 2, IceCreamFlavor.VANILLA);
+    }
+
+    private BehaviorMonster monster(int x, int y, MonsterType type, BehaviorTree tree) {
+        BehaviorMonster monster = new BehaviorMonster(x, y, type, tree);
+        monster.setPathFinder(pathFinder);
+        monster.setTarget(player);
+        return monster;
+    }
+
+    @Test
+    @DisplayName("BT-01: El texto se analiza a nodos planos con pizarra propia por patrulla")
+    void testParse() throws IceException {
+        // Act
+        BehaviorTree tree = BehaviorTree.parse(
+                "selector(sequence(within(6), reachable, chase), invert(wait), patrol(\"(R2 L2)3\"))");
+
+        // Assert - selector, sequence, within, reachable, chase, invert, wait, patrol
+        assertEquals(8, tree.getNodeCount());
+        assertEquals(5 + 2 + 1, tree.getBlackboardSize());
+        assertEquals(tree.getBlackboardSize(), tree.newBlackboard(1).length);
+    }
+
+    @Test
+    @DisplayName("BT-02: Los errores de sintaxis lanzan LEVEL_LOAD_ERROR")
+    void testSyntaxErrors() {
+        String[] sources = {null, "", "dance", "chase(", "sequence(chase", "within", "within(x)",
+            "invert(wait, wait)", "patrol(R2)", "patrol(\"R0\")", "chase(1)", "wait wait", "within(\u0663)"};
+        for (String source : sources) {
+            IceException e = assertThrows(IceException.class, () -> BehaviorTree.parse(source));
+            assertEquals(ErrorCode.LEVEL_LOAD_ERROR, e.getErrorCode());
+        }
+    }
+
+    @Test
+    @DisplayName("BT-03: El selector persigue de cerca y patrulla de lejos, un paso por tick")
+    void testChaseOrPatrol() throws IceException {
+        // Arrange - dos monstruos comparten el mismo árbol
+        BehaviorTree tree = BehaviorTree.parse(
+                "selector(sequence(within(4), chase, chase), patrol(\"D2 U2\"))");
+        BehaviorMonster near = monster(7, 2, MonsterType.POT, tree);
+        BehaviorMonster far = monster(1, 8, MonsterType.POT, tree);
+
+        // Act
+        near.update();
+        far.update();
+        far.update();
+        far.update();
+
+        // Assert - la segunda persecución falla porque ya se movió
+        assertEquals(8, near.getX());
+        assertEquals(2, near.getY());
+        assertEquals(1, far.getX());
+        assertEquals(9, far.getY());
+    }
+
+    @Test
+    @DisplayName("BT-04: Huir aumenta la distancia y deambular no atraviesa muros")
+    void testFleeAndWander() throws IceException {
+        // Arrange
+        BehaviorMonster fleeing = monster(8, 2, MonsterType.POT, BehaviorTree.parse("flee"));
+        BehaviorMonster wandering = monster(0, 0, MonsterType.POT, BehaviorTree.parse("wander"));
+
+        // Act & Assert
+        for (int tick = 0; tick < 50; tick++) {
+            int before = Math.abs(fleeing.getX() - 10) + Math.abs(fleeing.getY() - 2);
+            fleeing.update();
+            int after = Math.abs(fleeing.getX() - 10) + Math.abs(fleeing.getY() - 2);
+            assertTrue(after >= before);
+            wandering.update();
+            assertTrue(pathFinder.isWalkable(wandering.getX(), wandering.getY()));
+        }
+        // Se detiene en la esquina más lejana a la que llega sin acercarse
+        assertEquals(0, fleeing.getX());
+        assertEquals(0, fleeing.getY());
+        BehaviorTree flee = BehaviorTree.parse("flee");
+        assertFalse(flee.evaluate(fleeing, flee.newBlackboard(1), pathFinder));
+    }
+
+    @Test
+    @DisplayName("BT-05: Romper hielo requiere tipo rompehielo, hielo delante y enfriamiento")
+    void testBreakIce() throws IceException {
+        // Arrange - hielo entre el monstruo y el jugador
+        map[6][2].setStaticObject(new IceWall(6, 2));
+        pathFinder.setMap(map);
+        BehaviorTree tree = BehaviorTree.parse("selector(sequence(iceahead, breakice(3)), chaseice(2))");
+        BehaviorMonster squid = monster(5, 2, MonsterType.ORANGE_SQUID, tree);
+        BehaviorMonster pot = monster(5, 2, MonsterType.POT, tree);
+
+        // Act
+        squid.update();
+        boolean facing = squid.getCurrentDirection() == Direction.RIGHT && squid.getX() == 5;
+        squid.update();
+        boolean first = squid.pollIceBreak();
+        squid.update();
+        boolean cooling = squid.pollIceBreak();
+        pot.update();
+        pot.update();
+
+        // Assert
+        assertTrue(facing);
+        assertTrue(first);
+        assertFalse(cooling);
+        assertFalse(squid.pollIceBreak());
+        assertFalse(pot.pollIceBreak());
+    }
+
+    @Test
+    @DisplayName("BT-06: El enfriamiento de breakice cuenta ticks de juego, no evaluaciones")
+    void testBreakIceCooldownUsesGameTicks() throws IceException {
+        // Arrange - hielo delante y enfriamiento de 3 ticks
+        map[6][2].setStaticObject(new IceWall(6, 2));
+        pathFinder.setMap(map);
+        BehaviorTree tree = BehaviorTree.parse("selector(sequence(iceahead, breakice(3)), chaseice(2))");
+        BehaviorMonster squid = monster(5, 2, MonsterType.ORANGE_SQUID, tree);
+
+        // Act - el tick 2 y el 4 se saltan, como si el presupuesto los aplazara
+        squid.setGameTick(1);
+        squid.update();
+        boolean first = squid.pollIceBreak();
+        squid.setGameTick(3);
+        squid.update();
+        boolean cooling = squid.pollIceBreak();
+        squid.setGameTick(5);
+        squid.update();
+        boolean second = squid.pollIceBreak();
+
+        // Assert
+        assertTrue(first);
+        assertFalse(cooling);
+        assertTrue(second);
+    }
+}
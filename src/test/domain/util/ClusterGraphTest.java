@@ -0,0 +1,179 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IceWall;
+import main.domain.enums.Direction;
+import main.domain.enums.SearchStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para ClusterGraph (HPA*).
+ */
+@DisplayName("ClusterGraph Tests")
+class ClusterGraphTest {
+
+    private static final int SIZE = 60;
+
+    private Cell[][] map;
+    private PathFinder hierarchical;
+    private PathFinder astar;
+
+    @BeforeEach
+    void setUp() {
+        // Mapa 60x60 con muros aleatorios reproducibles
+        Random random = new Random(7);
+        map = new Cell[SIZE][SIZE];
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                map[x][y] = new Cell(x, y);
+                if (random.nextInt(100) < 20) {
+                    map[x][y].setWalkable(false);
+                }
+            }
+        }
+        map[0][0].setWalkable(true);
+        map[SIZE - 1][SIZE - 1].setWalkable(true);
+        hierarchical = new PathFinder(map, SearchStrategy.HIERARCHICAL);
+        astar = new PathFinder(map);
+    }
+
+    /**
+     * Sigue un camino y devuelve la celda final, fallando si pisa un muro.
+     */
+    private int[] follow(PathFinder finder, List<Direction> path, int x, int y) {
+        for (Direction dir : path) {
+            x += dir.getDeltaX();
+            y += dir.getDeltaY();
+            assertTrue(finder.isWalkable(x, y));
+        }
+        return new int[]{x, y};
+    }
+
+    @Test
+    @DisplayName("CG-01: Tamaño de cluster por defecto")
+    void testDefaultClusterSize() {
+        assertEquals(ClusterGraph.DEFAULT_CLUSTER_SIZE, hierarchical.getClusterSize());
+        assertTrue(hierarchical.getClusterGraph().getNodeCount() > 0);
+    }
+
+    @Test
+    @DisplayName("CG-02: Camino jerárquico válido y casi óptimo")
+    void testHierarchicalPathNearOptimal() {
+        // Act
+        List<Direction> optimal = astar.findPath(0, 0, SIZE - 1, SIZE - 1);
+        List<Direction> path = hierarchical.findPath(0, 0, SIZE - 1, SIZE - 1);
+        
+        // Assert
+        assertFalse(optimal.isEmpty());
+        assertArrayEquals(new int[]{SIZE - 1, SIZE - 1}, follow(hierarchical, path, 0, 0));
+        assertTrue(path.size() <= optimal.size() * 1.2);
+    }
+
+    @Test
+    @DisplayName("CG-03: Expande muchos menos nodos que A*")
+    void testFewerExpansions() {
+        // Act
+        astar.findPath(0, 0, SIZE - 1, SIZE - 1);
+        hierarchical.findPath(0, 0, SIZE - 1, SIZE - 1);
+        
+        // Assert
+        assertTrue(hierarchical.getLastExpandedNodes() < astar.getLastExpandedNodes());
+    }
+
+    @Test
+    @DisplayName("CG-04: getNextDirection coincide con el primer paso del camino")
+    void testNextDirectionMatchesPath() {
+        // Act
+        List<Direction> path = hierarchical.findPath(0, 0, SIZE - 1, SIZE - 1);
+        Direction next = hierarchical.getNextDirection(0, 0, SIZE - 1, SIZE - 1);
+        
+        // Assert
+        assertEquals(path.get(0), next);
+    }
+
+    @Test
+    @DisplayName("CG-05: Colocar hielo recalcula solo los clusters afectados")
+    void testIceChangesAreApplied() {
+        // Arrange - construir la abstracción y cerrar una franja completa
+        hierarchical.findPath(0, 0, SIZE - 1, SIZE - 1);
+        IceWall[] strip = new IceWall[SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            strip[y] = new IceWall(30, y);
+            map[30][y].setStaticObject(strip[y]);
+            hierarchical.onCellChanged(30, y);
+        }
+        
+        // Assert - no hay camino a través de la franja
+        assertTrue(hierarchical.findPath(0, 0, SIZE - 1, SIZE - 1).isEmpty());
+        
+        // Act - romper una celda del hielo
+        strip[15].destroy();
+        map[29][15].setWalkable(true);
+        map[31][15].setWalkable(true);
+        hierarchical.onCellChanged(30, 15);
+        hierarchical.onCellChanged(29, 15);
+        hierarchical.onCellChanged(31, 15);
+        
+        // Assert - el camino pasa por la brecha
+        List<Direction> path = hierarchical.findPath(0, 0, SIZE - 1, SIZE - 1);
+        assertTrue(hierarchical.isReachable(0, 0, SIZE - 1, SIZE - 1));
+        assertArrayEquals(new int[]{SIZE - 1, SIZE - 1}, follow(hierarchical, path, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Consultas locales usan A* directo")
+    void testLocalQuery() {
+        ClusterGraph graph = hierarchical.getClusterGraph();
+        
+        // Assert
+        assertTrue(graph.isLocalQuery(0, 0, 15, 15));
+        assertFalse(graph.isLocalQuery(0, 0, 45, 45));
+    }
+
+    @Test
+    @DisplayName("setClusterSize descarta la abstracción actual")
+    void testSetClusterSize() {
+        // Arrange
+        ClusterGraph before = hierarchical.getClusterGraph();
+        
+        // Act
+        hierarchical.setClusterSize(5);
+        
+        // Assert
+        assertNotSame(before, hierarchical.getClusterGraph());
+        assertEquals(5, hierarchical.getClusterGraph().getClusterSize());
+    }
+
+    @Test
+    @DisplayName("CG-06: Un cluster de esquina aislado no impide buscar caminos")
+    void testSealedCornerCluster() {
+        // Arrange - mapa 40x40 abierto con el primer cluster cerrado por muros
+        Cell[][] open = new Cell[40][40];
+        for (int x = 0; x < 40; x++) {
+            for (int y = 0; y < 40; y++) {
+                open[x][y] = new Cell(x, y);
+            }
+        }
+        for (int i = 0; i <= 9; i++) {
+            open[9][i].setWalkable(false);
+            open[i][9].setWalkable(false);
+        }
+        PathFinder finder = new PathFinder(open, SearchStrategy.HIERARCHICAL);
+
+        // Act
+        List<Direction> path = finder.findPath(15, 15, 35, 35);
+        List<Direction> sealed = finder.findPath(2, 2, 35, 35);
+
+        // Assert
+        assertEquals(40, path.size());
+        assertArrayEquals(new int[]{35, 35}, follow(finder, path, 15, 15));
+        assertTrue(sealed.isEmpty());
+    }
+}
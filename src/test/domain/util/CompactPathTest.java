@@ -0,0 +1,75 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.enums.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para CompactPath.
+ */
+@DisplayName("CompactPath Tests")
+class CompactPathTest {
+
+    @Test
+    @DisplayName("CPA-01: Codifica y decodifica todas las direcciones")
+    void testRoundTrip() {
+        // Arrange - más de una palabra de 32 pasos
+        List<Direction> directions = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            directions.add(Direction.values()[(i * 7 + i / 3) % 4]);
+        }
+
+        // Act
+        CompactPath path = CompactPath.of(directions);
+
+        // Assert
+        assertEquals(70, path.size());
+        for (int i = 0; i < 70; i++) {
+            assertEquals(directions.get(i), path.get(i));
+        }
+        assertEquals(directions, path.asList());
+        assertEquals(directions.get(0), path.first());
+        assertEquals(24, path.getEncodedBytes());
+    }
+
+    @Test
+    @DisplayName("CPA-02: El camino vacío no tiene primer paso")
+    void testEmpty() {
+        // Assert
+        assertSame(CompactPath.EMPTY, CompactPath.of(new ArrayList<>()));
+        assertTrue(CompactPath.EMPTY.isEmpty());
+        assertNull(CompactPath.EMPTY.first());
+        assertTrue(CompactPath.EMPTY.asList().isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> CompactPath.EMPTY.get(0));
+    }
+
+    @Test
+    @DisplayName("CPA-03: La vista List es de solo lectura y se crea una vez")
+    void testListView() {
+        // Arrange
+        CompactPath path = CompactPath.of(List.of(Direction.UP, Direction.RIGHT));
+
+        // Assert
+        assertSame(path.asList(), path.asList());
+        assertThrows(UnsupportedOperationException.class, () -> path.asList().add(Direction.DOWN));
+    }
+
+    @Test
+    @DisplayName("Caminos con los mismos pasos son iguales")
+    void testEquality() {
+        // Arrange
+        CompactPath a = CompactPath.of(List.of(Direction.LEFT, Direction.DOWN));
+        CompactPath b = CompactPath.of(List.of(Direction.LEFT, Direction.DOWN));
+        CompactPath c = CompactPath.of(List.of(Direction.LEFT, Direction.DOWN, Direction.UP));
+
+        // Assert
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, c);
+    }
+}
@@ -0,0 +1,143 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IceWall;
+import main.domain.entities.IndestructibleWall;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para ConnectivityIndex.
+ */
+@DisplayName("ConnectivityIndex Tests")
+class ConnectivityIndexTest {
+
+    private PathFinder pathFinder;
+    private Cell[][] map;
+
+    @BeforeEach
+    void setUp() {
+        // Crear un mapa 5x5 vacío
+        map = new Cell[5][5];
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        pathFinder = new PathFinder(map);
+    }
+
+    /**
+     * Encierra la celda (0,0) con muros de hielo y notifica al PathFinder.
+     */
+    private IceWall[] sealCorner() {
+        IceWall right = new IceWall(1, 0);
+        IceWall down = new IceWall(0, 1);
+        map[1][0].setStaticObject(right);
+        pathFinder.onCellChanged(1, 0);
+        map[0][1].setStaticObject(down);
+        pathFinder.onCellChanged(0, 1);
+        return new IceWall[]{right, down};
+    }
+
+    @Test
+    @DisplayName("CI-01: Mapa vacío es una sola componente")
+    void testEmptyMapSingleComponent() {
+        ConnectivityIndex index = pathFinder.getConnectivityIndex();
+
+        // Assert
+        assertTrue(index.isConnected(0, 0, 4, 4));
+        assertEquals(index.getComponent(0, 0), index.getComponent(4, 4));
+    }
+
+    @Test
+    @DisplayName("CI-02: Celda con muro está bloqueada")
+    void testWallCellBlocked() {
+        // Arrange
+        map[2][2].setStaticObject(new IndestructibleWall(2, 2));
+        pathFinder.setMap(map);
+
+        // Assert
+        assertEquals(ConnectivityIndex.BLOCKED, pathFinder.getConnectivityIndex().getComponent(2, 2));
+        assertFalse(pathFinder.isReachable(0, 0, 2, 2));
+    }
+
+    @Test
+    @DisplayName("CI-03: Colocar hielo separa componentes de forma incremental")
+    void testPlacingIceSplitsComponent() {
+        // Arrange - construir el índice antes de modificar el mapa
+        assertTrue(pathFinder.isReachable(0, 0, 4, 4));
+
+        // Act
+        sealCorner();
+
+        // Assert
+        assertFalse(pathFinder.isReachable(0, 0, 4, 4));
+        assertFalse(pathFinder.isReachable(4, 4, 0, 0));
+        assertTrue(pathFinder.isReachable(4, 4, 2, 2));
+        assertTrue(pathFinder.findPath(4, 4, 0, 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("CI-04: Destruir hielo vuelve a unir componentes")
+    void testDestroyingIceMergesComponents() {
+        // Arrange
+        assertTrue(pathFinder.isReachable(0, 0, 4, 4));
+        IceWall[] walls = sealCorner();
+        assertFalse(pathFinder.isReachable(0, 0, 4, 4));
+
+        // Act
+        walls[0].destroy();
+        pathFinder.onCellChanged(1, 0);
+
+        // Assert
+        assertTrue(pathFinder.isReachable(0, 0, 4, 4));
+        assertEquals(8, pathFinder.findPath(0, 0, 4, 4).size());
+    }
+
+    @Test
+    @DisplayName("CI-05: Origen no transitable usa sus vecinos")
+    void testBlockedStartUsesNeighbors() {
+        // Arrange - un monstruo sobre una celda recién congelada
+        map[2][2].setStaticObject(new IceWall(2, 2));
+        pathFinder.setMap(map);
+
+        // Assert
+        assertTrue(pathFinder.isReachable(2, 2, 0, 0));
+    }
+
+    @Test
+    @DisplayName("CI-06: Muchos cambios mantienen el índice consistente")
+    void testManyChangesStayConsistent() {
+        // Arrange
+        assertTrue(pathFinder.isReachable(0, 0, 4, 4));
+
+        // Act - colocar y destruir una pared vertical muchas veces
+        for (int round = 0; round < 20; round++) {
+            IceWall[] column = new IceWall[5];
+            for (int y = 0; y < 5; y++) {
+                column[y] = new IceWall(2, y);
+                map[2][y].setStaticObject(column[y]);
+                pathFinder.onCellChanged(2, y);
+            }
+            assertFalse(pathFinder.isReachable(0, 0, 4, 4));
+            for (int y = 0; y < 5; y++) {
+                column[y].destroy();
+                pathFinder.onCellChanged(2, y);
+            }
+            assertTrue(pathFinder.isReachable(0, 0, 4, 4));
+        }
+    }
+
+    @Test
+    @DisplayName("Fuera de límites está bloqueado")
+    void testOutOfBoundsBlocked() {
+        // Assert
+        assertEquals(ConnectivityIndex.BLOCKED, pathFinder.getConnectivityIndex().getComponent(-1, 0));
+        assertFalse(pathFinder.isReachable(0, 0, 5, 5));
+    }
+}
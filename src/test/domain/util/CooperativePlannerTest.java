@@ -0,0 +1,111 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IndestructibleWall;
+import main.domain.enums.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para CooperativePlanner.
+ */
+@DisplayName("CooperativePlanner Tests")
+class CooperativePlannerTest {
+
+    private Cell[][] map;
+    private PathFinder pathFinder;
+    private CooperativePlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        // Crear un mapa 10x10 vacío
+        map = new Cell[10][10];
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        pathFinder = new PathFinder(map);
+        planner = new CooperativePlanner(pathFinder);
+    }
+
+    @Test
+    @DisplayName("CP-01: Un agente solo sigue el camino más corto")
+    void testSingleAgent() {
+        // Arrange
+        int agent = planner.registerAgent();
+        planner.beginTick();
+
+        // Act
+        Direction dir = planner.getNextDirection(agent, 0, 5, 9, 5);
+
+        // Assert
+        assertEquals(Direction.RIGHT, dir);
+        assertEquals(agent, planner.getReservations().getHolder(5 * 10 + 5, 5));
+    }
+
+    @Test
+    @DisplayName("CP-02: El segundo agente no pisa las reservas del primero")
+    void testSecondAgentAvoidsReservations() {
+        // Arrange - dos agentes en fila hacia el mismo objetivo
+        int first = planner.registerAgent();
+        int second = planner.registerAgent();
+        planner.beginTick();
+
+        // Act
+        planner.getNextDirection(first, 1, 5, 9, 5);
+        Direction dir = planner.getNextDirection(second, 0, 5, 9, 5);
+
+        // Assert - ninguna celda queda reservada por ambos en el mismo tick
+        assertNotNull(dir);
+        ReservationTable table = planner.getReservations();
+        for (int t = 1; t <= planner.getWindow(); t++) {
+            for (int cell = 0; cell < 100; cell++) {
+                if (cell != 9 * 10 + 5 && table.getHolder(cell, t) == second) {
+                    assertNotEquals(first, table.getHolder(cell, t));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("CP-03: En un pasillo el segundo agente espera")
+    void testWaitsInCorridor() {
+        // Arrange - pasillo de una celda de ancho en y=0
+        for (int x = 0; x < 10; x++) {
+            for (int y = 1; y < 10; y++) {
+                map[x][y].setStaticObject(new IndestructibleWall(x, y));
+            }
+        }
+        pathFinder.setMap(map);
+        int first = planner.registerAgent();
+        int second = planner.registerAgent();
+        planner.beginTick();
+
+        // Act - el primero viene de frente hacia el segundo
+        planner.getNextDirection(first, 5, 0, 0, 0);
+        Direction dir = planner.getNextDirection(second, 4, 0, 9, 0);
+
+        // Assert - no puede atravesar al otro agente
+        assertNull(dir);
+    }
+
+    @Test
+    @DisplayName("beginTick vacía las reservas")
+    void testBeginTickClears() {
+        // Arrange
+        int agent = planner.registerAgent();
+        planner.getNextDirection(agent, 0, 0, 5, 5);
+        assertTrue(planner.getReservations().size() > 0);
+
+        // Act
+        planner.beginTick();
+
+        // Assert
+        assertEquals(0, planner.getReservations().size());
+    }
+}
@@ -0,0 +1,116 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IceWall;
+import main.domain.entities.IndestructibleWall;
+import main.domain.enums.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para CorridorGraph.
+ */
+@DisplayName("CorridorGraph Tests")
+class CorridorGraphTest {
+
+    private Cell[][] map;
+    private PathFinder pathFinder;
+    private CorridorGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        // Mapa 7x3 con un único pasillo horizontal en y=1
+        map = new Cell[7][3];
+        for (int x = 0; x < 7; x++) {
+            for (int y = 0; y < 3; y++) {
+                map[x][y] = new Cell(x, y);
+                if (y != 1) {
+                    map[x][y].setStaticObject(new IndestructibleWall(x, y));
+                }
+            }
+        }
+        pathFinder = new PathFinder(map);
+        graph = new CorridorGraph(pathFinder, 7, 3);
+    }
+
+    @Test
+    @DisplayName("CO-01: Un pasillo se contrae en una arista entre sus extremos")
+    void testCorridorContracted() {
+        // Assert
+        assertEquals(2, graph.getNodeCount());
+        assertEquals(1, graph.getEdgeCount());
+    }
+
+    @Test
+    @DisplayName("CO-02: El camino se expande en direcciones celda a celda")
+    void testPathExpanded() {
+        // Act
+        List<Direction> right = graph.findPath(2, 1, 5, 1);
+        List<Direction> left = graph.findPath(6, 1, 1, 1);
+
+        // Assert
+        assertEquals(List.of(Direction.RIGHT, Direction.RIGHT, Direction.RIGHT), right);
+        assertEquals(5, left.size());
+        assertTrue(left.stream().allMatch(dir -> dir == Direction.LEFT));
+        assertEquals(Direction.LEFT, graph.getNextDirection(4, 1, 0, 1));
+        assertTrue(graph.findPath(3, 1, 3, 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("CO-03: La actualización incremental equivale a reconstruir")
+    void testIncrementalUpdate() {
+        // Arrange - abrir un ramal en (3,0)
+        graph.getNodeCount();
+        map[3][0].setStaticObject(null);
+        pathFinder.onCellChanged(3, 0);
+        graph.onCellChanged(3, 0);
+
+        // Assert
+        assertEquals(4, graph.getNodeCount());
+        assertEquals(3, graph.getEdgeCount());
+        assertEquals(List.of(Direction.DOWN, Direction.RIGHT), graph.findPath(3, 0, 4, 1));
+
+        // Act - el hielo corta el pasillo en (4,1)
+        map[4][1].setStaticObject(new IceWall(4, 1));
+        pathFinder.onCellChanged(4, 1);
+        graph.onCellChanged(4, 1);
+        CorridorGraph fresh = new CorridorGraph(pathFinder, 7, 3);
+
+        // Assert
+        assertEquals(fresh.getNodeCount(), graph.getNodeCount());
+        assertEquals(fresh.getEdgeCount(), graph.getEdgeCount());
+        assertTrue(graph.findPath(0, 1, 6, 1).isEmpty());
+        assertEquals(4, graph.findPath(0, 1, 3, 0).size());
+    }
+
+    @Test
+    @DisplayName("CO-04: Un anillo sin cruces recibe un nodo y se recorre por el lado corto")
+    void testRingWithoutJunctions() {
+        // Arrange - anillo alrededor de (2,2) en un mapa 5x5
+        Cell[][] ring = new Cell[5][5];
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 5; y++) {
+                ring[x][y] = new Cell(x, y);
+                boolean onRing = x >= 1 && x <= 3 && y >= 1 && y <= 3 && !(x == 2 && y == 2);
+                if (!onRing) {
+                    ring[x][y].setStaticObject(new IndestructibleWall(x, y));
+                }
+            }
+        }
+        CorridorGraph ringGraph = new CorridorGraph(new PathFinder(ring), 5, 5);
+
+        // Act
+        List<Direction> path = ringGraph.findPath(1, 2, 3, 1);
+
+        // Assert
+        assertEquals(1, ringGraph.getNodeCount());
+        assertEquals(1, ringGraph.getEdgeCount());
+        assertEquals(3, path.size());
+        assertEquals(Direction.UP, path.get(0));
+    }
+}
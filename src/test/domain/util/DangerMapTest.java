@@ -0,0 +1,135 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IceWall;
+import main.domain.entities.Monster;
+import main.domain.entities.OrangeSquid;
+import main.domain.entities.Pot;
+import main.domain.entities.Troll;
+import main.domain.enums.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para DangerMap.
+ */
+@DisplayName("DangerMap Tests")
+class DangerMapTest {
+
+    private Cell[][] map;
+    private PathFinder pathFinder;
+    private DangerMap danger;
+
+    @BeforeEach
+    void setUp() {
+        // Mapa 10x10 abierto
+        map = new Cell[10][10];
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        pathFinder = new PathFinder(map);
+        danger = new DangerMap(pathFinder);
+    }
+
+    @Test
+    @DisplayName("DM-01: La llegada de un perseguidor es su distancia BFS")
+    void testChaserArrival() {
+        // Arrange - muro de hielo en x=5 salvo en y=9
+        for (int y = 0; y < 9; y++) {
+            map[5][y].setStaticObject(new IceWall(5, y));
+            pathFinder.onCellChanged(5, y);
+        }
+
+        // Act
+        danger.update(List.of(new Pot(2, 2)));
+
+        // Assert
+        assertEquals(0, danger.getArrivalTick(2, 2));
+        assertEquals(3, danger.getArrivalTick(4, 3));
+        assertEquals(DangerMap.UNREACHABLE, danger.getArrivalTick(5, 2));
+        assertEquals(2 + 7 + 2 + 7, danger.getArrivalTick(6, 2));
+        assertTrue(danger.isSafe(6, 2, 17));
+        assertFalse(danger.isSafe(6, 2, 18));
+    }
+
+    @Test
+    @DisplayName("DM-02: Los monstruos que rompen hielo lo atraviesan")
+    void testIceBreakerArrival() {
+        // Arrange
+        for (int y = 0; y < 10; y++) {
+            map[5][y].setStaticObject(new IceWall(5, y));
+            pathFinder.onCellChanged(5, y);
+        }
+
+        // Act
+        danger.update(List.of(new Pot(2, 2)));
+        int potOnly = danger.getArrivalTick(6, 2);
+        danger.update(List.of(new Pot(2, 2), new OrangeSquid(3, 2)));
+
+        // Assert
+        assertEquals(DangerMap.UNREACHABLE, potOnly);
+        assertEquals(2, danger.getArrivalTick(5, 2));
+        assertEquals(3, danger.getArrivalTick(6, 2));
+    }
+
+    @Test
+    @DisplayName("DM-03: Las celdas de un Troll se predicen exactamente")
+    void testTrollArrival() {
+        // Arrange - el Troll recorre un cuadrado; el Pot está lejos
+        Troll troll = new Troll(1, 1);
+        troll.setPattern(new MovementPattern(new Direction[]{
+            Direction.RIGHT, Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.LEFT, Direction.UP}));
+        List<Monster> monsters = List.of(troll, new Pot(9, 9));
+
+        // Act
+        danger.update(monsters);
+        int corner = danger.getArrivalTick(3, 2);
+        troll.followPattern();
+        troll.followPattern();
+        danger.update(monsters);
+
+        // Assert - a (3,2) llega en el tick 3 y, dos ticks después, en el 1
+        assertEquals(3, corner);
+        assertEquals(1, danger.getArrivalTick(3, 2));
+        assertEquals(0, danger.getArrivalTick(3, 1));
+        assertEquals(4, danger.getArrivalTick(1, 1));
+        assertEquals(1, danger.getArrivalTick(8, 9));
+    }
+
+    @Test
+    @DisplayName("DM-04: La actualización incremental equivale a recalcular")
+    void testIncrementalUpdate() {
+        // Arrange - varios Pots; solo uno se mueve
+        List<Monster> monsters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            monsters.add(new Pot(i * 2, i * 2));
+        }
+        danger.update(monsters);
+        int full = danger.getLastTouchedCells();
+
+        // Act
+        monsters.get(4).move(Direction.UP);
+        danger.update(monsters);
+        int incremental = danger.getLastTouchedCells();
+        danger.update(monsters);
+        DangerMap fresh = new DangerMap(pathFinder);
+        fresh.update(monsters);
+
+        // Assert
+        assertTrue(incremental < full);
+        assertEquals(0, danger.getLastTouchedCells());
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                assertEquals(fresh.getArrivalTick(x, y), danger.getArrivalTick(x, y));
+            }
+        }
+    }
+}
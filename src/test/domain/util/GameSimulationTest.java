@@ -0,0 +1,119 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.DopoIceCream;
+import main.domain.entities.Grape;
+import main.domain.entities.IceCream;
+import main.domain.entities.IceWall;
+import main.domain.entities.IndestructibleWall;
+import main.domain.entities.Pot;
+import main.domain.entities.Troll;
+import main.domain.enums.Direction;
+import main.domain.enums.IceCreamFlavor;
+import main.domain.exception.IceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para GameSimulation.
+ */
+@DisplayName("GameSimulation Tests")
+class GameSimulationTest {
+
+    private DopoIceCream game;
+    private IceCream player;
+
+    @BeforeEach
+    void setUp() throws IceException {
+        game = new DopoIceCream(10, 8);
+        player = new IceCream(1, 1, IceCreamFlavor.VANILLA);
+        game.addPlayer(player);
+    }
+
+    @Test
+    @DisplayName("GS-01: El jugador rompe hielo al entrar, no atraviesa muros y recoge frutas")
+    void testPlayerRules() {
+        // Arrange
+        game.placeWall(new IceWall(2, 1));
+        game.placeWall(new IndestructibleWall(1, 2));
+        game.addFruit(new Grape(3, 1));
+        game.addFruit(new Grape(8, 6));
+        GameSimulation sim = new GameSimulation(game, player);
+
+        // Act
+        sim.step(Direction.DOWN);
+        sim.step(Direction.RIGHT);
+        sim.step(Direction.RIGHT);
+
+        // Assert
+        assertEquals(3, sim.getPlayerX());
+        assertEquals(1, sim.getPlayerY());
+        assertFalse(sim.isIce(2, 1));
+        assertEquals(1, sim.getFruitsCollected());
+        assertEquals(1, sim.getRemainingFruits());
+        assertEquals(new Grape(0, 0).getPoints(), sim.getScore());
+        assertFalse(sim.isWon());
+        assertEquals(3, sim.getTick());
+    }
+
+    @Test
+    @DisplayName("GS-02: Los Trolls siguen su patrón y un choque cuesta una vida")
+    void testTrollAndCollision() {
+        // Arrange - Troll que se mueve hacia el jugador
+        Troll troll = new Troll(3, 1, new Direction[]{Direction.LEFT, Direction.LEFT, Direction.RIGHT, Direction.RIGHT});
+        game.addMonster(troll);
+        game.addFruit(new Grape(8, 6));
+        GameSimulation sim = new GameSimulation(game, player);
+
+        // Act
+        sim.step(Direction.RIGHT);
+
+        // Assert - el Troll llega a (2,1) y el jugador reaparece
+        assertEquals(2, sim.getMonsterX(0));
+        assertEquals(player.getLives() - 1, sim.getLives());
+        assertEquals(1, sim.getPlayerX());
+        assertEquals(1, sim.getPlayerY());
+        assertFalse(sim.isLost());
+    }
+
+    @Test
+    @DisplayName("GS-03: Las copias son independientes aunque compartan celdas")
+    void testForkIndependence() {
+        // Arrange
+        game.placeWall(new IceWall(2, 1));
+        game.addFruit(new Grape(8, 6));
+        game.addMonster(new Pot(8, 1));
+        GameSimulation root = new GameSimulation(game, player);
+        GameSimulation fork = root.copy();
+
+        // Act
+        fork.step(Direction.RIGHT);
+        GameSimulation again = root.copy();
+        again.copyFrom(fork);
+
+        // Assert
+        assertTrue(fork.isForkOf(root));
+        assertTrue(root.isIce(2, 1));
+        assertFalse(fork.isIce(2, 1));
+        assertEquals(1, root.getPlayerX());
+        assertEquals(8, root.getMonsterX(0));
+        assertEquals(7, fork.getMonsterX(0));
+        assertFalse(again.isIce(2, 1));
+        assertEquals(fork.getPlayerX(), again.getPlayerX());
+    }
+
+    @Test
+    @DisplayName("GS-04: Solo se copia entre simulaciones de la misma captura")
+    void testCopyFromOtherCapture() {
+        // Arrange
+        GameSimulation first = new GameSimulation(game, player);
+        GameSimulation second = new GameSimulation(game, player);
+
+        // Act & Assert
+        assertFalse(first.isForkOf(second));
+        assertThrows(IllegalArgumentException.class, () -> first.copyFrom(second));
+    }
+}
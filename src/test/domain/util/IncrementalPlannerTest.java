@@ -0,0 +1,149 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IceWall;
+import main.domain.enums.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para IncrementalPlanner (D* Lite).
+ */
+@DisplayName("IncrementalPlanner Tests")
+class IncrementalPlannerTest {
+
+    private Cell[][] map;
+    private PathFinder pathFinder;
+    private IncrementalPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        // Crear un mapa 20x20 vacío
+        map = new Cell[20][20];
+        for (int x = 0; x < 20; x++) {
+            for (int y = 0; y < 20; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        pathFinder = new PathFinder(map);
+        planner = new IncrementalPlanner(pathFinder);
+    }
+
+    /**
+     * Verifica que el paso elegido reduce en uno la distancia óptima.
+     */
+    private void assertOptimalStep(Direction dir, int x, int y, int tx, int ty) {
+        int before = pathFinder.findPath(x, y, tx, ty).size();
+        int nx = x + dir.getDeltaX();
+        int ny = y + dir.getDeltaY();
+        int after = nx == tx && ny == ty ? 0 : pathFinder.findPath(nx, ny, tx, ty).size();
+        assertEquals(before - 1, after);
+    }
+
+    @Test
+    @DisplayName("IP-01: Primer paso en línea recta")
+    void testStraightLine() {
+        // Act & Assert
+        assertEquals(Direction.RIGHT, planner.getNextDirection(0, 5, 10, 5));
+        assertEquals(Direction.UP, planner.getNextDirection(5, 10, 5, 0));
+    }
+
+    @Test
+    @DisplayName("IP-02: Sin camino o en el objetivo retorna null")
+    void testNoPath() {
+        // Arrange - encerrar el objetivo
+        int[][] around = {{9, 10}, {11, 10}, {10, 9}, {10, 11}};
+        for (int[] pos : around) {
+            map[pos[0]][pos[1]].setStaticObject(new IceWall(pos[0], pos[1]));
+            pathFinder.onCellChanged(pos[0], pos[1]);
+        }
+        
+        // Assert
+        assertNull(planner.getNextDirection(0, 0, 10, 10));
+        assertNull(planner.getNextDirection(3, 3, 3, 3));
+    }
+
+    @Test
+    @DisplayName("IP-03: Persecución con objetivo y muros cambiantes sigue pasos óptimos")
+    void testChaseWithChanges() {
+        Random random = new Random(11);
+        int x = 0;
+        int y = 0;
+        int tx = 19;
+        int ty = 19;
+        for (int tick = 0; tick < 60 && (x != tx || y != ty); tick++) {
+            // Act
+            Direction dir = planner.getNextDirection(x, y, tx, ty);
+            
+            // Assert
+            assertNotNull(dir);
+            assertOptimalStep(dir, x, y, tx, ty);
+            x += dir.getDeltaX();
+            y += dir.getDeltaY();
+            
+            // El objetivo se mueve y aparecen muros de hielo
+            Direction move = Direction.values()[random.nextInt(4)];
+            if (pathFinder.isWalkable(tx + move.getDeltaX(), ty + move.getDeltaY())) {
+                tx += move.getDeltaX();
+                ty += move.getDeltaY();
+            }
+            int wx = random.nextInt(20);
+            int wy = random.nextInt(20);
+            if ((wx != x || wy != y) && (wx != tx || wy != ty)) {
+                map[wx][wy].setStaticObject(new IceWall(wx, wy));
+                pathFinder.onCellChanged(wx, wy);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("IP-04: Replanificar hacia un objetivo quieto es casi gratuito")
+    void testRepairIsCheap() {
+        // Arrange
+        Direction first = planner.getNextDirection(0, 0, 19, 19);
+        int initial = planner.getLastExpandedNodes();
+        
+        // Act - el monstruo avanza un paso
+        planner.getNextDirection(first.getDeltaX(), first.getDeltaY(), 19, 19);
+        
+        // Assert
+        assertTrue(planner.getLastExpandedNodes() < initial / 4);
+    }
+
+    @Test
+    @DisplayName("reset obliga a planificar desde cero")
+    void testReset() {
+        // Arrange
+        planner.getNextDirection(0, 0, 19, 19);
+        
+        // Act
+        planner.reset();
+        Direction dir = planner.getNextDirection(0, 0, 19, 19);
+        
+        // Assert
+        assertNotNull(dir);
+        assertTrue(planner.getLastExpandedNodes() > 0);
+    }
+
+    @Test
+    @DisplayName("setMap invalida el plan previo")
+    void testSetMapInvalidates() {
+        // Arrange
+        planner.getNextDirection(0, 0, 0, 19);
+        for (int x = 0; x < 19; x++) {
+            map[x][10].setWalkable(false);
+        }
+        
+        // Act
+        pathFinder.setMap(map);
+        Direction dir = planner.getNextDirection(0, 0, 0, 19);
+        
+        // Assert
+        assertOptimalStep(dir, 0, 0, 0, 19);
+    }
+}
@@ -0,0 +1,107 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para IndexedMinHeap.
+ */
+@DisplayName("IndexedMinHeap Tests")
+class IndexedMinHeapTest {
+
+    private IndexedMinHeap heap;
+
+    @BeforeEach
+    void setUp() {
+        heap = new IndexedMinHeap(10);
+    }
+
+    @Test
+    @DisplayName("MH-01: Montículo nuevo está vacío")
+    void testNewHeapEmpty() {
+        // Assert
+        assertTrue(heap.isEmpty());
+        assertEquals(-1, heap.poll());
+        assertEquals(Long.MAX_VALUE, heap.peekKey());
+    }
+
+    @Test
+    @DisplayName("MH-02: Extrae en orden de prioridad")
+    void testPollOrder() {
+        // Arrange
+        heap.insertOrUpdate(3, 30);
+        heap.insertOrUpdate(1, 10);
+        heap.insertOrUpdate(7, 20);
+        
+        // Act & Assert
+        assertEquals(3, heap.size());
+        assertEquals(1, heap.poll());
+        assertEquals(7, heap.poll());
+        assertEquals(3, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    @DisplayName("MH-03: Actualizar prioridad reordena el nodo")
+    void testUpdatePriority() {
+        // Arrange
+        heap.insertOrUpdate(1, 10);
+        heap.insertOrUpdate(2, 20);
+        
+        // Act
+        heap.insertOrUpdate(2, 5);
+        
+        // Assert
+        assertEquals(2, heap.peek());
+        assertEquals(5, heap.getKey(2));
+        
+        // Act - empeorar la prioridad
+        heap.insertOrUpdate(2, 50);
+        
+        // Assert
+        assertEquals(1, heap.peek());
+    }
+
+    @Test
+    @DisplayName("MH-04: Eliminar un nodo intermedio")
+    void testRemove() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            heap.insertOrUpdate(i, 100 - i);
+        }
+        
+        // Act
+        heap.remove(5);
+        
+        // Assert
+        assertFalse(heap.contains(5));
+        long previous = Long.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            long key = heap.peekKey();
+            assertTrue(key >= previous);
+            previous = key;
+            assertNotEquals(5, heap.poll());
+        }
+    }
+
+    @Test
+    @DisplayName("clear vacía el montículo y permite reutilizarlo")
+    void testClear() {
+        // Arrange
+        heap.insertOrUpdate(4, 1);
+        heap.insertOrUpdate(6, 2);
+        
+        // Act
+        heap.clear();
+        
+        // Assert
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(4));
+        heap.insertOrUpdate(4, 3);
+        assertEquals(4, heap.poll());
+    }
+}
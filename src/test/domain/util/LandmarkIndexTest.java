@@ -0,0 +1,124 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IceWall;
+import main.domain.entities.IndestructibleWall;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para LandmarkIndex (heurística ALT).
+ */
+@DisplayName("LandmarkIndex Tests")
+class LandmarkIndexTest {
+
+    private Cell[][] map;
+    private PathFinder pathFinder;
+
+    @BeforeEach
+    void setUp() {
+        // Mapa 9x9 con una pared en x=4 abierta solo en y=8
+        map = new Cell[9][9];
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        for (int y = 0; y < 8; y++) {
+            map[4][y].setStaticObject(new IndestructibleWall(4, y));
+        }
+        pathFinder = new PathFinder(map);
+        pathFinder.setLandmarkCount(LandmarkIndex.DEFAULT_LANDMARK_COUNT);
+    }
+
+    private int cell(int x, int y) {
+        return x * 9 + y;
+    }
+
+    @Test
+    @DisplayName("LM-01: La estimación es cota inferior y supera a Manhattan")
+    void testEstimateIsLowerBound() {
+        // Arrange
+        LandmarkIndex index = pathFinder.getLandmarkIndex();
+
+        // Act
+        int estimate = index.estimate(cell(3, 0), cell(5, 0));
+        int real = pathFinder.findPath(3, 0, 5, 0).size();
+
+        // Assert
+        assertTrue(estimate <= real);
+        assertTrue(estimate > 2);
+        assertEquals(0, index.estimate(cell(2, 2), cell(2, 2)));
+    }
+
+    @Test
+    @DisplayName("LM-02: Bloquear una celda no obliga a recalcular")
+    void testBlockingKeepsDistances() {
+        // Arrange
+        LandmarkIndex index = pathFinder.getLandmarkIndex();
+        index.getLandmarkCount();
+        int rebuilds = index.getRebuildCount();
+
+        // Act
+        map[2][2].setStaticObject(new IceWall(2, 2));
+        pathFinder.onCellChanged(2, 2);
+        pathFinder.findPath(0, 0, 8, 0);
+
+        // Assert
+        assertTrue(index.isBuilt());
+        assertEquals(rebuilds, index.getRebuildCount());
+    }
+
+    @Test
+    @DisplayName("LM-03: Liberar una celda recalcula de forma perezosa")
+    void testOpeningInvalidates() {
+        // Arrange
+        IceWall ice = new IceWall(4, 0);
+        map[4][0].setStaticObject(ice);
+        pathFinder.setMap(map);
+        LandmarkIndex index = pathFinder.getLandmarkIndex();
+        index.getLandmarkCount();
+
+        // Act
+        ice.destroy();
+        pathFinder.onCellChanged(4, 0);
+
+        // Assert - no se recalcula hasta la siguiente búsqueda
+        assertFalse(index.isBuilt());
+        assertEquals(2, pathFinder.findPath(3, 0, 5, 0).size());
+        assertTrue(index.isBuilt());
+        assertTrue(index.estimate(cell(3, 0), cell(5, 0)) <= 2);
+    }
+
+    @Test
+    @DisplayName("LM-04: Cada zona aislada recibe su propio landmark")
+    void testIsolatedRegionsGetLandmarks() {
+        // Arrange - cerrar el hueco para partir el mapa en dos
+        map[4][8].setStaticObject(new IndestructibleWall(4, 8));
+        pathFinder.setMap(map);
+        pathFinder.setLandmarkCount(2);
+        LandmarkIndex index = pathFinder.getLandmarkIndex();
+
+        // Act
+        int first = index.getLandmarkCell(0) / 9;
+        int second = index.getLandmarkCell(1) / 9;
+
+        // Assert
+        assertTrue((first < 4) != (second < 4));
+    }
+
+    @Test
+    @DisplayName("setLandmarkCount(0) desactiva la heurística ALT")
+    void testDisable() {
+        // Act
+        pathFinder.setLandmarkCount(0);
+
+        // Assert
+        assertNull(pathFinder.getLandmarkIndex());
+        assertEquals(18, pathFinder.findPath(3, 0, 5, 0).size());
+    }
+}
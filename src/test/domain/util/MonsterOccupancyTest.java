@@ -0,0 +1,165 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IndestructibleWall;
+import main.domain.entities.Monster;
+import main.domain.entities.OrangeSquid;
+import main.domain.entities.Pot;
+import main.domain.entities.Troll;
+import main.domain.enums.CollisionPolicy;
+import main.domain.enums.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para MonsterOccupancy.
+ */
+@DisplayName("MonsterOccupancy Tests")
+class MonsterOccupancyTest {
+
+    private Cell[][] map;
+    private PathFinder pathFinder;
+    private MonsterOccupancy occupancy;
+
+    @BeforeEach
+    void setUp() {
+        // Mapa 10x10 abierto
+        map = new Cell[10][10];
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        pathFinder = new PathFinder(map);
+        occupancy = new MonsterOccupancy(pathFinder);
+    }
+
+    @Test
+    @DisplayName("MO-01: Se cuentan los monstruos de cada celda")
+    void testCounts() {
+        // Arrange
+        List<Monster> monsters = new ArrayList<>();
+        monsters.add(new Pot(2, 2));
+        monsters.add(new Troll(2, 2));
+        monsters.add(new OrangeSquid(5, 5));
+
+        // Act
+        occupancy.rebuild(monsters);
+        occupancy.remove(5, 5);
+        occupancy.add(-1, 3);
+
+        // Assert
+        assertEquals(2, occupancy.getCount(2, 2));
+        assertFalse(occupancy.isOccupied(5, 5));
+        assertEquals(0, occupancy.getCount(-1, 3));
+    }
+
+    @Test
+    @DisplayName("MO-02: Un Troll que choca espera y un OrangeSquid entra")
+    void testWaitAndAllow() {
+        // Arrange - un Pot en (3,2); el Troll y el squid llegan a su celda
+        Troll troll = new Troll(2, 2);
+        OrangeSquid squid = new OrangeSquid(3, 3);
+        List<Monster> monsters = new ArrayList<>();
+        monsters.add(new Pot(3, 2));
+        monsters.add(troll);
+        monsters.add(squid);
+        occupancy.rebuild(monsters);
+
+        // Act
+        troll.move(Direction.RIGHT);
+        boolean trollMoved = occupancy.resolve(troll, 2, 2);
+        squid.move(Direction.UP);
+        boolean squidMoved = occupancy.resolve(squid, 3, 3);
+
+        // Assert
+        assertFalse(trollMoved);
+        assertEquals(2, troll.getX());
+        assertTrue(squidMoved);
+        assertEquals(2, squid.getY());
+        assertEquals(2, occupancy.getCount(3, 2));
+        assertEquals(1, occupancy.getCount(2, 2));
+        assertFalse(occupancy.isOccupied(3, 3));
+        assertEquals(1, occupancy.getWaits());
+    }
+
+    @Test
+    @DisplayName("MO-03: Un Pot se aparta a un lado libre y transitable")
+    void testSidestep() {
+        // Arrange - Pot en (2,5) hacia la derecha, bloqueado en (3,5);
+        // arriba hay un muro, así que se aparta hacia abajo
+        Pot pot = new Pot(2, 5);
+        List<Monster> monsters = new ArrayList<>();
+        monsters.add(new Troll(3, 5));
+        monsters.add(pot);
+        occupancy.rebuild(monsters);
+        map[2][4].setStaticObject(new IndestructibleWall(2, 4));
+        pathFinder.onCellChanged(2, 4);
+
+        // Act
+        pot.move(Direction.RIGHT);
+        boolean moved = occupancy.resolve(pot, 2, 5);
+
+        // Assert
+        assertFalse(moved);
+        assertEquals(2, pot.getX());
+        assertEquals(6, pot.getY());
+        assertEquals(Direction.DOWN, pot.getCurrentDirection());
+        assertTrue(occupancy.isOccupied(2, 6));
+        assertFalse(occupancy.isOccupied(2, 5));
+        assertEquals(1, occupancy.getSidesteps());
+    }
+
+    @Test
+    @DisplayName("MO-04: Sin lado libre el Pot espera")
+    void testSidestepFallsBackToWait() {
+        // Arrange
+        Pot pot = new Pot(0, 0);
+        List<Monster> monsters = new ArrayList<>();
+        monsters.add(new Troll(1, 0));
+        monsters.add(new Troll(0, 1));
+        monsters.add(pot);
+        occupancy.rebuild(monsters);
+
+        // Act
+        pot.move(Direction.RIGHT);
+        boolean moved = occupancy.resolve(pot, 0, 0);
+
+        // Assert
+        assertFalse(moved);
+        assertEquals(0, pot.getX());
+        assertEquals(0, pot.getY());
+        assertEquals(1, occupancy.getCount(0, 0));
+        assertEquals(1, occupancy.getWaits());
+    }
+
+    @Test
+    @DisplayName("MO-05: Un Troll con patrón no se aparta y repite su paso")
+    void testTrollHoldsPattern() {
+        // Arrange - el Troll pide SIDESTEP, pero un patrón lo obliga a esperar
+        Troll troll = new Troll(2, 5, new Direction[]{Direction.RIGHT, Direction.LEFT});
+        troll.setCollisionPolicy(CollisionPolicy.SIDESTEP);
+        List<Monster> monsters = new ArrayList<>();
+        monsters.add(new Pot(3, 5));
+        monsters.add(troll);
+        occupancy.rebuild(monsters);
+
+        // Act
+        troll.update();
+        boolean moved = occupancy.resolve(troll, 2, 5);
+
+        // Assert
+        assertFalse(moved);
+        assertEquals(2, troll.getX());
+        assertEquals(5, troll.getY());
+        assertEquals(0, troll.getPatternIndex());
+        assertEquals(Direction.RIGHT, troll.getNextPatternMove());
+        assertEquals(0, occupancy.getSidesteps());
+    }
+}
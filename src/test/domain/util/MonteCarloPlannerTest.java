@@ -0,0 +1,112 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.DopoIceCream;
+import main.domain.entities.Grape;
+import main.domain.entities.IceCream;
+import main.domain.entities.IndestructibleWall;
+import main.domain.entities.Troll;
+import main.domain.enums.Direction;
+import main.domain.enums.IceCreamFlavor;
+import main.domain.exception.IceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para MonteCarloPlanner.
+ */
+@DisplayName("MonteCarloPlanner Tests")
+class MonteCarloPlannerTest {
+
+    private DopoIceCream game;
+    private IceCream player;
+    private MonteCarloPlanner planner;
+
+    @BeforeEach
+    void setUp() throws IceException {
+        game = new DopoIceCream(10, 8);
+        player = new IceCream(4, 4, IceCreamFlavor.VANILLA);
+        game.addPlayer(player);
+        planner = new MonteCarloPlanner(1, 7);
+        planner.setMaxRollouts(2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        planner.shutdown();
+    }
+
+    @Test
+    @DisplayName("MC-01: Recoge la fruta de al lado")
+    void testTakesAdjacentFruit() {
+        // Arrange
+        game.addFruit(new Grape(5, 4));
+        game.addFruit(new Grape(0, 0));
+
+        // Act
+        Direction move = planner.plan(new GameSimulation(game, player));
+
+        // Assert
+        assertEquals(Direction.RIGHT, move);
+        assertEquals(2000, planner.getLastRollouts());
+    }
+
+    @Test
+    @DisplayName("MC-02: No se mueve hacia donde pasará un Troll")
+    void testAvoidsMonster() {
+        // Arrange - la fruta está en el camino del Troll; el resto, cerrado
+        game.placeWall(new IndestructibleWall(4, 3));
+        game.placeWall(new IndestructibleWall(4, 5));
+        game.placeWall(new IndestructibleWall(3, 4));
+        game.addFruit(new Grape(9, 7));
+        game.addMonster(new Troll(6, 4, new Direction[]{Direction.LEFT, Direction.RIGHT}));
+
+        // Act
+        Direction move = planner.plan(new GameSimulation(game, player));
+
+        // Assert
+        assertNotEquals(Direction.RIGHT, move);
+        assertTrue(planner.getLastVisits(Direction.RIGHT) < planner.getLastVisits(null));
+    }
+
+    @Test
+    @DisplayName("MC-03: Con varios hilos se suman los árboles de todos")
+    void testRootParallelization() {
+        // Arrange
+        MonteCarloPlanner parallel = new MonteCarloPlanner(3, 7);
+        parallel.setMaxRollouts(300);
+        game.addFruit(new Grape(5, 4));
+
+        // Act
+        Direction move = parallel.plan(new GameSimulation(game, player));
+        parallel.shutdown();
+
+        // Assert
+        assertEquals(3, parallel.getThreads());
+        assertEquals(900, parallel.getLastRollouts());
+        assertEquals(Direction.RIGHT, move);
+    }
+
+    @Test
+    @DisplayName("MC-04: Sin límite de simulaciones la búsqueda termina al agotar el tiempo")
+    void testTimeBudget() {
+        // Arrange
+        planner.setMaxRollouts(0);
+        planner.setTimeBudgetMillis(20);
+        game.addFruit(new Grape(9, 7));
+
+        // Act
+        long started = System.nanoTime();
+        planner.plan(new GameSimulation(game, player));
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // Assert
+        assertTrue(planner.getLastRollouts() > 0);
+        assertTrue(elapsedMillis >= 20);
+        assertTrue(elapsedMillis < 2000);
+    }
+}
@@ -152,4 +152,97 @@ class MovementPatternTest {
             assertEquals(Direction.LEFT, pattern.getNextDirection());
         }
     }
+
+    @Test
+    @DisplayName("MP-06: Desplazamiento tras N pasos sin avanzar el patrón")
+    void testDeltaAfterSteps() {
+        // Arrange
+        MovementPattern drift = new MovementPattern(new Direction[]{
+            Direction.RIGHT, Direction.RIGHT, Direction.DOWN});
+        drift.setCurrentIndex(1);
+
+        // Act & Assert - desde el índice 1: RIGHT, DOWN, RIGHT, RIGHT, DOWN, ...
+        assertEquals(0, drift.getDeltaXAfter(0));
+        assertEquals(1, drift.getDeltaXAfter(1));
+        assertEquals(1, drift.getDeltaYAfter(2));
+        assertEquals(3, drift.getDeltaXAfter(4));
+        assertEquals(2 * 20 + 1, drift.getDeltaXAfter(3 * 20 + 1));
+        assertEquals(20, drift.getDeltaYAfter(3 * 20 + 1));
+        assertEquals(2, drift.getCycleDeltaX());
+        assertEquals(1, drift.getCycleDeltaY());
+        assertEquals(Direction.RIGHT, drift.getNextDirection());
+    }
+
+    @Test
+    @DisplayName("MP-07: Primer paso que alcanza un desplazamiento")
+    void testFirstStepsReaching() {
+        // Arrange
+        MovementPattern drift = new MovementPattern(new Direction[]{
+            Direction.RIGHT, Direction.RIGHT, Direction.DOWN});
+
+        // Act & Assert - patrón que avanza
+        assertEquals(0, drift.getFirstStepsReaching(0, 0, 0));
+        assertEquals(-1, drift.getFirstStepsReaching(0, 0, 1));
+        assertEquals(7, drift.getFirstStepsReaching(5, 2, 0));
+        assertEquals(-1, drift.getFirstStepsReaching(5, 1, 0));
+
+        // Act & Assert - patrón cerrado: se repite cada ciclo
+        assertEquals(1, pattern.getFirstStepsReaching(0, -1, 0));
+        assertEquals(9, pattern.getFirstStepsReaching(0, -1, 6));
+        assertEquals(-1, pattern.getFirstStepsReaching(3, 3, 0));
+    }
+
+    @Test
+    @DisplayName("MP-08: Un guion fijo se predice igual que un patrón de direcciones")
+    void testScriptPrediction() throws Exception {
+        // Arrange
+        MovementPattern scripted = MovementPattern.forScript(PatternScript.compile("R2 W (D L)2 W3"));
+        scripted.setCurrentIndex(3);
+        int x = 0;
+        int y = 0;
+
+        // Act & Assert - cada tick coincide con la predicción hecha desde el inicio
+        int[] predictedX = new int[40];
+        int[] predictedY = new int[40];
+        for (int t = 0; t < 40; t++) {
+            predictedX[t] = scripted.getDeltaXAfter(t);
+            predictedY[t] = scripted.getDeltaYAfter(t);
+        }
+        for (int t = 0; t < 40; t++) {
+            assertEquals(predictedX[t], x);
+            assertEquals(predictedY[t], y);
+            Direction direction = scripted.getNextDirection();
+            if (direction != null) {
+                x += direction.getDeltaX();
+                y += direction.getDeltaY();
+            }
+        }
+        assertEquals(10, scripted.getSize());
+        assertEquals(0, scripted.getCycleDeltaX());
+        assertEquals(2, scripted.getCycleDeltaY());
+        assertEquals(9, scripted.getFirstStepsReaching(0, 2, 1));
+    }
+
+    @Test
+    @DisplayName("MP-09: rollback deshace el paso dado desde mark")
+    void testMarkRollback() throws Exception {
+        // Arrange
+        MovementPattern scripted = MovementPattern.forScript(PatternScript.compile("(R D)2 L"));
+        scripted.getNextDirection();
+        pattern.getNextDirection();
+
+        // Act
+        scripted.mark();
+        pattern.mark();
+        Direction scriptedStep = scripted.getNextDirection();
+        Direction step = pattern.getNextDirection();
+        scripted.rollback();
+        pattern.rollback();
+
+        // Assert - el paso deshecho se repite
+        assertEquals(scriptedStep, scripted.getNextDirection());
+        assertEquals(step, pattern.getNextDirection());
+        assertEquals(2, pattern.getCurrentIndex());
+        assertEquals(2, scripted.getCurrentIndex());
+    }
 }
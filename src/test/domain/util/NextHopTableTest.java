@@ -0,0 +1,121 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IceWall;
+import main.domain.enums.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para NextHopTable.
+ */
+@DisplayName("NextHopTable Tests")
+class NextHopTableTest {
+
+    private Cell[][] map;
+    private PathFinder pathFinder;
+
+    @BeforeEach
+    void setUp() {
+        // Mapa 15x15 vacío con la tabla activada
+        map = new Cell[15][15];
+        for (int x = 0; x < 15; x++) {
+            for (int y = 0; y < 15; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        pathFinder = new PathFinder(map);
+        pathFinder.setNextHopMaxCells(NextHopTable.DEFAULT_MAX_CELLS);
+    }
+
+    @Test
+    @DisplayName("NH-01: Con la tabla al día el siguiente paso no busca")
+    void testLookupWithoutSearch() {
+        // Arrange
+        pathFinder.getNextHopTable().rebuild();
+
+        // Act
+        Direction next = pathFinder.getNextDirection(0, 0, 3, 0);
+
+        // Assert
+        assertTrue(pathFinder.getNextHopTable().isCurrent());
+        assertEquals(Direction.RIGHT, next);
+        assertEquals(0, pathFinder.getLastExpandedNodes());
+        assertNull(pathFinder.getNextDirection(4, 4, 4, 4));
+    }
+
+    @Test
+    @DisplayName("NH-02: Un cambio de mapa invalida la tabla y se usa la búsqueda")
+    void testInvalidatedByIce() {
+        // Arrange
+        pathFinder.getNextHopTable().rebuild();
+        for (int y = 0; y < 14; y++) {
+            map[1][y].setStaticObject(new IceWall(1, y));
+            pathFinder.onCellChanged(1, y);
+        }
+
+        assertFalse(pathFinder.getNextHopTable().isCurrent());
+
+        // Act
+        Direction next = pathFinder.getNextDirection(0, 0, 3, 0);
+
+        // Assert
+        assertEquals(Direction.DOWN, next);
+        assertTrue(pathFinder.getLastExpandedNodes() > 0);
+    }
+
+    @Test
+    @DisplayName("NH-03: La tabla se recalcula en segundo plano")
+    void testBackgroundRebuild() throws InterruptedException {
+        // Arrange
+        map[1][0].setStaticObject(new IceWall(1, 0));
+        pathFinder.onCellChanged(1, 0);
+        NextHopTable table = pathFinder.getNextHopTable();
+
+        // Act
+        table.requestRebuild();
+        for (int wait = 0; wait < 200 && !table.isCurrent(); wait++) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertTrue(table.isCurrent());
+        assertEquals(Direction.DOWN, pathFinder.getNextDirection(0, 0, 3, 0));
+    }
+
+    @Test
+    @DisplayName("Mapas mayores que el límite no usan tabla")
+    void testDisabledForLargeMaps() {
+        // Act
+        pathFinder.setNextHopMaxCells(100);
+
+        // Assert
+        assertNull(pathFinder.getNextHopTable());
+        assertEquals(Direction.RIGHT, pathFinder.getNextDirection(0, 0, 3, 0));
+    }
+
+    @Test
+    @DisplayName("NH-04: El límite de celdas no pasa de MAX_CELLS")
+    void testMaxCellsClamped() {
+        // Arrange
+        Cell[][] large = new Cell[100][100];
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 100; y++) {
+                large[x][y] = new Cell(x, y);
+            }
+        }
+        PathFinder largeFinder = new PathFinder(large);
+
+        // Act
+        largeFinder.setNextHopMaxCells(Integer.MAX_VALUE);
+
+        // Assert
+        assertEquals(NextHopTable.MAX_CELLS, largeFinder.getNextHopMaxCells());
+        assertNull(largeFinder.getNextHopTable());
+        assertThrows(IllegalArgumentException.class, () -> new NextHopTable(largeFinder, 100, 100));
+    }
+}
@@ -0,0 +1,104 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IceWall;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para PathFinderStats.
+ */
+@DisplayName("PathFinderStats Tests")
+class PathFinderStatsTest {
+
+    private PathFinder pathFinder;
+    private PathFinderStats session;
+    private PathFinderStats stats;
+
+    @BeforeEach
+    void setUp() {
+        // Mapa 10x10 con el jugador de (9,9) encerrado en hielo
+        Cell[][] map = new Cell[10][10];
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 10; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        map[8][9].setStaticObject(new IceWall(8, 9));
+        map[9][8].setStaticObject(new IceWall(9, 8));
+        pathFinder = new PathFinder(map);
+        session = new PathFinderStats();
+        stats = new PathFinderStats(session);
+        stats.setLatencySampling(1);
+        pathFinder.setStats(stats);
+    }
+
+    @Test
+    @DisplayName("ST-01: Cuenta consultas, nodos y resultados sin camino")
+    void testCounters() {
+        // Act
+        pathFinder.findPath(0, 0, 5, 5);
+        int expanded = pathFinder.getLastExpandedNodes();
+        int pushed = pathFinder.getLastPushedNodes();
+        pathFinder.getNextDirection(0, 0, 9, 9);
+
+        // Assert
+        assertEquals(2, stats.getQueries());
+        assertEquals(expanded, stats.getExpandedNodes());
+        assertEquals(pushed, stats.getPushedNodes());
+        assertTrue(pushed >= expanded);
+        assertEquals(1, stats.getUnreachable());
+    }
+
+    @Test
+    @DisplayName("ST-02: El agregado suma los contadores de sus hijos")
+    void testAggregate() {
+        // Arrange
+        PathFinderStats other = new PathFinderStats(session);
+        other.record(-1, 7, 9, true, 0);
+
+        // Act
+        pathFinder.findPath(0, 0, 3, 0);
+
+        // Assert
+        assertEquals(2, session.getQueries());
+        assertEquals(stats.getExpandedNodes() + 7, session.getExpandedNodes());
+        assertEquals(1, session.getCacheHits());
+        session.reset();
+        assertEquals(0, stats.getQueries());
+    }
+
+    @Test
+    @DisplayName("ST-03: Histograma logarítmico de latencias")
+    void testLatencyHistogram() {
+        // Act
+        pathFinder.findPath(0, 0, 5, 5);
+
+        // Assert
+        long measured = 0;
+        for (int b = 0; b < PathFinderStats.BUCKETS; b++) {
+            measured += stats.getLatencyCount(b);
+        }
+        assertEquals(1, measured);
+        assertTrue(stats.getLatencyPercentile(50) > 0);
+        assertEquals(0, PathFinderStats.bucketOf(0));
+        assertEquals(4, PathFinderStats.bucketOf(10));
+        assertEquals(15, PathFinderStats.getBucketUpperBound(4));
+    }
+
+    @Test
+    @DisplayName("Sin contadores no se registra nada")
+    void testDisabled() {
+        // Act
+        pathFinder.setStats(null);
+        pathFinder.findPath(0, 0, 5, 5);
+
+        // Assert
+        assertNull(pathFinder.getStats());
+        assertEquals(0, stats.getQueries());
+    }
+}
@@ -3,12 +3,20 @@ package test.domain.util;
 import main.domain.util.*;
 
 import main.domain.entities.Cell;
+import main.domain.entities.Cherry;
+import main.domain.entities.IceWall;
 import main.domain.entities.IndestructibleWall;
+import main.domain.entities.Pot;
 import main.domain.enums.Direction;
+import main.domain.enums.SearchStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Random;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -114,6 +122,7 @@ class PathFinderTest {
     void testIsValidPositionWall() {
         // Arrange
         map[2][2].setStaticObject(new IndestructibleWall(2, 2));
+        pathFinder.onCellChanged(2, 2);
         
         // Assert
         assertTrue(pathFinder.isValidPosition(2, 2)); // Es posición válida
@@ -262,4 +271,422 @@ class PathFinderTest {
         assertFalse(path.isEmpty());
         // El camino debe rodear el muro
     }
+
+    /**
+     * Crea un mapa vacío de las dimensiones dadas.
+     */
+    private static Cell[][] createMap(int width, int height) {
+        Cell[][] cells = new Cell[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                cells[x][y] = new Cell(x, y);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Verifica que un camino lleva del origen al destino por celdas transitables.
+     */
+    private static void assertValidPath(PathFinder finder, List<Direction> path,
+                                        int startX, int startY, int endX, int endY) {
+        int x = startX;
+        int y = startY;
+        for (Direction dir : path) {
+            x += dir.getDeltaX();
+            y += dir.getDeltaY();
+            assertTrue(finder.isWalkable(x, y));
+        }
+        assertEquals(endX, x);
+        assertEquals(endY, y);
+    }
+
+    @Test
+    @DisplayName("PF-11: Estrategia por defecto es A*")
+    void testDefaultStrategy() {
+        assertEquals(SearchStrategy.A_STAR, pathFinder.getSearchStrategy());
+    }
+
+    @Test
+    @DisplayName("PF-12: Jump Point Search encuentra camino óptimo")
+    void testJumpPointOptimal() {
+        // Arrange
+        PathFinder jps = new PathFinder(map, SearchStrategy.JUMP_POINT);
+        
+        // Act
+        List<Direction> path = jps.findPath(0, 0, 4, 4);
+        
+        // Assert
+        assertEquals(8, path.size());
+        assertValidPath(jps, path, 0, 0, 4, 4);
+    }
+
+    @Test
+    @DisplayName("PF-13: Jump Point Search coincide con A* en mapas aleatorios")
+    void testJumpPointMatchesAStar() {
+        java.util.Random random = new java.util.Random(42);
+        for (int round = 0; round < 30; round++) {
+            // Arrange - mapa 20x20 con 30% de muros
+            Cell[][] cells = createMap(20, 20);
+            for (int x = 0; x < 20; x++) {
+                for (int y = 0; y < 20; y++) {
+                    if ((x > 0 || y > 0) && random.nextInt(10) < 3) {
+                        cells[x][y].setStaticObject(new IndestructibleWall(x, y));
+                    }
+                }
+            }
+            PathFinder astar = new PathFinder(cells);
+            PathFinder jps = new PathFinder(cells, SearchStrategy.JUMP_POINT);
+            int endX = random.nextInt(20);
+            int endY = random.nextInt(20);
+            
+            // Act
+            List<Direction> expected = astar.findPath(0, 0, endX, endY);
+            List<Direction> actual = jps.findPath(0, 0, endX, endY);
+            
+            // Assert
+            assertEquals(expected.size(), actual.size());
+            if (!actual.isEmpty()) {
+                assertValidPath(jps, actual, 0, 0, endX, endY);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("PF-14: Jump Point Search expande menos nodos en mapas abiertos")
+    void testJumpPointFewerExpansions() {
+        // Arrange - arena abierta 60x60 con algunos pilares
+        Cell[][] arena = createMap(60, 60);
+        for (int x = 10; x < 60; x += 12) {
+            for (int y = 10; y < 60; y += 12) {
+                arena[x][y].setStaticObject(new IndestructibleWall(x, y));
+            }
+        }
+        PathFinder astar = new PathFinder(arena);
+        PathFinder jps = new PathFinder(arena, SearchStrategy.JUMP_POINT);
+        
+        // Act
+        List<Direction> expected = astar.findPath(0, 30, 59, 5);
+        int astarExpanded = astar.getLastExpandedNodes();
+        List<Direction> actual = jps.findPath(0, 30, 59, 5);
+        int jpsExpanded = jps.getLastExpandedNodes();
+        
+        // Assert
+        assertEquals(expected.size(), actual.size());
+        assertTrue(jpsExpanded * 3 < astarExpanded,
+                "JPS=" + jpsExpanded + " A*=" + astarExpanded);
+    }
+
+    @Test
+    @DisplayName("setSearchStrategy con null usa A*")
+    void testSetSearchStrategyNull() {
+        // Act
+        pathFinder.setSearchStrategy(SearchStrategy.JUMP_POINT);
+        pathFinder.setSearchStrategy(null);
+        
+        // Assert
+        assertEquals(SearchStrategy.A_STAR, pathFinder.getSearchStrategy());
+    }
+
+    @Test
+    @DisplayName("onCellChanged registra el cambio y setMap cambia la versión")
+    void testChangeTracking() {
+        // Arrange
+        long changes = pathFinder.getChangeCount();
+        int version = pathFinder.getMapVersion();
+        
+        // Act
+        pathFinder.onCellChanged(1, 1);
+        pathFinder.onCellChanged(-1, 1);
+        pathFinder.setMap(map);
+        
+        // Assert
+        assertEquals(changes + 1, pathFinder.getChangeCount());
+        assertNotEquals(version, pathFinder.getMapVersion());
+        assertEquals(5, pathFinder.getWidth());
+        assertEquals(5, pathFinder.getHeight());
+    }
+
+    @Test
+    @DisplayName("PF-15: Camino ponderado atraviesa hielo si el rodeo es largo")
+    void testWeightedPathCrossesIce() {
+        // Arrange - columna de hielo en x=2 con un hueco en el borde inferior
+        Cell[][] cells = createMap(5, 9);
+        for (int y = 0; y < 8; y++) {
+            cells[2][y].setStaticObject(new IceWall(2, y));
+        }
+        PathFinder finder = new PathFinder(cells);
+
+        // Act
+        List<Direction> cheap = finder.findWeightedPath(0, 0, 4, 0, 1);
+        List<Direction> expensive = finder.findWeightedPath(0, 0, 4, 0, 50);
+
+        // Assert - con penalización baja rompe el hielo, con alta rodea
+        assertEquals(4, cheap.size());
+        assertEquals(20, expensive.size());
+        assertEquals(20, finder.findPath(0, 0, 4, 0).size());
+    }
+
+    @Test
+    @DisplayName("PF-16: Camino ponderado llega a un objetivo encerrado en hielo")
+    void testWeightedPathReachesSealedGoal() {
+        // Arrange
+        Cell[][] cells = createMap(5, 5);
+        cells[3][2].setStaticObject(new IceWall(3, 2));
+        cells[1][2].setStaticObject(new IceWall(1, 2));
+        cells[2][1].setStaticObject(new IceWall(2, 1));
+        cells[2][3].setStaticObject(new IceWall(2, 3));
+        PathFinder finder = new PathFinder(cells);
+
+        // Act
+        Direction next = finder.getNextWeightedDirection(0, 2, 2, 2, 10);
+
+        // Assert
+        assertTrue(finder.findPath(0, 2, 2, 2).isEmpty());
+        assertEquals(Direction.RIGHT, next);
+        assertTrue(finder.isIce(1, 2));
+        assertFalse(finder.isIce(0, 2));
+        assertNull(finder.getNextWeightedDirection(0, 2, 0, 2, 10));
+    }
+
+    @Test
+    @DisplayName("PF-17: Presupuesto por tick se consume y se repone")
+    void testNodeBudget() {
+        // Arrange
+        PathFinder finder = new PathFinder(createMap(20, 20));
+        PathRequest request = new PathRequest(finder);
+        assertEquals(Integer.MAX_VALUE, finder.getRemainingBudget());
+        finder.setNodeBudget(3);
+
+        // Act
+        Direction dir = request.getNextDirection(0, 0, 19, 19, 0);
+
+        // Assert - la búsqueda queda pendiente hasta el siguiente tick
+        assertNull(dir);
+        assertTrue(request.isPending());
+        assertEquals(0, finder.getRemainingBudget());
+        finder.beginTick();
+        assertEquals(3, finder.getRemainingBudget());
+    }
+
+    @Test
+    @DisplayName("PF-18: Dirección voraz esquiva el eje bloqueado")
+    void testGreedyDirection() {
+        // Arrange
+        Cell[][] cells = createMap(5, 5);
+        cells[1][0].setStaticObject(new IndestructibleWall(1, 0));
+        PathFinder finder = new PathFinder(cells);
+
+        // Assert
+        assertEquals(Direction.RIGHT, finder.getGreedyDirection(0, 1, 4, 2));
+        assertEquals(Direction.DOWN, finder.getGreedyDirection(0, 0, 4, 2));
+        assertNull(finder.getGreedyDirection(0, 0, 4, 0));
+        assertNull(finder.getGreedyDirection(2, 2, 2, 2));
+    }
+
+    /**
+     * Genera un laberinto de pasillos de una celda con algunos ciclos.
+     */
+    private static Cell[][] createMaze(int size, Random random) {
+        Cell[][] cells = createMap(size, size);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                cells[x][y].setStaticObject(new IndestructibleWall(x, y));
+            }
+        }
+        Deque<int[]> stack = new ArrayDeque<>();
+        cells[1][1].setStaticObject(null);
+        stack.push(new int[]{1, 1});
+        int[][] steps = {{2, 0}, {-2, 0}, {0, 2}, {0, -2}};
+        while (!stack.isEmpty()) {
+            int[] current = stack.peek();
+            List<int[]> options = new ArrayList<>();
+            for (int[] step : steps) {
+                int nx = current[0] + step[0];
+                int ny = current[1] + step[1];
+                if (nx > 0 && ny > 0 && nx < size - 1 && ny < size - 1 && cells[nx][ny].getStaticObject() != null) {
+                    options.add(new int[]{nx, ny});
+                }
+            }
+            if (options.isEmpty()) {
+                stack.pop();
+                continue;
+            }
+            int[] next = options.get(random.nextInt(options.size()));
+            cells[(current[0] + next[0]) / 2][(current[1] + next[1]) / 2].setStaticObject(null);
+            cells[next[0]][next[1]].setStaticObject(null);
+            stack.push(next);
+        }
+        for (int i = 0; i < size; i++) {
+            cells[1 + random.nextInt(size - 2)][1 + random.nextInt(size - 2)].setStaticObject(null);
+        }
+        return cells;
+    }
+
+    @Test
+    @DisplayName("PF-19: Landmarks reducen las expansiones en un laberinto")
+    void testLandmarksReduceExpansions() {
+        // Arrange
+        Random random = new Random(5);
+        Cell[][] cells = createMaze(61, random);
+        PathFinder alt = new PathFinder(cells);
+        alt.setLandmarkCount(LandmarkIndex.DEFAULT_LANDMARK_COUNT);
+        PathFinder manhattan = new PathFinder(cells);
+        manhattan.setLandmarkCount(0);
+        long altExpanded = 0;
+        long manhattanExpanded = 0;
+
+        // Act
+        for (int query = 0; query < 30; query++) {
+            int sx;
+            int sy;
+            int ex;
+            int ey;
+            do {
+                sx = random.nextInt(61);
+                sy = random.nextInt(61);
+            } while (!alt.isWalkable(sx, sy));
+            do {
+                ex = random.nextInt(61);
+                ey = random.nextInt(61);
+            } while (!alt.isWalkable(ex, ey));
+            assertEquals(manhattan.findPath(sx, sy, ex, ey).size(), alt.findPath(sx, sy, ex, ey).size());
+            altExpanded += alt.getLastExpandedNodes();
+            manhattanExpanded += manhattan.getLastExpandedNodes();
+        }
+
+        // Assert
+        assertTrue(altExpanded * 3 < manhattanExpanded);
+    }
+
+    @Test
+    @DisplayName("PF-20: CORRIDOR da caminos óptimos expandiendo menos nodos")
+    void testCorridorStrategy() {
+        // Arrange
+        Random random = new Random(9);
+        Cell[][] cells = createMaze(41, random);
+        PathFinder corridor = new PathFinder(cells, SearchStrategy.CORRIDOR);
+        PathFinder aStar = new PathFinder(cells);
+        aStar.setLandmarkCount(0);
+        long corridorExpanded = 0;
+        long aStarExpanded = 0;
+
+        // Act
+        for (int query = 0; query < 30; query++) {
+            int sx;
+            int sy;
+            int ex;
+            int ey;
+            do {
+                sx = random.nextInt(41);
+                sy = random.nextInt(41);
+            } while (!aStar.isWalkable(sx, sy));
+            do {
+                ex = random.nextInt(41);
+                ey = random.nextInt(41);
+            } while (!aStar.isWalkable(ex, ey));
+            List<Direction> path = corridor.findPath(sx, sy, ex, ey);
+            assertEquals(aStar.findPath(sx, sy, ex, ey).size(), path.size());
+            int x = sx;
+            int y = sy;
+            for (Direction dir : path) {
+                x += dir.getDeltaX();
+                y += dir.getDeltaY();
+                assertTrue(corridor.isWalkable(x, y));
+            }
+            assertEquals(ex, x);
+            assertEquals(ey, y);
+            corridorExpanded += corridor.getLastExpandedNodes();
+            aStarExpanded += aStar.getLastExpandedNodes();
+        }
+
+        // Assert
+        assertTrue(corridorExpanded * 3 < aStarExpanded);
+    }
+
+    @Test
+    @DisplayName("PF-21: El camino compacto coincide con la lista de direcciones")
+    void testCompactPath() {
+        // Arrange
+        Cell[][] cells = createMaze(41, new Random(4));
+        PathFinder aStar = new PathFinder(cells);
+        PathFinder jumpPoint = new PathFinder(cells, SearchStrategy.JUMP_POINT);
+
+        // Act
+        CompactPath compact = aStar.findCompactPath(1, 1, 39, 39);
+        CompactPath jumped = jumpPoint.findCompactPath(1, 1, 39, 39);
+
+        // Assert
+        assertEquals(aStar.findPath(1, 1, 39, 39), compact.asList());
+        assertEquals(compact.size(), jumped.size());
+        assertEquals(compact.first(), aStar.getNextDirection(1, 1, 39, 39));
+        assertEquals((compact.size() + 31) / 32 * Long.BYTES, compact.getEncodedBytes());
+        assertSame(CompactPath.EMPTY, aStar.findCompactPath(1, 1, 1, 1));
+    }
+
+    @Test
+    @DisplayName("PF-22: findPaths responde a varios orígenes con un solo BFS")
+    void testFindPathsBatched() {
+        // Arrange
+        Cell[][] cells = createMaze(41, new Random(6));
+        PathFinder finder = new PathFinder(cells);
+        List<Pot> pots = List.of(new Pot(1, 1), new Pot(39, 1), new Pot(1, 39), new Pot(0, 0));
+
+        // Act
+        List<CompactPath> paths = finder.findPaths(pots, 39, 39);
+        int batchExpanded = finder.getLastExpandedNodes();
+
+        // Assert
+        assertEquals(4, paths.size());
+        for (int i = 0; i < 3; i++) {
+            Pot pot = pots.get(i);
+            assertEquals(finder.findPath(pot.getX(), pot.getY(), 39, 39).size(), paths.get(i).size());
+        }
+        assertTrue(paths.get(3).isEmpty());
+        assertTrue(batchExpanded <= 41 * 41);
+    }
+
+    @Test
+    @DisplayName("PF-23: findNearest elige el objetivo más cercano en pasos reales")
+    void testFindNearest() {
+        // Arrange - la cereza de (2,0) está más cerca en línea recta pero tras un muro
+        Cell[][] cells = createMap(5, 5);
+        for (int y = 0; y < 4; y++) {
+            cells[1][y].setStaticObject(new IndestructibleWall(1, y));
+        }
+        PathFinder finder = new PathFinder(cells);
+        Cherry behindWall = new Cherry(2, 0);
+        Cherry open = new Cherry(0, 4);
+        List<Cherry> cherries = List.of(behindWall, open);
+
+        // Act
+        Cherry nearest = finder.findNearest(0, 0, cherries);
+
+        // Assert
+        assertSame(open, nearest);
+        assertEquals(4, finder.getLastNearestPath().size());
+        assertEquals(Direction.DOWN, finder.getLastNearestPath().first());
+        assertNull(finder.findNearest(0, 0, List.of(new Cherry(9, 9))));
+    }
+
+    @Test
+    @DisplayName("PF-24: Las búsquedas usan la copia de transitabilidad notificada")
+    void testWalkabilitySnapshot() {
+        // Arrange
+        IceWall ice = new IceWall(2, 0);
+
+        // Act - cambio sin notificar: la copia no lo ve todavía
+        map[2][0].setStaticObject(ice);
+        boolean beforeNotify = pathFinder.isWalkable(2, 0);
+        pathFinder.onCellChanged(2, 0);
+
+        // Assert
+        assertTrue(beforeNotify);
+        assertFalse(pathFinder.isWalkable(2, 0));
+        assertTrue(pathFinder.isIce(2, 0));
+        ice.destroy();
+        pathFinder.onCellChanged(2, 0);
+        assertTrue(pathFinder.isWalkable(2, 0));
+        assertFalse(pathFinder.isIce(2, 0));
+    }
 }
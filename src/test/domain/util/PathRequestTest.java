@@ -0,0 +1,160 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IceWall;
+import main.domain.enums.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para PathRequest (búsqueda reanudable con presupuesto).
+ */
+@DisplayName("PathRequest Tests")
+class PathRequestTest {
+
+    private Cell[][] map;
+    private PathFinder pathFinder;
+    private PathRequest request;
+
+    @BeforeEach
+    void setUp() {
+        // Crear un mapa 20x20 vacío
+        map = new Cell[20][20];
+        for (int x = 0; x < 20; x++) {
+            for (int y = 0; y < 20; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        pathFinder = new PathFinder(map);
+        request = new PathRequest(pathFinder);
+    }
+
+    @Test
+    @DisplayName("PR-01: Sin presupuesto termina en una sola consulta")
+    void testUnlimitedBudget() {
+        // Act
+        Direction dir = request.getNextDirection(0, 5, 10, 5, PathFinder.ICE_BLOCKS);
+
+        // Assert
+        assertEquals(Direction.RIGHT, dir);
+        assertFalse(request.isPending());
+    }
+
+    @Test
+    @DisplayName("PR-02: Con presupuesto la búsqueda se reanuda en varios ticks")
+    void testResumesAcrossTicks() {
+        // Arrange - una pared con un solo hueco obliga a rodear
+        for (int y = 0; y < 19; y++) {
+            map[10][y].setStaticObject(new IceWall(10, y));
+        }
+        pathFinder.setMap(map);
+        pathFinder.setNodeBudget(5);
+
+        // Act
+        int ticks = 0;
+        Direction dir;
+        do {
+            pathFinder.beginTick();
+            dir = request.getNextDirection(5, 0, 15, 0, PathFinder.ICE_BLOCKS);
+            ticks++;
+            assertTrue(request.getLastExpandedNodes() <= 5);
+        } while (dir == null && request.isPending());
+
+        // Assert
+        assertTrue(ticks > 1);
+        assertNotNull(dir);
+        int before = pathFinder.findPath(5, 0, 15, 0).size();
+        int after = pathFinder.findPath(5 + dir.getDeltaX(), dir.getDeltaY(), 15, 0).size();
+        assertEquals(before - 1, after);
+    }
+
+    @Test
+    @DisplayName("PR-03: Tras completar, seguir el camino no cuesta expansiones")
+    void testFollowingPathIsFree() {
+        // Arrange
+        Direction dir = request.getNextDirection(0, 0, 19, 19, PathFinder.ICE_BLOCKS);
+        int x = dir.getDeltaX();
+        int y = dir.getDeltaY();
+
+        // Act
+        Direction next = request.getNextDirection(x, y, 19, 19, PathFinder.ICE_BLOCKS);
+
+        // Assert
+        assertNotNull(next);
+        assertEquals(0, request.getLastExpandedNodes());
+    }
+
+    @Test
+    @DisplayName("PR-04: Con penalización atraviesa hielo; con ICE_BLOCKS no hay camino")
+    void testIcePenalty() {
+        // Arrange - encerrar el objetivo
+        int[][] around = {{9, 10}, {11, 10}, {10, 9}, {10, 11}};
+        for (int[] pos : around) {
+            map[pos[0]][pos[1]].setStaticObject(new IceWall(pos[0], pos[1]));
+            pathFinder.onCellChanged(pos[0], pos[1]);
+        }
+
+        // Assert - la penalización significa lo mismo que en PathFinder
+        assertNull(request.getNextDirection(10, 5, 10, 10, PathFinder.ICE_BLOCKS));
+        assertEquals(Direction.DOWN, request.getNextDirection(10, 5, 10, 10, 5));
+        assertEquals(Direction.DOWN, request.getNextDirection(10, 5, 10, 10, 0));
+        assertNull(pathFinder.getNextWeightedDirection(10, 5, 10, 10, PathFinder.ICE_BLOCKS));
+        assertEquals(Direction.DOWN, pathFinder.getNextWeightedDirection(10, 5, 10, 10, 0));
+    }
+
+    @Test
+    @DisplayName("Cambios en el mapa reinician la búsqueda")
+    void testMapChangeRestarts() {
+        // Arrange
+        assertEquals(Direction.RIGHT, request.getNextDirection(0, 0, 19, 0, PathFinder.ICE_BLOCKS));
+
+        // Act
+        map[1][0].setStaticObject(new IceWall(1, 0));
+        pathFinder.onCellChanged(1, 0);
+
+        // Assert
+        assertEquals(Direction.DOWN, request.getNextDirection(0, 0, 19, 0, PathFinder.ICE_BLOCKS));
+    }
+
+    @Test
+    @DisplayName("PR-05: Con el objetivo moviéndose cada tick la búsqueda termina")
+    void testMovingTargetCompletes() {
+        // Arrange - rodear una pared con presupuesto pequeño
+        for (int y = 0; y < 19; y++) {
+            map[10][y].setStaticObject(new IceWall(10, y));
+        }
+        pathFinder.setMap(map);
+        pathFinder.setNodeBudget(5);
+
+        // Act - el objetivo alterna de celda en cada tick
+        Direction dir = null;
+        for (int tick = 0; tick < 200 && dir == null; tick++) {
+            pathFinder.beginTick();
+            dir = request.getNextDirection(5, 0, 15, tick % 2, PathFinder.ICE_BLOCKS);
+        }
+
+        // Assert
+        assertNotNull(dir);
+        assertFalse(request.isPending());
+    }
+
+    @Test
+    @DisplayName("PR-06: Cambios fuera de la zona explorada no reinician la búsqueda")
+    void testUnexploredChangeKeepsSearch() {
+        // Arrange
+        assertEquals(Direction.RIGHT, request.getNextDirection(0, 0, 19, 0, PathFinder.ICE_BLOCKS));
+
+        // Act
+        map[0][19].setStaticObject(new IceWall(0, 19));
+        pathFinder.onCellChanged(0, 19);
+        Direction next = request.getNextDirection(1, 0, 19, 0, PathFinder.ICE_BLOCKS);
+
+        // Assert
+        assertEquals(Direction.RIGHT, next);
+        assertEquals(0, request.getLastExpandedNodes());
+    }
+}
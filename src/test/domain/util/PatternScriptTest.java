@@ -0,0 +1,98 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IndestructibleWall;
+import main.domain.entities.Troll;
+import main.domain.enums.Direction;
+import main.domain.enums.ErrorCode;
+import main.domain.exception.IceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para PatternScript.
+ */
+@DisplayName("PatternScript Tests")
+class PatternScriptTest {
+
+    @Test
+    @DisplayName("PS-01: Un guion fijo se compila y precalcula su ciclo")
+    void testCompileFixedScript() throws IceException {
+        // Act
+        PatternScript script = PatternScript.compile("R3, (D W2)2 l");
+
+        // Assert - R, bucle, D, W, fin de bucle, L
+        assertEquals(6, script.getInstructionCount());
+        assertEquals(1, script.getLoopSlots());
+        assertTrue(script.isFixed());
+        assertTrue(script.isPredictable());
+        assertArrayEquals(new Direction[]{
+            Direction.RIGHT, Direction.RIGHT, Direction.RIGHT,
+            Direction.DOWN, null, null, Direction.DOWN, null, null,
+            Direction.LEFT}, script.getCycle());
+    }
+
+    @Test
+    @DisplayName("PS-02: Los errores de sintaxis lanzan LEVEL_LOAD_ERROR")
+    void testSyntaxErrors() {
+        for (String source : new String[]{null, "R(", "R)", "X", "R0", "()2", "R|D*", "U|D|L|R|U", "R\u0663"}) {
+            IceException e = assertThrows(IceException.class, () -> PatternScript.compile(source));
+            assertEquals(ErrorCode.LEVEL_LOAD_ERROR, e.getErrorCode());
+        }
+    }
+
+    @Test
+    @DisplayName("PS-03: Los giros condicionales y los avances hasta bloqueo miran el mapa")
+    void testConditionalInstructions() throws IceException {
+        // Arrange - mapa 6x6 con un muro en (3,1)
+        Cell[][] map = new Cell[6][6];
+        for (int x = 0; x < 6; x++) {
+            for (int y = 0; y < 6; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        map[3][1].setStaticObject(new IndestructibleWall(3, 1));
+        PatternScript script = PatternScript.compile("R* D R|U");
+        Troll troll = new Troll(0, 1);
+        troll.setScript(script);
+        troll.setPathFinder(new PathFinder(map));
+        int[][] expected = {{1, 1}, {2, 1}, {2, 2}, {3, 2}, {4, 2}, {5, 2}, {5, 3}, {5, 2}};
+
+        // Act & Assert
+        assertFalse(script.isFixed());
+        assertFalse(troll.isPredictable());
+        for (int[] cell : expected) {
+            troll.followPattern();
+            assertEquals(cell[0], troll.getX());
+            assertEquals(cell[1], troll.getY());
+        }
+    }
+
+    @Test
+    @DisplayName("PS-04: Los monstruos que comparten un guion llevan su propio estado")
+    void testSharedScript() throws IceException {
+        // Arrange
+        PatternScript script = PatternScript.compile("(R2 (U)2)3 W");
+        MovementPattern first = MovementPattern.forScript(script);
+        MovementPattern second = MovementPattern.forScript(script);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            first.getNextDirection();
+        }
+
+        // Assert
+        assertSame(script, first.getScript());
+        assertEquals(2, script.getLoopSlots());
+        assertEquals(13, script.getCycleLength());
+        assertEquals(5, first.getCurrentIndex());
+        assertEquals(0, second.getCurrentIndex());
+        assertEquals(Direction.RIGHT, first.getCurrentDirection());
+        assertEquals(Direction.RIGHT, second.getCurrentDirection());
+        assertEquals(Direction.RIGHT, first.getNextDirection());
+        assertEquals(Direction.UP, first.getNextDirection());
+    }
+}
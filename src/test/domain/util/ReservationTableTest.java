@@ -0,0 +1,66 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para ReservationTable.
+ */
+@DisplayName("ReservationTable Tests")
+class ReservationTableTest {
+
+    @Test
+    @DisplayName("RT-01: Reservar y consultar pares (celda, tick)")
+    void testReserveAndQuery() {
+        // Arrange
+        ReservationTable table = new ReservationTable();
+
+        // Act
+        table.reserve(10, 0, 1);
+        table.reserve(10, 1, 2);
+
+        // Assert
+        assertEquals(1, table.getHolder(10, 0));
+        assertEquals(2, table.getHolder(10, 1));
+        assertEquals(ReservationTable.FREE, table.getHolder(10, 2));
+        assertTrue(table.isReservedByOther(10, 1, 1));
+        assertFalse(table.isReservedByOther(10, 1, 2));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    @DisplayName("RT-02: clear libera todas las reservas")
+    void testClear() {
+        // Arrange
+        ReservationTable table = new ReservationTable();
+        table.reserve(3, 4, 7);
+
+        // Act
+        table.clear();
+
+        // Assert
+        assertEquals(ReservationTable.FREE, table.getHolder(3, 4));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    @DisplayName("RT-03: La tabla crece sin perder reservas")
+    void testGrow() {
+        // Arrange
+        ReservationTable table = new ReservationTable(16);
+
+        // Act
+        for (int cell = 0; cell < 500; cell++) {
+            table.reserve(cell, cell % 8, cell);
+        }
+
+        // Assert
+        assertEquals(500, table.size());
+        for (int cell = 0; cell < 500; cell++) {
+            assertEquals(cell, table.getHolder(cell, cell % 8));
+        }
+    }
+}
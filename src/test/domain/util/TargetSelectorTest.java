@@ -0,0 +1,153 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.entities.Cell;
+import main.domain.entities.IceCream;
+import main.domain.entities.IceWall;
+import main.domain.entities.Player;
+import main.domain.entities.Pot;
+import main.domain.enums.IceCreamFlavor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para TargetSelector.
+ */
+@DisplayName("TargetSelector Tests")
+class TargetSelectorTest {
+
+    private Cell[][] map;
+    private PathFinder pathFinder;
+    private TargetSelector selector;
+    private List<Player> players;
+    private IceCream left;
+    private IceCream right;
+
+    @BeforeEach
+    void setUp() {
+        // Crear un mapa 20x10 vacío con un jugador en cada extremo
+        map = new Cell[20][10];
+        for (int x = 0; x < 20; x++) {
+            for (int y = 0; y < 10; y++) {
+                map[x][y] = new Cell(x, y);
+            }
+        }
+        pathFinder = new PathFinder(map);
+        selector = new TargetSelector(pathFinder);
+        left = new IceCream(0, 5, IceCreamFlavor.VANILLA);
+        right = new IceCream(19, 5, IceCreamFlavor.CHOCOLATE);
+        players = new ArrayList<>();
+        players.add(left);
+        players.add(right);
+    }
+
+    @Test
+    @DisplayName("TS-01: Cada celda conoce su jugador más cercano")
+    void testNearestPlayer() {
+        // Act
+        selector.update(players);
+
+        // Assert
+        assertSame(left, selector.getNearestPlayer(3, 5));
+        assertSame(right, selector.getNearestPlayer(16, 2));
+        assertEquals(3, selector.getDistance(3, 5));
+        assertEquals(0, selector.getDistance(19, 5));
+    }
+
+    @Test
+    @DisplayName("TS-02: Los muros cuentan en la distancia")
+    void testWallsAffectDistance() {
+        // Arrange - aislar al jugador izquierdo
+        for (int y = 0; y < 10; y++) {
+            map[1][y].setStaticObject(new IceWall(1, y));
+            pathFinder.onCellChanged(1, y);
+        }
+
+        // Act
+        selector.update(players);
+
+        // Assert
+        assertSame(right, selector.getNearestPlayer(3, 5));
+        assertEquals(16, selector.getDistance(3, 5));
+    }
+
+    @Test
+    @DisplayName("TS-03: Jugadores muertos no son objetivo")
+    void testDeadPlayersIgnored() {
+        // Arrange
+        left.kill();
+
+        // Act
+        selector.update(players);
+
+        // Assert
+        assertSame(right, selector.getNearestPlayer(0, 0));
+        left.respawn();
+        selector.update(players);
+        assertSame(left, selector.getNearestPlayer(0, 0));
+    }
+
+    @Test
+    @DisplayName("TS-04: Histéresis evita cambiar de objetivo por poco")
+    void testHysteresis() {
+        // Arrange - el monstruo está un poco más cerca del jugador derecho
+        Pot pot = new Pot(10, 5);
+        pot.setTarget(left);
+        selector.update(players);
+
+        // Act & Assert - espera switchDelay ticks antes de cambiar
+        for (int tick = 0; tick < TargetSelector.DEFAULT_SWITCH_DELAY; tick++) {
+            assertSame(left, selector.selectTarget(pot));
+        }
+        assertSame(right, selector.selectTarget(pot));
+    }
+
+    @Test
+    @DisplayName("TS-05: Cambia de inmediato si el otro está mucho más cerca")
+    void testSwitchesOnLargeAdvantage() {
+        // Arrange
+        Pot pot = new Pot(17, 5);
+        pot.setTarget(left);
+        selector.update(players);
+
+        // Act
+        selector.assignTargets(List.of(pot));
+
+        // Assert
+        assertSame(right, pot.getTarget());
+    }
+
+    @Test
+    @DisplayName("Sin jugadores vivos no hay objetivo")
+    void testNoPlayers() {
+        // Act
+        selector.update(new ArrayList<>());
+
+        // Assert
+        assertNull(selector.getNearestPlayer(5, 5));
+        assertEquals(TargetSelector.UNREACHABLE, selector.getDistance(5, 5));
+    }
+
+    @Test
+    @DisplayName("TS-06: forget descarta la histéresis de un monstruo eliminado")
+    void testForget() {
+        // Arrange - el Pot queda con un cambio de objetivo pendiente
+        Pot pot = new Pot(10, 5);
+        pot.setTarget(left);
+        selector.update(players);
+        selector.selectTarget(pot);
+
+        // Act
+        int pending = selector.getPendingCount();
+        selector.forget(pot);
+
+        // Assert
+        assertEquals(1, pending);
+        assertEquals(0, selector.getPendingCount());
+    }
+}
@@ -0,0 +1,171 @@
+package test.domain.util;
+
+import main.domain.util.*;
+
+import main.domain.DopoIceCream;
+import main.domain.entities.Grape;
+import main.domain.entities.IceCream;
+import main.domain.entities.IceWall;
+import main.domain.entities.IndestructibleWall;
+import main.domain.entities.Pot;
+import main.domain.enums.Direction;
+import main.domain.enums.IceCreamFlavor;
+import main.domain.exception.IceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.nio.FloatBuffer;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para VectorGameEnvironment.
+ */
+@DisplayName("VectorGameEnvironment Tests")
+class VectorGameEnvironmentTest {
+
+    private static final int WIDTH = 8;
+    private static final int HEIGHT = 6;
+
+    private VectorGameEnvironment env;
+
+    @AfterEach
+    void tearDown() {
+        if (env != null) {
+            env.close();
+        }
+    }
+
+    /**
+     * Nivel 8x6: jugador en (1,1), uvas en (2,1) y (6,4), hielo en (4,2),
+     * un muro en (0,0) y un Pot en (7,5).
+     */
+    private static DopoIceCream level(int index) {
+        try {
+            DopoIceCream game = new DopoIceCream(WIDTH, HEIGHT);
+            game.addPlayer(new IceCream(1, 1, IceCreamFlavor.VANILLA));
+            game.addFruit(new Grape(2, 1));
+            game.addFruit(new Grape(6, 4));
+            game.placeWall(new IceWall(4, 2));
+            game.placeWall(new IndestructibleWall(0, 0));
+            game.addMonster(new Pot(7, 5));
+            return game;
+        } catch (IceException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static float at(FloatBuffer obs, int env, int channel, int x, int y) {
+        return obs.get(((env * VectorGameEnvironment.CHANNELS + channel) * HEIGHT + y) * WIDTH + x);
+    }
+
+    @Test
+    @DisplayName("VE-01: La observación tiene un plano por tipo de objeto")
+    void testObservationChannels() throws IceException {
+        // Arrange & Act
+        env = new VectorGameEnvironment(2, VectorGameEnvironmentTest::level, 1, false);
+        FloatBuffer obs = env.getObservations();
+
+        // Assert
+        assertEquals(VectorGameEnvironment.CHANNELS * WIDTH * HEIGHT, env.getObservationSize());
+        assertEquals(2 * env.getObservationSize(), obs.capacity());
+        assertEquals(1f, at(obs, 1, VectorGameEnvironment.CHANNEL_WALL, 0, 0));
+        assertEquals(1f, at(obs, 1, VectorGameEnvironment.CHANNEL_ICE, 4, 2));
+        assertEquals(1f, at(obs, 1, VectorGameEnvironment.CHANNEL_FRUIT, 2, 1));
+        assertEquals(1f, at(obs, 1, VectorGameEnvironment.CHANNEL_FRUIT, 6, 4));
+        assertEquals(1f, at(obs, 1, VectorGameEnvironment.CHANNEL_MONSTER, 7, 5));
+        assertEquals(1f, at(obs, 1, VectorGameEnvironment.CHANNEL_PLAYER, 1, 1));
+        assertEquals(0f, at(obs, 1, VectorGameEnvironment.CHANNEL_WALL, 4, 2));
+        float total = 0;
+        for (int i = 0; i < obs.capacity(); i++) {
+            total += obs.get(i);
+        }
+        assertEquals(2 * 6, total);
+    }
+
+    @Test
+    @DisplayName("VE-02: Recoger una fruta da recompensa y actualiza la observación")
+    void testStepReward() throws IceException {
+        // Arrange
+        env = new VectorGameEnvironment(2, VectorGameEnvironmentTest::level, 1, false);
+
+        // Act
+        env.step(new int[]{Direction.RIGHT.ordinal(), VectorGameEnvironment.STAY});
+        FloatBuffer obs = env.getObservations();
+
+        // Assert
+        assertEquals(new Grape(0, 0).getPoints() * VectorGameEnvironment.SCORE_REWARD, env.getRewards()[0], 1e-6);
+        assertEquals(0f, env.getRewards()[1]);
+        assertFalse(env.getDones()[0]);
+        assertEquals(1f, at(obs, 0, VectorGameEnvironment.CHANNEL_PLAYER, 2, 1));
+        assertEquals(0f, at(obs, 0, VectorGameEnvironment.CHANNEL_FRUIT, 2, 1));
+        assertEquals(1f, at(obs, 1, VectorGameEnvironment.CHANNEL_PLAYER, 1, 1));
+        assertEquals(1f, at(obs, 1, VectorGameEnvironment.CHANNEL_FRUIT, 2, 1));
+    }
+
+    @Test
+    @DisplayName("VE-03: Un episodio truncado se reinicia con una partida nueva")
+    void testAutoReset() throws IceException {
+        // Arrange
+        env = new VectorGameEnvironment(1, VectorGameEnvironmentTest::level, 1, true);
+        env.setMaxSteps(3);
+        DopoIceCream first = env.getGame(0);
+        int stay = VectorGameEnvironment.STAY;
+
+        // Act
+        env.step(new int[]{Direction.RIGHT.ordinal()});
+        env.step(new int[]{stay});
+        boolean doneBefore = env.getDones()[0];
+        env.step(new int[]{stay});
+
+        // Assert
+        assertTrue(env.getObservations().isDirect());
+        assertFalse(doneBefore);
+        assertTrue(env.getDones()[0]);
+        assertTrue(env.getTruncated()[0]);
+        assertNotSame(first, env.getGame(0));
+        assertEquals(1f, at(env.getObservations(), 0, VectorGameEnvironment.CHANNEL_PLAYER, 1, 1));
+        assertEquals(1f, at(env.getObservations(), 0, VectorGameEnvironment.CHANNEL_FRUIT, 2, 1));
+    }
+
+    @Test
+    @DisplayName("VE-04: Avanzar en paralelo da lo mismo que en un solo hilo")
+    void testParallelMatchesSequential() throws IceException {
+        // Arrange
+        env = new VectorGameEnvironment(7, VectorGameEnvironmentTest::level, 3, false);
+        VectorGameEnvironment sequential = new VectorGameEnvironment(7, VectorGameEnvironmentTest::level, 1, false);
+        env.setMaxSteps(25);
+        sequential.setMaxSteps(25);
+        Random random = new Random(11);
+        int[] actions = new int[7];
+
+        // Act & Assert
+        for (int step = 0; step < 60; step++) {
+            for (int i = 0; i < actions.length; i++) {
+                actions[i] = random.nextInt(VectorGameEnvironment.STAY + 1);
+            }
+            env.step(actions);
+            sequential.step(actions);
+            assertArrayEquals(sequential.getRewards(), env.getRewards());
+            assertArrayEquals(sequential.getDones(), env.getDones());
+            assertEquals(sequential.getObservations(), env.getObservations());
+        }
+    }
+
+    @Test
+    @DisplayName("VE-05: Los niveles deben medir lo mismo y las acciones ser una por partida")
+    void testInvalidArguments() throws IceException {
+        // Arrange
+        env = new VectorGameEnvironment(2, VectorGameEnvironmentTest::level, 1, false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> env.step(new int[1]));
+        assertThrows(IllegalArgumentException.class, () -> new VectorGameEnvironment(2, i -> {
+            try {
+                return i == 0 ? level(i) : new DopoIceCream(WIDTH + 1, HEIGHT);
+            } catch (IceException e) {
+                throw new IllegalStateException(e);
+            }
+        }, 1, false));
+    }
+}